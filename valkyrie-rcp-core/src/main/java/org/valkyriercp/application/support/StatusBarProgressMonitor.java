@@ -19,6 +19,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.StringUtils;
 import org.valkyriercp.factory.AbstractControlFactory;
+import org.valkyriercp.util.EventListenerListHelper;
 
 import javax.swing.*;
 import javax.swing.border.BevelBorder;
@@ -67,6 +68,8 @@ public class StatusBarProgressMonitor extends AbstractControlFactory implements
 
 	private int delayProgress = DEFAULT_DELAY_PROGRESS;
 
+	private final EventListenerListHelper cancelListeners = new EventListenerListHelper(ActionListener.class);
+
     private Logger logger = LoggerFactory.getLogger(getClass());
 
 	protected JButton createCancelButton() {
@@ -150,8 +153,25 @@ public class StatusBarProgressMonitor extends AbstractControlFactory implements
 	}
 
 	public void setCanceled(boolean b) {
+		boolean canceled = b && !isCanceled;
 		isCanceled = b;
 		cancelButton.setEnabled(!b);
+		if (canceled) {
+			cancelListeners.fire("actionPerformed", new ActionEvent(this,
+					ActionEvent.ACTION_PERFORMED, "cancel"));
+		}
+	}
+
+	/**
+	 * Adds a listener notified when the task is canceled, instead of polling
+	 * {@link #isCanceled()}.
+	 */
+	public void addCancelListener(ActionListener listener) {
+		cancelListeners.add(listener);
+	}
+
+	public void removeCancelListener(ActionListener listener) {
+		cancelListeners.remove(listener);
 	}
 
 	public void setCancelEnabled(boolean enabled) {
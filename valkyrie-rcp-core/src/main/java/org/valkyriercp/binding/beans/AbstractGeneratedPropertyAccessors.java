@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.binding.beans;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * Base class for generated {@link GeneratedPropertyAccessors}.
+ */
+public abstract class AbstractGeneratedPropertyAccessors implements GeneratedPropertyAccessors {
+
+	private final Class targetClass;
+
+	private final String[] propertyNames;
+
+	protected AbstractGeneratedPropertyAccessors(Class targetClass, String[] propertyNames) {
+		this.targetClass = targetClass;
+		this.propertyNames = propertyNames;
+	}
+
+	public Class getTargetClass() {
+		return targetClass;
+	}
+
+	public String[] getPropertyNames() {
+		return propertyNames.clone();
+	}
+
+	/**
+	 * Checks that the value can be assigned to a property of the given type.
+	 * Used by generated setters to report type mismatches the same way
+	 * reflection does.
+	 *
+	 * @return the value.
+	 * @throws IllegalArgumentException if the value does not match.
+	 */
+	protected static Object checkValue(String propertyName, Class propertyType, Object value) {
+		if (!ClassUtils.isAssignableValue(propertyType, value)) {
+			throw new IllegalArgumentException("Value '" + value + "' is not assignable to property '"
+					+ propertyName + "' of type " + propertyType.getName());
+		}
+		return value;
+	}
+
+	protected IllegalArgumentException notReadable(String propertyName) {
+		return new IllegalArgumentException("Property '" + propertyName + "' of " + targetClass.getName()
+				+ " is not readable");
+	}
+
+	protected IllegalArgumentException notWritable(String propertyName) {
+		return new IllegalArgumentException("Property '" + propertyName + "' of " + targetClass.getName()
+				+ " is not writable");
+	}
+}
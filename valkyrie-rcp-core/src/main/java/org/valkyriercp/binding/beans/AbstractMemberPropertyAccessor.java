@@ -48,9 +48,9 @@ public abstract class AbstractMemberPropertyAccessor extends AbstractPropertyAcc
 
 	private final boolean fieldAccessEnabled;
 
-	private final Map readAccessors = new HashMap();
+	private static final Object[] NO_INDICES = new Object[0];
 
-	private final Map writeAccessors = new HashMap();
+	private MemberPropertyMetadata metadata = MemberPropertyMetadata.EMPTY;
 
 	/**
 	 * Creates a new <tt>AbstractMemberPropertyAccessor</tt>.
@@ -65,75 +65,16 @@ public abstract class AbstractMemberPropertyAccessor extends AbstractPropertyAcc
 	}
 
 	/**
-	 * Clears all cached members and introspect methods again. If fieldAccess is
-	 * enabled introspect fields as well.
+	 * Switches to the members of the given class. If fieldAccess is enabled
+	 * fields are used as well. The introspection results are shared
+	 * process-wide, so a class is only introspected once.
 	 *
 	 * @param targetClass the target class.
+	 * @see MemberPropertyMetadataRegistry
 	 */
 	protected void setTargetClass(Class targetClass) {
 		this.targetClass = targetClass;
-		this.readAccessors.clear();
-		this.writeAccessors.clear();
-		introspectMethods(targetClass, new HashSet());
-		if (isFieldAccessEnabled()) {
-			introspectFields(targetClass, new HashSet());
-		}
-	}
-
-	/**
-	 * Introspect fields of a class. This excludes static fields and handles
-	 * final fields as readOnly.
-	 *
-	 * @param type the class to inspect.
-	 * @param introspectedClasses a set of already inspected classes.
-	 */
-	private void introspectFields(Class type, Set introspectedClasses) {
-		if (type == null || Object.class.equals(type) || type.isInterface() || introspectedClasses.contains(type)) {
-			return;
-		}
-		introspectedClasses.add(type);
-		introspectFields(type.getSuperclass(), introspectedClasses);
-		Field[] fields = type.getDeclaredFields();
-		for (int i = 0; i < fields.length; i++) {
-			if (!Modifier.isStatic(fields[i].getModifiers())) {
-				readAccessors.put(fields[i].getName(), fields[i]);
-				if (!Modifier.isFinal(fields[i].getModifiers())) {
-					writeAccessors.put(fields[i].getName(), fields[i]);
-				}
-			}
-		}
-	}
-
-	/**
-	 * Introspect class for accessor methods. This includes methods starting
-	 * with 'get', 'set' and 'is'.
-	 *
-	 * @param type class to introspect.
-	 * @param introspectedClasses set of already inspected classes.
-	 */
-	private void introspectMethods(Class type, Set introspectedClasses) {
-		if (type == null || Object.class.equals(type) || introspectedClasses.contains(type)) {
-			return;
-		}
-		introspectedClasses.add(type);
-		Class[] interfaces = type.getInterfaces();
-		for (int i = 0; i < interfaces.length; i++) {
-			introspectMethods(interfaces[i], introspectedClasses);
-		}
-		introspectMethods(type.getSuperclass(), introspectedClasses);
-		Method[] methods = type.getDeclaredMethods();
-		for (int i = 0; i < methods.length; i++) {
-			String methodName = methods[i].getName();
-			if (methodName.startsWith("get") && methods[i].getParameterTypes().length == 0) {
-				readAccessors.put(getPropertyName(methodName, 3), methods[i]);
-			}
-			else if (methodName.startsWith("is") && methods[i].getParameterTypes().length == 0) {
-				readAccessors.put(getPropertyName(methodName, 2), methods[i]);
-			}
-			else if (methodName.startsWith("set") && methods[i].getParameterTypes().length == 1) {
-				writeAccessors.put(getPropertyName(methodName, 3), methods[i]);
-			}
-		}
+		this.metadata = MemberPropertyMetadataRegistry.getMetadata(targetClass, isFieldAccessEnabled());
 	}
 
 	/**
@@ -150,6 +91,13 @@ public abstract class AbstractMemberPropertyAccessor extends AbstractPropertyAcc
 		return targetClass;
 	}
 
+	/**
+	 * Returns the shared introspection results of the target class.
+	 */
+	protected MemberPropertyMetadata getMemberPropertyMetadata() {
+		return metadata;
+	}
+
 	/**
 	 * Return the read accessor for the given property.
 	 *
@@ -157,7 +105,7 @@ public abstract class AbstractMemberPropertyAccessor extends AbstractPropertyAcc
 	 * @return a Member to read the property or <code>null</code>.
 	 */
 	protected Member getReadPropertyAccessor(String propertyName) {
-		return (Member) readAccessors.get(propertyName);
+		return metadata.getReadAccessor(propertyName);
 	}
 
 	/**
@@ -167,7 +115,7 @@ public abstract class AbstractMemberPropertyAccessor extends AbstractPropertyAcc
 	 * @return a Member to write the property or <code>null</code>.
 	 */
 	protected Member getWritePropertyAccessor(String propertyName) {
-		return (Member) writeAccessors.get(propertyName);
+		return metadata.getWriteAccessor(propertyName);
 	}
 
 	/**
@@ -177,28 +125,25 @@ public abstract class AbstractMemberPropertyAccessor extends AbstractPropertyAcc
 	 * @return an accessor for the property or <code>null</code>
 	 */
 	protected Member getPropertyAccessor(String propertyName) {
-		if (readAccessors.containsKey(propertyName)) {
-			return (Member) readAccessors.get(propertyName);
-		}
-		else {
-			return (Member) writeAccessors.get(propertyName);
-		}
+		Member readAccessor = metadata.getReadAccessor(propertyName);
+		return readAccessor != null ? readAccessor : metadata.getWriteAccessor(propertyName);
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	public boolean isReadableProperty(String propertyName) {
-		if (PropertyAccessorUtils.isIndexedProperty(propertyName)) {
-			String rootProperty = getRootPropertyName(propertyName);
-			String parentProperty = getParentPropertyName(propertyName);
+		PropertyPath propertyPath = PropertyPath.valueOf(propertyName);
+		if (propertyPath.isIndexed()) {
+			String rootProperty = propertyPath.getRootPropertyName();
+			String parentProperty = propertyPath.getParentPropertyName();
 			return isReadableProperty(rootProperty)
 					&& checkKeyTypes(propertyName)
 					&& (!getPropertyType(parentProperty).isArray() || checkSize(propertyName) || isWritableProperty(parentProperty))
 					&& ((isReadableProperty(parentProperty) && getPropertyValue(parentProperty) != null) || isWritableProperty(parentProperty));
 		}
 		else {
-			return readAccessors.containsKey(propertyName);
+			return metadata.getReadAccessor(propertyName) != null;
 		}
 	}
 
@@ -206,12 +151,12 @@ public abstract class AbstractMemberPropertyAccessor extends AbstractPropertyAcc
 	 * {@inheritDoc}
 	 */
 	public boolean isWritableProperty(String propertyName) {
-		if (PropertyAccessorUtils.isIndexedProperty(propertyName)) {
+		if (PropertyPath.valueOf(propertyName).isIndexed()) {
 			// if an indexed property is readable it is writable, too
 			return isReadableProperty(propertyName);
 		}
 		else {
-			return writeAccessors.containsKey(propertyName);
+			return metadata.getWriteAccessor(propertyName) != null;
 		}
 	}
 
@@ -219,10 +164,15 @@ public abstract class AbstractMemberPropertyAccessor extends AbstractPropertyAcc
 	 * {@inheritDoc}
 	 */
 	public Class getPropertyType(String propertyName) {
-		if (PropertyAccessorUtils.isIndexedProperty(propertyName)) {
-			int nestingLevel = PropertyAccessorUtils.getNestingLevel(propertyName);
+		PropertyPath propertyPath = PropertyPath.valueOf(propertyName);
+		if (propertyPath.isIndexed()) {
+			int nestingLevel = propertyPath.getNestingLevel();
+			String rootPropertyName = propertyPath.getRootPropertyName();
 			if (JdkVersion.getMajorJavaVersion() >= JdkVersion.JAVA_15) {
-				Member accessor = getPropertyAccessor(getRootPropertyName(propertyName));
+				if (nestingLevel == 1 && metadata.hasIndexedValueType(rootPropertyName)) {
+					return metadata.getIndexedValueType(rootPropertyName);
+				}
+				Member accessor = getPropertyAccessor(rootPropertyName);
 				if (accessor instanceof Field) {
 					return GenericCollectionTypeResolver.getIndexedValueFieldType((Field) accessor, nestingLevel);
 				}
@@ -235,7 +185,7 @@ public abstract class AbstractMemberPropertyAccessor extends AbstractPropertyAcc
 			}
 			else {
 				// we can only resolve array types in Java 1.4
-				Class type = getPropertyType(getRootPropertyName(propertyName));
+				Class type = getPropertyType(rootPropertyName);
 				for (int i = 0; i < nestingLevel; i++) {
 					if (type.isArray()) {
 						type = type.getComponentType();
@@ -248,22 +198,8 @@ public abstract class AbstractMemberPropertyAccessor extends AbstractPropertyAcc
 			}
 		}
 		else {
-			Member readAccessor = (Member) readAccessors.get(propertyName);
-			if (readAccessor instanceof Field) {
-				return ((Field) readAccessor).getType();
-			}
-			else if (readAccessor instanceof Method) {
-				return ((Method) readAccessor).getReturnType();
-			}
-			Member writeAccessor = (Member) writeAccessors.get(propertyName);
-			if (writeAccessor instanceof Field) {
-				return ((Field) writeAccessor).getType();
-			}
-			else if (writeAccessor instanceof Method) {
-				return ((Method) writeAccessor).getParameterTypes()[0];
-			}
+			return metadata.getPropertyType(propertyName);
 		}
-		return null;
 	}
 
 	/**
@@ -276,16 +212,21 @@ public abstract class AbstractMemberPropertyAccessor extends AbstractPropertyAcc
 	 * if the jdk is less than 1.5, a specific type if the map was generified.
 	 */
 	public Class getIndexedPropertyKeyType(String propertyName) {
-		if (!PropertyAccessorUtils.isIndexedProperty(propertyName)) {
+		PropertyPath propertyPath = PropertyPath.valueOf(propertyName);
+		if (!propertyPath.isIndexed()) {
 			throw new IllegalArgumentException("'" + propertyName + "' is no indexed property");
 		}
-		Class type = getPropertyType(getParentPropertyName(propertyName));
+		Class type = getPropertyType(propertyPath.getParentPropertyName());
 		if (!Map.class.isAssignableFrom(type)) {
 			return Integer.class;
 		}
 		if (JdkVersion.getMajorJavaVersion() >= JdkVersion.JAVA_15) {
-			int nestingLevel = PropertyAccessorUtils.getNestingLevel(propertyName) - 1;
-			Member accessor = getPropertyAccessor(getRootPropertyName(propertyName));
+			int nestingLevel = propertyPath.getNestingLevel() - 1;
+			String rootPropertyName = propertyPath.getRootPropertyName();
+			if (nestingLevel == 0 && metadata.hasIndexedKeyType(rootPropertyName)) {
+				return metadata.getIndexedKeyType(rootPropertyName);
+			}
+			Member accessor = getPropertyAccessor(rootPropertyName);
 			if (accessor instanceof Field) {
 				return GenericCollectionTypeResolver.getMapKeyFieldType((Field) accessor, nestingLevel);
 			}
@@ -307,7 +248,7 @@ public abstract class AbstractMemberPropertyAccessor extends AbstractPropertyAcc
 	 * {@inheritDoc}
 	 */
 	public Object getPropertyValue(String propertyName) throws BeansException {
-		if (PropertyAccessorUtils.isIndexedProperty(propertyName)) {
+		if (PropertyPath.valueOf(propertyName).isIndexed()) {
 			return getIndexedPropertyValue(propertyName);
 		}
 		else {
@@ -319,7 +260,7 @@ public abstract class AbstractMemberPropertyAccessor extends AbstractPropertyAcc
 	 * {@inheritDoc}
 	 */
 	public void setPropertyValue(String propertyName, Object value) throws BeansException {
-		if (PropertyAccessorUtils.isIndexedProperty(propertyName)) {
+		if (PropertyPath.valueOf(propertyName).isIndexed()) {
 			setIndexedPropertyValue(propertyName, value);
 		}
 		else {
@@ -379,8 +320,7 @@ public abstract class AbstractMemberPropertyAccessor extends AbstractPropertyAcc
 	 * @return the root property.
 	 */
 	protected String getRootPropertyName(String propertyName) {
-		int location = propertyName.indexOf(PROPERTY_KEY_PREFIX);
-		return location == -1 ? propertyName : propertyName.substring(0, location);
+		return PropertyPath.valueOf(propertyName).getRootPropertyName();
 	}
 
 	/**
@@ -390,12 +330,7 @@ public abstract class AbstractMemberPropertyAccessor extends AbstractPropertyAcc
 	 * @return the empty string or the parent property name if it was indexed.
 	 */
 	protected String getParentPropertyName(String propertyName) {
-		if (!PropertyAccessorUtils.isIndexedProperty(propertyName)) {
-			return "";
-		}
-		else {
-			return propertyName.substring(0, propertyName.lastIndexOf(PROPERTY_KEY_PREFIX_CHAR));
-		}
+		return PropertyPath.valueOf(propertyName).getParentPropertyName();
 	}
 
 	protected boolean checkKeyTypes(String propertyName) {
@@ -408,20 +343,34 @@ public abstract class AbstractMemberPropertyAccessor extends AbstractPropertyAcc
 		}
 	}
 
+	/**
+	 * Returns the index values of an indexed property, converted to the key
+	 * types of the indexed collections or maps. The converted values are
+	 * cached with the interned {@link PropertyPath}, so the returned array
+	 * must not be modified.
+	 *
+	 * @param propertyName the name of the property.
+	 * @return the converted index values.
+	 */
 	protected Object[] getIndices(String propertyName) {
-		int location = propertyName.indexOf(PROPERTY_KEY_PREFIX);
-		if (location == -1) {
-			return new Object[0];
-		}
-		String[] indexStrings = split(propertyName.substring(location));
-		Object[] indices = new Object[indexStrings.length];
-		String rootPropertyName = getRootPropertyName(propertyName);
-		String indexedPropertyName = rootPropertyName;
+		PropertyPath propertyPath = PropertyPath.valueOf(propertyName);
+		if (!propertyPath.isIndexed()) {
+			Assert.isTrue(propertyName.indexOf(PROPERTY_KEY_PREFIX) == -1);
+			return NO_INDICES;
+		}
+		Object[] indices = propertyPath.getConvertedIndices(metadata);
+		if (indices != null) {
+			return indices;
+		}
+		String[] indexStrings = propertyPath.getKeys();
+		indices = new Object[indexStrings.length];
+		String indexedPropertyName = propertyPath.getRootPropertyName();
 		for (int i = 0; i < indices.length; i++) {
 			indexedPropertyName += '[' + indexStrings[i] + ']';
 			Class keyType = getIndexedPropertyKeyType(indexedPropertyName);
 			indices[i] = convert(keyType, indexStrings[i]);
 		}
+		propertyPath.setConvertedIndices(metadata, indices);
 		return indices;
 	}
 
@@ -434,20 +383,6 @@ public abstract class AbstractMemberPropertyAccessor extends AbstractPropertyAcc
 		return editor.getValue();
 	}
 
-	private String[] split(String indices) {
-		Assert.isTrue(indices.startsWith(PROPERTY_KEY_PREFIX));
-		Assert.isTrue(indices.endsWith(PROPERTY_KEY_SUFFIX));
-		List result = new ArrayList();
-		int fromIndex = 1;
-		int toIndex = -1;
-		while ((toIndex = indices.indexOf("][", fromIndex)) != -1) {
-			result.add(indices.substring(fromIndex, toIndex));
-			fromIndex = toIndex + 2;
-		}
-		result.add(indices.substring(fromIndex, indices.length() - 1));
-		return (String[]) result.toArray(new String[result.size()]);
-	}
-
 	private boolean checkSize(String propertyName) {
 		String parentPropertyName = getParentPropertyName(propertyName);
 		if (!getPropertyType(parentPropertyName).isArray()) {
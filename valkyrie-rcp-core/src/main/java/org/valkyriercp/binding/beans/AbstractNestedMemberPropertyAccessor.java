@@ -87,44 +87,62 @@ public abstract class AbstractNestedMemberPropertyAccessor extends
 
 	@Override
 	public boolean isReadableProperty(String propertyPath) {
-		if (PropertyAccessorUtils.isNestedProperty(propertyPath)) {
-			String baseProperty = getBasePropertyName(propertyPath);
-			String childPropertyPath = getChildPropertyPath(propertyPath);
+		return isReadableProperty(PropertyPath.valueOf(propertyPath));
+	}
+
+	/**
+	 * Same as {@link #isReadableProperty(String)}, but for an already parsed
+	 * property path.
+	 */
+	public boolean isReadableProperty(PropertyPath propertyPath) {
+		if (propertyPath.isNested()) {
+			String baseProperty = propertyPath.getBasePropertyName();
 			if (!super.isReadableProperty(baseProperty)) {
 				return false;
 			} else {
-				return ((PropertyAccessor) childPropertyAccessors
-						.get(baseProperty))
-						.isReadableProperty(childPropertyPath);
+				return getChildAccessor(baseProperty).isReadableProperty(
+						propertyPath.getChildPropertyPath());
 			}
 		} else {
-			return super.isReadableProperty(propertyPath);
+			return super.isReadableProperty(propertyPath.getPath());
 		}
 	}
 
 	@Override
 	public boolean isWritableProperty(String propertyPath) {
-		if (PropertyAccessorUtils.isNestedProperty(propertyPath)) {
-			String baseProperty = getBasePropertyName(propertyPath);
-			String childPropertyPath = getChildPropertyPath(propertyPath);
+		return isWritableProperty(PropertyPath.valueOf(propertyPath));
+	}
+
+	/**
+	 * Same as {@link #isWritableProperty(String)}, but for an already parsed
+	 * property path.
+	 */
+	public boolean isWritableProperty(PropertyPath propertyPath) {
+		if (propertyPath.isNested()) {
+			String baseProperty = propertyPath.getBasePropertyName();
 			return super.isReadableProperty(baseProperty)
-					&& ((PropertyAccessor) childPropertyAccessors
-							.get(baseProperty))
-							.isWritableProperty(childPropertyPath);
+					&& getChildAccessor(baseProperty).isWritableProperty(
+							propertyPath.getChildPropertyPath());
 		} else {
-			return super.isWritableProperty(propertyPath);
+			return super.isWritableProperty(propertyPath.getPath());
 		}
 	}
 
 	@Override
 	public Class getPropertyType(String propertyPath) {
-		if (PropertyAccessorUtils.isNestedProperty(propertyPath)) {
-			String baseProperty = getBasePropertyName(propertyPath);
-			String childPropertyPath = getChildPropertyPath(propertyPath);
-			return ((PropertyAccessor) childPropertyAccessors.get(baseProperty))
-					.getPropertyType(childPropertyPath);
+		return getPropertyType(PropertyPath.valueOf(propertyPath));
+	}
+
+	/**
+	 * Same as {@link #getPropertyType(String)}, but for an already parsed
+	 * property path.
+	 */
+	public Class getPropertyType(PropertyPath propertyPath) {
+		if (propertyPath.isNested()) {
+			return getChildAccessor(propertyPath.getBasePropertyName())
+					.getPropertyType(propertyPath.getChildPropertyPath());
 		} else {
-			return super.getPropertyType(propertyPath);
+			return super.getPropertyType(propertyPath.getPath());
 		}
 	}
 
@@ -156,53 +174,62 @@ public abstract class AbstractNestedMemberPropertyAccessor extends
 
 	@Override
 	public Object getPropertyValue(String propertyPath) {
-		if (PropertyAccessorUtils.isNestedProperty(propertyPath)) {
-			String baseProperty = getBasePropertyName(propertyPath);
-			String childPropertyPath = getChildPropertyPath(propertyPath);
-			return ((PropertyAccessor) childPropertyAccessors.get(baseProperty))
-					.getPropertyValue(childPropertyPath);
+		return getPropertyValue(PropertyPath.valueOf(propertyPath));
+	}
+
+	/**
+	 * Same as {@link #getPropertyValue(String)}, but for an already parsed
+	 * property path.
+	 */
+	public Object getPropertyValue(PropertyPath propertyPath) {
+		if (propertyPath.isNested()) {
+			return getChildAccessor(propertyPath.getBasePropertyName())
+					.getPropertyValue(propertyPath.getChildPropertyPath());
 		} else if (isStrictNullHandlingEnabled() && getTarget() == null) {
 			throw new NullValueInNestedPathException(getTargetClass(),
-					propertyPath);
+					propertyPath.getPath());
 		} else {
-			return super.getPropertyValue(propertyPath);
+			return super.getPropertyValue(propertyPath.getPath());
 		}
 	}
 
 	@Override
 	public void setPropertyValue(String propertyPath, Object value) {
-		if (PropertyAccessorUtils.isNestedProperty(propertyPath)) {
-			String baseProperty = getBasePropertyName(propertyPath);
-			String childPropertyPath = getChildPropertyPath(propertyPath);
-			((PropertyAccessor) childPropertyAccessors.get(baseProperty))
-					.setPropertyValue(childPropertyPath, value);
+		setPropertyValue(PropertyPath.valueOf(propertyPath), value);
+	}
+
+	/**
+	 * Same as {@link #setPropertyValue(String, Object)}, but for an already
+	 * parsed property path.
+	 */
+	public void setPropertyValue(PropertyPath propertyPath, Object value) {
+		if (propertyPath.isNested()) {
+			getChildAccessor(propertyPath.getBasePropertyName())
+					.setPropertyValue(propertyPath.getChildPropertyPath(), value);
 		} else if (isStrictNullHandlingEnabled() && getTarget() == null) {
 			throw new NullValueInNestedPathException(getTargetClass(),
-					propertyPath);
+					propertyPath.getPath());
 		} else {
-			super.setPropertyValue(propertyPath, value);
+			super.setPropertyValue(propertyPath.getPath(), value);
 		}
 	}
 
 	protected String getBasePropertyName(String propertyPath) {
-		int index = PropertyAccessorUtils
-				.getFirstNestedPropertySeparatorIndex(propertyPath);
-		return index == -1 ? propertyPath : propertyPath.substring(0, index);
+		return PropertyPath.valueOf(propertyPath).getBasePropertyName();
 	}
 
 	protected String getChildPropertyPath(String propertyPath) {
-		int index = PropertyAccessorUtils
-				.getFirstNestedPropertySeparatorIndex(propertyPath);
-		if (index == -1) {
-			return "";
-		}
-		return propertyPath.substring(index + 1);
+		return PropertyPath.valueOf(propertyPath).getChildPropertyPath().getPath();
 	}
 
 	protected PropertyAccessor getChildPropertyAccessor(String propertyName) {
 		return (PropertyAccessor) childPropertyAccessors.get(propertyName);
 	}
 
+	private AbstractNestedMemberPropertyAccessor getChildAccessor(String propertyName) {
+		return (AbstractNestedMemberPropertyAccessor) childPropertyAccessors.get(propertyName);
+	}
+
 	protected abstract AbstractNestedMemberPropertyAccessor createChildPropertyAccessor(
 			String propertyName);
 
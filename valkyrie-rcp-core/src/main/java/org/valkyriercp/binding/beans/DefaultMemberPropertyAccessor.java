@@ -37,6 +37,8 @@ public class DefaultMemberPropertyAccessor extends AbstractNestedMemberPropertyA
 
     private boolean fixedTargetClass;
 
+    private boolean compiledAccessEnabled;
+
     public DefaultMemberPropertyAccessor(Class targetClass) {
         this(targetClass, null, false, false);
     }
@@ -58,6 +60,50 @@ public class DefaultMemberPropertyAccessor extends AbstractNestedMemberPropertyA
 
     protected DefaultMemberPropertyAccessor(AbstractNestedMemberPropertyAccessor parent, String baseProperty) {
         super(parent, baseProperty);
+        if (parent instanceof DefaultMemberPropertyAccessor) {
+            compiledAccessEnabled = ((DefaultMemberPropertyAccessor) parent).compiledAccessEnabled;
+        }
+    }
+
+    /**
+     * Returns whether properties are accessed through cached
+     * <code>MethodHandle</code>s instead of reflection.
+     */
+    public boolean isCompiledAccessEnabled() {
+        return compiledAccessEnabled;
+    }
+
+    /**
+     * Sets whether properties should be accessed through cached
+     * <code>MethodHandle</code>s instead of reflection. Members that cannot
+     * be compiled are still accessed by reflection. The setting is passed on
+     * to child property accessors created afterwards, so nested properties
+     * use the same mode.
+     *
+     * @param compiledAccessEnabled <code>true</code> to use compiled access.
+     * @see MemberAccessors
+     */
+    public void setCompiledAccessEnabled(boolean compiledAccessEnabled) {
+        this.compiledAccessEnabled = compiledAccessEnabled;
+        clearChildPropertyAccessorCache();
+    }
+
+    /**
+     * Returns the accessor used to read or write the value of the given member.
+     * Properties of classes annotated with {@link FormBindable} are accessed
+     * through their {@link GeneratedPropertyAccessors} instead, as long as
+     * they are accessed by method.
+     *
+     * @param member a field or getter/setter method of the target class.
+     * @return a compiled accessor if compiled access is enabled, a reflective
+     *         one otherwise.
+     */
+    protected MemberAccessor getMemberAccessor(Member member) {
+        if (compiledAccessEnabled) {
+            return MemberAccessors.getCompiledAccessor(member);
+        } else {
+            return MemberAccessors.getReflectiveAccessor(member);
+        }
     }
 
     public Object getTarget() {
@@ -120,13 +166,14 @@ public class DefaultMemberPropertyAccessor extends AbstractNestedMemberPropertyA
         if (target == null) {
             return null;
         }
-        try {
-            ReflectionUtils.makeAccessible(readAccessor);
-            if (readAccessor instanceof Field) {
-                return ((Field) readAccessor).get(target);
-            } else {// readAccessor instanceof Method
-                return ((Method) readAccessor).invoke(target, (Object[]) null);
+        if (readAccessor instanceof Method) {
+            GeneratedPropertyAccessors generated = GeneratedPropertyAccessorsRegistry.getAccessors(target.getClass());
+            if (generated != null && generated.isReadable(propertyName)) {
+                return generated.getValue(target, propertyName);
             }
+        }
+        try {
+            return getMemberAccessor(readAccessor).getValue(target);
         } catch (IllegalAccessException e) {
             throw new InvalidPropertyException(getTargetClass(), propertyName, "Property is not accessible", e);
         } catch (InvocationTargetException e) {
@@ -266,13 +313,15 @@ public class DefaultMemberPropertyAccessor extends AbstractNestedMemberPropertyA
         if (target == null) {
             throw new NullValueInNestedPathException(getTargetClass(), propertyName);
         }
-        try {
-            ReflectionUtils.makeAccessible(writeAccessor);
-            if (writeAccessor instanceof Field) {
-                ((Field) writeAccessor).set(target, value);
-            } else {// writeAccessor instanceof Method
-                ((Method) writeAccessor).invoke(target, new Object[]{value});
+        if (writeAccessor instanceof Method) {
+            GeneratedPropertyAccessors generated = GeneratedPropertyAccessorsRegistry.getAccessors(target.getClass());
+            if (generated != null && generated.isWritable(propertyName)) {
+                generated.setValue(target, propertyName, value);
+                return;
             }
+        }
+        try {
+            getMemberAccessor(writeAccessor).setValue(target, value);
         } catch (IllegalAccessException e) {
             throw new InvalidPropertyException(getTargetClass(), propertyName, "Property is not accessible", e);
         } catch (InvocationTargetException e) {
@@ -0,0 +1,41 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.binding.beans;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a domain class for which {@link GeneratedPropertyAccessors} should be
+ * generated at compile time.
+ *
+ * The annotation processor
+ * {@link org.valkyriercp.binding.beans.processing.FormBindableProcessor}
+ * emits a class named <code>&lt;ClassName&gt;_PropertyAccessors</code> into
+ * the package of the annotated class. It accesses all public, non-static
+ * getters and setters of the class (including inherited ones) directly, so
+ * property access strategies can read and write them without reflection.
+ *
+ * @see GeneratedPropertyAccessorsRegistry
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface FormBindable {
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.binding.beans;
+
+/**
+ * Reflection-free access to the simple properties of a single class.
+ *
+ * Implementations are generated for classes annotated with
+ * {@link FormBindable} and looked up through
+ * {@link GeneratedPropertyAccessorsRegistry}. Only simple (non-nested,
+ * non-indexed) property names are supported; callers handle nested and
+ * indexed paths themselves.
+ */
+public interface GeneratedPropertyAccessors {
+
+	/**
+	 * Returns the class whose properties are accessed.
+	 */
+	Class getTargetClass();
+
+	/**
+	 * Returns the names of all properties that are readable or writable.
+	 */
+	String[] getPropertyNames();
+
+	/**
+	 * Returns the type of the given property or <code>null</code> if the
+	 * property is unknown.
+	 */
+	Class getPropertyType(String propertyName);
+
+	/**
+	 * Returns whether the given property has a getter.
+	 */
+	boolean isReadable(String propertyName);
+
+	/**
+	 * Returns whether the given property has a setter.
+	 */
+	boolean isWritable(String propertyName);
+
+	/**
+	 * Reads the given property.
+	 *
+	 * @param target an instance of the target class.
+	 * @param propertyName the name of a readable property.
+	 * @return the value of the property.
+	 * @throws IllegalArgumentException if the property is not readable.
+	 */
+	Object getValue(Object target, String propertyName);
+
+	/**
+	 * Writes the given property.
+	 *
+	 * @param target an instance of the target class.
+	 * @param propertyName the name of a writable property.
+	 * @param value the new value, must be assignable to the property type.
+	 * @throws IllegalArgumentException if the property is not writable or
+	 * the value does not match the property type.
+	 */
+	void setValue(Object target, String propertyName, Object value);
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.binding.beans;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * Looks up the {@link GeneratedPropertyAccessors} generated for classes
+ * annotated with {@link FormBindable}. The result of the lookup, including
+ * its absence, is remembered per class.
+ */
+public abstract class GeneratedPropertyAccessorsRegistry {
+
+	/**
+	 * Suffix appended to the flattened class name to form the name of the
+	 * generated class.
+	 */
+	public static final String GENERATED_CLASS_SUFFIX = "_PropertyAccessors";
+
+	private static final Object NONE = new Object();
+
+	private static final ClassValue accessors = new ClassValue() {
+		protected Object computeValue(Class type) {
+			GeneratedPropertyAccessors generated = load(type);
+			return generated != null ? generated : NONE;
+		}
+	};
+
+	/**
+	 * Returns the generated accessors for exactly the given class.
+	 *
+	 * @param type the domain class, may be <code>null</code>.
+	 * @return the generated accessors or <code>null</code> if none were
+	 * generated for the class.
+	 */
+	public static GeneratedPropertyAccessors getAccessors(Class type) {
+		if (type == null) {
+			return null;
+		}
+		Object result = accessors.get(type);
+		return result == NONE ? null : (GeneratedPropertyAccessors) result;
+	}
+
+	/**
+	 * Returns the name of the class generated for the given class, e.g.
+	 * <code>com.acme.Order_Line_PropertyAccessors</code> for the nested class
+	 * <code>com.acme.Order$Line</code>.
+	 */
+	public static String getGeneratedClassName(String binaryName) {
+		int packageEnd = binaryName.lastIndexOf('.');
+		return binaryName.substring(0, packageEnd + 1)
+				+ binaryName.substring(packageEnd + 1).replace('$', '_') + GENERATED_CLASS_SUFFIX;
+	}
+
+	private static GeneratedPropertyAccessors load(Class type) {
+		if (type.isPrimitive() || type.isArray() || type.getName().startsWith("java.")) {
+			return null;
+		}
+		String generatedClassName = getGeneratedClassName(type.getName());
+		ClassLoader classLoader = type.getClassLoader() != null ? type.getClassLoader() : ClassUtils
+				.getDefaultClassLoader();
+		try {
+			Class generatedClass = ClassUtils.forName(generatedClassName, classLoader);
+			if (!GeneratedPropertyAccessors.class.isAssignableFrom(generatedClass)) {
+				return null;
+			}
+			GeneratedPropertyAccessors generated = (GeneratedPropertyAccessors) generatedClass.newInstance();
+			return generated.getTargetClass() == type ? generated : null;
+		}
+		catch (ClassNotFoundException e) {
+			return null;
+		}
+		catch (LinkageError e) {
+			return null;
+		}
+		catch (InstantiationException e) {
+			return null;
+		}
+		catch (IllegalAccessException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.binding.beans;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+
+/**
+ * Reads and writes the value a single field or accessor method represents.
+ *
+ * Implementations are obtained through {@link MemberAccessors} and are
+ * stateless, so they may be shared between property accessors and threads.
+ *
+ * @see MemberAccessors
+ */
+public interface MemberAccessor {
+
+	/**
+	 * Returns the member this accessor was created for.
+	 */
+	Member getMember();
+
+	/**
+	 * Reads the value of the member on the given target.
+	 *
+	 * @param target the object to read from.
+	 * @return the value of the member.
+	 * @throws IllegalAccessException if the member is not accessible.
+	 * @throws InvocationTargetException if the accessor method throws an
+	 * exception.
+	 */
+	Object getValue(Object target) throws IllegalAccessException, InvocationTargetException;
+
+	/**
+	 * Writes the value of the member on the given target.
+	 *
+	 * @param target the object to write to.
+	 * @param value the new value.
+	 * @throws IllegalAccessException if the member is not accessible.
+	 * @throws InvocationTargetException if the accessor method throws an
+	 * exception.
+	 * @throws IllegalArgumentException if the value does not match the type of
+	 * the member.
+	 */
+	void setValue(Object target, Object value) throws IllegalAccessException, InvocationTargetException;
+}
@@ -0,0 +1,256 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.binding.beans;
+
+import org.springframework.util.ClassUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Factory for {@link MemberAccessor}s.
+ *
+ * Reflective accessors go through <code>Field.get/set</code> and
+ * <code>Method.invoke</code> on every call. Compiled accessors convert the
+ * member once into a <code>MethodHandle</code> and are cached per declaring
+ * class, so all property accessors working on the same class share them.
+ * Members that cannot be converted (e.g. because a security manager denies
+ * access) silently fall back to reflection.
+ */
+public abstract class MemberAccessors {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private static final ClassValue compiledAccessors = new ClassValue() {
+		protected Object computeValue(Class type) {
+			return new ConcurrentHashMap();
+		}
+	};
+
+	private static final ClassValue reflectiveAccessors = new ClassValue() {
+		protected Object computeValue(Class type) {
+			return new ConcurrentHashMap();
+		}
+	};
+
+	/**
+	 * Returns an accessor that uses plain reflection to access the member.
+	 *
+	 * @param member a field or a getter/setter method.
+	 * @return a cached reflective accessor.
+	 */
+	public static MemberAccessor getReflectiveAccessor(Member member) {
+		ConcurrentMap cache = (ConcurrentMap) reflectiveAccessors.get(member.getDeclaringClass());
+		MemberAccessor accessor = (MemberAccessor) cache.get(member);
+		if (accessor == null) {
+			accessor = new ReflectiveMemberAccessor(member);
+			MemberAccessor existing = (MemberAccessor) cache.putIfAbsent(member, accessor);
+			if (existing != null) {
+				accessor = existing;
+			}
+		}
+		return accessor;
+	}
+
+	/**
+	 * Returns a cached accessor that uses a <code>MethodHandle</code> to
+	 * access the member. Falls back to reflection if no handle can be
+	 * obtained for the member.
+	 *
+	 * @param member a field or a getter/setter method.
+	 * @return a compiled accessor, or a reflective one as fallback.
+	 */
+	public static MemberAccessor getCompiledAccessor(Member member) {
+		ConcurrentMap cache = (ConcurrentMap) compiledAccessors.get(member.getDeclaringClass());
+		MemberAccessor accessor = (MemberAccessor) cache.get(member);
+		if (accessor == null) {
+			accessor = compile(member);
+			MemberAccessor existing = (MemberAccessor) cache.putIfAbsent(member, accessor);
+			if (existing != null) {
+				accessor = existing;
+			}
+		}
+		return accessor;
+	}
+
+	private static MemberAccessor compile(Member member) {
+		ReflectiveMemberAccessor fallback = new ReflectiveMemberAccessor(member);
+		try {
+			DefaultMemberPropertyAccessor.ReflectionUtils.makeAccessible(member);
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodHandle getter = null;
+			MethodHandle setter = null;
+			Class valueType;
+			if (member instanceof Field) {
+				Field field = (Field) member;
+				valueType = field.getType();
+				getter = lookup.unreflectGetter(field);
+				if (!Modifier.isFinal(field.getModifiers())) {
+					setter = lookup.unreflectSetter(field);
+				}
+			}
+			else if (member instanceof Method) {
+				Method method = (Method) member;
+				Class[] parameterTypes = method.getParameterTypes();
+				if (parameterTypes.length == 0) {
+					valueType = method.getReturnType();
+					getter = lookup.unreflect(method);
+				}
+				else if (parameterTypes.length == 1) {
+					valueType = parameterTypes[0];
+					setter = lookup.unreflect(method);
+				}
+				else {
+					return fallback;
+				}
+			}
+			else {
+				return fallback;
+			}
+			if (Modifier.isStatic(member.getModifiers())) {
+				// static members ignore the target, like Method.invoke does
+				getter = getter == null ? null : MethodHandles.dropArguments(getter, 0, Object.class);
+				setter = setter == null ? null : MethodHandles.dropArguments(setter, 0, Object.class);
+			}
+			return new MethodHandleMemberAccessor(fallback, valueType,
+					getter == null ? null : getter.asType(GETTER_TYPE),
+					setter == null ? null : setter.asType(SETTER_TYPE));
+		}
+		catch (IllegalAccessException e) {
+			return fallback;
+		}
+		catch (SecurityException e) {
+			return fallback;
+		}
+		catch (WrongMethodTypeException e) {
+			return fallback;
+		}
+	}
+
+	private static class ReflectiveMemberAccessor implements MemberAccessor {
+
+		private final Member member;
+
+		public ReflectiveMemberAccessor(Member member) {
+			this.member = member;
+		}
+
+		public Member getMember() {
+			return member;
+		}
+
+		public Object getValue(Object target) throws IllegalAccessException, InvocationTargetException {
+			DefaultMemberPropertyAccessor.ReflectionUtils.makeAccessible(member);
+			if (member instanceof Field) {
+				return ((Field) member).get(target);
+			}
+			else {// member instanceof Method
+				return ((Method) member).invoke(target, (Object[]) null);
+			}
+		}
+
+		public void setValue(Object target, Object value) throws IllegalAccessException, InvocationTargetException {
+			DefaultMemberPropertyAccessor.ReflectionUtils.makeAccessible(member);
+			if (member instanceof Field) {
+				((Field) member).set(target, value);
+			}
+			else {// member instanceof Method
+				((Method) member).invoke(target, new Object[] { value });
+			}
+		}
+	}
+
+	/**
+	 * Accessor invoking the member through a <code>MethodHandle</code>.
+	 * Unchecked exceptions and errors of the member are passed on unchanged,
+	 * checked exceptions are wrapped in an
+	 * <code>InvocationTargetException</code>.
+	 */
+	private static class MethodHandleMemberAccessor implements MemberAccessor {
+
+		private final ReflectiveMemberAccessor fallback;
+
+		private final Class valueType;
+
+		private final boolean primitive;
+
+		private final MethodHandle getter;
+
+		private final MethodHandle setter;
+
+		public MethodHandleMemberAccessor(ReflectiveMemberAccessor fallback, Class valueType, MethodHandle getter,
+				MethodHandle setter) {
+			this.fallback = fallback;
+			this.valueType = ClassUtils.resolvePrimitiveIfNecessary(valueType);
+			this.primitive = valueType.isPrimitive();
+			this.getter = getter;
+			this.setter = setter;
+		}
+
+		public Member getMember() {
+			return fallback.getMember();
+		}
+
+		public Object getValue(Object target) throws IllegalAccessException, InvocationTargetException {
+			if (getter == null) {
+				return fallback.getValue(target);
+			}
+			try {
+				return (Object) getter.invokeExact(target);
+			}
+			catch (RuntimeException e) {
+				throw e;
+			}
+			catch (Error e) {
+				throw e;
+			}
+			catch (Throwable e) {
+				throw new InvocationTargetException(e);
+			}
+		}
+
+		public void setValue(Object target, Object value) throws IllegalAccessException, InvocationTargetException {
+			if (setter == null || (value == null ? primitive : !valueType.isInstance(value))) {
+				// let reflection handle null primitives, widening conversions and type mismatches
+				fallback.setValue(target, value);
+				return;
+			}
+			try {
+				setter.invokeExact(target, value);
+			}
+			catch (RuntimeException e) {
+				throw e;
+			}
+			catch (Error e) {
+				throw e;
+			}
+			catch (Throwable e) {
+				throw new InvocationTargetException(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,267 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.binding.beans;
+
+import org.springframework.core.MethodParameter;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable result of introspecting a class for property members. Holds the
+ * read and write members of every property, the property types and, for
+ * collection, array and map properties, the generic element and key types.
+ *
+ * Instances are obtained through {@link MemberPropertyMetadataRegistry} and
+ * shared by all property accessors working on the same class.
+ *
+ * @see AbstractMemberPropertyAccessor
+ */
+public final class MemberPropertyMetadata {
+
+	static final MemberPropertyMetadata EMPTY = new MemberPropertyMetadata(null, false);
+
+	private final Class targetClass;
+
+	private final boolean fieldAccessEnabled;
+
+	private final Map readAccessors;
+
+	private final Map writeAccessors;
+
+	private final Map propertyTypes;
+
+	private final Map indexedValueTypes;
+
+	private final Map indexedKeyTypes;
+
+	/**
+	 * Introspects methods and, if field access is enabled, fields of the
+	 * given class.
+	 *
+	 * @param targetClass the class to introspect, may be <code>null</code>.
+	 * @param fieldAccessEnabled whether fields should be introspected.
+	 */
+	MemberPropertyMetadata(Class targetClass, boolean fieldAccessEnabled) {
+		this.targetClass = targetClass;
+		this.fieldAccessEnabled = fieldAccessEnabled;
+		Map readAccessors = new HashMap();
+		Map writeAccessors = new HashMap();
+		introspectMethods(targetClass, new HashSet(), readAccessors, writeAccessors);
+		if (fieldAccessEnabled) {
+			introspectFields(targetClass, new HashSet(), readAccessors, writeAccessors);
+		}
+		Map propertyTypes = new HashMap();
+		Map indexedValueTypes = new HashMap();
+		Map indexedKeyTypes = new HashMap();
+		Set propertyNames = new HashSet(readAccessors.keySet());
+		propertyNames.addAll(writeAccessors.keySet());
+		for (Object propertyName : propertyNames) {
+			Member readAccessor = (Member) readAccessors.get(propertyName);
+			Member accessor = readAccessor != null ? readAccessor : (Member) writeAccessors.get(propertyName);
+			Class propertyType = getType(accessor);
+			propertyTypes.put(propertyName, propertyType);
+			if (propertyType.isArray() || Collection.class.isAssignableFrom(propertyType)
+					|| Map.class.isAssignableFrom(propertyType)) {
+				try {
+					indexedValueTypes.put(propertyName, resolveIndexedValueType(accessor));
+					if (Map.class.isAssignableFrom(propertyType)) {
+						indexedKeyTypes.put(propertyName, resolveIndexedKeyType(accessor));
+					}
+				}
+				catch (RuntimeException e) {
+					// unresolvable generic declaration, accessors resolve it on demand
+				}
+			}
+		}
+		this.readAccessors = Collections.unmodifiableMap(readAccessors);
+		this.writeAccessors = Collections.unmodifiableMap(writeAccessors);
+		this.propertyTypes = Collections.unmodifiableMap(propertyTypes);
+		this.indexedValueTypes = Collections.unmodifiableMap(indexedValueTypes);
+		this.indexedKeyTypes = Collections.unmodifiableMap(indexedKeyTypes);
+	}
+
+	/**
+	 * Introspect fields of a class. This excludes static fields and handles
+	 * final fields as readOnly.
+	 */
+	private static void introspectFields(Class type, Set introspectedClasses, Map readAccessors, Map writeAccessors) {
+		if (type == null || Object.class.equals(type) || type.isInterface() || introspectedClasses.contains(type)) {
+			return;
+		}
+		introspectedClasses.add(type);
+		introspectFields(type.getSuperclass(), introspectedClasses, readAccessors, writeAccessors);
+		Field[] fields = type.getDeclaredFields();
+		for (int i = 0; i < fields.length; i++) {
+			if (!Modifier.isStatic(fields[i].getModifiers())) {
+				readAccessors.put(fields[i].getName(), fields[i]);
+				if (!Modifier.isFinal(fields[i].getModifiers())) {
+					writeAccessors.put(fields[i].getName(), fields[i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Introspect class for accessor methods. This includes methods starting
+	 * with 'get', 'set' and 'is'.
+	 */
+	private static void introspectMethods(Class type, Set introspectedClasses, Map readAccessors, Map writeAccessors) {
+		if (type == null || Object.class.equals(type) || introspectedClasses.contains(type)) {
+			return;
+		}
+		introspectedClasses.add(type);
+		Class[] interfaces = type.getInterfaces();
+		for (int i = 0; i < interfaces.length; i++) {
+			introspectMethods(interfaces[i], introspectedClasses, readAccessors, writeAccessors);
+		}
+		introspectMethods(type.getSuperclass(), introspectedClasses, readAccessors, writeAccessors);
+		Method[] methods = type.getDeclaredMethods();
+		for (int i = 0; i < methods.length; i++) {
+			String methodName = methods[i].getName();
+			if (methodName.startsWith("get") && methods[i].getParameterTypes().length == 0) {
+				readAccessors.put(getPropertyName(methodName, 3), methods[i]);
+			}
+			else if (methodName.startsWith("is") && methods[i].getParameterTypes().length == 0) {
+				readAccessors.put(getPropertyName(methodName, 2), methods[i]);
+			}
+			else if (methodName.startsWith("set") && methods[i].getParameterTypes().length == 1) {
+				writeAccessors.put(getPropertyName(methodName, 3), methods[i]);
+			}
+		}
+	}
+
+	private static String getPropertyName(String methodName, int prefixLength) {
+		return Character.toLowerCase(methodName.charAt(prefixLength)) + methodName.substring(prefixLength + 1);
+	}
+
+	private static Class getType(Member accessor) {
+		if (accessor instanceof Field) {
+			return ((Field) accessor).getType();
+		}
+		Method method = (Method) accessor;
+		return method.getParameterTypes().length == 0 ? method.getReturnType() : method.getParameterTypes()[0];
+	}
+
+	private static Class resolveIndexedValueType(Member accessor) {
+		if (accessor instanceof Field) {
+			return GenericCollectionTypeResolver.getIndexedValueFieldType((Field) accessor, 1);
+		}
+		Method method = (Method) accessor;
+		MethodParameter parameter = new MethodParameter(method, method.getParameterTypes().length - 1);
+		return GenericCollectionTypeResolver.getIndexedValueMethodType(parameter, 1);
+	}
+
+	private static Class resolveIndexedKeyType(Member accessor) {
+		if (accessor instanceof Field) {
+			return GenericCollectionTypeResolver.getMapKeyFieldType((Field) accessor, 0);
+		}
+		Method method = (Method) accessor;
+		MethodParameter parameter = new MethodParameter(method, method.getParameterTypes().length - 1, 0);
+		return GenericCollectionTypeResolver.getMapKeyParameterType(parameter);
+	}
+
+	/**
+	 * Returns the introspected class or <code>null</code>.
+	 */
+	public Class getTargetClass() {
+		return targetClass;
+	}
+
+	/**
+	 * Returns whether fields were introspected.
+	 */
+	public boolean isFieldAccessEnabled() {
+		return fieldAccessEnabled;
+	}
+
+	/**
+	 * Returns an unmodifiable map from property names to read members.
+	 */
+	public Map getReadAccessors() {
+		return readAccessors;
+	}
+
+	/**
+	 * Returns an unmodifiable map from property names to write members.
+	 */
+	public Map getWriteAccessors() {
+		return writeAccessors;
+	}
+
+	/**
+	 * Return the read member for the given property or <code>null</code>.
+	 */
+	public Member getReadAccessor(String propertyName) {
+		return (Member) readAccessors.get(propertyName);
+	}
+
+	/**
+	 * Return the write member for the given property or <code>null</code>.
+	 */
+	public Member getWriteAccessor(String propertyName) {
+		return (Member) writeAccessors.get(propertyName);
+	}
+
+	/**
+	 * Returns the type of a simple (non-indexed) property or <code>null</code>
+	 * if the property does not exist. The type of the read member takes
+	 * precedence.
+	 */
+	public Class getPropertyType(String propertyName) {
+		return (Class) propertyTypes.get(propertyName);
+	}
+
+	/**
+	 * Returns whether the element type of the given array, collection or map
+	 * property was resolved during introspection.
+	 */
+	public boolean hasIndexedValueType(String propertyName) {
+		return indexedValueTypes.containsKey(propertyName);
+	}
+
+	/**
+	 * Returns the element type of the given array, collection or map property
+	 * as resolved by {@link GenericCollectionTypeResolver}.
+	 */
+	public Class getIndexedValueType(String propertyName) {
+		return (Class) indexedValueTypes.get(propertyName);
+	}
+
+	/**
+	 * Returns whether the key type of the given map property was resolved
+	 * during introspection.
+	 */
+	public boolean hasIndexedKeyType(String propertyName) {
+		return indexedKeyTypes.containsKey(propertyName);
+	}
+
+	/**
+	 * Returns the key type of the given map property as resolved by
+	 * {@link GenericCollectionTypeResolver}.
+	 */
+	public Class getIndexedKeyType(String propertyName) {
+		return (Class) indexedKeyTypes.get(propertyName);
+	}
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.binding.beans;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide registry of {@link MemberPropertyMetadata}. Every class is
+ * introspected at most once per field access mode, all further requests are
+ * served from a <code>ClassValue</code>, so the metadata is released together
+ * with the class.
+ *
+ * The registry counts how many requests could be served from the cache
+ * (hits) and how many required an introspection (misses).
+ */
+public abstract class MemberPropertyMetadataRegistry {
+
+	private static final AtomicLong hitCount = new AtomicLong();
+
+	private static final AtomicLong missCount = new AtomicLong();
+
+	private static final ClassValue metadata = new ClassValue() {
+		protected Object computeValue(Class type) {
+			return new MetadataHolder();
+		}
+	};
+
+	/**
+	 * Returns the shared metadata for the given class.
+	 *
+	 * @param targetClass the class to introspect, may be <code>null</code>.
+	 * @param fieldAccessEnabled whether fields should be introspected as well.
+	 * @return the metadata, never <code>null</code>.
+	 */
+	public static MemberPropertyMetadata getMetadata(Class targetClass, boolean fieldAccessEnabled) {
+		if (targetClass == null) {
+			return MemberPropertyMetadata.EMPTY;
+		}
+		return ((MetadataHolder) metadata.get(targetClass)).get(targetClass, fieldAccessEnabled);
+	}
+
+	/**
+	 * Drops the cached metadata of the given class, e.g. after it has been
+	 * redefined. It is introspected again on the next request.
+	 */
+	public static void invalidate(Class targetClass) {
+		metadata.remove(targetClass);
+	}
+
+	/**
+	 * Returns the number of requests that were served from the cache.
+	 */
+	public static long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * Returns the number of requests that required an introspection.
+	 */
+	public static long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * Resets hit and miss counters. The cached metadata is kept.
+	 */
+	public static void resetStatistics() {
+		hitCount.set(0);
+		missCount.set(0);
+	}
+
+	private static class MetadataHolder {
+
+		private volatile MemberPropertyMetadata methodMetadata;
+
+		private volatile MemberPropertyMetadata fieldMetadata;
+
+		public MemberPropertyMetadata get(Class type, boolean fieldAccessEnabled) {
+			MemberPropertyMetadata result = fieldAccessEnabled ? fieldMetadata : methodMetadata;
+			if (result != null) {
+				hitCount.incrementAndGet();
+				return result;
+			}
+			synchronized (this) {
+				result = fieldAccessEnabled ? fieldMetadata : methodMetadata;
+				if (result != null) {
+					hitCount.incrementAndGet();
+					return result;
+				}
+				missCount.incrementAndGet();
+				result = new MemberPropertyMetadata(type, fieldAccessEnabled);
+				if (fieldAccessEnabled) {
+					fieldMetadata = result;
+				}
+				else {
+					methodMetadata = result;
+				}
+				return result;
+			}
+		}
+	}
+}
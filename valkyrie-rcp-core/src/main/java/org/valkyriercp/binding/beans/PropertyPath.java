@@ -0,0 +1,356 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.binding.beans;
+
+import org.springframework.beans.PropertyAccessor;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A parsed property path like <code>lines[3].product.code</code>.
+ *
+ * Property paths are parsed once and kept in a bounded, process-wide
+ * cache, so code that accesses the same path over and over again gets the
+ * same instance back and does not have to split and convert the path on
+ * every access. Looking up a cached path does not lock. Index values converted to their key types are remembered per
+ * {@link MemberPropertyMetadata}, i.e. per target class.
+ *
+ * Instances are immutable apart from these caches and may be shared between
+ * threads.
+ *
+ * @see #valueOf(String)
+ */
+public final class PropertyPath {
+
+	/**
+	 * The number of paths kept in the cache. When the cache is full, it is
+	 * cleared: the paths in use are parsed again on their next access.
+	 */
+	public static final int MAX_CACHE_SIZE = 4096;
+
+	/**
+	 * The number of appended child paths remembered per path, cleared the
+	 * same way as the cache.
+	 */
+	public static final int MAX_CHILD_PATHS = 64;
+
+	private static final String[] NO_KEYS = new String[0];
+
+	private static final ConcurrentMap cache = new ConcurrentHashMap();
+
+	public static final PropertyPath EMPTY = new PropertyPath("");
+
+	private final String path;
+
+	private final int firstNestedSeparatorIndex;
+
+	private final boolean indexed;
+
+	private final String rootPropertyName;
+
+	private final String parentPropertyName;
+
+	private final String[] keys;
+
+	private final int nestingLevel;
+
+	private final int lastSeparatorIndex;
+
+	/**
+	 * Created on the first {@link #append(String)}, most paths never get one.
+	 */
+	private volatile ConcurrentMap childPaths;
+
+	private volatile PropertyPath childPropertyPath;
+
+	private volatile ConvertedIndices convertedIndices;
+
+	/**
+	 * Returns the parsed form of the given property path.
+	 *
+	 * @param path the property path, not <code>null</code>.
+	 * @return the cached or newly parsed path.
+	 */
+	public static PropertyPath valueOf(String path) {
+		Assert.notNull(path, "path must not be null");
+		if (path.length() == 0) {
+			return EMPTY;
+		}
+		PropertyPath propertyPath = (PropertyPath) cache.get(path);
+		if (propertyPath == null) {
+			propertyPath = (PropertyPath) putIfAbsent(cache, MAX_CACHE_SIZE, path, new PropertyPath(path));
+		}
+		return propertyPath;
+	}
+
+	/**
+	 * Adds the value to the given map, clearing the map first if it holds
+	 * <code>maxSize</code> entries or more, and returns the value in the map.
+	 */
+	private static Object putIfAbsent(ConcurrentMap map, int maxSize, Object key, Object value) {
+		if (map.size() >= maxSize) {
+			map.clear();
+		}
+		Object existing = map.putIfAbsent(key, value);
+		return existing == null ? value : existing;
+	}
+
+	private PropertyPath(String path) {
+		this.path = path;
+		this.firstNestedSeparatorIndex = PropertyAccessorUtils.getFirstNestedPropertySeparatorIndex(path);
+		this.indexed = PropertyAccessorUtils.isIndexedProperty(path);
+		int keyPrefixIndex = path.indexOf(PropertyAccessor.PROPERTY_KEY_PREFIX_CHAR);
+		this.rootPropertyName = keyPrefixIndex == -1 ? path : path.substring(0, keyPrefixIndex);
+		if (indexed) {
+			this.parentPropertyName = path.substring(0, path.lastIndexOf(PropertyAccessor.PROPERTY_KEY_PREFIX_CHAR));
+			this.keys = split(path.substring(keyPrefixIndex));
+			this.nestingLevel = PropertyAccessorUtils.getNestingLevel(path);
+		}
+		else {
+			this.parentPropertyName = "";
+			this.keys = NO_KEYS;
+			this.nestingLevel = 0;
+		}
+		this.lastSeparatorIndex = getLastSeparatorIndex(path);
+	}
+
+	private static String[] split(String indices) {
+		List result = new ArrayList();
+		int fromIndex = 1;
+		int toIndex = -1;
+		while ((toIndex = indices.indexOf("][", fromIndex)) != -1) {
+			result.add(indices.substring(fromIndex, toIndex));
+			fromIndex = toIndex + 2;
+		}
+		result.add(indices.substring(fromIndex, indices.length() - 1));
+		return (String[]) result.toArray(new String[result.size()]);
+	}
+
+	/**
+	 * Returns the index of the last nested property separator or key prefix,
+	 * ignoring dots in keys (like "map[my.key]").
+	 */
+	private static int getLastSeparatorIndex(String path) {
+		boolean inKey = false;
+		for (int i = path.length() - 1; i >= 0; i--) {
+			switch (path.charAt(i)) {
+			case PropertyAccessor.PROPERTY_KEY_SUFFIX_CHAR:
+				inKey = true;
+				break;
+			case PropertyAccessor.PROPERTY_KEY_PREFIX_CHAR:
+				return i;
+			case PropertyAccessor.NESTED_PROPERTY_SEPARATOR_CHAR:
+				if (!inKey) {
+					return i;
+				}
+				break;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the path as string.
+	 */
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * Returns whether this path contains a nested property separator.
+	 */
+	public boolean isNested() {
+		return firstNestedSeparatorIndex != -1;
+	}
+
+	/**
+	 * Returns the part of a nested path before the first separator, or the
+	 * whole path if it is not nested.
+	 */
+	public String getBasePropertyName() {
+		return firstNestedSeparatorIndex == -1 ? path : path.substring(0, firstNestedSeparatorIndex);
+	}
+
+	/**
+	 * Returns the part of a nested path after the first separator, or the
+	 * empty path if it is not nested.
+	 */
+	public PropertyPath getChildPropertyPath() {
+		if (firstNestedSeparatorIndex == -1) {
+			return EMPTY;
+		}
+		PropertyPath child = childPropertyPath;
+		if (child == null) {
+			child = valueOf(path.substring(firstNestedSeparatorIndex + 1));
+			childPropertyPath = child;
+		}
+		return child;
+	}
+
+	/**
+	 * Returns whether the last component of this path is indexed, like
+	 * <code>list[0]</code> or <code>map[key]</code>.
+	 */
+	public boolean isIndexed() {
+		return indexed;
+	}
+
+	/**
+	 * Returns the path up to the first key prefix.
+	 */
+	public String getRootPropertyName() {
+		return rootPropertyName;
+	}
+
+	/**
+	 * Returns the path without its last key, or the empty string if this path
+	 * is not indexed.
+	 */
+	public String getParentPropertyName() {
+		return parentPropertyName;
+	}
+
+	/**
+	 * Returns the unconverted keys of an indexed path. The returned array must
+	 * not be modified.
+	 */
+	public String[] getKeys() {
+		return keys;
+	}
+
+	/**
+	 * Returns the number of keys of the last component of an indexed path.
+	 */
+	public int getNestingLevel() {
+		return nestingLevel;
+	}
+
+	/**
+	 * Returns the property name part of this path, i.e. the part after the
+	 * last nested property separator, or the last key including its prefix.
+	 */
+	public String getPropertyName() {
+		if (lastSeparatorIndex == -1) {
+			return path;
+		}
+		if (path.charAt(lastSeparatorIndex) == PropertyAccessor.NESTED_PROPERTY_SEPARATOR_CHAR) {
+			return path.substring(lastSeparatorIndex + 1);
+		}
+		return path.substring(lastSeparatorIndex);
+	}
+
+	/**
+	 * Returns the index of the last nested property separator or key prefix,
+	 * ignoring dots in keys, or -1 if there is none.
+	 */
+	public int getLastSeparatorIndex() {
+		return lastSeparatorIndex;
+	}
+
+	/**
+	 * Returns the path to the parent of {@link #getPropertyName()} or the
+	 * empty string.
+	 */
+	public String getParentPath() {
+		return lastSeparatorIndex == -1 ? "" : path.substring(0, lastSeparatorIndex);
+	}
+
+	/**
+	 * Returns the given path relative to this path. The result is cached, so
+	 * repeated calls with the same argument do not concatenate strings again.
+	 *
+	 * @param childPath a path relative to this one.
+	 * @return the combined path.
+	 */
+	public PropertyPath append(String childPath) {
+		if (path.length() == 0) {
+			return valueOf(childPath);
+		}
+		if (childPath.length() == 0) {
+			return this;
+		}
+		ConcurrentMap children = childPaths;
+		if (children == null) {
+			synchronized (this) {
+				children = childPaths;
+				if (children == null) {
+					children = new ConcurrentHashMap();
+					childPaths = children;
+				}
+			}
+		}
+		PropertyPath result = (PropertyPath) children.get(childPath);
+		if (result == null) {
+			result = (PropertyPath) putIfAbsent(children, MAX_CHILD_PATHS, childPath,
+					valueOf(path + PropertyAccessor.NESTED_PROPERTY_SEPARATOR_CHAR + childPath));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the index values converted for the given owner, or
+	 * <code>null</code> if they have not been converted for it yet.
+	 *
+	 * @param owner the object that determines the key types, usually the
+	 * {@link MemberPropertyMetadata} of the target class.
+	 */
+	Object[] getConvertedIndices(Object owner) {
+		ConvertedIndices converted = convertedIndices;
+		return converted != null && converted.owner == owner ? converted.indices : null;
+	}
+
+	/**
+	 * Remembers the index values converted for the given owner.
+	 */
+	void setConvertedIndices(Object owner, Object[] indices) {
+		convertedIndices = new ConvertedIndices(owner, indices);
+	}
+
+	public boolean equals(Object o) {
+		return o instanceof PropertyPath && path.equals(((PropertyPath) o).path);
+	}
+
+	public int hashCode() {
+		return path.hashCode();
+	}
+
+	public String toString() {
+		return path;
+	}
+
+	/**
+	 * Returns the number of paths in the cache.
+	 */
+	static int getCacheSize() {
+		return cache.size();
+	}
+
+	private static class ConvertedIndices {
+
+		private final Object owner;
+
+		private final Object[] indices;
+
+		public ConvertedIndices(Object owner, Object[] indices) {
+			this.owner = owner;
+			this.indices = indices;
+		}
+	}
+}
@@ -0,0 +1,354 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.binding.beans.processing;
+
+import org.valkyriercp.binding.beans.AbstractGeneratedPropertyAccessors;
+import org.valkyriercp.binding.beans.FormBindable;
+import org.valkyriercp.binding.beans.GeneratedPropertyAccessorsRegistry;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Annotation processor that generates
+ * {@link org.valkyriercp.binding.beans.GeneratedPropertyAccessors} for all
+ * classes annotated with {@link FormBindable}.
+ *
+ * Properties are determined like
+ * {@link org.valkyriercp.binding.beans.AbstractMemberPropertyAccessor} does
+ * for methods: every public, non-static method starting with 'get' or 'is'
+ * without parameters is a getter, every one starting with 'set' with a
+ * single parameter a setter. Methods declaring exceptions are skipped, so the
+ * generated code never has to handle checked exceptions.
+ *
+ * The processor is registered through
+ * <code>META-INF/services/javax.annotation.processing.Processor</code>, so it
+ * runs automatically when the core jar is on the compile classpath.
+ */
+public class FormBindableProcessor extends AbstractProcessor {
+
+	public Set<String> getSupportedAnnotationTypes() {
+		return Collections.singleton(FormBindable.class.getName());
+	}
+
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (Element element : roundEnv.getElementsAnnotatedWith(FormBindable.class)) {
+			if (!isSupported(element)) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+						"@FormBindable is only supported on non-private top level or static nested classes", element);
+				continue;
+			}
+			try {
+				generate((TypeElement) element);
+			}
+			catch (IOException e) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+						"Could not generate property accessors: " + e.getMessage(), element);
+			}
+		}
+		return true;
+	}
+
+	private boolean isSupported(Element element) {
+		if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.PRIVATE)) {
+			return false;
+		}
+		TypeElement type = (TypeElement) element;
+		return type.getNestingKind() == NestingKind.TOP_LEVEL
+				|| (type.getNestingKind() == NestingKind.MEMBER && type.getModifiers().contains(Modifier.STATIC));
+	}
+
+	private void generate(TypeElement type) throws IOException {
+		Map properties = collectProperties(type);
+		PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+		String generatedName = GeneratedPropertyAccessorsRegistry.getGeneratedClassName(processingEnv
+				.getElementUtils().getBinaryName(type).toString());
+		String simpleName = generatedName.substring(generatedName.lastIndexOf('.') + 1);
+		String typeName = erasure(type.asType());
+
+		JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(generatedName, type);
+		PrintWriter out = new PrintWriter(sourceFile.openWriter());
+		try {
+			if (!packageElement.isUnnamed()) {
+				out.println("package " + packageElement.getQualifiedName() + ";");
+				out.println();
+			}
+			out.println("/**");
+			out.println(" * Property accessors for {@link " + typeName + "}, generated by "
+					+ FormBindableProcessor.class.getName() + ".");
+			out.println(" */");
+			out.println("@SuppressWarnings({ \"rawtypes\", \"unchecked\" })");
+			out.println("public final class " + simpleName + " extends "
+					+ AbstractGeneratedPropertyAccessors.class.getName() + " {");
+			out.println();
+			out.println("\tpublic " + simpleName + "() {");
+			out.print("\t\tsuper(" + typeName + ".class, new String[] {");
+			for (Iterator i = properties.keySet().iterator(); i.hasNext();) {
+				out.print(" \"" + i.next() + "\"");
+				out.print(i.hasNext() ? "," : " ");
+			}
+			out.println("});");
+			out.println("\t}");
+			out.println();
+
+			out.println("\tpublic Class getPropertyType(String propertyName) {");
+			out.println("\t\tswitch (propertyName) {");
+			for (Iterator i = properties.values().iterator(); i.hasNext();) {
+				Property property = (Property) i.next();
+				out.println("\t\tcase \"" + property.name + "\":");
+				out.println("\t\t\treturn " + property.typeName + ".class;");
+			}
+			out.println("\t\tdefault:");
+			out.println("\t\t\treturn null;");
+			out.println("\t\t}");
+			out.println("\t}");
+			out.println();
+
+			out.println("\tpublic boolean isReadable(String propertyName) {");
+			out.println("\t\tswitch (propertyName) {");
+			boolean anyReadable = false;
+			for (Iterator i = properties.values().iterator(); i.hasNext();) {
+				Property property = (Property) i.next();
+				if (property.getter != null) {
+					out.println("\t\tcase \"" + property.name + "\":");
+					anyReadable = true;
+				}
+			}
+			if (anyReadable) {
+				out.println("\t\t\treturn true;");
+			}
+			out.println("\t\tdefault:");
+			out.println("\t\t\treturn false;");
+			out.println("\t\t}");
+			out.println("\t}");
+			out.println();
+
+			out.println("\tpublic boolean isWritable(String propertyName) {");
+			out.println("\t\tswitch (propertyName) {");
+			boolean anyWritable = false;
+			for (Iterator i = properties.values().iterator(); i.hasNext();) {
+				Property property = (Property) i.next();
+				if (property.setter != null) {
+					out.println("\t\tcase \"" + property.name + "\":");
+					anyWritable = true;
+				}
+			}
+			if (anyWritable) {
+				out.println("\t\t\treturn true;");
+			}
+			out.println("\t\tdefault:");
+			out.println("\t\t\treturn false;");
+			out.println("\t\t}");
+			out.println("\t}");
+			out.println();
+
+			out.println("\tpublic Object getValue(Object target, String propertyName) {");
+			out.println("\t\t" + typeName + " bean = (" + typeName + ") target;");
+			out.println("\t\tswitch (propertyName) {");
+			for (Iterator i = properties.values().iterator(); i.hasNext();) {
+				Property property = (Property) i.next();
+				if (property.getter != null) {
+					out.println("\t\tcase \"" + property.name + "\":");
+					out.println("\t\t\treturn bean." + property.getter.getSimpleName() + "();");
+				}
+			}
+			out.println("\t\tdefault:");
+			out.println("\t\t\tthrow notReadable(propertyName);");
+			out.println("\t\t}");
+			out.println("\t}");
+			out.println();
+
+			out.println("\tpublic void setValue(Object target, String propertyName, Object value) {");
+			out.println("\t\t" + typeName + " bean = (" + typeName + ") target;");
+			out.println("\t\tswitch (propertyName) {");
+			for (Iterator i = properties.values().iterator(); i.hasNext();) {
+				Property property = (Property) i.next();
+				if (property.setter != null) {
+					TypeMirror parameterType = property.valueType;
+					out.println("\t\tcase \"" + property.name + "\":");
+					out.println("\t\t\tbean." + property.setter.getSimpleName() + "((" + boxedErasure(parameterType)
+							+ ") checkValue(propertyName, " + erasure(parameterType) + ".class, value));");
+					out.println("\t\t\treturn;");
+				}
+			}
+			out.println("\t\tdefault:");
+			out.println("\t\t\tthrow notWritable(propertyName);");
+			out.println("\t\t}");
+			out.println("\t}");
+			out.println("}");
+		}
+		finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Collects the accessible properties of the given type, sorted by name.
+	 */
+	private Map collectProperties(TypeElement type) {
+		Map properties = new TreeMap();
+		DeclaredType declaredType = (DeclaredType) type.asType();
+		List methods = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type));
+		for (Iterator i = methods.iterator(); i.hasNext();) {
+			ExecutableElement method = (ExecutableElement) i.next();
+			if (!isAccessible(method)) {
+				continue;
+			}
+			String methodName = method.getSimpleName().toString();
+			int parameterCount = method.getParameters().size();
+			boolean returnsValue = method.getReturnType().getKind() != TypeKind.VOID;
+			if (methodName.startsWith("get") && methodName.length() > 3 && parameterCount == 0 && returnsValue) {
+				getProperty(properties, methodName, 3).setGetter(method, memberType(declaredType, method));
+			}
+			else if (methodName.startsWith("is") && methodName.length() > 2 && parameterCount == 0 && returnsValue) {
+				getProperty(properties, methodName, 2).setGetter(method, memberType(declaredType, method));
+			}
+			else if (methodName.startsWith("set") && methodName.length() > 3 && parameterCount == 1) {
+				getProperty(properties, methodName, 3).addSetter(method, memberType(declaredType, method));
+			}
+		}
+		for (Iterator i = properties.values().iterator(); i.hasNext();) {
+			((Property) i.next()).resolve();
+		}
+		return properties;
+	}
+
+	private boolean isAccessible(ExecutableElement method) {
+		Set modifiers = method.getModifiers();
+		if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.STATIC)) {
+			return false;
+		}
+		if (!method.getThrownTypes().isEmpty() || !method.getTypeParameters().isEmpty()) {
+			return false;
+		}
+		TypeElement declaringType = (TypeElement) method.getEnclosingElement();
+		return !declaringType.getQualifiedName().contentEquals(Object.class.getName());
+	}
+
+	private Property getProperty(Map properties, String methodName, int prefixLength) {
+		String propertyName = Character.toLowerCase(methodName.charAt(prefixLength))
+				+ methodName.substring(prefixLength + 1);
+		Property property = (Property) properties.get(propertyName);
+		if (property == null) {
+			property = new Property(propertyName);
+			properties.put(propertyName, property);
+		}
+		return property;
+	}
+
+	/**
+	 * Returns the type of the method as seen from the annotated class, so that
+	 * inherited methods of generic superclasses get their actual type
+	 * arguments.
+	 */
+	private ExecutableType memberType(DeclaredType declaredType, ExecutableElement method) {
+		return (ExecutableType) processingEnv.getTypeUtils().asMemberOf(declaredType, method);
+	}
+
+	private String erasure(TypeMirror type) {
+		return processingEnv.getTypeUtils().erasure(type).toString();
+	}
+
+	private String boxedErasure(TypeMirror type) {
+		if (type.getKind().isPrimitive()) {
+			return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+		}
+		return erasure(type);
+	}
+
+	private class Property {
+
+		private final String name;
+
+		private final List setters = new ArrayList();
+
+		private final List setterTypes = new ArrayList();
+
+		private ExecutableElement getter;
+
+		private TypeMirror getterType;
+
+		private ExecutableElement setter;
+
+		private TypeMirror valueType;
+
+		private String typeName;
+
+		public Property(String name) {
+			this.name = name;
+		}
+
+		public void setGetter(ExecutableElement getter, ExecutableType type) {
+			// a getXxx method wins over an isXxx method, like in the member property accessor
+			if (this.getter == null || getter.getSimpleName().toString().startsWith("get")) {
+				this.getter = getter;
+				this.getterType = type.getReturnType();
+			}
+		}
+
+		public void addSetter(ExecutableElement setter, ExecutableType type) {
+			setters.add(setter);
+			setterTypes.add(type.getParameterTypes().get(0));
+		}
+
+		/**
+		 * Determines the property type and picks the setter matching the
+		 * getter, if there are overloaded setters.
+		 */
+		public void resolve() {
+			for (int i = 0; i < setters.size(); i++) {
+				TypeMirror parameterType = (TypeMirror) setterTypes.get(i);
+				if (setter == null
+						|| (getterType != null && processingEnv.getTypeUtils().isSameType(
+								processingEnv.getTypeUtils().erasure(getterType),
+								processingEnv.getTypeUtils().erasure(parameterType)))) {
+					setter = (ExecutableElement) setters.get(i);
+					valueType = parameterType;
+				}
+			}
+			typeName = erasure(getterType != null ? getterType : valueType);
+		}
+	}
+}
@@ -36,6 +36,7 @@ import org.valkyriercp.binding.value.support.MethodInvokingDerivedValueModel;
 import org.valkyriercp.binding.value.support.TypeConverter;
 import org.valkyriercp.binding.value.support.ValueHolder;
 import org.valkyriercp.core.support.AbstractPropertyChangePublisher;
+import org.valkyriercp.core.support.UncoalescedPropertyChangeListener;
 import org.valkyriercp.util.ClassUtils;
 import org.valkyriercp.util.EventListenerListHelper;
 import org.valkyriercp.util.ValkyrieRepository;
@@ -92,6 +93,20 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 
 	private final Set dirtyValueAndFormModels = new HashSet();
 
+	private final Set nonCommittableChildren = new HashSet();
+
+	private int batchDepth;
+
+	private final List batchedChildren = new ArrayList();
+
+	private boolean dirtyUpdatePending;
+
+	private boolean committableUpdatePending;
+
+	private boolean enabledUpdatePending;
+
+	private boolean readOnlyUpdatePending;
+
 	private final Map propertyConversionServices = new AbstractCachingMapDecorator() {
 		public Object create(Object key) {
 			return new DefaultConversionService() {
@@ -282,6 +297,9 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 		Assert.isTrue(child.getParent() == null, "Child form model '" + child + "' already has a parent");
 		child.setParent(this);
 		children.add(child);
+		if (isCoalescingPropertyChanges()) {
+			setCoalescingPropertyChanges(child, true);
+		}
 		child.addPropertyChangeListener(DIRTY_PROPERTY, childStateChangeHandler);
 		child.addPropertyChangeListener(COMMITTABLE_PROPERTY, childStateChangeHandler);
 		if (child.isDirty())
@@ -289,6 +307,10 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 			dirtyValueAndFormModels.add(child);
 			dirtyUpdated();
 		}
+		if (!child.isCommittable()) {
+			nonCommittableChildren.add(child);
+			committableUpdated();
+		}
 	}
 
 	/**
@@ -309,6 +331,8 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 		// state
 		if (dirtyValueAndFormModels.remove(child))
 			dirtyUpdated();
+		if (nonCommittableChildren.remove(child))
+			committableUpdated();
 	}
 
 	public boolean hasValueModel(String formProperty) {
@@ -442,6 +466,9 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 	 */
 	public ValueModel add(String propertyName, ValueModel valueModel, FieldMetadata metadata) {
 		fieldMetadata.put(propertyName, metadata);
+		if (isCoalescingPropertyChanges()) {
+			setCoalescingPropertyChanges(metadata, true);
+		}
 
 		valueModel = preProcessNewValueModel(propertyName, valueModel);
 		propertyValueModels.put(propertyName, valueModel);
@@ -631,6 +658,10 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 	 * property. Must be called whenever the value of dirty is changed.
 	 */
 	protected void dirtyUpdated() {
+		if (isBatching()) {
+			dirtyUpdatePending = true;
+			return;
+		}
 		boolean dirty = isDirty();
 		if (hasChanged(oldDirty, dirty)) {
 			oldDirty = dirty;
@@ -671,6 +702,10 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 	 * property. Must be called whenever the value of readOnly is changed.
 	 */
 	protected void readOnlyUpdated() {
+		if (isBatching()) {
+			readOnlyUpdatePending = true;
+			return;
+		}
 		boolean localReadOnly = isReadOnly();
 		if (hasChanged(oldReadOnly, localReadOnly)) {
 			oldReadOnly = localReadOnly;
@@ -678,6 +713,30 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The setting is passed on to the field metadata and the child form
+	 * models, including the ones added later on. The handlers keeping track
+	 * of the dirty and committable state of the children always receive
+	 * their changes immediately.
+	 */
+	public void setCoalescingPropertyChanges(boolean coalescingPropertyChanges) {
+		super.setCoalescingPropertyChanges(coalescingPropertyChanges);
+		for (Iterator i = fieldMetadata.values().iterator(); i.hasNext();) {
+			setCoalescingPropertyChanges(i.next(), coalescingPropertyChanges);
+		}
+		for (Iterator i = children.iterator(); i.hasNext();) {
+			setCoalescingPropertyChanges(i.next(), coalescingPropertyChanges);
+		}
+	}
+
+	private void setCoalescingPropertyChanges(Object publisher, boolean coalescingPropertyChanges) {
+		if (publisher instanceof AbstractPropertyChangePublisher) {
+			((AbstractPropertyChangePublisher) publisher).setCoalescingPropertyChanges(coalescingPropertyChanges);
+		}
+	}
+
 	public void setEnabled(boolean enabled) {
 		this.enabled = enabled;
 		enabledUpdated();
@@ -692,6 +751,10 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 	 * property. Must be called whenever the value of enabled is changed.
 	 */
 	protected void enabledUpdated() {
+		if (isBatching()) {
+			enabledUpdatePending = true;
+			return;
+		}
 		boolean enabled = isEnabled();
 		if (hasChanged(oldEnabled, enabled)) {
 			oldEnabled = enabled;
@@ -699,14 +762,13 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 		}
 	}
 
+	/**
+	 * Returns <code>true</code> if none of the children is uncommittable. The
+	 * uncommittable children are tracked as their committable state changes,
+	 * so this does not walk the child hierarchy.
+	 */
 	public boolean isCommittable() {
-		for (Iterator i = children.iterator(); i.hasNext();) {
-			final FormModel childFormModel = (FormModel) i.next();
-			if (!childFormModel.isCommittable()) {
-				return false;
-			}
-		}
-		return true;
+		return nonCommittableChildren.isEmpty();
 	}
 
 	/**
@@ -714,6 +776,10 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 	 * property. Must be called whenever the value of committable is changed.
 	 */
 	protected void committableUpdated() {
+		if (isBatching()) {
+			committableUpdatePending = true;
+			return;
+		}
 		boolean committable = isCommittable();
 		if (hasChanged(oldCommittable, committable)) {
 			oldCommittable = committable;
@@ -721,6 +787,98 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 		}
 	}
 
+	/**
+	 * Starts a batch of programmatic updates. Inside a batch value models
+	 * receive their new values immediately, but derived state (dirty,
+	 * committable, enabled, readOnly and, for subclasses, validation) is only
+	 * recomputed once when the outermost batch is closed by
+	 * {@link #endBatch()}. Batches may be nested and are propagated to the
+	 * child form models registered when the batch starts.
+	 * <p>
+	 * Every call must be matched by a call to {@link #endBatch()}, preferably
+	 * in a finally block; {@link #runBatched(Runnable)} does this for you.
+	 */
+	public void beginBatch() {
+		if (batchDepth++ == 0) {
+			for (Iterator i = children.iterator(); i.hasNext();) {
+				Object child = i.next();
+				if (child instanceof AbstractFormModel) {
+					((AbstractFormModel) child).beginBatch();
+					batchedChildren.add(child);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Ends a batch started with {@link #beginBatch()}. When the outermost
+	 * batch ends, the batched children are closed first and then
+	 * {@link #batchEnded()} recomputes the deferred state, firing at most one
+	 * event per affected property.
+	 *
+	 * @throws IllegalStateException if no batch is active.
+	 */
+	public void endBatch() {
+		Assert.state(batchDepth > 0, "endBatch() called without matching beginBatch()");
+		if (--batchDepth == 0) {
+			Object[] childrenToEnd = batchedChildren.toArray();
+			batchedChildren.clear();
+			for (int i = 0; i < childrenToEnd.length; i++) {
+				((AbstractFormModel) childrenToEnd[i]).endBatch();
+			}
+			batchEnded();
+		}
+	}
+
+	/**
+	 * Runs the given updates inside a batch.
+	 *
+	 * @param updates the updates to apply.
+	 * @see #beginBatch()
+	 */
+	public void runBatched(Runnable updates) {
+		Assert.notNull(updates, "updates");
+		beginBatch();
+		try {
+			updates.run();
+		}
+		finally {
+			endBatch();
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if a batch started with {@link #beginBatch()}
+	 * is currently active.
+	 */
+	public boolean isBatching() {
+		return batchDepth > 0;
+	}
+
+	/**
+	 * Called when the outermost batch has ended. Recomputes the state whose
+	 * update was deferred during the batch. Subclasses that defer additional
+	 * work should do it before calling this implementation.
+	 */
+	protected void batchEnded() {
+		if (readOnlyUpdatePending) {
+			readOnlyUpdatePending = false;
+			readOnlyUpdated();
+		}
+		if (enabledUpdatePending) {
+			enabledUpdatePending = false;
+			enabledUpdated();
+		}
+		if (dirtyUpdatePending) {
+			dirtyUpdatePending = false;
+			dirtyUpdated();
+		}
+		if (committableUpdatePending) {
+			committableUpdatePending = false;
+			committableUpdated();
+		}
+	}
+
 	public void addCommitListener(CommitListener listener) {
 		commitListeners.add(listener);
 	}
@@ -740,7 +898,7 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 	 * way subclasses can extend the parent-&gt;child behaviour meaning state
 	 * changes in the parent that influence the children.
 	 */
-	protected class ParentStateChangeHandler implements PropertyChangeListener {
+	protected class ParentStateChangeHandler implements UncoalescedPropertyChangeListener {
 
 		public void propertyChange(PropertyChangeEvent evt) {
 			parentStateChanged(evt);
@@ -776,7 +934,7 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 	 * way subclasses can extend the child-&gt;parent behaviour meaning state
 	 * changes in the child that influence the parent.
 	 */
-	protected class ChildStateChangeHandler implements PropertyChangeListener {
+	protected class ChildStateChangeHandler implements UncoalescedPropertyChangeListener {
 
 		public void propertyChange(PropertyChangeEvent evt) {
 			childStateChanged(evt);
@@ -834,6 +992,15 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 			dirtyUpdated();
 		}
 		else if (COMMITTABLE_PROPERTY.equals(evt.getPropertyName())) {
+			Object source = evt.getSource();
+			if (source instanceof FormModel) {
+				if (((FormModel) source).isCommittable()) {
+					nonCommittableChildren.remove(source);
+				}
+				else {
+					nonCommittableChildren.add(source);
+				}
+			}
 			committableUpdated();
 		}
 	}
@@ -25,6 +25,7 @@ import org.valkyriercp.binding.form.HierarchicalFormModel;
 import org.valkyriercp.binding.form.ValidatingFormModel;
 import org.valkyriercp.binding.validation.RichValidator;
 import org.valkyriercp.binding.validation.ValidationMessage;
+import org.valkyriercp.binding.validation.ValidationResults;
 import org.valkyriercp.binding.validation.ValidationResultsModel;
 import org.valkyriercp.binding.validation.Validator;
 import org.valkyriercp.binding.validation.support.DefaultValidationResults;
@@ -34,10 +35,20 @@ import org.valkyriercp.binding.value.ValueModel;
 import org.valkyriercp.binding.value.support.AbstractValueModelWrapper;
 import org.valkyriercp.util.ValkyrieRepository;
 
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Default form model implementation. Is configurable, hierarchical and
@@ -51,6 +62,17 @@ import java.util.Map;
  * validator.setRulesContextId( "mySpecialFormId" );
  * </code>
  * Along with this you will need to register your rules using the context id.
+ * <p>
+ * Validation normally runs synchronously after every property change. With
+ * {@link #setAsynchronousValidation(boolean)} property changes are coalesced
+ * over {@link #setValidationDelay(int) a quiet period} and the validator runs
+ * on a background {@link Executor}. The background validation works on a
+ * {@link FormModelSnapshot} of the form values taken on the event dispatch
+ * thread, so only a {@link RulesValidator} can be used; other validators are
+ * called on the event dispatch thread after the quiet period. Results are
+ * only applied to the validator and published (on the event dispatch thread)
+ * when the form did not change in the meantime. The form model is not committable while validation is
+ * pending, and {@link #commit()} performs any pending validation first.
  *
  * @author Keith Donald
  * @author Oliver Hutchison
@@ -70,6 +92,28 @@ public class DefaultFormModel extends AbstractFormModel implements ValidatingFor
 	private boolean oldHasErrors = false;
 
 	private Validator validator;
+
+	private final Set batchChangedProperties = new LinkedHashSet();
+
+	private boolean hasErrorsUpdatePending;
+
+	private boolean asynchronousValidation = false;
+
+	private int validationDelay = 200;
+
+	private Executor validationExecutor;
+
+	private Timer validationTimer;
+
+	/** Properties changed since the last asynchronous validation was started. */
+	private final Set pendingValidationProperties = new LinkedHashSet();
+
+	/** Incremented on every change to be validated and every published result. */
+	private long validationGeneration;
+
+	/** Generation of the asynchronous validation currently running, or -1. */
+	private long runningValidationGeneration = -1;
+
     private BindingErrorMessageProvider bindingErrorMessageProvider;
 
     public DefaultFormModel() {
@@ -238,6 +282,10 @@ public class DefaultFormModel extends AbstractFormModel implements ValidatingFor
 	}
 
 	protected void hasErrorsUpdated() {
+		if (isBatching()) {
+			hasErrorsUpdatePending = true;
+			return;
+		}
 		boolean hasErrors = getHasErrors();
 		if (hasChanged(oldHasErrors, hasErrors)) {
 			oldHasErrors = hasErrors;
@@ -272,10 +320,31 @@ public class DefaultFormModel extends AbstractFormModel implements ValidatingFor
 		validate();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * Returns <code>false</code> while an asynchronous validation is pending,
+	 * the committable property changes again when its results are published.
+	 * </p>
+	 */
 	public boolean isCommittable() {
 		final boolean superIsCommittable = super.isCommittable();
 		final boolean hasNoErrors = !getValidationResults().getHasErrors();
-		return superIsCommittable && hasNoErrors;
+		return superIsCommittable && hasNoErrors && !hasPendingValidation();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * When validating asynchronously any pending validation is performed
+	 * first, so only validated values are committed.
+	 * </p>
+	 */
+	public void commit() {
+		flushPendingValidation();
+		super.commit();
 	}
 
 	protected ValueModel preProcessNewValueModel(String formProperty, ValueModel formValueModel) {
@@ -298,7 +367,43 @@ public class DefaultFormModel extends AbstractFormModel implements ValidatingFor
 	}
 
 	protected void formPropertyValueChanged(String formProperty) {
-		validateAfterPropertyChanged(formProperty);
+		if (isBatching()) {
+			batchChangedProperties.add(formProperty);
+		}
+		else if (isAsynchronousValidation()) {
+			scheduleValidation(formProperty);
+		}
+		else {
+			validateAfterPropertyChanged(formProperty);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * Validates once for all properties changed during the batch: a single
+	 * changed property is validated on its own, several changed properties
+	 * result in one validation of the whole form object.
+	 * </p>
+	 */
+	protected void batchEnded() {
+		if (!batchChangedProperties.isEmpty()) {
+			String formProperty = batchChangedProperties.size() == 1 ? (String) batchChangedProperties.iterator()
+					.next() : null;
+			batchChangedProperties.clear();
+			if (isAsynchronousValidation()) {
+				scheduleValidation(formProperty);
+			}
+			else {
+				validateAfterPropertyChanged(formProperty);
+			}
+		}
+		if (hasErrorsUpdatePending) {
+			hasErrorsUpdatePending = false;
+			hasErrorsUpdated();
+		}
+		super.batchEnded();
 	}
 
 	/**
@@ -311,18 +416,209 @@ public class DefaultFormModel extends AbstractFormModel implements ValidatingFor
 		if (isValidating()) {
 			Validator validator = getValidator();
 			if (validator != null) {
-				DefaultValidationResults validationResults = new DefaultValidationResults(bindingErrorMessages.values());
-				if (formProperty != null && validator instanceof RichValidator) {
-					validationResults.addAllMessages(((RichValidator) validator)
-							.validate(getFormObject(), formProperty));
+				ValidationResults results = runValidator(validator, getFormObject(), formProperty);
+				// results of a running asynchronous validation are outdated now
+				validationGeneration++;
+				publishValidationResults(results);
+			}
+		}
+	}
+
+	/**
+	 * Runs the validator and returns a copy of its results, as validators
+	 * may reuse their results object.
+	 */
+	private ValidationResults runValidator(Validator validator, Object formObject, String formProperty) {
+		DefaultValidationResults validationResults = new DefaultValidationResults();
+		if (formProperty != null && validator instanceof RichValidator) {
+			validationResults.addAllMessages(((RichValidator) validator).validate(formObject, formProperty));
+		}
+		else {
+			validationResults.addAllMessages(validator.validate(formObject));
+		}
+		return validationResults;
+	}
+
+	private void publishValidationResults(ValidationResults validatorResults) {
+		DefaultValidationResults validationResults = new DefaultValidationResults(bindingErrorMessages.values());
+		validationResults.addAllMessages(validatorResults);
+		validationResults.addAllMessages(additionalValidationResults);
+		validationResultsModel.updateValidationResults(validationResults);
+	}
+
+	/**
+	 * Returns <code>true</code> if property changes are validated on a
+	 * background executor.
+	 */
+	public boolean isAsynchronousValidation() {
+		return asynchronousValidation;
+	}
+
+	/**
+	 * Enable or disable asynchronous validation. Disabling it performs any
+	 * pending validation immediately.
+	 *
+	 * <p>
+	 * A {@link RulesValidator} checks its rules off the event dispatch thread
+	 * against a {@link FormModelSnapshot} of the form values, its cached
+	 * results and messages are only updated on the event dispatch thread.
+	 * Other validators are called on the event dispatch thread.
+	 * </p>
+	 */
+	public void setAsynchronousValidation(boolean asynchronousValidation) {
+		if (!asynchronousValidation) {
+			flushPendingValidation();
+		}
+		this.asynchronousValidation = asynchronousValidation;
+	}
+
+	/**
+	 * Returns the quiet period in milliseconds during which property changes
+	 * are coalesced before an asynchronous validation starts.
+	 */
+	public int getValidationDelay() {
+		return validationDelay;
+	}
+
+	public void setValidationDelay(int validationDelay) {
+		Assert.isTrue(validationDelay >= 0, "validationDelay must not be negative");
+		this.validationDelay = validationDelay;
+		if (validationTimer != null) {
+			validationTimer.setInitialDelay(validationDelay);
+		}
+	}
+
+	/**
+	 * Returns the executor running asynchronous validations. Defaults to a
+	 * single daemon thread shared by all form models.
+	 */
+	public Executor getValidationExecutor() {
+		if (validationExecutor == null) {
+			validationExecutor = ValidationExecutorHolder.EXECUTOR;
+		}
+		return validationExecutor;
+	}
+
+	public void setValidationExecutor(Executor validationExecutor) {
+		this.validationExecutor = validationExecutor;
+	}
+
+	/**
+	 * Returns <code>true</code> if changes have been made that are not yet
+	 * reflected in the validation results.
+	 */
+	public boolean hasPendingValidation() {
+		return !pendingValidationProperties.isEmpty() || runningValidationGeneration == validationGeneration;
+	}
+
+	/**
+	 * Performs any pending asynchronous validation synchronously. Results of
+	 * a validation still running in the background will be discarded.
+	 */
+	public void flushPendingValidation() {
+		if (hasPendingValidation()) {
+			if (validationTimer != null) {
+				validationTimer.stop();
+			}
+			pendingValidationProperties.clear();
+			validateAfterPropertyChanged(null);
+			committableUpdated();
+		}
+	}
+
+	private void scheduleValidation(String formProperty) {
+		pendingValidationProperties.add(formProperty);
+		validationGeneration++;
+		if (validationTimer == null) {
+			validationTimer = new Timer(validationDelay, new ActionListener() {
+
+				public void actionPerformed(ActionEvent e) {
+					startAsynchronousValidation();
+				}
+			});
+			validationTimer.setRepeats(false);
+		}
+		validationTimer.restart();
+		committableUpdated();
+	}
+
+	private void startAsynchronousValidation() {
+		if (pendingValidationProperties.isEmpty()) {
+			return;
+		}
+		final String formProperty = pendingValidationProperties.size() == 1 ? (String) pendingValidationProperties
+				.iterator().next() : null;
+		pendingValidationProperties.clear();
+		if (!isValidating()) {
+			committableUpdated();
+			return;
+		}
+		Validator validator = getValidator();
+		if (!(validator instanceof RulesValidator)) {
+			// only the form values can be copied, validate the live form object
+			validateAfterPropertyChanged(formProperty);
+			committableUpdated();
+			return;
+		}
+		final RulesValidator rulesValidator = (RulesValidator) validator;
+		final Object formObject = getFormObject();
+		final FormModelSnapshot snapshot = new FormModelSnapshot(this);
+		final long generation = validationGeneration;
+		runningValidationGeneration = generation;
+		getValidationExecutor().execute(new Runnable() {
+
+			public void run() {
+				RulesValidator.PendingResults results = null;
+				try {
+					results = rulesValidator.validate(formObject, formProperty, snapshot);
 				}
-				else {
-					validationResults.addAllMessages(validator.validate(getFormObject()));
+				catch (RuntimeException e) {
+					logger.error("Asynchronous validation of '" + formProperty + "' failed", e);
 				}
-				validationResults.addAllMessages(additionalValidationResults);
-				validationResultsModel.updateValidationResults(validationResults);
+				final RulesValidator.PendingResults pendingResults = results;
+				SwingUtilities.invokeLater(new Runnable() {
+
+					public void run() {
+						asynchronousValidationFinished(generation, rulesValidator, pendingResults);
+					}
+				});
+			}
+		});
+	}
+
+	private void asynchronousValidationFinished(long generation, RulesValidator rulesValidator,
+			RulesValidator.PendingResults pendingResults) {
+		if (runningValidationGeneration == generation) {
+			runningValidationGeneration = -1;
+		}
+		// otherwise the form changed while validating, a new validation is scheduled
+		if (generation == validationGeneration) {
+			if (pendingResults == null) {
+				// the validator failed, fall back to validating on the EDT
+				validateAfterPropertyChanged(null);
+			}
+			else if (isValidating()) {
+				DefaultValidationResults validatorResults = new DefaultValidationResults();
+				validatorResults.addAllMessages(rulesValidator.apply(pendingResults));
+				publishValidationResults(validatorResults);
 			}
 		}
+		committableUpdated();
+	}
+
+	/**
+	 * Lazily creates the default executor for asynchronous validation.
+	 */
+	private static class ValidationExecutorHolder {
+
+		static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "form-validation");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
 	}
 
 	protected void raiseBindingError(ValidatingFormValueModel valueModel, Object valueBeingSet, Exception e) {
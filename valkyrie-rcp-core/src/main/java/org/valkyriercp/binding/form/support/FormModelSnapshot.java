@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.binding.form.support;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.NotReadablePropertyException;
+import org.valkyriercp.binding.PropertyAccessStrategy;
+import org.valkyriercp.binding.PropertyMetadataAccessStrategy;
+import org.valkyriercp.binding.form.FieldMetadata;
+import org.valkyriercp.binding.form.FormModel;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Copy of the current property values of a <code>FormModel</code>, accessible
+ * using the <code>PropertyAccessStrategy</code> interface. A snapshot is taken
+ * on the event dispatch thread and can then be read from any thread, for
+ * instance to validate the form in the background.
+ *
+ * @see FormModelPropertyAccessStrategy
+ */
+public class FormModelSnapshot implements PropertyAccessStrategy {
+
+    private final Object domainObject;
+
+    private final Map values = new HashMap();
+
+    private final Map propertyTypes = new HashMap();
+
+    private final Map readOnly = new HashMap();
+
+    private final Map userMetadata = new HashMap();
+
+    /**
+     * Copies the values of all properties that have a value model in the
+     * given form model. Must be called on the thread that changes the form.
+     */
+    public FormModelSnapshot(FormModel formModel) {
+        this.domainObject = formModel.getFormObject();
+        for (Iterator i = formModel.getFieldNames().iterator(); i.hasNext();) {
+            String propertyName = (String) i.next();
+            FieldMetadata metadata = formModel.getFieldMetadata(propertyName);
+            values.put(propertyName, formModel.getValueModel(propertyName).getValue());
+            propertyTypes.put(propertyName, metadata.getPropertyType());
+            readOnly.put(propertyName, Boolean.valueOf(metadata.isReadOnly()));
+            Map allUserMetadata = metadata.getAllUserMetadata();
+            userMetadata.put(propertyName, allUserMetadata == null ? null : new HashMap(allUserMetadata));
+        }
+    }
+
+    /**
+     * Returns the names of the properties in this snapshot.
+     */
+    public Set getFieldNames() {
+        return Collections.unmodifiableSet(values.keySet());
+    }
+
+    public Object getPropertyValue(String propertyPath) throws BeansException {
+        if (!values.containsKey(propertyPath)) {
+            throw new NotReadablePropertyException(domainObject == null ? null : domainObject.getClass(),
+                    propertyPath, "Property is not part of the form model snapshot");
+        }
+        return values.get(propertyPath);
+    }
+
+    public PropertyMetadataAccessStrategy getMetadataAccessStrategy() {
+        return new SnapshotPropertyMetadataAccessStrategy();
+    }
+
+    public Object getDomainObject() {
+        return domainObject;
+    }
+
+    private class SnapshotPropertyMetadataAccessStrategy implements PropertyMetadataAccessStrategy {
+
+        private SnapshotPropertyMetadataAccessStrategy() {
+        }
+
+        public boolean isReadable(String propertyName) {
+            return values.containsKey(propertyName);
+        }
+
+        public boolean isWriteable(String propertyName) {
+            return Boolean.FALSE.equals(readOnly.get(propertyName));
+        }
+
+        public Class getPropertyType(String propertyName) {
+            return (Class) propertyTypes.get(propertyName);
+        }
+
+        public Object getUserMetadata(String propertyName, String key) {
+            Map metadata = getAllUserMetadata(propertyName);
+            return metadata == null ? null : metadata.get(key);
+        }
+
+        public Map getAllUserMetadata(String propertyName) {
+            return (Map) userMetadata.get(propertyName);
+        }
+    }
+}
@@ -25,7 +25,7 @@ import org.valkyriercp.binding.form.FieldFace;
 import org.valkyriercp.binding.form.FormModel;
 import org.valkyriercp.core.support.LabelInfo;
 import org.valkyriercp.image.IconSource;
-import org.valkyriercp.util.ReflectiveVisitorHelper;
+import org.valkyriercp.util.VisitorDispatcher;
 
 import javax.swing.*;
 
@@ -75,7 +75,7 @@ public class MessageSourceFieldFaceSource extends CachingFieldFaceSource {
     @Autowired
     private IconSource iconSource;
 
-    private final ReflectiveVisitorHelper visitorHelper = new ReflectiveVisitorHelper();
+    private final VisitorDispatcher visitorHelper = VisitorDispatcher.getInstance();
 
     /**
      * Constructs a new MessageSourcePropertyFaceDescriptorSource.
@@ -21,6 +21,7 @@ import org.springframework.binding.collection.AbstractCachingMapDecorator;
 import org.springframework.util.Assert;
 import org.valkyriercp.binding.MutablePropertyAccessStrategy;
 import org.valkyriercp.binding.PropertyMetadataAccessStrategy;
+import org.valkyriercp.binding.beans.PropertyPath;
 import org.valkyriercp.binding.value.ValueModel;
 import org.valkyriercp.binding.value.support.AbstractValueModel;
 import org.valkyriercp.binding.value.support.ValueHolder;
@@ -45,7 +46,7 @@ public abstract class AbstractPropertyAccessStrategy implements MutablePropertyA
 
 	private final ValueModel domainObjectHolder;
 
-	private final String basePropertyPath;
+	private final PropertyPath basePropertyPath;
 
 	private final ValueModelCache valueModelCache;
 
@@ -72,7 +73,7 @@ public abstract class AbstractPropertyAccessStrategy implements MutablePropertyA
 		Assert.notNull(domainObjectHolder, "domainObjectHolder must not be null.");
 		this.domainObjectHolder = domainObjectHolder;
 		this.domainObjectHolder.addValueChangeListener(new DomainObjectChangeListener());
-		this.basePropertyPath = "";
+		this.basePropertyPath = PropertyPath.EMPTY;
 		this.valueModelCache = new ValueModelCache();
 		this.metaAspectAccessor = new PropertyMetaAspectAccessor();
 	}
@@ -88,7 +89,7 @@ public abstract class AbstractPropertyAccessStrategy implements MutablePropertyA
 	 */
 	protected AbstractPropertyAccessStrategy(AbstractPropertyAccessStrategy parent, String basePropertyPath) {
 		this.domainObjectHolder = parent.getPropertyValueModel(basePropertyPath);
-		this.basePropertyPath = basePropertyPath;
+		this.basePropertyPath = PropertyPath.valueOf(basePropertyPath);
 		this.valueModelCache = parent.valueModelCache;
 		this.metaAspectAccessor = new PropertyMetaAspectAccessor();
 	}
@@ -140,60 +141,34 @@ public abstract class AbstractPropertyAccessStrategy implements MutablePropertyA
 	 * class.
 	 */
 	protected String getFullPropertyPath(String propertyPath) {
-		if (basePropertyPath.equals("")) {
+		if (basePropertyPath == PropertyPath.EMPTY) {
 			return propertyPath;
 		}
-		else if (propertyPath.equals("")) {
-			return basePropertyPath;
-		}
-		else {
-			return basePropertyPath + '.' + propertyPath;
-		}
+		return basePropertyPath.append(propertyPath).getPath();
 	}
 
 	/**
 	 * Extracts the property name from a propertyPath.
 	 */
 	protected String getPropertyName(String propertyPath) {
-		int lastSeparator = getLastPropertySeparatorIndex(propertyPath);
-		if (lastSeparator == -1) {
-			return propertyPath;
-		}
-		if (propertyPath.charAt(lastSeparator) == PropertyAccessor.NESTED_PROPERTY_SEPARATOR_CHAR)
-			return propertyPath.substring(lastSeparator + 1);
-
-		return propertyPath.substring(lastSeparator);
+		return PropertyPath.valueOf(propertyPath).getPropertyName();
 	}
 
 	/**
 	 * Returns the property name component of the provided property path.
 	 */
 	protected String getParentPropertyPath(String propertyPath) {
-		int lastSeparator = getLastPropertySeparatorIndex(propertyPath);
-		return lastSeparator == -1 ? "" : propertyPath.substring(0, lastSeparator);
+		return PropertyPath.valueOf(propertyPath).getParentPath();
 	}
 
 	/**
 	 * Returns the index of the last nested property separator in the given
 	 * property path, ignoring dots in keys (like "map[my.key]").
+	 *
+	 * @deprecated use {@link PropertyPath#getLastSeparatorIndex()}
 	 */
 	protected int getLastPropertySeparatorIndex(String propertyPath) {
-		boolean inKey = false;
-		for (int i = propertyPath.length() - 1; i >= 0; i--) {
-			switch (propertyPath.charAt(i)) {
-			case PropertyAccessor.PROPERTY_KEY_SUFFIX_CHAR:
-				inKey = true;
-				break;
-			case PropertyAccessor.PROPERTY_KEY_PREFIX_CHAR:
-				return i;
-			case PropertyAccessor.NESTED_PROPERTY_SEPARATOR_CHAR:
-				if (!inKey) {
-					return i;
-				}
-				break;
-			}
-		}
-		return -1;
+		return PropertyPath.valueOf(propertyPath).getLastSeparatorIndex();
 	}
 
 	public abstract MutablePropertyAccessStrategy getPropertyAccessStrategyForPath(String propertyPath)
@@ -18,11 +18,23 @@ package org.valkyriercp.binding.support;
 import org.springframework.beans.BeanWrapper;
 import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.InvalidPropertyException;
+import org.springframework.beans.MethodInvocationException;
 import org.springframework.beans.PropertyAccessor;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.PropertyValues;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.util.ClassUtils;
 import org.valkyriercp.binding.MutablePropertyAccessStrategy;
+import org.valkyriercp.binding.beans.FormBindable;
+import org.valkyriercp.binding.beans.GeneratedPropertyAccessors;
+import org.valkyriercp.binding.beans.GeneratedPropertyAccessorsRegistry;
 import org.valkyriercp.binding.value.ValueModel;
 import org.valkyriercp.binding.value.support.ValueHolder;
 
+import java.beans.PropertyChangeEvent;
+import java.util.Map;
+
 /**
  * An implementation of <code>MutablePropertyAccessStrategy</code> that provides access
  * to the properties of a JavaBean.
@@ -30,6 +42,9 @@ import org.valkyriercp.binding.value.support.ValueHolder;
  * <p>As this class delegates to a <code>BeanWrapper</code> for property access, there is
  * full support for <b>nested properties</b>, enabling the setting/getting
  * of properties on subproperties to an unlimited depth.
+ * <p>Simple properties of beans annotated with {@link FormBindable} are read and
+ * written through their generated {@link GeneratedPropertyAccessors} instead of
+ * the <code>BeanWrapper</code>, as long as no type conversion is needed.
  *
  * @author Oliver Hutchison
  * @author Arne Limburg
@@ -39,6 +54,8 @@ public class BeanPropertyAccessStrategy extends AbstractPropertyAccessStrategy {
 
     private final BeanWrapperImpl beanWrapper;
 
+    private final PropertyAccessor propertyAccessor;
+
     /**
      * Creates a new instance of BeanPropertyAccessStrategy that will provide access
      * to the properties of the provided JavaBean.
@@ -60,6 +77,7 @@ public class BeanPropertyAccessStrategy extends AbstractPropertyAccessStrategy {
     	super(domainObjectHolder);
         this.beanWrapper = new BeanWrapperImpl(false);
         this.beanWrapper. setWrappedInstance(domainObjectHolder.getValue());
+        this.propertyAccessor = new GeneratedPropertyAccessorAdapter();
     }
 
     /**
@@ -73,6 +91,7 @@ public class BeanPropertyAccessStrategy extends AbstractPropertyAccessStrategy {
     protected BeanPropertyAccessStrategy(BeanPropertyAccessStrategy parent, String basePropertyPath) {
     	super(parent, basePropertyPath);
         this.beanWrapper = parent.beanWrapper;
+        this.propertyAccessor = parent.propertyAccessor;
     }
 
     /**
@@ -88,7 +107,7 @@ public class BeanPropertyAccessStrategy extends AbstractPropertyAccessStrategy {
      * @return Spring <code>BeanWrapper</code> used to access the bean.
      */
     protected PropertyAccessor getPropertyAccessor() {
-    	return beanWrapper;
+    	return propertyAccessor;
     }
 
     public MutablePropertyAccessStrategy getPropertyAccessStrategyForPath(String propertyPath) throws BeansException {
@@ -102,4 +121,88 @@ public class BeanPropertyAccessStrategy extends AbstractPropertyAccessStrategy {
     protected void domainObjectChanged() {
     	beanWrapper.setWrappedInstance(getDomainObject());
     }
+
+    /**
+     * Uses the generated accessors of the wrapped bean for simple properties,
+     * if there are any, and delegates to the <code>BeanWrapper</code> otherwise.
+     */
+    private class GeneratedPropertyAccessorAdapter implements PropertyAccessor {
+
+        private GeneratedPropertyAccessors getGeneratedAccessors(String propertyName) {
+            if (propertyName.indexOf(NESTED_PROPERTY_SEPARATOR_CHAR) != -1
+                    || propertyName.indexOf(PROPERTY_KEY_PREFIX_CHAR) != -1) {
+                return null;
+            }
+            Object bean = beanWrapper.getWrappedInstance();
+            return bean == null ? null : GeneratedPropertyAccessorsRegistry.getAccessors(bean.getClass());
+        }
+
+        public boolean isReadableProperty(String propertyName) {
+            return beanWrapper.isReadableProperty(propertyName);
+        }
+
+        public boolean isWritableProperty(String propertyName) {
+            return beanWrapper.isWritableProperty(propertyName);
+        }
+
+        public Class getPropertyType(String propertyName) throws BeansException {
+            return beanWrapper.getPropertyType(propertyName);
+        }
+
+        public TypeDescriptor getPropertyTypeDescriptor(String propertyName) throws BeansException {
+            return beanWrapper.getPropertyTypeDescriptor(propertyName);
+        }
+
+        public Object getPropertyValue(String propertyName) throws BeansException {
+            GeneratedPropertyAccessors generated = getGeneratedAccessors(propertyName);
+            if (generated == null || !generated.isReadable(propertyName)) {
+                return beanWrapper.getPropertyValue(propertyName);
+            }
+            try {
+                return generated.getValue(beanWrapper.getWrappedInstance(), propertyName);
+            }
+            catch (RuntimeException e) {
+                throw new InvalidPropertyException(generated.getTargetClass(), propertyName,
+                        "Getter for property '" + propertyName + "' threw exception", e);
+            }
+        }
+
+        public void setPropertyValue(String propertyName, Object value) throws BeansException {
+            GeneratedPropertyAccessors generated = getGeneratedAccessors(propertyName);
+            if (generated == null || !generated.isWritable(propertyName)
+                    || !ClassUtils.isAssignableValue(generated.getPropertyType(propertyName), value)) {
+                // let the bean wrapper do the type conversion
+                beanWrapper.setPropertyValue(propertyName, value);
+                return;
+            }
+            Object bean = beanWrapper.getWrappedInstance();
+            try {
+                generated.setValue(bean, propertyName, value);
+            }
+            catch (RuntimeException e) {
+                throw new MethodInvocationException(new PropertyChangeEvent(bean, propertyName, null, value), e);
+            }
+        }
+
+        public void setPropertyValue(PropertyValue pv) throws BeansException {
+            beanWrapper.setPropertyValue(pv);
+        }
+
+        public void setPropertyValues(Map map) throws BeansException {
+            beanWrapper.setPropertyValues(map);
+        }
+
+        public void setPropertyValues(PropertyValues pvs) throws BeansException {
+            beanWrapper.setPropertyValues(pvs);
+        }
+
+        public void setPropertyValues(PropertyValues pvs, boolean ignoreUnknown) throws BeansException {
+            beanWrapper.setPropertyValues(pvs, ignoreUnknown);
+        }
+
+        public void setPropertyValues(PropertyValues pvs, boolean ignoreUnknown, boolean ignoreInvalid)
+                throws BeansException {
+            beanWrapper.setPropertyValues(pvs, ignoreUnknown, ignoreInvalid);
+        }
+    }
 }
@@ -115,6 +115,18 @@ public class ClassPropertyAccessStrategy extends AbstractPropertyAccessStrategy
 		return new ClassPropertyAccessStrategy(domainObjectHolder);
 	}
 
+	/**
+	 * Sets whether the properties are accessed through cached
+	 * <code>MethodHandle</code>s instead of reflection. As the property accessor
+	 * is shared with all child strategies, this affects them as well.
+	 *
+	 * @param compiledAccessEnabled <code>true</code> to use compiled access.
+	 * @see DefaultMemberPropertyAccessor#setCompiledAccessEnabled(boolean)
+	 */
+	public void setCompiledAccessEnabled(boolean compiledAccessEnabled) {
+		propertyAccessor.setCompiledAccessEnabled(compiledAccessEnabled);
+	}
+
 	protected void domainObjectChanged() {
 		propertyAccessor.setTarget(getDomainObject());
 	}
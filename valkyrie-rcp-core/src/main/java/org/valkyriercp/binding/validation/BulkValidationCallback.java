@@ -0,0 +1,37 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.binding.validation;
+
+/**
+ * Callback receiving the {@link ValidationResults} of each object validated by
+ * a bulk validation.
+ *
+ * @see org.valkyriercp.binding.validation.support.BulkRulesValidator
+ */
+public interface BulkValidationCallback {
+
+	/**
+	 * Called once for every validated object, as soon as its validation has
+	 * finished. Objects are validated in parallel, so this method can be called
+	 * concurrently from several threads and in no particular order.
+	 *
+	 * @param index the position of the object in the validated collection
+	 * @param object the validated object
+	 * @param results the validation results of the object, never
+	 * <code>null</code>
+	 */
+	public void objectValidated(int index, Object object, ValidationResults results);
+}
@@ -0,0 +1,302 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.binding.validation.support;
+
+import org.springframework.util.Assert;
+import org.valkyriercp.binding.PropertyAccessStrategy;
+import org.valkyriercp.binding.support.BeanPropertyAccessStrategy;
+import org.valkyriercp.binding.validation.BulkValidationCallback;
+import org.valkyriercp.binding.validation.ValidationResults;
+import org.valkyriercp.core.Severity;
+import org.valkyriercp.rules.Rules;
+import org.valkyriercp.rules.RulesSource;
+import org.valkyriercp.rules.constraint.ConstraintCompiler;
+import org.valkyriercp.rules.constraint.property.PropertyConstraint;
+import org.valkyriercp.rules.reporting.BeanValidationResultsCollector;
+import org.valkyriercp.rules.reporting.MessageTranslationCache;
+import org.valkyriercp.rules.reporting.MessageTranslator;
+import org.valkyriercp.rules.reporting.PropertyResults;
+import org.valkyriercp.util.ValkyrieRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Validates whole collections of domain objects against the rules found in a
+ * {@link RulesSource}, without the need for a form model per object.
+ * <p>
+ * The objects are split in chunks which are validated in parallel on a
+ * {@link ForkJoinPool}. Each object is accessed through its own
+ * {@link BeanPropertyAccessStrategy} and is tested with the compiled
+ * constraints of its {@link Rules}; only failing constraints go through a
+ * results collector to build their message. The results of each object are
+ * passed to a {@link BulkValidationCallback} as soon as they are available.
+ * <p>
+ * Translated messages are reused for the same property and the same violated
+ * constraints, so a message is translated only once per validator even if
+ * thousands of objects violate the same rule. This assumes the translated
+ * message does not depend on the rejected value, which holds for the
+ * {@link org.valkyriercp.rules.reporting.DefaultMessageTranslator}; use
+ * {@link #setReuseMessages(boolean)} to turn it off for other translators.
+ * Calls to the message translator are synchronized on the translator, so it
+ * doesn't have to be thread safe.
+ */
+public class BulkRulesValidator {
+
+	private RulesSource rulesSource;
+
+	private MessageTranslator messageTranslator;
+
+	private ForkJoinPool forkJoinPool;
+
+	private int chunkSize = 256;
+
+	private boolean reuseMessages = true;
+
+	private final ConcurrentHashMap translatedMessages = new ConcurrentHashMap();
+
+	/**
+	 * Creates a BulkRulesValidator using the global RulesSource and a message
+	 * translator created by the global message translator factory.
+	 */
+	public BulkRulesValidator() {
+		this(null, null);
+	}
+
+	/**
+	 * Creates a BulkRulesValidator using the given RulesSource and message
+	 * translator. Either can be <code>null</code> to use the global one.
+	 */
+	public BulkRulesValidator(RulesSource rulesSource, MessageTranslator messageTranslator) {
+		this.rulesSource = rulesSource;
+		this.messageTranslator = messageTranslator;
+	}
+
+	/**
+	 * Validates all objects in the given collection against the rules of the
+	 * given bean class and rules context. This method blocks until all objects
+	 * have been validated.
+	 *
+	 * @param objects the objects to validate, all instances of
+	 * <code>beanClass</code>
+	 * @param beanClass the class used to look up the rules
+	 * @param rulesContextId the rules context id, can be <code>null</code>
+	 * @param callback receives the results of each object
+	 * @return the number of objects having validation errors
+	 */
+	public int validate(Collection objects, Class beanClass, String rulesContextId, BulkValidationCallback callback) {
+		Assert.notNull(objects, "objects is required");
+		Assert.notNull(beanClass, "beanClass is required");
+		Assert.notNull(callback, "callback is required");
+		Rules rules = getRulesSource().getRules(beanClass, rulesContextId);
+		List constraints = new ArrayList();
+		if (rules != null) {
+			for (Iterator i = rules.iterator(); i.hasNext();) {
+				constraints.add(i.next());
+			}
+		}
+		PropertyConstraint[] rulesArray = (PropertyConstraint[]) constraints
+				.toArray(new PropertyConstraint[constraints.size()]);
+		PropertyConstraint[] compiledRules = new PropertyConstraint[rulesArray.length];
+		for (int i = 0; i < rulesArray.length; i++) {
+			compiledRules[i] = rules.getCompiledConstraint(rulesArray[i]);
+		}
+		// resolve the translator before the workers need it
+		getMessageTranslator();
+		BulkValidation validation = new BulkValidation(objects.toArray(), rulesArray, compiledRules, callback);
+		getForkJoinPool().invoke(new ValidationTask(validation, 0, validation.objects.length));
+		return validation.invalidCount.get();
+	}
+
+	private void validateObject(BulkValidation validation, int index) {
+		Object object = validation.objects[index];
+		BeanPropertyAccessStrategy accessStrategy = new BeanPropertyAccessStrategy(object);
+		PropertyAccessStrategy compiledValues = ConstraintCompiler.cachingAccessStrategy(accessStrategy);
+		DefaultValidationResults results = null;
+		for (int i = 0; i < validation.rules.length; i++) {
+			if (validation.compiledRules[i].test(compiledValues)) {
+				continue;
+			}
+			BeanValidationResultsCollector resultsCollector = new BeanValidationResultsCollector(accessStrategy);
+			PropertyResults propertyResults = resultsCollector.collectPropertyResults(validation.rules[i]);
+			if (propertyResults != null) {
+				if (results == null) {
+					results = new DefaultValidationResults();
+				}
+				results.addMessage(new DefaultValidationMessage(validation.rules[i].getPropertyName(),
+						Severity.ERROR, getMessage(propertyResults)));
+			}
+		}
+		if (results != null) {
+			validation.invalidCount.incrementAndGet();
+		}
+		validation.callback.objectValidated(index, object,
+				results == null ? EmptyValidationResults.INSTANCE : (ValidationResults) results);
+	}
+
+	private String getMessage(PropertyResults propertyResults) {
+		if (!reuseMessages) {
+			return translate(propertyResults);
+		}
+		Object key = Arrays.asList(new Object[] { propertyResults.getPropertyName(),
+				MessageTranslationCache.getConstraintKey(propertyResults.getViolatedConstraint()) });
+		String message = (String) translatedMessages.get(key);
+		if (message == null) {
+			MessageTranslator translator = getMessageTranslator();
+			synchronized (translator) {
+				message = (String) translatedMessages.get(key);
+				if (message == null) {
+					message = translator.getMessage(propertyResults);
+					translatedMessages.put(key, message);
+				}
+			}
+		}
+		return message;
+	}
+
+	private String translate(PropertyResults propertyResults) {
+		MessageTranslator translator = getMessageTranslator();
+		synchronized (translator) {
+			return translator.getMessage(propertyResults);
+		}
+	}
+
+	public RulesSource getRulesSource() {
+		if (rulesSource == null) {
+			rulesSource = ValkyrieRepository.getInstance().getApplicationConfig().rulesSource();
+		}
+		return rulesSource;
+	}
+
+	public void setRulesSource(RulesSource rulesSource) {
+		this.rulesSource = rulesSource;
+	}
+
+	public MessageTranslator getMessageTranslator() {
+		if (messageTranslator == null) {
+			messageTranslator = ValkyrieRepository.getInstance().getApplicationConfig().messageTranslatorFactory()
+					.createTranslator(null);
+		}
+		return messageTranslator;
+	}
+
+	public void setMessageTranslator(MessageTranslator messageTranslator) {
+		this.messageTranslator = messageTranslator;
+		translatedMessages.clear();
+	}
+
+	/**
+	 * Returns the pool used to validate the objects. Defaults to a pool shared
+	 * by all bulk validators, with one thread per available processor.
+	 */
+	public ForkJoinPool getForkJoinPool() {
+		if (forkJoinPool == null) {
+			forkJoinPool = ForkJoinPoolHolder.POOL;
+		}
+		return forkJoinPool;
+	}
+
+	public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+		this.forkJoinPool = forkJoinPool;
+	}
+
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * Sets the number of objects validated sequentially by one task. Larger
+	 * collections are split until the chunks are no larger than this.
+	 * Defaults to 256.
+	 */
+	public void setChunkSize(int chunkSize) {
+		Assert.isTrue(chunkSize > 0, "chunkSize must be positive");
+		this.chunkSize = chunkSize;
+	}
+
+	public boolean isReuseMessages() {
+		return reuseMessages;
+	}
+
+	/**
+	 * Sets whether translated messages are reused for objects violating the
+	 * same constraints of the same property. Defaults to <code>true</code>.
+	 */
+	public void setReuseMessages(boolean reuseMessages) {
+		this.reuseMessages = reuseMessages;
+		translatedMessages.clear();
+	}
+
+	private static class BulkValidation {
+
+		final Object[] objects;
+
+		final PropertyConstraint[] rules;
+
+		final PropertyConstraint[] compiledRules;
+
+		final BulkValidationCallback callback;
+
+		final AtomicInteger invalidCount = new AtomicInteger();
+
+		BulkValidation(Object[] objects, PropertyConstraint[] rules, PropertyConstraint[] compiledRules,
+				BulkValidationCallback callback) {
+			this.objects = objects;
+			this.rules = rules;
+			this.compiledRules = compiledRules;
+			this.callback = callback;
+		}
+	}
+
+	private class ValidationTask extends RecursiveAction {
+
+		private final BulkValidation validation;
+
+		private final int start;
+
+		private final int end;
+
+		ValidationTask(BulkValidation validation, int start, int end) {
+			this.validation = validation;
+			this.start = start;
+			this.end = end;
+		}
+
+		protected void compute() {
+			if (end - start <= chunkSize) {
+				for (int i = start; i < end; i++) {
+					validateObject(validation, i);
+				}
+			}
+			else {
+				int middle = (start + end) >>> 1;
+				invokeAll(new ValidationTask(validation, start, middle), new ValidationTask(validation, middle, end));
+			}
+		}
+	}
+
+	private static class ForkJoinPoolHolder {
+
+		static final ForkJoinPool POOL = new ForkJoinPool();
+	}
+}
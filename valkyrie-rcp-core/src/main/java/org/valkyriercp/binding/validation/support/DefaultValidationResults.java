@@ -15,36 +15,28 @@
  */
 package org.valkyriercp.binding.validation.support;
 
-import org.springframework.binding.collection.AbstractCachingMapDecorator;
 import org.springframework.core.style.ToStringCreator;
-import org.springframework.util.ObjectUtils;
 import org.valkyriercp.binding.validation.ValidationMessage;
 import org.valkyriercp.binding.validation.ValidationResults;
 import org.valkyriercp.core.Severity;
 
 import java.util.*;
 
+/**
+ * Default mutable implementation of {@link ValidationResults}. Besides the
+ * set of all messages, the messages are indexed by property and by severity.
+ * The indexes are updated as messages are added or removed, so the per
+ * property and per severity queries don't scan all messages.
+ */
 public class DefaultValidationResults implements ValidationResults {
 
     private final Set messages = new HashSet();
 
-    private AbstractCachingMapDecorator messagesSubSets = new AbstractCachingMapDecorator() {
-
-        protected Object create(Object key) {
-            Set messagesSubSet = new HashSet();
-            for (Iterator i = messages.iterator(); i.hasNext();) {
-                ValidationMessage message = (ValidationMessage)i.next();
-                if (key instanceof Severity && message.getSeverity().equals(key)) {
-                    messagesSubSet.add(message);
-                }
-                else if (ObjectUtils.nullSafeEquals(message.getProperty(), key)) {
-                    messagesSubSet.add(message);
-                }
-            }
-            return Collections.unmodifiableSet(messagesSubSet);
-        }
+    /** Messages keyed by property name; a key is removed when it has no messages left. */
+    private final Map messagesByProperty = new HashMap();
 
-    };
+    /** Messages keyed by {@link Severity}; a key is removed when it has no messages left. */
+    private final Map messagesBySeverity = new HashMap();
 
     public DefaultValidationResults() {
     }
@@ -62,14 +54,15 @@ public class DefaultValidationResults implements ValidationResults {
     }
 
     public void addAllMessages(Collection validationMessages) {
-        if (messages.addAll(validationMessages)) {
-            messagesSubSets.clear();
+        for (Iterator i = validationMessages.iterator(); i.hasNext();) {
+            addMessage((ValidationMessage)i.next());
         }
     }
 
     public void addMessage(ValidationMessage validationMessage) {
         if (messages.add(validationMessage)) {
-            messagesSubSets.clear();
+            index(messagesByProperty, validationMessage.getProperty(), validationMessage);
+            index(messagesBySeverity, validationMessage.getSeverity(), validationMessage);
         }
     }
 
@@ -78,8 +71,26 @@ public class DefaultValidationResults implements ValidationResults {
     }
 
     public void removeMessage(ValidationMessage message) {
-        messages.remove(message);
-        messagesSubSets.clear();
+        if (messages.remove(message)) {
+            unindex(messagesByProperty, message.getProperty(), message);
+            unindex(messagesBySeverity, message.getSeverity(), message);
+        }
+    }
+
+    private static void index(Map index, Object key, ValidationMessage message) {
+        Set subSet = (Set)index.get(key);
+        if (subSet == null) {
+            subSet = new HashSet();
+            index.put(key, subSet);
+        }
+        subSet.add(message);
+    }
+
+    private static void unindex(Map index, Object key, ValidationMessage message) {
+        Set subSet = (Set)index.get(key);
+        if (subSet != null && subSet.remove(message) && subSet.isEmpty()) {
+            index.remove(key);
+        }
     }
 
     public boolean getHasErrors() {
@@ -99,11 +110,13 @@ public class DefaultValidationResults implements ValidationResults {
     }
 
     public int getMessageCount(Severity severity) {
-        return getMessages(severity).size();
+        Set subSet = (Set)messagesBySeverity.get(severity);
+        return subSet == null ? 0 : subSet.size();
     }
 
     public int getMessageCount(String fieldName) {
-        return getMessages(fieldName).size();
+        Set subSet = (Set)messagesByProperty.get(fieldName);
+        return subSet == null ? 0 : subSet.size();
     }
 
     public Set getMessages() {
@@ -111,11 +124,24 @@ public class DefaultValidationResults implements ValidationResults {
     }
 
     public Set getMessages(Severity severity) {
-        return (Set)messagesSubSets.get(severity);
+        return subSet(messagesBySeverity, severity);
     }
 
     public Set getMessages(String fieldName) {
-        return (Set)messagesSubSets.get(fieldName);
+        return subSet(messagesByProperty, fieldName);
+    }
+
+    private static Set subSet(Map index, Object key) {
+        Set subSet = (Set)index.get(key);
+        return subSet == null ? Collections.EMPTY_SET : Collections.unmodifiableSet(subSet);
+    }
+
+    /**
+     * Returns the names of the properties that currently have messages. The
+     * {@link ValidationMessage#GLOBAL_PROPERTY} is included as <code>null</code>.
+     */
+    public Set getPropertiesWithMessages() {
+        return Collections.unmodifiableSet(messagesByProperty.keySet());
     }
 
     public String toString() {
@@ -128,17 +154,21 @@ public class DefaultValidationResults implements ValidationResults {
     public void clearMessages()
     {
         messages.clear();
-        messagesSubSets.clear();
+        messagesByProperty.clear();
+        messagesBySeverity.clear();
     }
 
     /**
      * Clear all messages of the given fieldName.
      */
     public void clearMessages(String fieldName) {
-    	Set messagesForFieldName = getMessages(fieldName);
-    	for (Iterator mi = messagesForFieldName.iterator(); mi.hasNext();) {
-			messages.remove(mi.next());
-		}
-    	messagesSubSets.clear();
-    }
-}
\ No newline at end of file
+    	Set messagesForFieldName = (Set)messagesByProperty.remove(fieldName);
+    	if (messagesForFieldName != null) {
+    		for (Iterator mi = messagesForFieldName.iterator(); mi.hasNext();) {
+    			ValidationMessage message = (ValidationMessage)mi.next();
+    			messages.remove(message);
+    			unindex(messagesBySeverity, message.getSeverity(), message);
+    		}
+    	}
+    }
+}
@@ -25,6 +25,7 @@ import org.valkyriercp.binding.validation.ValidationResults;
 import org.valkyriercp.binding.validation.ValidationResultsModel;
 import org.valkyriercp.core.Severity;
 import org.valkyriercp.util.EventListenerListHelper;
+import org.valkyriercp.util.ListenerCallback;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
@@ -106,11 +107,21 @@ public class DefaultValidationResultsModel implements ValidationResultsModel, Va
 	/** Delegate or reference to this. */
 	private final ValidationResultsModel delegateFor;
 
+	private final ListenerCallback<ValidationListener> validationResultsChangedCallback = new ListenerCallback<ValidationListener>() {
+
+		public void invoke(ValidationListener listener) {
+			listener.validationResultsChanged(delegateFor);
+		}
+	};
+
 	/** All children connected to this {@link DefaultValidationResultsModel}. */
 	private List children = new ArrayList();
 
-	/** The actual results for this instance only. */
-	private ValidationResults validationResults = EmptyValidationResults.INSTANCE;
+	/**
+	 * The actual results for this instance only. Updated incrementally so
+	 * only the messages that changed are touched.
+	 */
+	private final DefaultValidationResults validationResults = new DefaultValidationResults();
 
 	/** Error bookkeeping. */
 	private boolean hasErrors = false;
@@ -121,6 +132,21 @@ public class DefaultValidationResultsModel implements ValidationResultsModel, Va
 	/** Info bookkeeping. */
 	private boolean hasInfo = false;
 
+	/** Number of children reporting errors. */
+	private int childrenWithErrors = 0;
+
+	/** Number of children reporting warnings. */
+	private int childrenWithWarnings = 0;
+
+	/** Number of children reporting info. */
+	private int childrenWithInfo = 0;
+
+	/** Cached total message count of this instance and its children, -1 if unknown. */
+	private int messageCount = -1;
+
+	/** Cached message counts per {@link Severity}, cleared when results change. */
+	private final Map severityMessageCounts = new HashMap();
+
 	/**
 	 * Constructor without delegate. (Delegating for 'this').
 	 */
@@ -137,30 +163,46 @@ public class DefaultValidationResultsModel implements ValidationResultsModel, Va
 		this.delegateFor = delegateFor;
 	}
 
+	/**
+	 * Replaces the results of this instance. Only the difference with the
+	 * current results is applied, and the validation listeners of a property
+	 * are only notified when the messages of that property changed. No events
+	 * are fired when the new results equal the current ones.
+	 */
 	public void updateValidationResults(ValidationResults newValidationResults) {
 		Assert.notNull(newValidationResults, "newValidationResults");
-		ValidationResults oldValidationResults = validationResults;
-		validationResults = newValidationResults;
-		if (oldValidationResults.getMessageCount() == 0 && validationResults.getMessageCount() == 0) {
+		Set newMessages = newValidationResults.getMessages();
+		Set changedProperties = new HashSet();
+		if (validationResults.getMessageCount() > 0) {
+			Object[] oldMessages = validationResults.getMessages().toArray();
+			for (int i = 0; i < oldMessages.length; i++) {
+				ValidationMessage oldMessage = (ValidationMessage) oldMessages[i];
+				if (!newMessages.contains(oldMessage)) {
+					validationResults.removeMessage(oldMessage);
+					changedProperties.add(oldMessage.getProperty());
+				}
+			}
+		}
+		for (Iterator i = newMessages.iterator(); i.hasNext();) {
+			ValidationMessage newMessage = (ValidationMessage) i.next();
+			if (!validationResults.getMessages().contains(newMessage)) {
+				validationResults.addMessage(newMessage);
+				changedProperties.add(newMessage.getProperty());
+			}
+		}
+		if (changedProperties.isEmpty()) {
 			return;
 		}
 		fireChangedEvents();
-		for (Iterator i = propertyValidationListeners.keySet().iterator(); i.hasNext();) {
-			String propertyName = (String) i.next();
-			if (oldValidationResults.getMessageCount(propertyName) > 0
-					|| validationResults.getMessageCount(propertyName) > 0) {
-				fireValidationResultsChanged(propertyName);
-			}
+		for (Iterator i = changedProperties.iterator(); i.hasNext();) {
+			fireValidationResultsChanged((String) i.next());
 		}
 	}
 
 	// TODO: test
 	public void addMessage(ValidationMessage validationMessage) {
 		if (!validationResults.getMessages().contains(validationMessage)) {
-			ValidationResults oldValidationResults = validationResults;
-			List newMessages = new ArrayList(oldValidationResults.getMessages());
-			newMessages.add(validationMessage);
-			validationResults = new DefaultValidationResults(newMessages);
+			validationResults.addMessage(validationMessage);
 			fireChangedEvents();
 			fireValidationResultsChanged(validationMessage.getProperty());
 		}
@@ -169,10 +211,7 @@ public class DefaultValidationResultsModel implements ValidationResultsModel, Va
 	// TODO: test
 	public void removeMessage(ValidationMessage validationMessage) {
 		if (validationResults.getMessages().contains(validationMessage)) {
-			ValidationResults oldValidationResults = validationResults;
-			List newMessages = new ArrayList(oldValidationResults.getMessages());
-			newMessages.remove(validationMessage);
-			validationResults = new DefaultValidationResults(newMessages);
+			validationResults.removeMessage(validationMessage);
 			fireChangedEvents();
 			fireValidationResultsChanged(validationMessage.getProperty());
 		}
@@ -180,14 +219,11 @@ public class DefaultValidationResultsModel implements ValidationResultsModel, Va
 
 	// TODO: test
 	public void replaceMessage(ValidationMessage messageToReplace, ValidationMessage replacementMessage) {
-		ValidationResults oldValidationResults = validationResults;
-		List newMessages = new ArrayList(oldValidationResults.getMessages());
 		final boolean containsMessageToReplace = validationResults.getMessages().contains(messageToReplace);
 		if (containsMessageToReplace) {
-			newMessages.remove(messageToReplace);
+			validationResults.removeMessage(messageToReplace);
 		}
-		newMessages.add(replacementMessage);
-		validationResults = new DefaultValidationResults(newMessages);
+		validationResults.addMessage(replacementMessage);
 		fireChangedEvents();
 		if (containsMessageToReplace
 				&& !ObjectUtils.nullSafeEquals(messageToReplace.getProperty(), replacementMessage.getProperty())) {
@@ -214,20 +250,7 @@ public class DefaultValidationResultsModel implements ValidationResultsModel, Va
 	 */
 	private void updateErrors() {
 		boolean oldErrors = hasErrors;
-		hasErrors = false;
-		if (validationResults.getHasErrors()) {
-			hasErrors = true;
-		}
-		else {
-			Iterator childIter = children.iterator();
-			while (childIter.hasNext()) {
-				ValidationResultsModel childModel = (ValidationResultsModel) childIter.next();
-				if (childModel.getHasErrors()) {
-					hasErrors = true;
-					break;
-				}
-			}
-		}
+		hasErrors = validationResults.getHasErrors() || childrenWithErrors > 0;
 		firePropertyChange(HAS_ERRORS_PROPERTY, oldErrors, hasErrors);
 	}
 
@@ -244,20 +267,7 @@ public class DefaultValidationResultsModel implements ValidationResultsModel, Va
 	 */
 	private void updateInfo() {
 		boolean oldInfo = hasInfo;
-		hasInfo = false;
-		if (validationResults.getHasInfo()) {
-			hasInfo = true;
-		}
-		else {
-			Iterator childIter = children.iterator();
-			while (childIter.hasNext()) {
-				ValidationResultsModel childModel = (ValidationResultsModel) childIter.next();
-				if (childModel.getHasInfo()) {
-					hasInfo = true;
-					break;
-				}
-			}
-		}
+		hasInfo = validationResults.getHasInfo() || childrenWithInfo > 0;
 		firePropertyChange(HAS_INFO_PROPERTY, oldInfo, hasInfo);
 	}
 
@@ -275,43 +285,61 @@ public class DefaultValidationResultsModel implements ValidationResultsModel, Va
 	 */
 	private void updateWarnings() {
 		boolean oldWarnings = hasWarnings;
-		hasWarnings = false;
-		if (validationResults.getHasWarnings()) {
-			hasWarnings = true;
-		}
-		else {
-			Iterator childIter = children.iterator();
-			while (childIter.hasNext()) {
-				ValidationResultsModel childModel = (ValidationResultsModel) childIter.next();
-				if (childModel.getHasWarnings()) {
-					hasWarnings = true;
-					break;
-				}
-			}
-		}
+		hasWarnings = validationResults.getHasWarnings() || childrenWithWarnings > 0;
 		firePropertyChange(HAS_WARNINGS_PROPERTY, oldWarnings, hasWarnings);
 	}
 
 	public int getMessageCount() {
-		int count = validationResults.getMessageCount();
-		Iterator childIter = children.iterator();
-		while (childIter.hasNext()) {
-			ValidationResultsModel childModel = (ValidationResultsModel) childIter.next();
-			count += childModel.getMessageCount();
+		if (messageCount < 0) {
+			int count = validationResults.getMessageCount();
+			Iterator childIter = children.iterator();
+			while (childIter.hasNext()) {
+				ValidationResultsModel childModel = (ValidationResultsModel) childIter.next();
+				count += childModel.getMessageCount();
+			}
+			messageCount = count;
 		}
-		return count;
+		return messageCount;
 	}
 
 	public int getMessageCount(Severity severity) {
+		Integer cachedCount = (Integer) severityMessageCounts.get(severity);
+		if (cachedCount != null) {
+			return cachedCount.intValue();
+		}
 		int count = validationResults.getMessageCount(severity);
 		Iterator childIter = children.iterator();
 		while (childIter.hasNext()) {
 			ValidationResultsModel childModel = (ValidationResultsModel) childIter.next();
 			count += childModel.getMessageCount(severity);
 		}
+		severityMessageCounts.put(severity, Integer.valueOf(count));
 		return count;
 	}
 
+	/**
+	 * Forget the cached message counts. Called whenever the results of this
+	 * instance or one of its children change.
+	 */
+	private void invalidateMessageCounts() {
+		messageCount = -1;
+		severityMessageCounts.clear();
+	}
+
+	/**
+	 * Returns the change in child count implied by a boolean property change
+	 * event: 1 when it flipped to <code>true</code>, -1 when it flipped to
+	 * <code>false</code> and 0 otherwise.
+	 */
+	private static int countDelta(PropertyChangeEvent evt) {
+		boolean oldValue = Boolean.TRUE.equals(evt.getOldValue());
+		boolean newValue = Boolean.TRUE.equals(evt.getNewValue());
+		if (oldValue == newValue) {
+			return 0;
+		}
+		return newValue ? 1 : -1;
+	}
+
 	public int getMessageCount(String propertyName) {
 		int count = validationResults.getMessageCount(propertyName);
 		Iterator childIter = children.iterator();
@@ -388,6 +416,7 @@ public class DefaultValidationResultsModel implements ValidationResultsModel, Va
 	}
 
 	protected void fireChangedEvents() {
+		invalidateMessageCounts();
 		updateErrors();
 		updateWarnings();
 		updateInfo();
@@ -395,13 +424,14 @@ public class DefaultValidationResultsModel implements ValidationResultsModel, Va
 	}
 
 	protected void fireValidationResultsChanged() {
-		validationListeners.fire("validationResultsChanged", delegateFor);
+		validationListeners.fire(validationResultsChangedCallback);
 	}
 
 	protected void fireValidationResultsChanged(String propertyName) {
-		for (Iterator i = getValidationListeners(propertyName).iterator(); i.hasNext();) {
-			((ValidationListener) i.next()).validationResultsChanged(delegateFor);
+		if (!propertyValidationListeners.containsKey(propertyName)) {
+			return;
 		}
+		getValidationListeners(propertyName).fire(validationResultsChangedCallback);
 	}
 
 	protected EventListenerListHelper getValidationListeners(String propertyName) {
@@ -412,9 +442,14 @@ public class DefaultValidationResultsModel implements ValidationResultsModel, Va
 		if (oldValue != newValue) {
 			EventListenerListHelper propertyChangeListeners = getPropertyChangeListeners(propertyName);
 			if (propertyChangeListeners.hasListeners()) {
-				PropertyChangeEvent event = new PropertyChangeEvent(delegateFor, propertyName, Boolean
+				final PropertyChangeEvent event = new PropertyChangeEvent(delegateFor, propertyName, Boolean
 						.valueOf(oldValue), Boolean.valueOf(newValue));
-				propertyChangeListeners.fire("propertyChange", event);
+				propertyChangeListeners.fire(new ListenerCallback<PropertyChangeListener>() {
+
+					public void invoke(PropertyChangeListener listener) {
+						listener.propertyChange(event);
+					}
+				});
 			}
 		}
 	}
@@ -439,6 +474,7 @@ public class DefaultValidationResultsModel implements ValidationResultsModel, Va
 			validationResultsModel.addPropertyChangeListener(HAS_ERRORS_PROPERTY, this);
 			validationResultsModel.addPropertyChangeListener(HAS_WARNINGS_PROPERTY, this);
 			validationResultsModel.addPropertyChangeListener(HAS_INFO_PROPERTY, this);
+			updateChildCounts(validationResultsModel, 1);
 			if ((validationResultsModel.getMessageCount() > 0))
 				fireChangedEvents();
 		}
@@ -456,30 +492,54 @@ public class DefaultValidationResultsModel implements ValidationResultsModel, Va
 			validationResultsModel.removePropertyChangeListener(HAS_ERRORS_PROPERTY, this);
 			validationResultsModel.removePropertyChangeListener(HAS_WARNINGS_PROPERTY, this);
 			validationResultsModel.removePropertyChangeListener(HAS_INFO_PROPERTY, this);
+			updateChildCounts(validationResultsModel, -1);
 			if (validationResultsModel.getMessageCount() > 0)
 				fireChangedEvents();
 		}
 	}
 
+	/**
+	 * Add (delta 1) or remove (delta -1) the current state of the given child
+	 * to the per-severity child counters.
+	 */
+	private void updateChildCounts(ValidationResultsModel child, int delta) {
+		if (child.getHasErrors())
+			childrenWithErrors += delta;
+		if (child.getHasWarnings())
+			childrenWithWarnings += delta;
+		if (child.getHasInfo())
+			childrenWithInfo += delta;
+		invalidateMessageCounts();
+	}
+
 	/**
 	 * {@link DefaultValidationResultsModel} registers itself as a
 	 * validationListener on it's children to forward the event.
 	 */
 	public void validationResultsChanged(ValidationResults results) {
+		invalidateMessageCounts();
 		fireValidationResultsChanged();
 	}
 
 	/**
 	 * Forwarding of known property events coming from child models. Each event
 	 * triggers a specific evaluation of the parent property, which will trigger
-	 * events as needed.
+	 * events as needed. The child counters are adjusted using the old and new
+	 * value of the event, so no children need to be visited.
 	 */
 	public void propertyChange(PropertyChangeEvent evt) {
-		if (evt.getPropertyName() == HAS_ERRORS_PROPERTY)
+		invalidateMessageCounts();
+		if (evt.getPropertyName() == HAS_ERRORS_PROPERTY) {
+			childrenWithErrors += countDelta(evt);
 			updateErrors();
-		else if (evt.getPropertyName() == HAS_WARNINGS_PROPERTY)
+		}
+		else if (evt.getPropertyName() == HAS_WARNINGS_PROPERTY) {
+			childrenWithWarnings += countDelta(evt);
 			updateWarnings();
-		else if (evt.getPropertyName() == HAS_INFO_PROPERTY)
+		}
+		else if (evt.getPropertyName() == HAS_INFO_PROPERTY) {
+			childrenWithInfo += countDelta(evt);
 			updateInfo();
+		}
 	}
 }
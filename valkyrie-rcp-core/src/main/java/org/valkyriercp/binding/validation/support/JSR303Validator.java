@@ -16,7 +16,9 @@
 package org.valkyriercp.binding.validation.support;
 
 import com.google.common.collect.Sets;
+import org.springframework.beans.PropertyAccessorUtils;
 import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
 import org.valkyriercp.binding.form.ValidatingFormModel;
 import org.valkyriercp.binding.validation.RichValidator;
 import org.valkyriercp.binding.validation.ValidationMessage;
@@ -27,10 +29,15 @@ import org.valkyriercp.rules.reporting.ObjectNameResolver;
 import javax.validation.ConstraintViolation;
 import javax.validation.Validation;
 import javax.validation.Validator;
-import java.beans.IntrospectionException;
-import java.beans.Introspector;
-import java.beans.PropertyDescriptor;
+import javax.validation.metadata.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 public class JSR303Validator<T>  implements RichValidator<T>, ObjectNameResolver {
@@ -43,6 +50,12 @@ public class JSR303Validator<T>  implements RichValidator<T>, ObjectNameResolver
 
     private DefaultValidationResults results = new DefaultValidationResults();
 
+	/** Names of the properties of beanClass that carry constraints, resolved once. */
+	private Set<String> constrainedProperties;
+
+	/** Last validated value and its translated messages, per property. */
+	private final Map<String, PropertyValidation> propertyValidations = new HashMap<String, PropertyValidation>();
+
 	/**
 	 * Creates a new JSR303Validator without ignoring any properties.
 	 *
@@ -66,9 +79,23 @@ public class JSR303Validator<T>  implements RichValidator<T>, ObjectNameResolver
 	 */
 	public JSR303Validator(ValidatingFormModel formModel, Class<T> beanClass,
                                    Set<String> ignoredProperties) {
+		this(formModel, beanClass, ignoredProperties, Validation.buildDefaultValidatorFactory().getValidator());
+	}
+
+	/**
+	 * Creates a new JSR303Validator using the given bean validator.
+	 *
+	 * @param formModel The {@link ValidatingFormModel} on which validation
+	 * needs to occur
+	 * @param beanClass The class of the object this validator needs to check
+	 * @param ignoredProperties properties that should not be checked
+	 * @param validator the bean validator checking the constraints
+	 */
+	public JSR303Validator(ValidatingFormModel formModel, Class<T> beanClass, Set<String> ignoredProperties,
+			Validator validator) {
 		this.formModel = formModel;
         this.beanClass = beanClass;
-        this.validator = Validation.buildDefaultValidatorFactory().getValidator();
+        this.validator = validator;
 		this.ignoredProperties = ignoredProperties;
 	}
 
@@ -84,16 +111,73 @@ public class JSR303Validator<T>  implements RichValidator<T>, ObjectNameResolver
 	 */
 	public ValidationResults validate(T object, String propertyName) {
 		if (propertyName == null) {
-			results.clearMessages();
+			clearMessages();
+			addInvalidValues(doValidate(object, null));
 		}
 		else {
 			results.clearMessages(propertyName);
+			results.addAllMessages(validateProperty(object, propertyName));
 		}
-
-		addInvalidValues(doValidate(object, propertyName));
 		return results;
 	}
 
+	/**
+	 * Returns the messages for a single property. Validation and translation
+	 * are skipped when the property has an immutable value equal to the one
+	 * validated last time in the same locale.
+	 */
+	private List<ValidationMessage> validateProperty(T object, String propertyName) {
+		if (!isConstrained(propertyName) || ignoredProperties.contains(propertyName)
+				|| !formModel.hasValueModel(propertyName)) {
+			return Collections.emptyList();
+		}
+		Object value = formModel.getValueModel(propertyName).getValue();
+		Locale locale = Locale.getDefault();
+		PropertyValidation previous = propertyValidations.get(propertyName);
+		if (previous != null && isImmutableValue(value) && ObjectUtils.nullSafeEquals(previous.value, value)
+				&& previous.locale.equals(locale)) {
+			return previous.messages;
+		}
+		List<ValidationMessage> messages = new ArrayList<ValidationMessage>();
+		Set<ConstraintViolation<T>> invalidValues = doValidate(object, propertyName);
+		if (invalidValues != null) {
+			for (ConstraintViolation invalidValue : invalidValues) {
+				messages.add(translateMessage(invalidValue));
+			}
+		}
+		propertyValidations.put(propertyName, new PropertyValidation(value, locale, messages));
+		return messages;
+	}
+
+	private static boolean isImmutableValue(Object value) {
+		return value == null || value instanceof String || value instanceof Number || value instanceof Boolean
+				|| value instanceof Character || value instanceof Enum;
+	}
+
+	/**
+	 * Returns <code>true</code> if the property may have constraints. Nested
+	 * and indexed properties are always validated.
+	 */
+	private boolean isConstrained(String propertyName) {
+		return PropertyAccessorUtils.isNestedOrIndexedProperty(propertyName)
+				|| getConstrainedProperties().contains(propertyName);
+	}
+
+	/**
+	 * Returns the names of the constrained properties of the bean class, as
+	 * described by {@link Validator#getConstraintsForClass(Class)}.
+	 */
+	protected Set<String> getConstrainedProperties() {
+		if (constrainedProperties == null) {
+			Set<String> names = new LinkedHashSet<String>();
+			for (PropertyDescriptor descriptor : validator.getConstraintsForClass(beanClass).getConstrainedProperties()) {
+				names.add(descriptor.getPropertyName());
+			}
+			constrainedProperties = Collections.unmodifiableSet(names);
+		}
+		return constrainedProperties;
+	}
+
 	/**
 	 * Add all {@link ConstraintViolation}s to the {@link ValidationResults}.
 	 */
@@ -124,15 +208,7 @@ public class JSR303Validator<T>  implements RichValidator<T>, ObjectNameResolver
 	protected Set<ConstraintViolation<T>> doValidate(final T object, final String property) {
 		if (property == null) {
 			final Set<ConstraintViolation<T>> ret = Sets.newHashSet();
-			PropertyDescriptor[] propertyDescriptors;
-			try {
-				propertyDescriptors = Introspector.getBeanInfo(object.getClass()).getPropertyDescriptors();
-			}
-			catch (IntrospectionException e) {
-				throw new IllegalStateException("Could not retrieve property information");
-			}
-			for (final PropertyDescriptor prop : propertyDescriptors) {
-				String propertyName = prop.getName();
+			for (final String propertyName : getConstrainedProperties()) {
 				if (formModel.hasValueModel(propertyName) && !ignoredProperties.contains(propertyName)) {
 					final Set<ConstraintViolation<T>> result = validator.validateValue(beanClass, propertyName, formModel
 							.getValueModel(propertyName).getValue()); //validator.validateProperty(object, propertyName);
@@ -159,6 +235,7 @@ public class JSR303Validator<T>  implements RichValidator<T>, ObjectNameResolver
 	 */
 	public void clearMessages() {
 		this.results.clearMessages();
+		this.propertyValidations.clear();
 	}
 
 	/**
@@ -187,4 +264,19 @@ public class JSR303Validator<T>  implements RichValidator<T>, ObjectNameResolver
 	public String resolveObjectName(String objectName) {
 		return formModel.getFieldFace(objectName).getDisplayName();
 	}
+
+	private static final class PropertyValidation {
+
+		private final Object value;
+
+		private final Locale locale;
+
+		private final List<ValidationMessage> messages;
+
+		PropertyValidation(Object value, Locale locale, List<ValidationMessage> messages) {
+			this.value = value;
+			this.locale = locale;
+			this.messages = messages;
+		}
+	}
 }
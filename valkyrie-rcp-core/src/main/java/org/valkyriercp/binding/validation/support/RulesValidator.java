@@ -17,8 +17,11 @@ package org.valkyriercp.binding.validation.support;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.NotReadablePropertyException;
 import org.valkyriercp.application.config.ApplicationConfig;
+import org.valkyriercp.binding.PropertyAccessStrategy;
 import org.valkyriercp.binding.form.FormModel;
+import org.valkyriercp.binding.form.support.FormModelSnapshot;
 import org.valkyriercp.binding.form.support.FormModelPropertyAccessStrategy;
 import org.valkyriercp.binding.validation.RichValidator;
 import org.valkyriercp.binding.validation.ValidationMessage;
@@ -26,6 +29,7 @@ import org.valkyriercp.core.Severity;
 import org.valkyriercp.rules.PropertyConstraintProvider;
 import org.valkyriercp.rules.Rules;
 import org.valkyriercp.rules.RulesSource;
+import org.valkyriercp.rules.constraint.ConstraintCompiler;
 import org.valkyriercp.rules.constraint.property.PropertyConstraint;
 import org.valkyriercp.rules.reporting.BeanValidationResultsCollector;
 import org.valkyriercp.rules.reporting.MessageTranslator;
@@ -33,9 +37,12 @@ import org.valkyriercp.rules.reporting.ObjectNameResolver;
 import org.valkyriercp.rules.reporting.PropertyResults;
 import org.valkyriercp.util.ValkyrieRepository;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * <p>
@@ -53,6 +60,15 @@ import java.util.Map;
  * accordingly and return <em>all</em> validation results of the object.
  * </p>
  *
+ * <p>
+ * Validation is synchronized on the validator.
+ * {@link #validate(Object, String, FormModelSnapshot)} checks the rules
+ * against copied form values without touching the cached results, which
+ * allows the form to be validated off the event dispatch thread. The outcome
+ * is then applied with {@link #apply(PendingResults)} on the event dispatch
+ * thread, where the messages are built.
+ * </p>
+ *
  * @author Keith Donald
  * @author Jan Hoskens
  */
@@ -70,6 +86,8 @@ public class RulesValidator implements RichValidator, ObjectNameResolver {
 
 	private BeanValidationResultsCollector validationResultsCollector;
 
+	private final FormModelPropertyAccessStrategy formModelAccessStrategy;
+
 	private RulesSource rulesSource;
 
 	private String rulesContextId = null;
@@ -92,7 +110,8 @@ public class RulesValidator implements RichValidator, ObjectNameResolver {
 	public RulesValidator(FormModel formModel, RulesSource rulesSource) {
 		this.formModel = formModel;
 		this.rulesSource = rulesSource;
-		validationResultsCollector = new BeanValidationResultsCollector(new FormModelPropertyAccessStrategy(formModel));
+		formModelAccessStrategy = new FormModelPropertyAccessStrategy(formModel);
+		validationResultsCollector = new BeanValidationResultsCollector(formModelAccessStrategy);
         messageTranslator = getApplicationConfig().messageTranslatorFactory().createTranslator(this);
 
 	}
@@ -107,43 +126,108 @@ public class RulesValidator implements RichValidator, ObjectNameResolver {
 	/**
 	 * {@inheritDoc}
 	 */
-	public org.valkyriercp.binding.validation.ValidationResults validate(Object object, String propertyName) {
+	public synchronized org.valkyriercp.binding.validation.ValidationResults validate(Object object,
+			String propertyName) {
+		BeanValidationResultsCollector resultsCollector = takeResultsCollector();
+		try {
+			applyResults(checkRules(object, propertyName, formModelAccessStrategy, resultsCollector,
+					formModel.getFieldNames(), false));
+			return results;
+		}
+		finally {
+			returnResultsCollector(resultsCollector);
+		}
+	}
+
+	/**
+	 * Checks the rules against the values copied in a snapshot of the form
+	 * model instead of the live values, so the validation can run off the
+	 * event dispatch thread. The cached results are left alone: the returned
+	 * outcome has to be passed to {@link #apply(PendingResults)} on the event
+	 * dispatch thread, unless the form changed in the meantime.
+	 *
+	 * @param object the form object.
+	 * @param propertyName the changed property or <code>null</code> to
+	 * validate all properties.
+	 * @param snapshot the form values to validate.
+	 */
+	public PendingResults validate(Object object, String propertyName, FormModelSnapshot snapshot) {
+		return checkRules(object, propertyName, snapshot, new BeanValidationResultsCollector(snapshot),
+				snapshot.getFieldNames(), true);
+	}
+
+	/**
+	 * Applies the outcome of {@link #validate(Object, String, FormModelSnapshot)}
+	 * to the cached results. Rules reading properties that weren't in the
+	 * snapshot are checked against the live form values. Must be called on the
+	 * event dispatch thread.
+	 *
+	 * @return all validation results of the object.
+	 */
+	public synchronized org.valkyriercp.binding.validation.ValidationResults apply(PendingResults pendingResults) {
+		applyResults(pendingResults);
+		if (!pendingResults.unreadableRules.isEmpty()) {
+			BeanValidationResultsCollector resultsCollector = takeResultsCollector();
+			try {
+				PendingResults liveResults = new PendingResults(pendingResults.objectClass, false);
+				for (Iterator i = pendingResults.unreadableRules.iterator(); i.hasNext();) {
+					checkRule((PropertyConstraint) i.next(), null, formModelAccessStrategy, resultsCollector,
+							liveResults);
+				}
+				applyResults(liveResults);
+			}
+			finally {
+				returnResultsCollector(resultsCollector);
+			}
+		}
+		return results;
+	}
+
+	private PendingResults checkRules(Object object, String propertyName, PropertyAccessStrategy values,
+			BeanValidationResultsCollector resultsCollector, Set fieldNames, boolean deferUnreadableRules) {
 		// Forms can have different types of objects, so when type of object
 		// changes, messages that are already listed on the previous type must
 		// be removed. If evaluating the whole object (propertyName == null)
 		// also clear results.
-		if ((propertyName == null) || ((objectClass != null) && objectClass != object.getClass())) {
-			clearMessages();
-		}
-		objectClass = object.getClass();
+		PendingResults pendingResults = new PendingResults(object.getClass(), propertyName == null);
+		pendingResults.deferUnreadableRules = deferUnreadableRules;
+		// compiled rules share the values read during this pass
+		PropertyAccessStrategy compiledValues = ConstraintCompiler.cachingAccessStrategy(values);
 		Rules rules = null;
 		if (object instanceof PropertyConstraintProvider) {
 			PropertyConstraintProvider propertyConstraintProvider = (PropertyConstraintProvider) object;
 			if (propertyName != null) {
 				PropertyConstraint validationRule = propertyConstraintProvider.getPropertyConstraint(propertyName);
-				checkRule(validationRule);
+				checkRule(validationRule, null, values, resultsCollector, pendingResults);
 			}
 			else {
-				for (Iterator fieldNamesIter = formModel.getFieldNames().iterator(); fieldNamesIter.hasNext();) {
+				for (Iterator fieldNamesIter = fieldNames.iterator(); fieldNamesIter.hasNext();) {
 					PropertyConstraint validationRule = propertyConstraintProvider
 							.getPropertyConstraint((String) fieldNamesIter.next());
-					checkRule(validationRule);
+					checkRule(validationRule, null, values, resultsCollector, pendingResults);
 				}
 			}
 		}
 		else {
 			if (getRulesSource() != null) {
-				rules = getRulesSource().getRules(objectClass, getRulesContextId());
+				rules = getRulesSource().getRules(object.getClass(), getRulesContextId());
 				if (rules != null) {
-					for (Iterator i = rules.iterator(); i.hasNext();) {
-						PropertyConstraint validationRule = (PropertyConstraint) i.next();
-						if (propertyName == null) {
-							if (formModel.hasValueModel(validationRule.getPropertyName())) {
-								checkRule(validationRule);
+					if (propertyName == null) {
+						for (Iterator i = rules.iterator(); i.hasNext();) {
+							PropertyConstraint validationRule = (PropertyConstraint) i.next();
+							if (fieldNames.contains(validationRule.getPropertyName())) {
+								checkRule(validationRule, rules.getCompiledConstraint(validationRule),
+										compiledValues, resultsCollector, pendingResults);
 							}
 						}
-						else if (validationRule.isDependentOn(propertyName)) {
-							checkRule(validationRule);
+					}
+					else {
+						// only the constraints depending on the changed property
+						List dependentRules = rules.getDependentConstraints(propertyName);
+						for (int i = 0, size = dependentRules.size(); i < size; i++) {
+							PropertyConstraint validationRule = (PropertyConstraint) dependentRules.get(i);
+							checkRule(validationRule, rules.getCompiledConstraint(validationRule),
+									compiledValues, resultsCollector, pendingResults);
 						}
 					}
 				}
@@ -153,20 +237,49 @@ public class RulesValidator implements RichValidator, ObjectNameResolver {
 						+ "please set a valid reference to enable rules-based validation.");
 			}
 		}
-		return results;
+		return pendingResults;
 	}
 
-	private void checkRule(PropertyConstraint validationRule) {
+	/**
+	 * Checks a rule. When a compiled form of the rule is given it is tested
+	 * first; only a failing rule goes through the results collector, which is
+	 * needed to build the messages.
+	 */
+	private void checkRule(PropertyConstraint validationRule, PropertyConstraint compiledRule,
+			PropertyAccessStrategy values, BeanValidationResultsCollector resultsCollector,
+			PendingResults pendingResults) {
 		if (validationRule == null)
 			return;
-		BeanValidationResultsCollector resultsCollector = takeResultsCollector();
-		PropertyResults results = resultsCollector.collectPropertyResults(validationRule);
-		returnResultsCollector(resultsCollector);
-		if (results == null) {
-			constraintSatisfied(validationRule);
+		try {
+			if (compiledRule != null && compiledRule.test(values)) {
+				pendingResults.add(validationRule, null);
+				return;
+			}
+			pendingResults.add(validationRule, resultsCollector.collectPropertyResults(validationRule));
 		}
-		else {
-			constraintViolated(validationRule, results);
+		catch (NotReadablePropertyException e) {
+			if (!pendingResults.deferUnreadableRules) {
+				throw e;
+			}
+			// reads a property without a value model, check it on the live values
+			pendingResults.unreadableRules.add(validationRule);
+		}
+	}
+
+	private void applyResults(PendingResults pendingResults) {
+		if (pendingResults.allProperties || ((objectClass != null) && objectClass != pendingResults.objectClass)) {
+			clearMessages();
+		}
+		objectClass = pendingResults.objectClass;
+		for (int i = 0, size = pendingResults.rules.size(); i < size; i++) {
+			PropertyConstraint validationRule = (PropertyConstraint) pendingResults.rules.get(i);
+			PropertyResults propertyResults = (PropertyResults) pendingResults.propertyResults.get(i);
+			if (propertyResults == null) {
+				constraintSatisfied(validationRule);
+			}
+			else {
+				constraintViolated(validationRule, propertyResults);
+			}
 		}
 	}
 
@@ -178,10 +291,15 @@ public class RulesValidator implements RichValidator, ObjectNameResolver {
 	}
 
 	protected void constraintViolated(PropertyConstraint exp, PropertyResults propertyResults) {
-		ValidationMessage message = new DefaultValidationMessage(exp.getPropertyName(), Severity.ERROR,
-				messageTranslator.getMessage(propertyResults));
-
+		String messageText = messageTranslator.getMessage(propertyResults);
 		ValidationMessage oldMessage = (ValidationMessage) validationErrors.get(exp);
+		if (oldMessage != null && oldMessage.getSeverity() == Severity.ERROR
+				&& exp.getPropertyName().equals(oldMessage.getProperty())
+				&& messageText.equals(oldMessage.getMessage())) {
+			// the same violation as before
+			return;
+		}
+		ValidationMessage message = new DefaultValidationMessage(exp.getPropertyName(), Severity.ERROR, messageText);
 		if (!message.equals(oldMessage)) {
 			results.removeMessage(oldMessage);
 			validationErrors.put(exp, message);
@@ -196,13 +314,17 @@ public class RulesValidator implements RichValidator, ObjectNameResolver {
 		return rulesSource;
 	}
 
+	/**
+	 * Takes the collector for the live form values, a reentrant validation
+	 * gets a new one.
+	 */
 	private BeanValidationResultsCollector takeResultsCollector() {
 		BeanValidationResultsCollector resultsCollector = validationResultsCollector;
 		if (resultsCollector != null) {
 			validationResultsCollector = null;
 		}
 		else {
-			resultsCollector = new BeanValidationResultsCollector(new FormModelPropertyAccessStrategy(formModel));
+			resultsCollector = new BeanValidationResultsCollector(formModelAccessStrategy);
 		}
 		return resultsCollector;
 	}
@@ -240,7 +362,7 @@ public class RulesValidator implements RichValidator, ObjectNameResolver {
 	 *
 	 * @see #validate(Object, String)
 	 */
-	public void clearMessages() {
+	public synchronized void clearMessages() {
 		this.results.clearMessages();
 		this.validationErrors.clear();
 	}
@@ -248,4 +370,34 @@ public class RulesValidator implements RichValidator, ObjectNameResolver {
     public ApplicationConfig getApplicationConfig() {
         return ValkyrieRepository.getInstance().getApplicationConfig();
     }
+
+	/**
+	 * Outcome of checking the rules against a {@link FormModelSnapshot}, to be
+	 * applied with {@link RulesValidator#apply(PendingResults)}.
+	 */
+	public static final class PendingResults {
+
+		private final Class objectClass;
+
+		private final boolean allProperties;
+
+		private boolean deferUnreadableRules;
+
+		private final List rules = new ArrayList();
+
+		/** The results of the violated rules, <code>null</code> for satisfied ones. */
+		private final List propertyResults = new ArrayList();
+
+		private final List unreadableRules = new ArrayList();
+
+		private PendingResults(Class objectClass, boolean allProperties) {
+			this.objectClass = objectClass;
+			this.allProperties = allProperties;
+		}
+
+		private void add(PropertyConstraint rule, PropertyResults results) {
+			rules.add(rule);
+			propertyResults.add(results);
+		}
+	}
 }
@@ -20,6 +20,7 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.util.ObjectUtils;
 import org.valkyriercp.core.PropertyChangePublisher;
 
+import javax.swing.SwingUtilities;
 import java.beans.*;
 
 /**
@@ -32,6 +33,8 @@ public abstract class AbstractPropertyChangePublisher implements PropertyChangeP
 
 	private transient PropertyChangeSupport changeSupport;
 
+	private boolean coalescingPropertyChanges;
+
 	private transient VetoableChangeSupport vetoSupport;
 
 	public final void addPropertyChangeListener(PropertyChangeListener listener) {
@@ -130,20 +133,81 @@ public abstract class AbstractPropertyChangePublisher implements PropertyChangeP
 		return vetoSupport.getVetoableChangeListeners(propertyName);
 	}
 
+	/**
+	 * Sets whether the property changes fired on the event dispatching thread
+	 * are coalesced. When set, repeated changes of the same property during
+	 * the dispatching of a single event are delivered to the listeners as one
+	 * change from the first old value to the last new value, right after the
+	 * event has been dispatched. Listeners implementing
+	 * {@link UncoalescedPropertyChangeListener} keep receiving every change
+	 * immediately, as do all listeners for changes fired on other threads.
+	 * While coalescing those listeners are notified before the others; when
+	 * not coalescing all listeners are notified in registration order.
+	 * <p>
+	 * The first time any publisher starts coalescing, an event queue flushing
+	 * the coalesced changes after each event is pushed on the system event
+	 * queue for the rest of the application's lifetime, see
+	 * {@link PropertyChangeCoalescer#install()}.
+	 * <p>
+	 * Defaults to <code>false</code>.
+	 *
+	 * @see PropertyChangeCoalescer
+	 */
+	public void setCoalescingPropertyChanges(boolean coalescingPropertyChanges) {
+		if (coalescingPropertyChanges) {
+			PropertyChangeCoalescer.install();
+		}
+		this.coalescingPropertyChanges = coalescingPropertyChanges;
+	}
+
+	public boolean isCoalescingPropertyChanges() {
+		return coalescingPropertyChanges;
+	}
+
 	protected final void firePropertyChange(String propertyName, Object oldValue, Object newValue) {
+		if (oldValue != null && newValue != null && oldValue.equals(newValue)) {
+			return;
+		}
 		PropertyChangeSupport aChangeSupport = this.changeSupport;
 		if (aChangeSupport == null) {
 			return;
 		}
-		aChangeSupport.firePropertyChange(propertyName, oldValue, newValue);
+		if (coalescingPropertyChanges && SwingUtilities.isEventDispatchThread()) {
+			fireToListeners(aChangeSupport, new PropertyChangeEvent(this, propertyName, oldValue, newValue), true);
+			PropertyChangeCoalescer.propertyChanged(this, propertyName, oldValue, newValue);
+		}
+		else {
+			aChangeSupport.firePropertyChange(propertyName, oldValue, newValue);
+		}
+	}
+
+	/**
+	 * Notifies either the {@link UncoalescedPropertyChangeListener}s or the
+	 * other listeners that would receive the event from the change support,
+	 * in the order the change support would notify them.
+	 */
+	private static void fireToListeners(PropertyChangeSupport aChangeSupport, PropertyChangeEvent event,
+			boolean uncoalesced) {
+		PropertyChangeListener[] listeners = aChangeSupport.getPropertyChangeListeners();
+		for (int i = 0; i < listeners.length; i++) {
+			PropertyChangeListener listener = listeners[i];
+			if (listener instanceof PropertyChangeListenerProxy) {
+				PropertyChangeListenerProxy proxy = (PropertyChangeListenerProxy) listener;
+				if (!proxy.getPropertyName().equals(event.getPropertyName())) {
+					continue;
+				}
+				listener = (PropertyChangeListener) proxy.getListener();
+			}
+			if ((listener instanceof UncoalescedPropertyChangeListener) == uncoalesced) {
+				listener.propertyChange(event);
+			}
+		}
 	}
 
 	protected final void firePropertyChange(String propertyName, boolean oldValue, boolean newValue) {
-		PropertyChangeSupport aChangeSupport = this.changeSupport;
-		if (aChangeSupport == null) {
-			return;
+		if (oldValue != newValue) {
+			firePropertyChange(propertyName, Boolean.valueOf(oldValue), Boolean.valueOf(newValue));
 		}
-		aChangeSupport.firePropertyChange(propertyName, oldValue, newValue);
 	}
 
 	protected final void firePropertyChange(String propertyName, double oldValue, double newValue) {
@@ -155,17 +219,23 @@ public abstract class AbstractPropertyChangePublisher implements PropertyChangeP
 	}
 
 	protected final void firePropertyChange(String propertyName, int oldValue, int newValue) {
-		PropertyChangeSupport aChangeSupport = this.changeSupport;
-		if (aChangeSupport == null) {
-			return;
+		if (oldValue != newValue) {
+			firePropertyChange(propertyName, Integer.valueOf(oldValue), Integer.valueOf(newValue));
 		}
-		aChangeSupport.firePropertyChange(propertyName, oldValue, newValue);
 	}
 
 	protected final void firePropertyChange(String propertyName, long oldValue, long newValue) {
 		firePropertyChange(propertyName, new Long(oldValue), new Long(newValue));
 	}
 
+	final void fireCoalescedPropertyChange(String propertyName, Object oldValue, Object newValue) {
+		PropertyChangeSupport aChangeSupport = this.changeSupport;
+		if (aChangeSupport == null || (oldValue != null && newValue != null && oldValue.equals(newValue))) {
+			return;
+		}
+		fireToListeners(aChangeSupport, new PropertyChangeEvent(this, propertyName, oldValue, newValue), false);
+	}
+
 	protected final void firePropertiesChanged() {
 		firePropertyChange(null, null, null);
 	}
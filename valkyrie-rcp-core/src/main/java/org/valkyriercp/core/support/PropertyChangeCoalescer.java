@@ -0,0 +1,191 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.core.support;
+
+import org.springframework.util.ObjectUtils;
+
+import javax.swing.SwingUtilities;
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Collects the property changes of coalescing
+ * {@link AbstractPropertyChangePublisher}s fired on the event dispatching
+ * thread and fires them once the current event has been dispatched.
+ * <p>
+ * Repeated changes of the same property of the same publisher are collapsed
+ * into a single event carrying the first old value and the last new value.
+ * If the property ends up with its original value no event is fired at all.
+ * <p>
+ * The collected changes are fired by an event queue pushed on the system
+ * event queue by {@link #install()}, right after the event during which they
+ * were collected, so before any queued input or paint event is dispatched.
+ * The event queue is pushed once for the whole application, the first time a
+ * publisher starts coalescing, and is never popped: every event dispatched
+ * afterwards goes through it. Applications that push their own event queue
+ * can call {@link #install()} before doing so to keep it on top.
+ * Should another event queue be pushed on top of it, the changes are still
+ * fired from an event posted when the first change is collected.
+ * <p>
+ * Only to be used from the event dispatching thread.
+ */
+public final class PropertyChangeCoalescer {
+
+	private static final Map pendingChanges = new LinkedHashMap();
+
+	private static boolean flushScheduled;
+
+	private static boolean installed;
+
+	private static final Runnable flushTask = new Runnable() {
+
+		public void run() {
+			flushScheduled = false;
+			flush();
+		}
+	};
+
+	private PropertyChangeCoalescer() {
+	}
+
+	/**
+	 * Pushes the event queue firing the collected changes after each event on
+	 * the system event queue, if that has not been done yet. Called when a
+	 * publisher starts coalescing its changes; applications may call it
+	 * explicitly to control when the event queue is pushed.
+	 */
+	public static synchronized void install() {
+		if (!installed) {
+			installed = true;
+			Toolkit.getDefaultToolkit().getSystemEventQueue().push(new FlushingEventQueue());
+		}
+	}
+
+	static void propertyChanged(AbstractPropertyChangePublisher publisher, String propertyName, Object oldValue,
+			Object newValue) {
+		PendingKey key = new PendingKey(publisher, propertyName);
+		PendingChange change = (PendingChange) pendingChanges.get(key);
+		if (change == null) {
+			pendingChanges.put(key, new PendingChange(oldValue, newValue));
+			scheduleFlush();
+		}
+		else {
+			change.newValue = newValue;
+		}
+	}
+
+	private static void scheduleFlush() {
+		if (!flushScheduled) {
+			flushScheduled = true;
+			SwingUtilities.invokeLater(flushTask);
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if there are collected changes that haven't
+	 * been fired yet. Meant to be called from the event dispatching thread.
+	 */
+	public static boolean hasPendingChanges() {
+		return !pendingChanges.isEmpty();
+	}
+
+	/**
+	 * Fires all collected changes now. Changes fired by the listeners are
+	 * collected again and fired as well before this method returns. When a
+	 * listener throws an exception, the changes not fired yet stay pending
+	 * and are fired later on.
+	 *
+	 * @throws IllegalStateException if not called from the event dispatching
+	 * thread.
+	 */
+	public static void flush() {
+		if (!SwingUtilities.isEventDispatchThread()) {
+			throw new IllegalStateException(
+					"Coalesced property changes can only be flushed on the event dispatching thread");
+		}
+		while (!pendingChanges.isEmpty()) {
+			Iterator i = pendingChanges.entrySet().iterator();
+			Map.Entry entry = (Map.Entry) i.next();
+			i.remove();
+			PendingKey key = (PendingKey) entry.getKey();
+			PendingChange change = (PendingChange) entry.getValue();
+			boolean fired = false;
+			try {
+				key.publisher.fireCoalescedPropertyChange(key.propertyName, change.oldValue, change.newValue);
+				fired = true;
+			}
+			finally {
+				if (!fired && !pendingChanges.isEmpty()) {
+					scheduleFlush();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Fires the collected changes after dispatching each event.
+	 */
+	private static final class FlushingEventQueue extends EventQueue {
+
+		protected void dispatchEvent(AWTEvent event) {
+			try {
+				super.dispatchEvent(event);
+			}
+			finally {
+				flush();
+			}
+		}
+	}
+	private static final class PendingKey {
+
+		final AbstractPropertyChangePublisher publisher;
+
+		final String propertyName;
+
+		PendingKey(AbstractPropertyChangePublisher publisher, String propertyName) {
+			this.publisher = publisher;
+			this.propertyName = propertyName;
+		}
+
+		public boolean equals(Object o) {
+			if (!(o instanceof PendingKey)) {
+				return false;
+			}
+			PendingKey other = (PendingKey) o;
+			return publisher == other.publisher && ObjectUtils.nullSafeEquals(propertyName, other.propertyName);
+		}
+
+		public int hashCode() {
+			return System.identityHashCode(publisher) * 31 + ObjectUtils.nullSafeHashCode(propertyName);
+		}
+	}
+
+	private static final class PendingChange {
+
+		final Object oldValue;
+
+		Object newValue;
+
+		PendingChange(Object oldValue, Object newValue) {
+			this.oldValue = oldValue;
+			this.newValue = newValue;
+		}
+	}
+}
@@ -0,0 +1,31 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.core.support;
+
+import java.beans.PropertyChangeListener;
+
+/**
+ * Marker for listeners that need to receive every property change, even from
+ * a publisher that coalesces its property changes.
+ * <p>
+ * Such listeners are notified synchronously when the change is fired. While
+ * changes are coalesced they are notified before the other listeners, which
+ * receive the coalesced changes later on.
+ *
+ * @see AbstractPropertyChangePublisher#setCoalescingPropertyChanges(boolean)
+ */
+public interface UncoalescedPropertyChangeListener extends PropertyChangeListener {
+}
@@ -25,7 +25,7 @@ import org.valkyriercp.list.AbstractFilteredListModel;
 import org.valkyriercp.list.DefaultFilteredListModel;
 import org.valkyriercp.list.SortedListModel;
 import org.valkyriercp.rules.constraint.Constraint;
-import org.valkyriercp.util.ReflectiveVisitorHelper;
+import org.valkyriercp.util.VisitorDispatcher;
 import org.valkyriercp.util.ValkyrieRepository;
 
 import javax.swing.*;
@@ -43,7 +43,7 @@ public abstract class AbstractListBinding extends AbstractBinding {
 
     private JComponent component;
 
-    final ReflectiveVisitorHelper visitorHelper = new ReflectiveVisitorHelper();
+    final VisitorDispatcher visitorHelper = VisitorDispatcher.getInstance();
 
     private final SelectableItemsVisitor selectableItemsVisitor = new SelectableItemsVisitor();
 
@@ -28,6 +28,7 @@ import org.valkyriercp.rules.constraint.property.PropertyConstraint;
 import org.valkyriercp.rules.constraint.property.PropertyValueConstraint;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A factory for creating rules.
@@ -48,6 +49,14 @@ public class Rules extends ConstraintsAccessor implements Constraint, PropertyCo
      */
     private List orderedConstraints = new ArrayList();
 
+    /** Reverse index: the constraints depending on a property, keyed by property
+     * name. Filled lazily and cleared whenever a constraint is added.
+     */
+    private final Map dependentConstraints = new ConcurrentHashMap();
+
+    /** Compiled form of the constraints, cleared whenever a constraint is added. */
+    private final Map compiledConstraints = new ConcurrentHashMap();
+
 	public Rules() {
 
 	}
@@ -127,6 +136,51 @@ public class Rules extends ConstraintsAccessor implements Constraint, PropertyCo
 		return orderedConstraints.iterator();
 	}
 
+	/**
+	 * Returns the constraints that depend on the given property, in the order
+	 * they were added. The result is computed once per property name using
+	 * {@link PropertyConstraint#isDependentOn(String)} and cached until a
+	 * constraint is added to these rules.
+	 *
+	 * @param propertyName the changed property.
+	 * @return an unmodifiable list of {@link PropertyConstraint}s, never
+	 * <code>null</code>.
+	 */
+	public List getDependentConstraints(String propertyName) {
+		Assert.notNull(propertyName, "propertyName");
+		List dependents = (List)dependentConstraints.get(propertyName);
+		if (dependents == null) {
+			dependents = new ArrayList();
+			for (Iterator i = iterator(); i.hasNext();) {
+				PropertyConstraint constraint = (PropertyConstraint)i.next();
+				if (constraint.isDependentOn(propertyName)) {
+					dependents.add(constraint);
+				}
+			}
+			dependents = Collections.unmodifiableList(dependents);
+			dependentConstraints.put(propertyName, dependents);
+		}
+		return dependents;
+	}
+
+	/**
+	 * Returns the compiled form of one of the constraints of these rules, see
+	 * {@link ConstraintCompiler}. The compiled constraint is cached until a
+	 * constraint is added to these rules.
+	 *
+	 * @param constraint a constraint returned by {@link #iterator()} or
+	 * {@link #getDependentConstraints(String)}.
+	 * @return the compiled constraint, giving the same results.
+	 */
+	public PropertyConstraint getCompiledConstraint(PropertyConstraint constraint) {
+		PropertyConstraint compiled = (PropertyConstraint)compiledConstraints.get(constraint);
+		if (compiled == null) {
+			compiled = ConstraintCompiler.compile(constraint);
+			compiledConstraints.put(constraint, compiled);
+		}
+		return compiled;
+	}
+
 	/**
 	 * Adds the provided bean property expression (constraint) to the list of
 	 * constraints for the constrained property.
@@ -136,6 +190,8 @@ public class Rules extends ConstraintsAccessor implements Constraint, PropertyCo
 	 * @return this, to support chaining.
 	 */
 	public Rules add(PropertyConstraint constraint) {
+		dependentConstraints.clear();
+		compiledConstraints.clear();
 		CompoundPropertyConstraint and = (CompoundPropertyConstraint)propertiesConstraints.get(constraint
 				.getPropertyName());
 		if (and == null) {
@@ -203,7 +259,7 @@ public class Rules extends ConstraintsAccessor implements Constraint, PropertyCo
 
 	public boolean test(Object bean) {
 		for (Iterator i = orderedConstraints.iterator(); i.hasNext();) {
-			PropertyConstraint propertyConstraint = (PropertyConstraint)i.next();
+			PropertyConstraint propertyConstraint = getCompiledConstraint((PropertyConstraint)i.next());
 			if (!propertyConstraint.test(bean)) {
 				return false;
 			}
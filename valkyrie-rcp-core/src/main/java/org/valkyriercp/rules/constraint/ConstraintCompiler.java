@@ -0,0 +1,504 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.rules.constraint;
+
+import org.springframework.beans.BeansException;
+import org.springframework.util.Assert;
+import org.valkyriercp.binding.PropertyAccessStrategy;
+import org.valkyriercp.binding.PropertyMetadataAccessStrategy;
+import org.valkyriercp.binding.support.BeanPropertyAccessStrategy;
+import org.valkyriercp.rules.constraint.property.AbstractPropertyConstraint;
+import org.valkyriercp.rules.constraint.property.CompoundPropertyConstraint;
+import org.valkyriercp.rules.constraint.property.NegatedPropertyConstraint;
+import org.valkyriercp.rules.constraint.property.ParameterizedPropertyConstraint;
+import org.valkyriercp.rules.constraint.property.PropertyConstraint;
+import org.valkyriercp.rules.constraint.property.PropertyValueConstraint;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Compiles constraint trees into flat evaluators with the same results as
+ * the original constraints.
+ * <p>
+ * The compiled form of a {@link PropertyConstraint} reads every property at
+ * most once per evaluation, evaluates <code>And</code>, <code>Or</code>,
+ * <code>XOr</code> and <code>Not</code> over arrays, compares numbers of the
+ * same wrapper type as primitives for <code>GreaterThan</code>,
+ * <code>LessThan</code> (and the <code>EqualTo</code> variants) and
+ * {@link Range}, and matches {@link Like} constraints with the match type
+ * resolved up front. Any other constraint is called as is, so the compiled
+ * constraint always gives the same answer as the source constraint.
+ * <p>
+ * Several compiled constraints testing the same object can share the values
+ * read by passing them a single {@link #cachingAccessStrategy(Object)}.
+ * <p>
+ * A compiled constraint is a snapshot: constraints added to a compound
+ * constraint afterwards are not seen by it.
+ *
+ * @see org.valkyriercp.rules.Rules#getCompiledConstraint(PropertyConstraint)
+ */
+public final class ConstraintCompiler {
+
+	private static final int GREATER_THAN = 0;
+
+	private static final int GREATER_THAN_EQUAL_TO = 1;
+
+	private static final int LESS_THAN = 2;
+
+	private static final int LESS_THAN_EQUAL_TO = 3;
+
+	private static final int STARTS_WITH = 0;
+
+	private static final int ENDS_WITH = 1;
+
+	private static final int CONTAINS = 2;
+
+	private ConstraintCompiler() {
+	}
+
+	/**
+	 * Compiles a property constraint. The result tests beans as well as
+	 * {@link PropertyAccessStrategy}s, like the source constraint.
+	 *
+	 * @param constraint the constraint to compile.
+	 * @return the compiled constraint, exposing the property name and
+	 * dependencies of the source constraint.
+	 */
+	public static PropertyConstraint compile(PropertyConstraint constraint) {
+		Assert.notNull(constraint, "constraint");
+		if (constraint instanceof CompiledPropertyConstraint) {
+			return constraint;
+		}
+		return new CompiledPropertyConstraint(constraint, compilePropertyConstraint(constraint));
+	}
+
+	/**
+	 * Compiles a constraint testing a single value.
+	 *
+	 * @param constraint the constraint to compile.
+	 * @return a constraint with the same results.
+	 */
+	public static Constraint compile(Constraint constraint) {
+		Assert.notNull(constraint, "constraint");
+		if (constraint instanceof PropertyConstraint) {
+			return compile((PropertyConstraint) constraint);
+		}
+		return compileValueConstraint(constraint);
+	}
+
+	/**
+	 * Returns a property access strategy remembering the property values it
+	 * reads. Compiled constraints tested with it reuse it instead of creating
+	 * their own, so one instance can be passed to all constraints tested in
+	 * one pass over an object that does not change in the meantime.
+	 *
+	 * @param argument the bean or {@link PropertyAccessStrategy} to test.
+	 * @return the caching access strategy.
+	 */
+	public static PropertyAccessStrategy cachingAccessStrategy(Object argument) {
+		if (argument instanceof CachingPropertyAccessStrategy) {
+			return (PropertyAccessStrategy) argument;
+		}
+		return new CachingPropertyAccessStrategy(argument);
+	}
+
+	/**
+	 * Compiles a constraint that is tested against a
+	 * {@link CachingPropertyAccessStrategy}.
+	 */
+	private static Constraint compilePropertyConstraint(Constraint constraint) {
+		Class type = constraint.getClass();
+		if (type == CompoundPropertyConstraint.class) {
+			return compilePropertyConstraint(((CompoundPropertyConstraint) constraint).getPredicate());
+		}
+		if (type == PropertyValueConstraint.class) {
+			PropertyValueConstraint valueConstraint = (PropertyValueConstraint) constraint;
+			return new PropertyValueEvaluator(valueConstraint.getPropertyName(),
+					compileValueConstraint(valueConstraint.getConstraint()));
+		}
+		if (type == ParameterizedPropertyConstraint.class) {
+			return compilePropertyConstraint(((ParameterizedPropertyConstraint) constraint).getPropertyValueConstraint());
+		}
+		if ((type == NegatedPropertyConstraint.class || type == Not.class) && ((Not) constraint).getConstraint() != null) {
+			return new NotEvaluator(compilePropertyConstraint(((Not) constraint).getConstraint()));
+		}
+		if (type == And.class || type == Or.class || type == XOr.class) {
+			return compileCompound((CompoundConstraint) constraint, true);
+		}
+		if (constraint instanceof AbstractPropertyConstraint) {
+			// accepts the caching access strategy
+			return constraint;
+		}
+		return new RawArgumentEvaluator(constraint);
+	}
+
+	private static Constraint compileValueConstraint(Constraint constraint) {
+		Class type = constraint.getClass();
+		if (type == And.class || type == Or.class || type == XOr.class) {
+			return compileCompound((CompoundConstraint) constraint, false);
+		}
+		if (type == Not.class && ((Not) constraint).getConstraint() != null) {
+			return new NotEvaluator(compileValueConstraint(((Not) constraint).getConstraint()));
+		}
+		if (type == Range.class) {
+			return compileValueConstraint(((Range) constraint).getRangeConstraint());
+		}
+		if (type == ParameterizedBinaryConstraint.class) {
+			return compileComparison((ParameterizedBinaryConstraint) constraint);
+		}
+		if (type == Like.class && ((Like) constraint).getString() != null) {
+			return compileLike((Like) constraint);
+		}
+		return constraint;
+	}
+
+	private static Constraint compileLike(Like like) {
+		Like.LikeType likeType = like.getType();
+		int match;
+		if (likeType == Like.STARTS_WITH) {
+			match = STARTS_WITH;
+		}
+		else if (likeType == Like.ENDS_WITH) {
+			match = ENDS_WITH;
+		}
+		else {
+			// Like treats any other type as contains
+			match = CONTAINS;
+		}
+		return new LikeEvaluator(match, like.getString());
+	}
+
+	private static Constraint compileCompound(CompoundConstraint compound, boolean propertyLevel) {
+		Constraint[] members = new Constraint[compound.size()];
+		int index = 0;
+		for (Iterator i = compound.iterator(); i.hasNext();) {
+			Constraint member = (Constraint) i.next();
+			members[index++] = propertyLevel ? compilePropertyConstraint(member) : compileValueConstraint(member);
+		}
+		if (compound.getClass() == And.class) {
+			return new AndEvaluator(members);
+		}
+		if (compound.getClass() == Or.class) {
+			return new OrEvaluator(members);
+		}
+		return new XOrEvaluator(members);
+	}
+
+	private static Constraint compileComparison(ParameterizedBinaryConstraint constraint) {
+		BinaryConstraint binary = constraint.getConstraint();
+		Object parameter = constraint.getParameter();
+		if (!(binary instanceof ComparisonBinaryPredicate)
+				|| ((ComparisonBinaryPredicate) binary).getComparator() != null || !isPrimitiveComparable(parameter)) {
+			return constraint;
+		}
+		int operator;
+		Class type = binary.getClass();
+		if (type == GreaterThan.class) {
+			operator = GREATER_THAN;
+		}
+		else if (type == GreaterThanEqualTo.class) {
+			operator = GREATER_THAN_EQUAL_TO;
+		}
+		else if (type == LessThan.class) {
+			operator = LESS_THAN;
+		}
+		else if (type == LessThanEqualTo.class) {
+			operator = LESS_THAN_EQUAL_TO;
+		}
+		else {
+			return constraint;
+		}
+		return new NumericComparisonEvaluator(constraint, operator, (Number) parameter);
+	}
+
+	private static boolean isPrimitiveComparable(Object value) {
+		return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+				|| value instanceof Double || value instanceof Float;
+	}
+
+	/**
+	 * The compiled form of a property constraint; keeps the identity related
+	 * methods of the source constraint.
+	 */
+	private static final class CompiledPropertyConstraint implements PropertyConstraint {
+
+		private final PropertyConstraint source;
+
+		private final Constraint evaluator;
+
+		CompiledPropertyConstraint(PropertyConstraint source, Constraint evaluator) {
+			this.source = source;
+			this.evaluator = evaluator;
+		}
+
+		public String getPropertyName() {
+			return source.getPropertyName();
+		}
+
+		public boolean isDependentOn(String propertyName) {
+			return source.isDependentOn(propertyName);
+		}
+
+		public boolean isCompoundRule() {
+			return source.isCompoundRule();
+		}
+
+		public boolean test(Object argument) {
+			if (evaluator instanceof RawArgumentEvaluator) {
+				return source.test(argument instanceof CachingPropertyAccessStrategy
+						? ((CachingPropertyAccessStrategy) argument).argument : argument);
+			}
+			return evaluator.test(cachingAccessStrategy(argument));
+		}
+
+		public String toString() {
+			return source.toString();
+		}
+	}
+
+	/**
+	 * Remembers the property values read during one evaluation. Wraps the
+	 * argument in a {@link BeanPropertyAccessStrategy} on first access unless
+	 * it is a {@link PropertyAccessStrategy} already.
+	 */
+	private static final class CachingPropertyAccessStrategy implements PropertyAccessStrategy {
+
+		private final Object argument;
+
+		private PropertyAccessStrategy target;
+
+		private final Map values = new HashMap(8);
+
+		CachingPropertyAccessStrategy(Object argument) {
+			this.argument = argument;
+		}
+
+		private PropertyAccessStrategy getTarget() {
+			if (target == null) {
+				target = argument instanceof PropertyAccessStrategy ? (PropertyAccessStrategy) argument
+						: new BeanPropertyAccessStrategy(argument);
+			}
+			return target;
+		}
+
+		public Object getPropertyValue(String propertyPath) throws BeansException {
+			Object value = values.get(propertyPath);
+			if (value == null && !values.containsKey(propertyPath)) {
+				value = getTarget().getPropertyValue(propertyPath);
+				values.put(propertyPath, value);
+			}
+			return value;
+		}
+
+		public PropertyMetadataAccessStrategy getMetadataAccessStrategy() {
+			return getTarget().getMetadataAccessStrategy();
+		}
+
+		public Object getDomainObject() {
+			return getTarget().getDomainObject();
+		}
+	}
+
+	/**
+	 * Calls a property constraint that is not known to accept a
+	 * {@link PropertyAccessStrategy} with the original argument.
+	 */
+	private static final class RawArgumentEvaluator implements Constraint {
+
+		private final Constraint constraint;
+
+		RawArgumentEvaluator(Constraint constraint) {
+			this.constraint = constraint;
+		}
+
+		public boolean test(Object frame) {
+			return constraint.test(((CachingPropertyAccessStrategy) frame).argument);
+		}
+	}
+
+	private static final class PropertyValueEvaluator implements Constraint {
+
+		private final String propertyName;
+
+		private final Constraint valueConstraint;
+
+		PropertyValueEvaluator(String propertyName, Constraint valueConstraint) {
+			this.propertyName = propertyName;
+			this.valueConstraint = valueConstraint;
+		}
+
+		public boolean test(Object accessStrategy) {
+			return valueConstraint.test(((PropertyAccessStrategy) accessStrategy).getPropertyValue(propertyName));
+		}
+	}
+
+	private static final class AndEvaluator implements Constraint {
+
+		private final Constraint[] members;
+
+		AndEvaluator(Constraint[] members) {
+			this.members = members;
+		}
+
+		public boolean test(Object argument) {
+			for (int i = 0; i < members.length; i++) {
+				if (!members[i].test(argument)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	private static final class OrEvaluator implements Constraint {
+
+		private final Constraint[] members;
+
+		OrEvaluator(Constraint[] members) {
+			this.members = members;
+		}
+
+		public boolean test(Object argument) {
+			for (int i = 0; i < members.length; i++) {
+				if (members[i].test(argument)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	private static final class XOrEvaluator implements Constraint {
+
+		private final Constraint[] members;
+
+		XOrEvaluator(Constraint[] members) {
+			this.members = members;
+		}
+
+		public boolean test(Object argument) {
+			boolean found = false;
+			for (int i = 0; i < members.length; i++) {
+				if (members[i].test(argument)) {
+					if (found) {
+						return false;
+					}
+					found = true;
+				}
+			}
+			return found;
+		}
+	}
+
+	private static final class NotEvaluator implements Constraint {
+
+		private final Constraint constraint;
+
+		NotEvaluator(Constraint constraint) {
+			this.constraint = constraint;
+		}
+
+		public boolean test(Object argument) {
+			return !constraint.test(argument);
+		}
+	}
+
+	/**
+	 * Matches the string form of a value like {@link Like}, without looking up
+	 * the match type on every test.
+	 */
+	private static final class LikeEvaluator implements Constraint {
+
+		private final int match;
+
+		private final String stringToMatch;
+
+		LikeEvaluator(int match, String stringToMatch) {
+			this.match = match;
+			this.stringToMatch = stringToMatch;
+		}
+
+		public boolean test(Object argument) {
+			String value = argument instanceof String ? (String) argument : String.valueOf(argument);
+			switch (match) {
+			case STARTS_WITH:
+				return value.startsWith(stringToMatch);
+			case ENDS_WITH:
+				return value.endsWith(stringToMatch);
+			default:
+				return value.indexOf(stringToMatch) != -1;
+			}
+		}
+	}
+
+	/**
+	 * Compares a value against a numeric parameter without boxing when the
+	 * value has the same wrapper type as the parameter. Other values (null,
+	 * other types) are handed to the source constraint.
+	 */
+	private static final class NumericComparisonEvaluator implements Constraint {
+
+		private final Constraint source;
+
+		private final int operator;
+
+		private final Class parameterType;
+
+		private final boolean integral;
+
+		private final long longParameter;
+
+		private final double doubleParameter;
+
+		NumericComparisonEvaluator(Constraint source, int operator, Number parameter) {
+			this.source = source;
+			this.operator = operator;
+			this.parameterType = parameter.getClass();
+			this.integral = !(parameter instanceof Double || parameter instanceof Float);
+			this.longParameter = parameter.longValue();
+			this.doubleParameter = parameter.doubleValue();
+		}
+
+		public boolean test(Object argument) {
+			if (argument == null || argument.getClass() != parameterType) {
+				return source.test(argument);
+			}
+			int result;
+			if (integral) {
+				long value = ((Number) argument).longValue();
+				result = value < longParameter ? -1 : (value == longParameter ? 0 : 1);
+			}
+			else if (parameterType == Float.class) {
+				result = Float.compare(((Float) argument).floatValue(), (float) doubleParameter);
+			}
+			else {
+				result = Double.compare(((Double) argument).doubleValue(), doubleParameter);
+			}
+			switch (operator) {
+			case GREATER_THAN:
+				return result > 0;
+			case GREATER_THAN_EQUAL_TO:
+				return result >= 0;
+			case LESS_THAN:
+				return result < 0;
+			default:
+				return result <= 0;
+			}
+		}
+	}
+}
@@ -185,6 +185,14 @@ public final class Range extends AbstractConstraint {
 		return inclusive;
 	}
 
+	/**
+	 * Returns the constraint testing both edges, used by
+	 * {@link ConstraintCompiler}.
+	 */
+	Constraint getRangeConstraint() {
+		return rangeConstraint;
+	}
+
 	/**
 	 * Test if the specified argument falls within the established range.
 	 *
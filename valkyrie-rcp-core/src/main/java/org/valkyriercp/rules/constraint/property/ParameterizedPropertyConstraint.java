@@ -67,6 +67,14 @@ public class ParameterizedPropertyConstraint implements PropertyConstraint {
 		return getParameterizedBinaryConstraint().getParameter();
 	}
 
+	/**
+	 * Returns the constraint testing the property value this constraint
+	 * delegates to.
+	 */
+	public PropertyValueConstraint getPropertyValueConstraint() {
+		return parameterizedExpression;
+	}
+
 	private ParameterizedBinaryConstraint getParameterizedBinaryConstraint() {
 		return (ParameterizedBinaryConstraint)this.parameterizedExpression.getConstraint();
 	}
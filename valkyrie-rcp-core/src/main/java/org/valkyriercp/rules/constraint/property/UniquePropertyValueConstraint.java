@@ -15,19 +15,27 @@
  */
 package org.valkyriercp.rules.constraint.property;
 
+import com.google.common.collect.MapMaker;
 import org.valkyriercp.binding.MutablePropertyAccessStrategy;
 import org.valkyriercp.binding.support.BeanPropertyAccessStrategy;
+import org.valkyriercp.binding.value.ObservableList;
 import org.valkyriercp.rules.constraint.AbstractConstraint;
 
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 
 public class UniquePropertyValueConstraint extends AbstractConstraint implements PropertyConstraint {
 	private String propertyName;
 
-	private Map distinctValueTable;
+	/**
+	 * Indexes of the tested lists, by list identity. Keys and values are held
+	 * weakly: a list keeps its index alive through the listener, the constraint
+	 * keeps neither.
+	 */
+	private final Map indexes = new MapMaker().weakKeys().weakValues().makeMap();
 
 	public UniquePropertyValueConstraint(String propertyName) {
 		this.propertyName = propertyName;
@@ -49,10 +57,22 @@ public class UniquePropertyValueConstraint extends AbstractConstraint implements
 	/**
 	 * Returns <code>true</code> if each domain object in the provided collection has a unique
 	 * value for the configured property.
+	 * <p>
+	 * For an {@link ObservableList} a {@link UniquePropertyValueIndex} is kept, which
+	 * follows the changes of the list, so repeated tests of the same list don't have to
+	 * go over all its elements. The index is only used while it also sees the edits of
+	 * the elements themselves, that is for a simple property name of elements that
+	 * support bound properties; otherwise all elements are checked.
 	 */
 	public boolean test(Object o) {
+		if (o instanceof ObservableList && UniquePropertyValueIndex.isSimplePropertyName(propertyName)) {
+			UniquePropertyValueIndex index = getIndex((ObservableList)o);
+			if (index.isObservingElements()) {
+				return index.isUnique();
+			}
+		}
 		Collection domainObjects = (Collection)o;
-		distinctValueTable = new HashMap((int)(domainObjects.size() * .75));
+		Set distinctValues = new HashSet((int)(domainObjects.size() / .75f) + 1);
 		Iterator it = domainObjects.iterator();
 		MutablePropertyAccessStrategy accessor = null;
 		while (it.hasNext()) {
@@ -63,23 +83,35 @@ public class UniquePropertyValueConstraint extends AbstractConstraint implements
 			else {
 				accessor.getDomainObjectHolder().setValue(domainObject);
 			}
-			Object propertyValue = accessor.getPropertyValue(propertyName);
-			Integer hashCode;
-			if (propertyValue == null) {
-				hashCode = new Integer(0);
-			}
-			else {
-				hashCode = new Integer(propertyValue.hashCode());
-			}
-			if (distinctValueTable.containsKey(hashCode)) {
+			if (!distinctValues.add(accessor.getPropertyValue(propertyName))) {
 				return false;
 			}
-
-            distinctValueTable.put(hashCode, propertyValue);
 		}
 		return true;
 	}
 
+	/**
+	 * Returns the index of the property values of the given list, creating it on
+	 * first use. Each list gets its own index, which lives as long as the list.
+	 */
+	public synchronized UniquePropertyValueIndex getIndex(ObservableList list) {
+		UniquePropertyValueIndex index = (UniquePropertyValueIndex)indexes.get(list);
+		if (index == null) {
+			index = createIndex(list);
+			indexes.put(list, index);
+		}
+		return index;
+	}
+
+	protected UniquePropertyValueIndex createIndex(ObservableList list) {
+		return new UniquePropertyValueIndex(list, propertyName) {
+
+			protected MutablePropertyAccessStrategy createPropertyAccessStrategy(Object o) {
+				return UniquePropertyValueConstraint.this.createPropertyAccessStrategy(o);
+			}
+		};
+	}
+
 	protected MutablePropertyAccessStrategy createPropertyAccessStrategy(Object o) {
 		return new BeanPropertyAccessStrategy(o);
 	}
@@ -0,0 +1,383 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.rules.constraint.property;
+
+import org.springframework.beans.PropertyAccessor;
+import org.springframework.util.Assert;
+import org.valkyriercp.binding.MutablePropertyAccessStrategy;
+import org.valkyriercp.binding.support.BeanPropertyAccessStrategy;
+import org.valkyriercp.binding.support.PropertyChangeSupportUtils;
+import org.valkyriercp.binding.value.ObservableList;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps track of the values of a property over the elements of an
+ * {@link ObservableList}, so duplicate values can be found without going
+ * over the whole list.
+ * <p>
+ * The index is a multiset of property values. It is updated incrementally on
+ * the list data events of the observed list and, for simple property names,
+ * on property change events of the elements that support bound properties.
+ * Updating the multiset costs constant time per changed element; the mirror
+ * of the list kept to find removed elements costs one array copy per added or
+ * removed interval that is not at the end of the list. Only changes of the
+ * whole list contents, as fired by sorting or bulk removal, rebuild the index.
+ * Changes of elements that are not signalled by the list, nor by the element
+ * itself, are missed; {@link #isObservingElements()} tells whether the index
+ * can be relied upon for lists whose elements are edited in place.
+ * <p>
+ * Values are compared with <code>equals</code>. All methods and event
+ * handlers synchronize on the index, so it can be queried from other threads
+ * than the one changing the list. Call {@link #dispose()} to stop observing
+ * the list; a disposed index is empty.
+ */
+public class UniquePropertyValueIndex {
+
+	private static final Object NULL_VALUE = new Object();
+
+	private final ObservableList list;
+
+	private final String propertyName;
+
+	private final boolean observeElements;
+
+	private MutablePropertyAccessStrategy accessStrategy;
+
+	/** Mirror of the list, needed to know which elements have been removed. */
+	private final List rows = new ArrayList();
+
+	private final Map elementEntries = new IdentityHashMap();
+
+	private final Map valueBuckets = new HashMap();
+
+	private final Set duplicateValues = new HashSet();
+
+	/** Number of indexed elements that don't support bound properties. */
+	private int unobservedElements;
+
+	private final ListDataListener listDataHandler = new ListDataHandler();
+
+	private final PropertyChangeListener propertyChangeHandler = new PropertyChangeHandler();
+
+	public UniquePropertyValueIndex(ObservableList list, String propertyName) {
+		Assert.notNull(list, "list is required");
+		Assert.notNull(propertyName, "propertyName is required");
+		this.list = list;
+		this.propertyName = propertyName;
+		this.observeElements = isSimplePropertyName(propertyName);
+		synchronized (this) {
+			addAll();
+			list.addListDataListener(listDataHandler);
+		}
+	}
+
+	public ObservableList getList() {
+		return list;
+	}
+
+	public String getPropertyName() {
+		return propertyName;
+	}
+
+	/**
+	 * Returns <code>true</code> if the index also follows the property changes
+	 * of its elements: the property name is a simple one and all elements support
+	 * bound properties. Otherwise only list data events update the index.
+	 */
+	public synchronized boolean isObservingElements() {
+		return observeElements && unobservedElements == 0;
+	}
+
+	/**
+	 * Returns <code>true</code> if no two elements of the list have the same
+	 * property value.
+	 */
+	public synchronized boolean isUnique() {
+		return duplicateValues.isEmpty();
+	}
+
+	/**
+	 * Returns <code>true</code> if no other element of the list has the same
+	 * property value as the given element.
+	 */
+	public synchronized boolean isUnique(Object element) {
+		ElementEntry entry = (ElementEntry) elementEntries.get(element);
+		return entry == null || !duplicateValues.contains(entry.value);
+	}
+
+	/**
+	 * Returns the elements whose property value is shared with another element.
+	 */
+	public synchronized Collection getDuplicates() {
+		if (duplicateValues.isEmpty()) {
+			return Collections.EMPTY_LIST;
+		}
+		List duplicates = new ArrayList();
+		for (Iterator i = duplicateValues.iterator(); i.hasNext();) {
+			duplicates.addAll(((ValueBucket) valueBuckets.get(i.next())).elements);
+		}
+		return duplicates;
+	}
+
+	/**
+	 * Returns the elements having the given property value if there is more
+	 * than one of them, an empty collection otherwise.
+	 */
+	public synchronized Collection getDuplicates(Object value) {
+		Object key = toKey(value);
+		if (!duplicateValues.contains(key)) {
+			return Collections.EMPTY_LIST;
+		}
+		return new ArrayList(((ValueBucket) valueBuckets.get(key)).elements);
+	}
+
+	/**
+	 * Stops observing the list and its elements.
+	 */
+	public synchronized void dispose() {
+		list.removeListDataListener(listDataHandler);
+		clear();
+	}
+
+	private Object getPropertyValue(Object element) {
+		if (accessStrategy == null) {
+			accessStrategy = createPropertyAccessStrategy(element);
+		}
+		else {
+			accessStrategy.getDomainObjectHolder().setValue(element);
+		}
+		return accessStrategy.getPropertyValue(propertyName);
+	}
+
+	protected MutablePropertyAccessStrategy createPropertyAccessStrategy(Object o) {
+		return new BeanPropertyAccessStrategy(o);
+	}
+
+	static boolean isSimplePropertyName(String propertyName) {
+		return propertyName.indexOf(PropertyAccessor.NESTED_PROPERTY_SEPARATOR_CHAR) == -1
+				&& propertyName.indexOf(PropertyAccessor.PROPERTY_KEY_PREFIX_CHAR) == -1;
+	}
+
+	private static Object toKey(Object value) {
+		return value == null ? NULL_VALUE : value;
+	}
+
+	private void addAll() {
+		for (int i = 0, size = list.size(); i < size; i++) {
+			Object element = list.get(i);
+			rows.add(element);
+			addElement(element);
+		}
+	}
+
+	private void clear() {
+		if (observeElements) {
+			for (Iterator i = elementEntries.keySet().iterator(); i.hasNext();) {
+				unobserve(i.next());
+			}
+		}
+		rows.clear();
+		elementEntries.clear();
+		valueBuckets.clear();
+		duplicateValues.clear();
+		unobservedElements = 0;
+	}
+
+	private void addElement(Object element) {
+		if (element == null) {
+			return;
+		}
+		ElementEntry entry = (ElementEntry) elementEntries.get(element);
+		if (entry == null) {
+			entry = new ElementEntry(toKey(getPropertyValue(element)));
+			elementEntries.put(element, entry);
+			observe(element);
+		}
+		entry.occurrences++;
+		addValue(entry.value, element);
+	}
+
+	private void removeElement(Object element) {
+		ElementEntry entry = (ElementEntry) elementEntries.get(element);
+		if (entry == null) {
+			return;
+		}
+		removeValue(entry.value, element, --entry.occurrences == 0);
+		if (entry.occurrences == 0) {
+			elementEntries.remove(element);
+			unobserve(element);
+		}
+	}
+
+	private void elementChanged(Object element) {
+		ElementEntry entry = (ElementEntry) elementEntries.get(element);
+		if (entry == null) {
+			return;
+		}
+		Object value = toKey(getPropertyValue(element));
+		if (value.equals(entry.value)) {
+			return;
+		}
+		for (int i = 0; i < entry.occurrences; i++) {
+			removeValue(entry.value, element, i == entry.occurrences - 1);
+			addValue(value, element);
+		}
+		entry.value = value;
+	}
+
+	private void addValue(Object value, Object element) {
+		ValueBucket bucket = (ValueBucket) valueBuckets.get(value);
+		if (bucket == null) {
+			bucket = new ValueBucket();
+			valueBuckets.put(value, bucket);
+		}
+		bucket.count++;
+		bucket.elements.add(element);
+		if (bucket.count == 2) {
+			duplicateValues.add(value);
+		}
+	}
+
+	private void removeValue(Object value, Object element, boolean lastOccurrence) {
+		ValueBucket bucket = (ValueBucket) valueBuckets.get(value);
+		bucket.count--;
+		if (lastOccurrence) {
+			bucket.elements.remove(element);
+		}
+		if (bucket.count == 0) {
+			valueBuckets.remove(value);
+		}
+		else if (bucket.count == 1) {
+			duplicateValues.remove(value);
+		}
+	}
+
+	private void observe(Object element) {
+		if (!observeElements) {
+			return;
+		}
+		if (PropertyChangeSupportUtils.supportsBoundProperties(element.getClass())) {
+			PropertyChangeSupportUtils.addPropertyChangeListener(element, propertyName, propertyChangeHandler);
+		}
+		else {
+			unobservedElements++;
+		}
+	}
+
+	private void unobserve(Object element) {
+		if (!observeElements) {
+			return;
+		}
+		if (PropertyChangeSupportUtils.supportsBoundProperties(element.getClass())) {
+			PropertyChangeSupportUtils.removePropertyChangeListener(element, propertyName, propertyChangeHandler);
+		}
+		else {
+			unobservedElements--;
+		}
+	}
+
+	private static class ElementEntry {
+
+		Object value;
+
+		int occurrences;
+
+		ElementEntry(Object value) {
+			this.value = value;
+		}
+	}
+
+	private static class ValueBucket {
+
+		int count;
+
+		final Set elements = Collections.newSetFromMap(new IdentityHashMap());
+	}
+
+	private class ListDataHandler implements ListDataListener {
+
+		public void intervalAdded(ListDataEvent e) {
+			synchronized (UniquePropertyValueIndex.this) {
+				List added = new ArrayList(e.getIndex1() - e.getIndex0() + 1);
+				for (int i = e.getIndex0(); i <= e.getIndex1(); i++) {
+					Object element = list.get(i);
+					added.add(element);
+					addElement(element);
+				}
+				rows.addAll(e.getIndex0(), added);
+			}
+		}
+
+		public void intervalRemoved(ListDataEvent e) {
+			synchronized (UniquePropertyValueIndex.this) {
+				List removed = rows.subList(e.getIndex0(), e.getIndex1() + 1);
+				for (int i = 0, size = removed.size(); i < size; i++) {
+					removeElement(removed.get(i));
+				}
+				removed.clear();
+			}
+		}
+
+		public void contentsChanged(ListDataEvent e) {
+			synchronized (UniquePropertyValueIndex.this) {
+				updateContents(e);
+			}
+		}
+
+		private void updateContents(ListDataEvent e) {
+			if (e.getIndex0() < 0 || e.getIndex1() >= rows.size() || rows.size() != list.size()) {
+				clear();
+				addAll();
+				return;
+			}
+			for (int i = e.getIndex0(); i <= e.getIndex1(); i++) {
+				Object oldElement = rows.get(i);
+				Object newElement = list.get(i);
+				if (oldElement == newElement) {
+					elementChanged(newElement);
+				}
+				else {
+					rows.set(i, newElement);
+					removeElement(oldElement);
+					addElement(newElement);
+				}
+			}
+		}
+	}
+
+	private class PropertyChangeHandler implements PropertyChangeListener {
+
+		public void propertyChange(PropertyChangeEvent evt) {
+			synchronized (UniquePropertyValueIndex.this) {
+				elementChanged(evt.getSource());
+			}
+		}
+	}
+}
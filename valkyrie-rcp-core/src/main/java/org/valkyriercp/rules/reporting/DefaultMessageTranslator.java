@@ -25,7 +25,7 @@ import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.valkyriercp.rules.constraint.*;
 import org.valkyriercp.rules.constraint.property.*;
-import org.valkyriercp.util.ReflectiveVisitorHelper;
+import org.valkyriercp.util.VisitorDispatcher;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -33,6 +33,13 @@ import java.util.List;
 import java.util.Locale;
 
 /**
+ * Translates violated constraints into messages using a
+ * <code>MessageSource</code>.
+ * <p>
+ * The constraint part of each message is kept in a
+ * {@link MessageTranslationCache}, so repeated violations of the same
+ * constraint only need the object name to be resolved.
+ *
  * @author Keith Donald
  */
 public class DefaultMessageTranslator implements MessageTranslator,
@@ -41,7 +48,7 @@ public class DefaultMessageTranslator implements MessageTranslator,
 	protected static final Log logger = LogFactory
 			.getLog(DefaultMessageTranslator.class);
 
-	private ReflectiveVisitorHelper visitorSupport = new ReflectiveVisitorHelper();
+	private VisitorDispatcher visitorSupport = VisitorDispatcher.getInstance();
 
 	private List args = new ArrayList();
 
@@ -51,6 +58,8 @@ public class DefaultMessageTranslator implements MessageTranslator,
 
 	private Locale locale;
 
+	private MessageTranslationCache messageCache = new MessageTranslationCache();
+
 	public DefaultMessageTranslator(MessageSource messages) {
 		this(messages, null);
 	}
@@ -69,6 +78,25 @@ public class DefaultMessageTranslator implements MessageTranslator,
 	public void setMessageSource(MessageSource messageSource) {
 		Assert.notNull(messageSource, "messageSource is required");
 		this.messages = messageSource;
+		messageCache.clear();
+	}
+
+	public Locale getLocale() {
+		return locale;
+	}
+
+	public void setLocale(Locale locale) {
+		this.locale = locale;
+		messageCache.clear();
+	}
+
+	public MessageTranslationCache getMessageCache() {
+		return messageCache;
+	}
+
+	public void setMessageCache(MessageTranslationCache messageCache) {
+		Assert.notNull(messageCache, "messageCache is required");
+		this.messageCache = messageCache;
 	}
 
 	/*
@@ -107,15 +135,31 @@ public class DefaultMessageTranslator implements MessageTranslator,
 
     protected String buildMessage(String objectName, Object rejectedValue,
 			Constraint constraint) {
+		String constraintMessage = messageCache.get(constraint, locale);
+		if (constraintMessage == null) {
+			constraintMessage = buildConstraintMessage(constraint);
+			messageCache.put(constraint, locale, constraintMessage);
+		}
+		if (objectName == null) {
+			return constraintMessage;
+		}
+		String resolvedObjectName = resolveObjectName(objectName);
+		StringBuffer buf = new StringBuffer(resolvedObjectName.length() + 1 + constraintMessage.length());
+		buf.append(resolvedObjectName);
+		buf.append(' ');
+		buf.append(constraintMessage);
+		return buf.toString();
+	}
+
+	/**
+	 * Builds the message for the constraint itself, without the object name.
+	 */
+	protected String buildConstraintMessage(Constraint constraint) {
 		StringBuffer buf = new StringBuffer(255);
 		MessageSourceResolvable[] args = resolveArguments(constraint);
 		if (logger.isDebugEnabled()) {
 			logger.debug(StylerUtils.style(args));
 		}
-		if (objectName != null) {
-			buf.append(resolveObjectName(objectName));
-			buf.append(' ');
-		}
 		for (int i = 0; i < args.length - 1; i++) {
 			MessageSourceResolvable arg = args[i];
 			buf.append(messages.getMessage(arg, locale));
@@ -16,12 +16,19 @@
 package org.valkyriercp.rules.reporting;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.MessageSource;
+import org.springframework.context.event.ContextRefreshedEvent;
 
 import java.util.Locale;
 
+/**
+ * Creates {@link DefaultMessageTranslator}s. The cached messages of the
+ * translators are invalidated whenever the application context is refreshed.
+ */
 public class DefaultMessageTranslatorFactory implements
-        MessageTranslatorFactory {
+        MessageTranslatorFactory, ApplicationListener {
 
     @Autowired
     private MessageSource messageSource;
@@ -34,4 +41,10 @@ public class DefaultMessageTranslatorFactory implements
                                               Locale locale) {
         return new DefaultMessageTranslator(messageSource, resolver, locale);
     }
+
+    public void onApplicationEvent(ApplicationEvent event) {
+        if (event instanceof ContextRefreshedEvent) {
+            MessageTranslationCache.invalidateAll();
+        }
+    }
 }
@@ -0,0 +1,226 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.rules.reporting;
+
+import org.springframework.util.Assert;
+import org.valkyriercp.rules.constraint.CompoundConstraint;
+import org.valkyriercp.rules.constraint.Constraint;
+import org.valkyriercp.rules.constraint.Not;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of translated constraint messages, used by
+ * {@link DefaultMessageTranslator}.
+ * <p>
+ * Messages are keyed by the violated constraint and the locale. Violated
+ * constraints are rebuilt by the results collectors on every validation, so
+ * compound constraints are compared by structure; their leaves are the
+ * constraints of the rules and are compared with <code>equals</code>.
+ * <p>
+ * A cache holds at most {@link #getMaxSize()} messages and evicts the least
+ * recently used message when it is full.
+ * <p>
+ * All caches are invalidated by {@link #invalidateAll()}, which is called
+ * when the application context is refreshed, as the messages may have
+ * changed. Hit and miss counts are kept per cache and for all caches
+ * together.
+ */
+public class MessageTranslationCache {
+
+	/** Default maximum number of cached messages. */
+	public static final int DEFAULT_MAX_SIZE = 1000;
+
+	private static final AtomicInteger generation = new AtomicInteger();
+
+	private static final AtomicLong totalHitCount = new AtomicLong();
+
+	private static final AtomicLong totalMissCount = new AtomicLong();
+
+	private final int maxSize;
+
+	private final Map messages;
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	private volatile int cacheGeneration = generation.get();
+
+	public MessageTranslationCache() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * Creates a cache holding at most the given number of messages.
+	 */
+	public MessageTranslationCache(int maxSize) {
+		Assert.isTrue(maxSize > 0, "maxSize must be positive");
+		this.maxSize = maxSize;
+		this.messages = Collections.synchronizedMap(new LruMap(maxSize));
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Returns the number of cached messages.
+	 */
+	public int size() {
+		return messages.size();
+	}
+
+	/**
+	 * Returns the cached message of the given constraint, or <code>null</code>
+	 * if there is none.
+	 */
+	public String get(Constraint constraint, Locale locale) {
+		checkGeneration();
+		String message = (String) messages.get(createKey(constraint, locale));
+		if (message == null) {
+			missCount.incrementAndGet();
+			totalMissCount.incrementAndGet();
+		}
+		else {
+			hitCount.incrementAndGet();
+			totalHitCount.incrementAndGet();
+		}
+		return message;
+	}
+
+	public void put(Constraint constraint, Locale locale, String message) {
+		checkGeneration();
+		messages.put(createKey(constraint, locale), message);
+	}
+
+	/**
+	 * Removes all cached messages.
+	 */
+	public void clear() {
+		messages.clear();
+	}
+
+	private void checkGeneration() {
+		int currentGeneration = generation.get();
+		if (cacheGeneration != currentGeneration) {
+			cacheGeneration = currentGeneration;
+			messages.clear();
+		}
+	}
+
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * Returns the fraction of lookups that found a cached message.
+	 */
+	public double getHitRate() {
+		return getHitRate(hitCount.get(), missCount.get());
+	}
+
+	public void resetStatistics() {
+		hitCount.set(0);
+		missCount.set(0);
+	}
+
+	/**
+	 * Invalidates the messages of all caches.
+	 */
+	public static void invalidateAll() {
+		generation.incrementAndGet();
+	}
+
+	public static long getTotalHitCount() {
+		return totalHitCount.get();
+	}
+
+	public static long getTotalMissCount() {
+		return totalMissCount.get();
+	}
+
+	/**
+	 * Returns the fraction of lookups in all caches that found a cached
+	 * message.
+	 */
+	public static double getTotalHitRate() {
+		return getHitRate(totalHitCount.get(), totalMissCount.get());
+	}
+
+	public static void resetTotalStatistics() {
+		totalHitCount.set(0);
+		totalMissCount.set(0);
+	}
+
+	private static double getHitRate(long hits, long misses) {
+		long lookups = hits + misses;
+		return lookups == 0 ? 0 : (double) hits / lookups;
+	}
+
+	private static Object createKey(Constraint constraint, Locale locale) {
+		return Arrays.asList(new Object[] { locale, getConstraintKey(constraint) });
+	}
+
+	/**
+	 * Returns a key for the given constraint which is equal for compound
+	 * constraints of the same type having equal children.
+	 */
+	public static Object getConstraintKey(Constraint constraint) {
+		if (constraint instanceof CompoundConstraint) {
+			List key = new ArrayList();
+			key.add(constraint.getClass());
+			for (Iterator i = ((CompoundConstraint) constraint).iterator(); i.hasNext();) {
+				key.add(getConstraintKey((Constraint) i.next()));
+			}
+			return key;
+		}
+		if (constraint instanceof Not) {
+			return Arrays.asList(new Object[] { Not.class, getConstraintKey(((Not) constraint).getConstraint()) });
+		}
+		return constraint;
+	}
+
+	/**
+	 * Map evicting its least recently accessed entry beyond a maximum size.
+	 */
+	private static class LruMap extends LinkedHashMap {
+
+		private final int maxSize;
+
+		LruMap(int maxSize) {
+			super(16, .75f, true);
+			this.maxSize = maxSize;
+		}
+
+		protected boolean removeEldestEntry(Map.Entry eldest) {
+			return size() > maxSize;
+		}
+	}
+}
@@ -22,7 +22,7 @@ import org.valkyriercp.rules.constraint.Or;
 import org.valkyriercp.rules.constraint.property.CompoundPropertyConstraint;
 import org.valkyriercp.rules.constraint.property.ParameterizedPropertyConstraint;
 import org.valkyriercp.rules.constraint.property.PropertiesConstraint;
-import org.valkyriercp.util.ReflectiveVisitorHelper;
+import org.valkyriercp.util.VisitorDispatcher;
 
 import java.util.Iterator;
 
@@ -31,7 +31,7 @@ import java.util.Iterator;
  */
 public class SummingVisitor {
 
-	private ReflectiveVisitorHelper visitorSupport = new ReflectiveVisitorHelper();
+	private VisitorDispatcher visitorSupport = VisitorDispatcher.getInstance();
 
 	private int sum;
 
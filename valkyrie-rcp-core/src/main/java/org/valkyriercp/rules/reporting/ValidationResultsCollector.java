@@ -20,7 +20,7 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.core.style.ToStringCreator;
 import org.valkyriercp.rules.closure.Closure;
 import org.valkyriercp.rules.constraint.*;
-import org.valkyriercp.util.ReflectiveVisitorHelper;
+import org.valkyriercp.util.VisitorDispatcher;
 
 import java.util.Iterator;
 
@@ -31,7 +31,7 @@ public class ValidationResultsCollector {
     protected static final Log logger = LogFactory
             .getLog(ValidationResultsCollector.class);
 
-    protected ReflectiveVisitorHelper visitorSupport = new ReflectiveVisitorHelper();
+    protected VisitorDispatcher visitorSupport = VisitorDispatcher.getInstance();
 
     private ValidationResultsBuilder resultsBuilder;
 
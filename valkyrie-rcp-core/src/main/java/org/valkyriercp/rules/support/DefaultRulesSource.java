@@ -66,6 +66,21 @@ public class DefaultRulesSource extends ConstraintsAccessor implements RulesSour
         Assert.notNull(rules);
         Map context = getRuleContext(contextId);
         context.put(rules.getDomainObjectType(), rules);
+        forgetResolvedRules(context);
+    }
+
+    /**
+     * Lookups for subclasses are remembered in the context map by
+     * {@link ClassUtils#getValueFromMapForClass(Class, Map)}. Drop those entries
+     * so they are resolved again against the changed registrations.
+     */
+    private void forgetResolvedRules(Map context) {
+        for (Iterator i = context.entrySet().iterator(); i.hasNext();) {
+            Map.Entry entry = (Map.Entry) i.next();
+            if (entry.getKey() != ((Rules) entry.getValue()).getDomainObjectType()) {
+                i.remove();
+            }
+        }
     }
 
     private Map getRuleContext(String contextId) {
@@ -21,8 +21,9 @@ import org.springframework.core.style.ToStringCreator;
 import org.springframework.util.Assert;
 
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Array;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Iterator;
 import java.util.Map;
@@ -55,6 +56,19 @@ import java.util.NoSuchElementException;
  * 	fooListeners.fire(&quot;fooYYY&quot;);
  * }
  * </pre>
+ * <p>
+ * Events fired often should rather use a typed {@link ListenerCallback}, which
+ * calls the listeners directly:
+ *
+ * <pre>
+ * protected void fireFooXXX(final Event event) {
+ * 	fooListeners.fire(new ListenerCallback&lt;FooListener&gt;() {
+ * 		public void invoke(FooListener listener) {
+ * 			listener.fooXXX(event);
+ * 		}
+ * 	});
+ * }
+ * </pre>
  *
  * @author Oliver Hutchison
  * @author Keith Donald
@@ -95,12 +109,13 @@ public class EventListenerListHelper implements Serializable {
 
         /**
          * Creates a value to cache under the given key {@code o}, which must be a
-         * {@link MethodCacheKey}. The value to be created will be a {@link java.lang.reflect.Method} object that is
-         * specified by the given key.
+         * {@link MethodCacheKey}. The value to be created will be an {@link EventMethod} invoking the
+         * {@link java.lang.reflect.Method} that is specified by the given key.
          *
          * @param o The key that the newly created object will be stored under. This is expected to
          * be an instance of {@link MethodCacheKey} that contains the class, method name and number
-         * of parameters of the {@link java.lang.reflect.Method} to be created.
+         * of parameters of the {@link java.lang.reflect.Method} to be created. The method is
+         * cached as an {@link EventMethod}.
          *
          * @throws ClassCastException if {@code o} can not be assigned to {@link MethodCacheKey}.
          * @throws IllegalArgumentException if the listener class specified by {@code o}, does not
@@ -128,7 +143,7 @@ public class EventListenerListHelper implements Serializable {
 						+ "] does not implement method [" + key.methodName + "] with [" + key.numParams
 						+ "] parameters.");
 			}
-			return fireMethod;
+			return new EventMethod(fireMethod);
 		}
 	};
 
@@ -216,7 +231,7 @@ public class EventListenerListHelper implements Serializable {
 	 */
 	public void fire(String methodName) {
 		if (listeners != EMPTY_OBJECT_ARRAY) {
-			fireEventByReflection(methodName, EMPTY_OBJECT_ARRAY);
+			fire(new EventMethodCallback(getEventMethod(methodName, 0), null, null, null));
 		}
 	}
 
@@ -232,7 +247,7 @@ public class EventListenerListHelper implements Serializable {
 	 */
 	public void fire(String methodName, Object arg) {
 		if (listeners != EMPTY_OBJECT_ARRAY) {
-			fireEventByReflection(methodName, new Object[] { arg });
+			fire(new EventMethodCallback(getEventMethod(methodName, 1), arg, null, null));
 		}
 	}
 
@@ -249,7 +264,7 @@ public class EventListenerListHelper implements Serializable {
 	 */
 	public void fire(String methodName, Object arg1, Object arg2) {
 		if (listeners != EMPTY_OBJECT_ARRAY) {
-			fireEventByReflection(methodName, new Object[] { arg1, arg2 });
+			fire(new EventMethodCallback(getEventMethod(methodName, 2), arg1, arg2, null));
 		}
 	}
 
@@ -265,7 +280,22 @@ public class EventListenerListHelper implements Serializable {
 	 */
 	public void fire(String methodName, Object[] args) {
 		if (listeners != EMPTY_OBJECT_ARRAY) {
-			fireEventByReflection(methodName, args);
+			fire(new EventMethodCallback(getEventMethod(methodName, args.length), null, null, args));
+		}
+	}
+
+	/**
+	 * Invokes the given callback for each of the listeners registered with this
+	 * list, in the order they were added. Exceptions thrown by the callback are
+	 * not wrapped and stop the notification of the remaining listeners.
+	 *
+	 * @param callback the callback notifying a single listener.
+	 */
+	@SuppressWarnings("unchecked")
+	public <L> void fire(ListenerCallback<L> callback) {
+		Object[] listenersCopy = listeners;
+		for (int i = 0; i < listenersCopy.length; i++) {
+			callback.invoke((L) listenersCopy[i]);
 		}
 	}
 
@@ -381,31 +411,8 @@ public class EventListenerListHelper implements Serializable {
 		}
 	}
 
-    /**
-     * Invokes the method with the given name on each of the listeners registered with this list
-     * helper. The given arguments are passed to each method invocation.
-     *
-     * @param methodName The name of the method to be invoked on the listeners.
-     * @param eventArgs The arguments that will be passed to each method invocation. The number
-     * of arguments is also used to determine the method to be invoked.
-     *
-     * @throws EventBroadcastException if an error occurs invoking the event method on any of the
-     * listeners.
-     */
-	private void fireEventByReflection(String methodName, Object[] eventArgs) {
-		Method eventMethod = (Method)methodCache.get(new MethodCacheKey(listenerClass, methodName, eventArgs.length));
-		Object[] listenersCopy = listeners;
-		for (int i = 0; i < listenersCopy.length; i++) {
-			try {
-				eventMethod.invoke(listenersCopy[i], eventArgs);
-			}
-			catch (InvocationTargetException e) {
-				throw new EventBroadcastException("Exception thrown by listener", e.getCause());
-			}
-			catch (IllegalAccessException e) {
-				throw new EventBroadcastException("Unable to invoke listener", e);
-			}
-		}
+	private EventMethod getEventMethod(String methodName, int numParams) {
+		return (EventMethod) methodCache.get(new MethodCacheKey(listenerClass, methodName, numParams));
 	}
 
     /**
@@ -433,6 +440,100 @@ public class EventListenerListHelper implements Serializable {
 		}
 	}
 
+	/**
+	 * An event method of a listener class, invoked through a
+	 * <code>MethodHandle</code>.
+	 */
+	private static final class EventMethod {
+
+		private final int numParams;
+
+		private final MethodHandle handle;
+
+		private final IllegalAccessException accessException;
+
+		EventMethod(Method method) {
+			this.numParams = method.getParameterTypes().length;
+			MethodHandle methodHandle = null;
+			IllegalAccessException exception = null;
+			try {
+				if (!method.isAccessible()) {
+					method.setAccessible(true);
+				}
+			}
+			catch (SecurityException e) {
+				// try without
+			}
+			try {
+				methodHandle = MethodHandles.lookup().unreflect(method);
+				if (numParams > 2) {
+					methodHandle = methodHandle.asSpreader(Object[].class, numParams);
+				}
+				methodHandle = methodHandle.asType(methodHandle.type().generic().changeReturnType(void.class));
+			}
+			catch (IllegalAccessException e) {
+				exception = e;
+			}
+			this.handle = methodHandle;
+			this.accessException = exception;
+		}
+
+		void invoke(Object listener, Object arg1, Object arg2, Object[] args) throws Throwable {
+			switch (numParams) {
+			case 0:
+				handle.invokeExact(listener);
+				break;
+			case 1:
+				handle.invokeExact(listener, args == null ? arg1 : args[0]);
+				break;
+			case 2:
+				if (args == null) {
+					handle.invokeExact(listener, arg1, arg2);
+				}
+				else {
+					handle.invokeExact(listener, args[0], args[1]);
+				}
+				break;
+			default:
+				handle.invokeExact(listener, (Object) args);
+			}
+		}
+	}
+
+	/**
+	 * Callback invoking an {@link EventMethod}, used by the string based
+	 * <code>fire</code> methods.
+	 */
+	private static final class EventMethodCallback implements ListenerCallback {
+
+		private final EventMethod eventMethod;
+
+		private final Object arg1;
+
+		private final Object arg2;
+
+		private final Object[] args;
+
+		EventMethodCallback(EventMethod eventMethod, Object arg1, Object arg2, Object[] args) {
+			if (eventMethod.accessException != null) {
+				throw new EventBroadcastException("Unable to invoke listener", eventMethod.accessException);
+			}
+			this.eventMethod = eventMethod;
+			this.arg1 = arg1;
+			this.arg2 = arg2;
+			this.args = args;
+		}
+
+		public void invoke(Object listener) {
+			try {
+				eventMethod.invoke(listener, arg1, arg2, args);
+			}
+			catch (Throwable e) {
+				throw new EventBroadcastException("Exception thrown by listener", e);
+			}
+		}
+	}
+
 	private static class ObjectArrayIterator implements Iterator {
 		private final Object[] array;
 
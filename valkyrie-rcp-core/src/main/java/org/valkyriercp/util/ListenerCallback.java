@@ -0,0 +1,42 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.util;
+
+/**
+ * Callback used to notify the listeners of an {@link EventListenerListHelper}
+ * without reflection.
+ * <p>
+ * Usage example:
+ *
+ * <pre>
+ * fooListeners.fire(new ListenerCallback&lt;FooListener&gt;() {
+ * 	public void invoke(FooListener listener) {
+ * 		listener.fooXXX(event);
+ * 	}
+ * });
+ * </pre>
+ *
+ * @param <L> the listener type
+ */
+public interface ListenerCallback<L> {
+
+	/**
+	 * Notifies a single listener.
+	 *
+	 * @param listener the listener to notify, never <code>null</code>
+	 */
+	void invoke(L listener);
+}
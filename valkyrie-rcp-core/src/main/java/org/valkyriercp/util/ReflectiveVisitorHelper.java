@@ -49,7 +49,10 @@ import org.springframework.util.ReflectionUtils;
  * @author Keith Donald
  * @since 1.2.2
  * @see org.springframework.core.style.DefaultValueStyler
+ * @deprecated use {@link VisitorDispatcher}, which shares its method cache
+ *             between all visitors and doesn't invoke through reflection
  */
+@Deprecated
 public final class ReflectiveVisitorHelper {
 
 	private static final String VISIT_METHOD = "visit";
@@ -0,0 +1,280 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.LinkedList;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dispatches an argument to the most specific <code>visit</code> method of a
+ * visitor (double-dispatch), like {@link ReflectiveVisitorHelper} does.
+ * <p>
+ * The visit methods are looked up once per visitor class and argument class
+ * and are cached in a <code>ClassValue</code> shared by all dispatchers, so
+ * the lookup is not repeated for every new visitor instance. The methods are
+ * invoked through <code>MethodHandle</code>s, without allocating an argument
+ * array per call.
+ * <p>
+ * The lookup rules are those of {@link ReflectiveVisitorHelper}: the argument
+ * class hierarchy is searched breadth-first for a matching
+ * <code>visit</code> method declared in the visitor class hierarchy, falling
+ * back to <code>visit(Object)</code>. A <code>null</code> argument goes to
+ * <code>visitNull()</code>, or to <code>visit(Object)</code> if there is no
+ * such method.
+ */
+public final class VisitorDispatcher {
+
+	private static final String VISIT_METHOD = "visit";
+
+	private static final String VISIT_NULL = "visitNull";
+
+	private static final Log logger = LogFactory.getLog(VisitorDispatcher.class);
+
+	private static final MethodType VISIT_TYPE = MethodType.methodType(Object.class, Object.class, Object.class);
+
+	private static final VisitorDispatcher instance = new VisitorDispatcher();
+
+	/**
+	 * The values don't keep the visitor class, it is passed on every lookup.
+	 * Cached handles of methods declared by the visitor class only refer back
+	 * to the class owning the value, which does not keep it from being
+	 * unloaded.
+	 */
+	private static final ClassValue visitMethods = new ClassValue() {
+		protected Object computeValue(Class visitorClass) {
+			return new VisitMethods();
+		}
+	};
+
+	private VisitorDispatcher() {
+	}
+
+	public static VisitorDispatcher getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Calls the appropriate <code>visit</code> method on the provided
+	 * visitor, passing in the specified argument.
+	 *
+	 * @param visitor the visitor encapsulating the logic to process the
+	 * argument
+	 * @param argument the argument to dispatch
+	 * @return the result of the visit method, <code>null</code> if there is
+	 * no matching method or the method returns nothing
+	 * @throws IllegalArgumentException if the visitor parameter is null
+	 */
+	public Object invokeVisit(Object visitor, Object argument) {
+		Assert.notNull(visitor, "The visitor to visit is required");
+		Class visitorClass = visitor.getClass();
+		VisitMethod method = ((VisitMethods) visitMethods.get(visitorClass)).getVisitMethod(visitorClass, argument);
+		if (method == null) {
+			if (logger.isWarnEnabled()) {
+				logger.warn("No visit method found for visitor class [" + visitor.getClass().getName()
+						+ "] and argument of type [" + (argument != null ? argument.getClass().getName() : "") + "]");
+			}
+			return null;
+		}
+		try {
+			return method.invoke(visitor, argument);
+		}
+		catch (RuntimeException e) {
+			throw e;
+		}
+		catch (Error e) {
+			throw e;
+		}
+		catch (Throwable e) {
+			throw new UndeclaredThrowableException(e);
+		}
+	}
+
+	private static abstract class VisitMethod {
+
+		abstract Object invoke(Object visitor, Object argument) throws Throwable;
+	}
+
+	private static final class HandleVisitMethod extends VisitMethod {
+
+		private final MethodHandle handle;
+
+		HandleVisitMethod(MethodHandle handle) {
+			this.handle = handle;
+		}
+
+		Object invoke(Object visitor, Object argument) throws Throwable {
+			return (Object) handle.invokeExact(visitor, argument);
+		}
+	}
+
+	/**
+	 * Used when no method handle can be obtained for a visit method.
+	 */
+	private static final class ReflectiveVisitMethod extends VisitMethod {
+
+		private final Method method;
+
+		ReflectiveVisitMethod(Method method) {
+			this.method = method;
+		}
+
+		Object invoke(Object visitor, Object argument) throws Throwable {
+			try {
+				if (method.getParameterTypes().length == 0) {
+					return method.invoke(visitor, (Object[]) null);
+				}
+				return method.invoke(visitor, new Object[] { argument });
+			}
+			catch (Exception ex) {
+				ReflectionUtils.handleReflectionException(ex);
+				throw new IllegalStateException("Should never get here");
+			}
+		}
+	}
+
+	/**
+	 * The visit methods of one visitor class, by argument class.
+	 */
+	private static final class VisitMethods {
+
+		private static final Object NO_METHOD = new Object();
+
+		private final ConcurrentHashMap methods = new ConcurrentHashMap();
+
+		private volatile Object nullMethod;
+
+		VisitMethod getVisitMethod(Class visitorClass, Object argument) {
+			Object method;
+			if (argument == null) {
+				method = nullMethod;
+				if (method == null) {
+					method = toVisitMethod(findNullVisitMethod(visitorClass));
+					nullMethod = method;
+				}
+			}
+			else {
+				Class argumentClass = argument.getClass();
+				method = methods.get(argumentClass);
+				if (method == null) {
+					method = toVisitMethod(findVisitMethod(visitorClass, argumentClass));
+					methods.putIfAbsent(argumentClass, method);
+				}
+			}
+			return method == NO_METHOD ? null : (VisitMethod) method;
+		}
+
+		private Object toVisitMethod(Method method) {
+			if (method == null) {
+				return NO_METHOD;
+			}
+			try {
+				if (!Modifier.isPublic(method.getModifiers()) && !method.isAccessible()) {
+					method.setAccessible(true);
+				}
+				MethodHandle handle = MethodHandles.lookup().unreflect(method);
+				if (Modifier.isStatic(method.getModifiers())) {
+					// static methods ignore the visitor, like Method.invoke does
+					handle = MethodHandles.dropArguments(handle, 0, Object.class);
+				}
+				if (method.getParameterTypes().length == 0) {
+					handle = MethodHandles.dropArguments(handle, 1, Object.class);
+				}
+				return new HandleVisitMethod(handle.asType(VISIT_TYPE));
+			}
+			catch (IllegalAccessException e) {
+				return new ReflectiveVisitMethod(method);
+			}
+			catch (SecurityException e) {
+				return new ReflectiveVisitMethod(method);
+			}
+		}
+
+		private Method findNullVisitMethod(Class visitorClass) {
+			for (Class clazz = visitorClass; clazz != null; clazz = clazz.getSuperclass()) {
+				try {
+					return clazz.getDeclaredMethod(VISIT_NULL, (Class[]) null);
+				}
+				catch (NoSuchMethodException e) {
+				}
+			}
+			return findDefaultVisitMethod(visitorClass);
+		}
+
+		private Method findDefaultVisitMethod(Class visitorClass) {
+			Class[] args = { Object.class };
+			for (Class clazz = visitorClass; clazz != null; clazz = clazz.getSuperclass()) {
+				try {
+					return clazz.getDeclaredMethod(VISIT_METHOD, args);
+				}
+				catch (NoSuchMethodException e) {
+				}
+			}
+			if (logger.isWarnEnabled()) {
+				logger.warn("No default '" + VISIT_METHOD + "' method found.  Returning <null>");
+			}
+			return null;
+		}
+
+		/**
+		 * Traverses the argument class hierarchy looking for an applicable
+		 * visit method.
+		 */
+		private Method findVisitMethod(Class visitorClass, Class rootArgumentType) {
+			if (rootArgumentType == Object.class) {
+				return findDefaultVisitMethod(visitorClass);
+			}
+			LinkedList classQueue = new LinkedList();
+			classQueue.addFirst(rootArgumentType);
+			while (!classQueue.isEmpty()) {
+				Class argumentType = (Class) classQueue.removeLast();
+				Method method = findDeclaredVisitMethod(visitorClass, argumentType);
+				if (method != null) {
+					return method;
+				}
+				if (!argumentType.isInterface() && (argumentType.getSuperclass() != Object.class)) {
+					classQueue.addFirst(argumentType.getSuperclass());
+				}
+				Class[] interfaces = argumentType.getInterfaces();
+				for (int i = 0; i < interfaces.length; i++) {
+					classQueue.addFirst(interfaces[i]);
+				}
+			}
+			return findDefaultVisitMethod(visitorClass);
+		}
+
+		private Method findDeclaredVisitMethod(Class visitorClass, Class argumentType) {
+			for (Class clazz = visitorClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+				try {
+					return clazz.getDeclaredMethod(VISIT_METHOD, new Class[] { argumentType });
+				}
+				catch (NoSuchMethodException e) {
+				}
+			}
+			return null;
+		}
+	}
+}
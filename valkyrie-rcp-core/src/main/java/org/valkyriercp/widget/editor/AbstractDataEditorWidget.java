@@ -45,6 +45,7 @@ import org.valkyriercp.widget.TitledWidget;
 import org.valkyriercp.widget.Widget;
 import org.valkyriercp.widget.editor.provider.DataProviderEventSource;
 import org.valkyriercp.widget.editor.provider.DataProviderListener;
+import org.valkyriercp.widget.table.BatchTableWidget;
 import org.valkyriercp.widget.table.TableWidget;
 
 import javax.swing.*;
@@ -993,15 +994,42 @@ public abstract class AbstractDataEditorWidget extends AbstractTitledWidget
 
         int answer = getApplicationConfig().dialogFactory().showWarningDialog(getComponent(), REMOVE_CONFIRMATION_ID,
                 new Object[]{Integer.valueOf(selectedRows.length)}, JOptionPane.YES_NO_OPTION);
+        if (answer != JOptionPane.YES_OPTION)
+        {
+            return;
+        }
         int nextSelectionIndex = getTableWidget().getTable().getSelectionModel().getMinSelectionIndex();
 
-        for (int i = 0; i < selectedRows.length && (answer == JOptionPane.YES_OPTION); i++)
+        if (selectedRows.length > 1 && isBatchRemoveSupported())
         {
-            Object objectToRemove = selectedRows[i];
+            removeRowsInBatch(selectedRows);
+        }
+        else
+        {
+            removeRowsOneByOne(selectedRows);
+        }
 
+        int nrOfRows = getTableWidget().nrOfRows();
+        if (nrOfRows > 0 && (getTableWidget().getSelectedRows().length == 0))
+        {
+            if (nextSelectionIndex >= nrOfRows)
+            {
+                nextSelectionIndex = nrOfRows - 1;
+            }
+            getTableWidget().selectRowObject(nextSelectionIndex, null);
+        }
+    }
+
+    /**
+     * Removes the rows one at a time, asking whether to go on with the remaining rows after a failure.
+     */
+    private void removeRowsOneByOne(Object[] selectedRows)
+    {
+        for (int i = 0; i < selectedRows.length; i++)
+        {
             try
             {
-                removeEntity(objectToRemove);
+                removeEntity(selectedRows[i]);
             }
             catch (RuntimeException e)
             {
@@ -1010,28 +1038,42 @@ public abstract class AbstractDataEditorWidget extends AbstractTitledWidget
                 getApplicationConfig().registerableExceptionHandler().uncaughtException(Thread.currentThread(), e);
 
                 int remaining = selectedRows.length - i - 1;
-                if (remaining > 0)
+                if (remaining > 0 && !confirmContinueAfterError(remaining))
                 {
-                    String ttl = getApplicationConfig().messageResolver()
-                            .getMessage(getId(), REMOVE_CONTINUE_AFTER_ERROR, MessageConstants.TITLE);
-                    String errMsg = getApplicationConfig().messageResolver().getMessage(getId(), REMOVE_CONTINUE_AFTER_ERROR,
-                            MessageConstants.TEXT, new Object[]{Integer.valueOf(remaining)});
-                    answer = JOptionPane.showConfirmDialog(getComponent(), errMsg, ttl,
-                            JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
+                    return;
                 }
             }
         }
-        int nrOfRows = getTableWidget().nrOfRows();
-        if (nrOfRows > 0 && (getTableWidget().getSelectedRows().length == 0))
+    }
+
+    /**
+     * Removes the rows in one call. A failure is reported once, the rows the batch got to before it failed are
+     * removed by the data provider event.
+     */
+    private void removeRowsInBatch(Object[] selectedRows)
+    {
+        try
         {
-            if (nextSelectionIndex >= nrOfRows)
-            {
-                nextSelectionIndex = nrOfRows - 1;
-            }
-            getTableWidget().selectRowObject(nextSelectionIndex, null);
+            removeEntities(Arrays.asList(selectedRows));
+        }
+        catch (RuntimeException e)
+        {
+            log.error("Error removing rows in DataEditor of type " + this.getClass().getName(), e);
+
+            getApplicationConfig().registerableExceptionHandler().uncaughtException(Thread.currentThread(), e);
         }
     }
 
+    private boolean confirmContinueAfterError(int remaining)
+    {
+        String ttl = getApplicationConfig().messageResolver()
+                .getMessage(getId(), REMOVE_CONTINUE_AFTER_ERROR, MessageConstants.TITLE);
+        String errMsg = getApplicationConfig().messageResolver().getMessage(getId(), REMOVE_CONTINUE_AFTER_ERROR,
+                MessageConstants.TEXT, new Object[]{Integer.valueOf(remaining)});
+        return JOptionPane.showConfirmDialog(getComponent(), errMsg, ttl, JOptionPane.YES_NO_OPTION,
+                JOptionPane.QUESTION_MESSAGE) == JOptionPane.YES_OPTION;
+    }
+
     public AbstractCommand getToggleDetailCommand()
     {
         return toggleDetailCommand;
@@ -1322,7 +1364,14 @@ public abstract class AbstractDataEditorWidget extends AbstractTitledWidget
                 {
                     getFilterForm().commit();
                 }
-                executeFilter();
+                if (commitFilter)
+                {
+                    executeFilter();
+                }
+                else
+                {
+                    refresh();
+                }
             }
         };
         if (isFilterSupported())
@@ -1410,6 +1459,15 @@ public abstract class AbstractDataEditorWidget extends AbstractTitledWidget
 
     public abstract void executeFilter(Map<String, Object> parameters);
 
+    /**
+     * Bring the table up to date with the back-end, as the refresh command does. Executes the filter again
+     * by default.
+     */
+    protected void refresh()
+    {
+        executeFilter();
+    }
+
     protected final Object loadEntityDetails(Object baseObject)
     {
         return loadEntityDetails(baseObject, false);
@@ -1435,6 +1493,28 @@ public abstract class AbstractDataEditorWidget extends AbstractTitledWidget
 
     protected abstract void removeEntity(Object objectToRemove);
 
+    /**
+     * @return <code>true</code> if {@link #removeRows()} should remove several rows with one
+     *         {@link #removeEntities(java.util.List)} call instead of calling {@link #removeEntity(Object)} for each
+     *         row. A batch is reported as one failure, without asking to go on with the remaining rows. Defaults to
+     *         <code>false</code>.
+     */
+    protected boolean isBatchRemoveSupported()
+    {
+        return false;
+    }
+
+    /**
+     * Remove several entities in one call, only used if {@link #isBatchRemoveSupported()}.
+     */
+    protected void removeEntities(java.util.List objectsToRemove)
+    {
+        for (Object objectToRemove : objectsToRemove)
+        {
+            removeEntity(objectToRemove);
+        }
+    }
+
     @Override
     public boolean canClose()
     {
@@ -1533,6 +1613,61 @@ public abstract class AbstractDataEditorWidget extends AbstractTitledWidget
         EventQueue.invokeLater(new RowObjectReplacer(oldRowObject, newRowObject));
     }
 
+    /**
+     * Replace several row objects in the table as one change.
+     */
+    protected void replaceRowObjects(final java.util.List oldRowObjects, final java.util.List newRowObjects)
+    {
+        EventQueue.invokeLater(new Runnable()
+        {
+            public void run()
+            {
+                replaceTableRows(oldRowObjects, newRowObjects, tableSelectionObserver);
+            }
+        });
+    }
+
+    /**
+     * Replace several row objects in the table, as one change if the table is a
+     * {@link BatchTableWidget}, otherwise one by one. Must be called on the EDT.
+     */
+    protected void replaceTableRows(java.util.List oldRowObjects, java.util.List newRowObjects,
+                                    Observer originatingObserver)
+    {
+        TableWidget table = getTableWidget();
+        if (table instanceof BatchTableWidget)
+        {
+            ((BatchTableWidget) table).replaceRowObjects(oldRowObjects, newRowObjects, originatingObserver);
+        }
+        else
+        {
+            for (int i = 0; i < oldRowObjects.size(); i++)
+            {
+                table.replaceRowObject(oldRowObjects.get(i), newRowObjects.get(i), originatingObserver);
+            }
+        }
+    }
+
+    /**
+     * Remove several row objects from the table, as one change if the table is a
+     * {@link BatchTableWidget}, otherwise one by one. Must be called on the EDT.
+     */
+    protected void removeTableRows(Collection rowObjects)
+    {
+        TableWidget table = getTableWidget();
+        if (table instanceof BatchTableWidget)
+        {
+            ((BatchTableWidget) table).removeRows(rowObjects);
+        }
+        else
+        {
+            for (Iterator i = rowObjects.iterator(); i.hasNext();)
+            {
+                table.removeRowObject(i.next());
+            }
+        }
+    }
+
     public final void setDataProviderEventSources(java.util.List dataProviderEventSources)
     {
         if (this.dataProviderSources == null)
@@ -15,10 +15,11 @@
  */
 package org.valkyriercp.widget.editor;
 
+import com.google.common.base.Function;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.util.Assert;
-import org.valkyriercp.application.StatusBar;
+import org.springframework.util.ObjectUtils;
 import org.valkyriercp.application.session.ApplicationSession;
 import org.valkyriercp.application.support.StatusBarProgressMonitor;
 import org.valkyriercp.binding.validation.support.DefaultValidationMessage;
@@ -28,23 +29,44 @@ import org.valkyriercp.core.DefaultMessage;
 import org.valkyriercp.core.Severity;
 import org.valkyriercp.form.AbstractForm;
 import org.valkyriercp.form.FilterForm;
+import org.valkyriercp.progress.NullProgressMonitor;
+import org.valkyriercp.progress.ProgressMonitor;
 import org.valkyriercp.util.CachedCallable;
 import org.valkyriercp.util.MessageConstants;
 import org.valkyriercp.widget.AbstractWidget;
 import org.valkyriercp.widget.Widget;
+import org.valkyriercp.widget.editor.provider.BatchDataProvider;
+import org.valkyriercp.widget.editor.provider.CachingDataProvider;
+import org.valkyriercp.widget.editor.provider.CancellableDataProvider;
+import org.valkyriercp.widget.editor.provider.CancellationToken;
+import org.valkyriercp.widget.editor.provider.CriteriaMatcher;
 import org.valkyriercp.widget.editor.provider.DataProvider;
+import org.valkyriercp.widget.editor.provider.DataChangeSet;
 import org.valkyriercp.widget.editor.provider.DataProviderEvent;
 import org.valkyriercp.widget.editor.provider.DataProviderListener;
+import org.valkyriercp.widget.editor.provider.DeltaDataProvider;
 import org.valkyriercp.widget.editor.provider.MaximumRowsExceededException;
+import org.valkyriercp.widget.editor.provider.PagedDataProvider;
+import org.valkyriercp.widget.editor.provider.PagedDataProviderDataSource;
+import org.valkyriercp.widget.editor.provider.RowChunkCallback;
 import org.valkyriercp.widget.table.TableDescription;
 import org.valkyriercp.widget.table.TableWidget;
 import org.valkyriercp.widget.table.glazedlists.GlazedListTableWidget;
+import org.valkyriercp.widget.table.paged.PagedTableWidget;
 
 import javax.swing.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 //import org.jdesktop.swingworker.SwingWorker;
 
 /**
@@ -71,6 +93,14 @@ public class DefaultDataEditorWidget extends AbstractDataEditorWidget implements
 	 */
 	private CachedCallable<TableWidget> tableWidget;
 
+	/**
+	 * Show the rows of a {@link PagedDataProvider} in a
+	 * {@link PagedTableWidget}.
+	 */
+	private boolean pagedTable;
+
+	private boolean batchRemove;
+
 	/**
 	 * Constant to be used to embed a dataEditor parameterMap in a command
 	 * parameterMap.
@@ -98,10 +128,49 @@ public class DefaultDataEditorWidget extends AbstractDataEditorWidget implements
 	 */
 	private final DefaultValidationResultsModel validationResultsModel = new DefaultValidationResultsModel();
 
-	private ListRetrievingWorker listWorker;
+	/**
+	 * The worker of the latest filter execution, running or not.
+	 */
+	private volatile ListRetrievingWorker listWorker;
+
+	/**
+	 * The worker of the latest delta refresh, running or not.
+	 */
+	private volatile ChangeRetrievingWorker changeWorker;
+
+	/**
+	 * Token of a {@link DeltaDataProvider} marking the state of the back-end
+	 * the rows of the table reflect, <code>null</code> if unknown.
+	 */
+	private Object changeToken;
+
+	/**
+	 * The criteria the rows of the table were retrieved with.
+	 */
+	private Object changeCriteria;
+
+	/**
+	 * Changes pushed by the {@link DataProvider} while the latest
+	 * {@link ListRetrievingWorker} is loading rows, <code>null</code> when no
+	 * rows are being loaded. Only used on the EDT.
+	 */
+	private List<DataChangeSet> pendingChanges;
+
+	/**
+	 * Tells whether pushed rows match the criteria of the shown rows.
+	 */
+	private CriteriaMatcher criteriaMatcher;
 
 	private final MaximumRowsExceededMessage maximumRowsExceededMessage = new MaximumRowsExceededMessage();
 
+	/**
+	 * Number of rows before and after the selected row of which the detail
+	 * objects are prefetched, 0 to disable prefetching.
+	 */
+	private int detailPrefetchDistance;
+
+	private DetailPrefetcher detailPrefetcher;
+
 	protected static class MaximumRowsExceededMessage extends
 			DefaultValidationMessage {
 
@@ -123,14 +192,34 @@ public class DefaultDataEditorWidget extends AbstractDataEditorWidget implements
 
 	}
 
+	/**
+	 * Published by a streaming {@link ListRetrievingWorker} after the last
+	 * row.
+	 */
+	private static final Object END_OF_LIST = new Object();
+
+	/**
+	 * Used when there's no window with a status bar to show the progress in.
+	 */
+	private static final ProgressMonitor NULL_PROGRESS_MONITOR = new NullProgressMonitor();
+
 	/**
 	 * {@link SwingWorker} which retrieves list from
 	 * back-end and fills table with result.
 	 * <p/>
+	 * If the {@link DataProvider} is a {@link PagedDataProvider}, the rows are
+	 * published to the table in chunks as they arrive: the first chunk replaces
+	 * the rows of the table, the others are added.
+	 * <p/>
+	 * Only the latest worker shows its rows: a worker is cancelled when a new
+	 * filter is executed, and the results of a cancelled or superseded worker
+	 * are discarded. The workers run on their own threads, see
+	 * {@link RetrievalExecutorHolder}.
+	 * <p/>
 	 * Remember to set criteria and launch this class in a synchronised block.
 	 */
 	private class ListRetrievingWorker extends
-			SwingWorker<List<Object>, String> {
+			SwingWorker<List<Object>, Object> {
 
 		/**
 		 * The filter criteria to use.
@@ -142,9 +231,117 @@ public class DefaultDataEditorWidget extends AbstractDataEditorWidget implements
 		 */
 		protected Map<String, Object> parameters;
 
+		/**
+		 * Number of streamed rows shown so far, -1 before the first chunk.
+		 */
+		private int rowsShown = -1;
+
+		private boolean failed;
+
+		/**
+		 * Token of a {@link DeltaDataProvider} taken before the retrieval.
+		 */
+		private Object retrievalChangeToken;
+
+		/**
+		 * Passed to a {@link CancellableDataProvider} to abort the retrieval.
+		 */
+		private final CancellationToken cancellation = new CancellationToken();
+
+		/**
+		 * Cancels the retrieval when the user cancels the task in the status
+		 * bar.
+		 */
+		private final ActionListener cancelListener = new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				cancelRetrieval();
+			}
+		};
+
+		/**
+		 * The status bar {@link #cancelListener} is registered with.
+		 */
+		private StatusBarProgressMonitor cancelSource;
+
 		@Override
 		protected List<Object> doInBackground() throws Exception {
-			return getDataProvider().getList(filterCriteria);
+			try {
+				return retrieveList();
+			} finally {
+				cancellation.complete();
+			}
+		}
+
+		private List<Object> retrieveList() throws Exception {
+			DataProvider provider = getDataProvider();
+			if (provider instanceof DeltaDataProvider) {
+				retrievalChangeToken = ((DeltaDataProvider) provider)
+						.getChangeToken(filterCriteria);
+			}
+			if (provider instanceof PagedDataProvider) {
+				((PagedDataProvider) provider).getList(filterCriteria,
+						new RowChunkCallback() {
+							public void rowsRetrieved(List rows) {
+								cancellation.throwIfCancelled();
+								publish(rows.toArray());
+							}
+						}, cancellation);
+				publish(END_OF_LIST);
+				return null;
+			}
+			if (provider instanceof CancellableDataProvider) {
+				return ((CancellableDataProvider) provider).getList(
+						filterCriteria, cancellation);
+			}
+			return provider.getList(filterCriteria);
+		}
+
+		/**
+		 * Cancels this worker and the retrieval of the data provider, if it
+		 * supports cancellation. The worker finishes right away, without
+		 * waiting for the data provider.
+		 */
+		void cancelRetrieval() {
+			cancellation.cancel();
+			cancel(false);
+		}
+
+		private boolean isLatest() {
+			return listWorker == this && !isCancelled();
+		}
+
+		/**
+		 * Show the streamed rows. Chunks can still arrive after
+		 * {@link #done()}, the end of the list is marked by
+		 * {@link DefaultDataEditorWidget#END_OF_LIST}.
+		 */
+		@Override
+		protected void process(List<Object> chunks) {
+			if (failed || !isLatest()) {
+				return;
+			}
+			boolean endOfList = chunks.get(chunks.size() - 1) == END_OF_LIST;
+			List<Object> rows = endOfList ? chunks.subList(0,
+					chunks.size() - 1) : chunks;
+			if (rowsShown == -1) {
+				rowsShown = rows.size();
+				// first rows, the user can start working with these
+				listWorkerDone(new ArrayList<Object>(rows), parameters);
+			} else if (!rows.isEmpty()) {
+				rowsShown += rows.size();
+				getTableWidget().addRows(new ArrayList<Object>(rows));
+			}
+			if (endOfList) {
+				listWorkerStreamed(parameters);
+				changeCriteria = filterCriteria;
+				applyPendingChanges();
+			} else {
+				getProgressMonitor().subTaskStarted(
+						getApplicationConfig().messageResolver().getMessage(
+								"statusBar", "loadedRows",
+								MessageConstants.LABEL,
+								new Object[] { rowsShown }));
+			}
 		}
 
 		/**
@@ -152,11 +349,31 @@ public class DefaultDataEditorWidget extends AbstractDataEditorWidget implements
 		 */
 		@Override
 		protected void done() {
+			if (cancelSource != null) {
+				cancelSource.removeCancelListener(cancelListener);
+			}
+			if (listWorker != this) {
+				// superseded, the progress monitor shows the newer worker
+				return;
+			}
 			try {
-				listWorkerDone(get(), parameters);
+				List<Object> rows = get();
+				changeToken = retrievalChangeToken;
+				if (!(getDataProvider() instanceof PagedDataProvider)) {
+					listWorkerDone(rows, parameters);
+					changeCriteria = filterCriteria;
+					applyPendingChanges();
+				}
+			} catch (CancellationException e) {
+				log.debug("Filter execution cancelled with criteria: "
+						+ filterCriteria);
+				pendingChanges = null;
 			} catch (InterruptedException e) {
 				// someone cancelled the retrieval?
+				pendingChanges = null;
 			} catch (ExecutionException e) {
+				failed = true;
+				pendingChanges = null;
 				if (e.getCause() instanceof MaximumRowsExceededException) {
 					MaximumRowsExceededException mre = (MaximumRowsExceededException) e
 							.getCause();
@@ -177,11 +394,92 @@ public class DefaultDataEditorWidget extends AbstractDataEditorWidget implements
 					throw new RuntimeException(e);
 				}
 			} finally {
-				getApplicationConfig().windowManager().getActiveWindow()
-						.getStatusBar().getProgressMonitor().done();
+				getProgressMonitor().done();
 				// getFilterForm().getCommitCommand().setEnabled(true);
 				// getRefreshCommand().setEnabled(true);
-				listWorker = null;
+			}
+		}
+	}
+
+	/**
+	 * Runs the {@link ListRetrievingWorker}s. A data provider that can't cancel
+	 * its retrieval keeps its thread busy after the worker is superseded, so
+	 * the workers don't use the few threads shared by all {@link SwingWorker}s.
+	 * The number of threads is bounded all the same: further retrievals wait
+	 * in the queue, superseded ones finish right away once they get a thread.
+	 * Idle threads end after a minute.
+	 */
+	private static class RetrievalExecutorHolder {
+
+		static final int MAX_THREADS = 4;
+
+		static final ExecutorService EXECUTOR = createExecutor();
+
+		private static ExecutorService createExecutor() {
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_THREADS,
+					MAX_THREADS, 60L, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+
+						public Thread newThread(Runnable r) {
+							Thread thread = new Thread(r, "data-editor-retrieval");
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+			executor.allowCoreThreadTimeOut(true);
+			return executor;
+		}
+	}
+
+	/**
+	 * {@link SwingWorker} which retrieves the changes since the last retrieval
+	 * from a {@link DeltaDataProvider} and applies them to the table.
+	 * <p/>
+	 * The changes are discarded if the filter is executed or another refresh
+	 * is started in the meantime.
+	 */
+	private class ChangeRetrievingWorker extends
+			SwingWorker<DataChangeSet, Object> {
+
+		private final Object criteria;
+
+		private final Object token;
+
+		/**
+		 * The worker which retrieved the rows these changes apply to.
+		 */
+		private final ListRetrievingWorker baseWorker = listWorker;
+
+		ChangeRetrievingWorker(Object criteria, Object token) {
+			this.criteria = criteria;
+			this.token = token;
+		}
+
+		@Override
+		protected DataChangeSet doInBackground() throws Exception {
+			return ((DeltaDataProvider) getDataProvider()).getChangesSince(
+					criteria, token);
+		}
+
+		@Override
+		protected void done() {
+			if (changeWorker != this || listWorker != baseWorker) {
+				return;
+			}
+			try {
+				DataChangeSet changes = get();
+				if (changes == null) {
+					log.debug("No changes available since " + token
+							+ ", executing filter again");
+					executeFilter();
+					return;
+				}
+				applyChanges(changes);
+				changeToken = changes.getToken();
+			} catch (InterruptedException e) {
+				// someone cancelled the retrieval?
+			} catch (ExecutionException e) {
+				throw new RuntimeException(e);
 			}
 		}
 	}
@@ -218,6 +516,25 @@ public class DefaultDataEditorWidget extends AbstractDataEditorWidget implements
 		}
 	}
 
+	/**
+	 * This method is called on the gui-thread when a streaming worker has
+	 * shown its last rows. The first rows were passed to
+	 * {@link #listWorkerDone(List, Map)} as soon as they arrived, so as
+	 * default the PARAMETER_DEFAULT_SELECTED_OBJECT is selected again if it
+	 * arrived later on and the user hasn't selected a row yet.
+	 *
+	 * @param parameters
+	 *            a map of parameters specific to this listWorker instance.
+	 */
+	protected void listWorkerStreamed(Map<String, Object> parameters) {
+		Object defaultSelectedObject = parameters
+				.get(PARAMETER_DEFAULT_SELECTED_OBJECT);
+		if (defaultSelectedObject != null
+				&& !getTableWidget().hasSelection()) {
+			getTableWidget().selectRowObject(defaultSelectedObject, null);
+		}
+	}
+
 	/**
 	 * Default constructor. Add id, {@link DataProvider},
 	 * {@link org.valkyriercp.form.Form}s and listView later.
@@ -368,8 +685,8 @@ public class DefaultDataEditorWidget extends AbstractDataEditorWidget implements
 	}
 
 	/**
-	 * Create a {@link GlazedListTableWidget} based on the given
-	 * {@link TableDescription} to be used as listView.
+	 * Create the table based on the given {@link TableDescription} to be used
+	 * as listView, see {@link #createTableWidget(TableDescription)}.
 	 * 
 	 * @param tableDescription
 	 *            description of columns used to create the table.
@@ -379,14 +696,75 @@ public class DefaultDataEditorWidget extends AbstractDataEditorWidget implements
 		tableWidget = new CachedCallable<TableWidget>() {
 			@Override
 			protected TableWidget doCall() {
-				TableWidget tableWidget = new GlazedListTableWidget(null,
-						tableDescription);
+				TableWidget tableWidget = createTableWidget(tableDescription);
 				tableWidget.addSelectionObserver(tableSelectionObserver);
 				return tableWidget;
 			}
 		};
 	}
 
+	/**
+	 * Creates the listView: a {@link PagedTableWidget} if the
+	 * {@link DataProvider} is a {@link PagedDataProvider} and paging is
+	 * enabled, a {@link GlazedListTableWidget} otherwise.
+	 * 
+	 * @see #setPagedTable(boolean)
+	 */
+	protected TableWidget createTableWidget(TableDescription tableDescription) {
+		if (pagedTable && (dataProvider instanceof PagedDataProvider)) {
+			return new PagedTableWidget<Object>(new PagedDataProviderDataSource(
+					(PagedDataProvider) dataProvider), tableDescription);
+		}
+		return new GlazedListTableWidget(null, tableDescription);
+	}
+
+	/**
+	 * Show the rows of a {@link PagedDataProvider} in a
+	 * {@link PagedTableWidget}, which only fetches the pages around the
+	 * visible rows, sorted by the provider. Otherwise the whole list is
+	 * retrieved and sorted in memory. As only the shown pages are kept, the
+	 * result isn't checked against a maximum number of rows. Ignored for other
+	 * providers, must be set before the table is created. Defaults to
+	 * <code>false</code>.
+	 */
+	public void setPagedTable(boolean pagedTable) {
+		this.pagedTable = pagedTable;
+	}
+
+	public boolean isPagedTable() {
+		return pagedTable;
+	}
+
+	/**
+	 * Remove several selected rows with one
+	 * {@link BatchDataProvider#deleteAll(java.util.Collection)} call if the
+	 * {@link DataProvider} is a {@link BatchDataProvider}. A failing batch is
+	 * reported once and stops the removal, while rows removed one by one
+	 * report each failure and ask whether to go on. Defaults to
+	 * <code>false</code>.
+	 */
+	public void setBatchRemove(boolean batchRemove) {
+		this.batchRemove = batchRemove;
+	}
+
+	public boolean isBatchRemove() {
+		return batchRemove;
+	}
+
+	/**
+	 * Set the matcher telling whether the rows of a {@link DataChangeSet}
+	 * pushed by the {@link DataProvider} match the criteria of the shown
+	 * rows. Without one, pushed added or changed rows refresh the table if
+	 * the rows were filtered, see {@link #update(Observable, Object)}.
+	 */
+	public void setCriteriaMatcher(CriteriaMatcher criteriaMatcher) {
+		this.criteriaMatcher = criteriaMatcher;
+	}
+
+	public CriteriaMatcher getCriteriaMatcher() {
+		return criteriaMatcher;
+	}
+
 	// /**
 	// * Set the listView of this dataEditor.
 	// */
@@ -468,6 +846,7 @@ public class DefaultDataEditorWidget extends AbstractDataEditorWidget implements
 	 * <li>set searchCriteria on filterForm</li>
 	 * <li>set searchCriteria on worker</li>
 	 * <li>pass parameter map to worker</li>
+	 * <li>cancel the worker of a previous run if it is still running</li>
 	 * <li>launch worker to retrieve list from back-end and fill table</li>
 	 * <li>when done, set list and execute additional code taking the parameters
 	 * into account</li>
@@ -479,35 +858,93 @@ public class DefaultDataEditorWidget extends AbstractDataEditorWidget implements
 	 */
 	@Override
 	public synchronized void executeFilter(Map<String, Object> parameters) {
-		if (listWorker == null) {
-			if (dataProvider.supportsBaseCriteria()) {
-				dataProvider.setBaseCriteria(getBaseCriteria());
+		ListRetrievingWorker previousWorker = listWorker;
+		if (previousWorker != null && !previousWorker.isDone()) {
+			log.debug("Cancel running filter execution with criteria: "
+					+ previousWorker.filterCriteria);
+			previousWorker.cancelRetrieval();
+		}
+
+		if (dataProvider.supportsBaseCriteria()) {
+			dataProvider.setBaseCriteria(getBaseCriteria());
+		}
+
+		if (getTableWidget() instanceof PagedTableWidget) {
+			executePagedFilter((PagedTableWidget<Object>) getTableWidget(),
+					parameters);
+			return;
+		}
+
+		ListRetrievingWorker worker = new ListRetrievingWorker();
+		ProgressMonitor progressMonitor = getProgressMonitor();
+		progressMonitor.taskStarted(
+				getApplicationConfig().messageResolver().getMessage("statusBar",
+						"loadTable", MessageConstants.LABEL),
+				StatusBarProgressMonitor.UNKNOWN);
+		if (progressMonitor instanceof StatusBarProgressMonitor) {
+			worker.cancelSource = (StatusBarProgressMonitor) progressMonitor;
+			worker.cancelSource.setCancelEnabled(true);
+			worker.cancelSource.addCancelListener(worker.cancelListener);
+		}
+		// getFilterForm().getCommitCommand().setEnabled(false);
+		// getRefreshCommand().setEnabled(false);
+
+		if (dataProvider.supportsFiltering()) {
+			if (parameters.containsKey(PARAMETER_FILTER)) {
+				setFilterModel(parameters.get(PARAMETER_FILTER));
 			}
 
-			StatusBar statusBar = getApplicationConfig().windowManager()
-					.getActiveWindow().getStatusBar();
-			statusBar.getProgressMonitor().taskStarted(
-					getApplicationConfig().messageResolver().getMessage("statusBar",
-							"loadTable", MessageConstants.LABEL),
-					StatusBarProgressMonitor.UNKNOWN);
-			// getFilterForm().getCommitCommand().setEnabled(false);
-			// getRefreshCommand().setEnabled(false);
+			worker.filterCriteria = getFilterForm().getFilterCriteria();
+		}
 
-			listWorker = new ListRetrievingWorker();
-			if (dataProvider.supportsFiltering()) {
-				if (parameters.containsKey(PARAMETER_FILTER)) {
-					setFilterModel(parameters.get(PARAMETER_FILTER));
-				}
+		worker.parameters = parameters;
+		log.debug("Execute Filter with criteria: " + worker.filterCriteria
+				+ " and parameters: " + parameters);
+		changeToken = null;
+		listWorker = worker;
+		if (pendingChanges == null) {
+			pendingChanges = new ArrayList<DataChangeSet>();
+		}
+		RetrievalExecutorHolder.EXECUTOR.execute(worker);
+	}
 
-				listWorker.filterCriteria = getFilterForm().getFilterCriteria();
+	/**
+	 * Passes the filter criteria to the {@link PagedTableWidget}, which
+	 * fetches the pages it shows itself. The
+	 * PARAMETER_DEFAULT_SELECTED_OBJECT is selected once its page arrives.
+	 */
+	private void executePagedFilter(PagedTableWidget<Object> table,
+			Map<String, Object> parameters) {
+		Object criteria = null;
+		if (dataProvider.supportsFiltering()) {
+			if (parameters.containsKey(PARAMETER_FILTER)) {
+				setFilterModel(parameters.get(PARAMETER_FILTER));
 			}
+			criteria = getFilterForm().getFilterCriteria();
+		}
+		log.debug("Execute Filter with criteria: " + criteria
+				+ " and parameters: " + parameters);
+		listWorker = null;
+		changeToken = null;
+		pendingChanges = null;
+		validationResultsModel.removeMessage(maximumRowsExceededMessage);
+		if (detailPrefetcher != null) {
+			detailPrefetcher.invalidateAll();
+		}
+		table.setFilter(criteria);
+		Object defaultSelectedObject = parameters
+				.get(PARAMETER_DEFAULT_SELECTED_OBJECT);
+		if (defaultSelectedObject != null) {
+			table.selectRowObject(defaultSelectedObject, null);
+		}
+	}
 
-			listWorker.parameters = parameters;
-			log.debug("Execute Filter with criteria: "
-					+ listWorker.filterCriteria + " and parameters: "
-					+ parameters);
-			listWorker.execute();
+	private ProgressMonitor getProgressMonitor() {
+		if (getApplicationConfig().windowManager().getActiveWindow() == null) {
+			return NULL_PROGRESS_MONITOR;
 		}
+		return getApplicationConfig().windowManager().getActiveWindow()
+				.getStatusBar().getProgressMonitor();
 	}
 
 	/**
@@ -553,12 +990,125 @@ public class DefaultDataEditorWidget extends AbstractDataEditorWidget implements
 		}
 	}
 
+	/**
+	 * Brings the table up to date. If the {@link DataProvider} is a
+	 * {@link DeltaDataProvider} and the filter criteria didn't change since
+	 * the rows were retrieved, only the changes made since then are retrieved
+	 * and applied, keeping the sort order, selection and scroll position of
+	 * the table. Otherwise the filter is executed again.
+	 */
+	@Override
+	protected void refresh() {
+		Object criteria = dataProvider.supportsFiltering() ? getFilterForm()
+				.getFilterCriteria() : null;
+		if (!(dataProvider instanceof DeltaDataProvider)
+				|| (changeToken == null)
+				|| !ObjectUtils.nullSafeEquals(criteria, changeCriteria)) {
+			executeFilter();
+			return;
+		}
+		ChangeRetrievingWorker worker = new ChangeRetrievingWorker(criteria,
+				changeToken);
+		changeWorker = worker;
+		worker.execute();
+	}
+
+	/**
+	 * Applies the changes to the table, keeping its sort order, selection and
+	 * scroll position. Rows are matched by the key of the
+	 * {@link DeltaDataProvider}: an added row replaces the row with the same
+	 * key, a changed row without one isn't shown. If the selected row changed
+	 * and the detail form isn't being edited, the form shows the changed row.
+	 * <p/>
+	 * WARNING: not threadsafe, please call me on the EDT!
+	 */
+	protected void applyChanges(DataChangeSet changes) {
+		if (changes.isEmpty()) {
+			return;
+		}
+		TableWidget table = getTableWidget();
+		Map<Object, Object> rowsByKey = new HashMap<Object, Object>();
+		for (Object row : table.getRows()) {
+			rowsByKey.put(getRowKey(row), row);
+		}
+
+		List<Object> removedRows = new ArrayList<Object>();
+		for (Object key : changes.getRemovedKeys()) {
+			Object row = rowsByKey.remove(key);
+			if (row != null) {
+				removedRows.add(row);
+			}
+		}
+		List<Object> oldRows = new ArrayList<Object>();
+		List<Object> newRows = new ArrayList<Object>();
+		for (Object row : changes.getChangedRows()) {
+			Object oldRow = rowsByKey.get(getRowKey(row));
+			if (oldRow != null) {
+				oldRows.add(oldRow);
+				newRows.add(row);
+			}
+		}
+		List<Object> addedRows = new ArrayList<Object>();
+		for (Object row : changes.getAddedRows()) {
+			Object key = getRowKey(row);
+			Object oldRow = rowsByKey.get(key);
+			if (oldRow != null) {
+				oldRows.add(oldRow);
+				newRows.add(row);
+			} else {
+				addedRows.add(row);
+				rowsByKey.put(key, row);
+			}
+		}
+
+		Object[] selectedRows = table.getSelectedRows();
+		Object selectedReplacement = null;
+		if (selectedRows.length == 1) {
+			for (int i = 0; i < oldRows.size(); i++) {
+				if (oldRows.get(i) == selectedRows[0]) {
+					selectedReplacement = newRows.get(i);
+				}
+			}
+		}
+		if (detailPrefetcher != null) {
+			for (Object row : removedRows) {
+				detailPrefetcher.invalidate(row);
+			}
+			for (Object row : oldRows) {
+				detailPrefetcher.invalidate(row);
+			}
+		}
+
+		if (!removedRows.isEmpty()) {
+			removeTableRows(removedRows);
+		}
+		if (!oldRows.isEmpty()) {
+			replaceTableRows(oldRows, newRows, null);
+		}
+		if (!addedRows.isEmpty()) {
+			table.addRows(addedRows);
+		}
+		if ((selectedReplacement != null)
+				&& !getDetailForm().getFormModel().isDirty()) {
+			table.selectRowObject(-1, null);
+			table.selectRowObject(selectedReplacement, null);
+		}
+	}
+
+	private Object getRowKey(Object row) {
+		return dataProvider instanceof DeltaDataProvider ? ((DeltaDataProvider) dataProvider)
+				.getRowKey(row) : row;
+	}
+
 	/**
 	 * Internal fill method of the datatable
 	 * <p/>
 	 * WARNING: not threadsafe, please call me on the EDT!
 	 */
 	protected void setRows(List dataSet) {
+		if (detailPrefetcher != null) {
+			detailPrefetcher.invalidateAll();
+		}
 		getTableWidget().setRows(dataSet);
 	}
 
@@ -568,9 +1118,107 @@ public class DefaultDataEditorWidget extends AbstractDataEditorWidget implements
 
 	@Override
 	protected Object loadEntityDetails(Object baseObject, boolean forceLoad) {
+		if (detailPrefetcher != null) {
+			if (forceLoad) {
+				detailPrefetcher.invalidate(baseObject);
+			} else {
+				Object detailObject = detailPrefetcher.getDetail(baseObject);
+				if (detailObject != null) {
+					return detailObject;
+				}
+			}
+		}
 		return this.dataProvider.getDetailObject(baseObject, forceLoad);
 	}
 
+	/**
+	 * Set the number of rows before and after the selected row of which the
+	 * detail objects are loaded in the background, so they're available
+	 * without waiting when the selection moves to them. Defaults to 0, which
+	 * disables prefetching. The {@link DataProvider} must support calls to
+	 * {@link DataProvider#getDetailObject(Object, boolean)} from a background
+	 * thread.
+	 *
+	 * @see DetailPrefetcher
+	 */
+	public void setDetailPrefetchDistance(int detailPrefetchDistance) {
+		this.detailPrefetchDistance = detailPrefetchDistance;
+		if (detailPrefetchDistance > 0 && detailPrefetcher == null) {
+			detailPrefetcher = new DetailPrefetcher(new Function<Object, Object>() {
+				public Object apply(Object row) {
+					return dataProvider.getDetailObject(row, false);
+				}
+			});
+			detailPrefetcher.setMaxEntries(Math.max(DetailPrefetcher.DEFAULT_MAX_ENTRIES,
+					4 * detailPrefetchDistance));
+		} else if (detailPrefetchDistance <= 0 && detailPrefetcher != null) {
+			detailPrefetcher.dispose();
+			detailPrefetcher = null;
+		}
+	}
+
+	public int getDetailPrefetchDistance() {
+		return detailPrefetchDistance;
+	}
+
+	/**
+	 * Returns the prefetcher of the detail objects, giving access to its hit
+	 * rate, or <code>null</code> if prefetching is disabled.
+	 */
+	public DetailPrefetcher getDetailPrefetcher() {
+		return detailPrefetcher;
+	}
+
+	@Override
+	protected void onRowSelection(Object rowObject) {
+		super.onRowSelection(rowObject);
+		if (detailPrefetcher != null && rowObject != null
+				&& !(rowObject instanceof Object[])) {
+			detailPrefetcher.prefetch(getNeighbourRows(detailPrefetchDistance));
+		}
+	}
+
+	/**
+	 * Returns the rows before and after the selected row in the current sort
+	 * order, nearest first.
+	 */
+	private List<Object> getNeighbourRows(int distance) {
+		int selectedIndex = getTableWidget().getTable().getSelectionModel()
+				.getLeadSelectionIndex();
+		List<Object> rows;
+		if (getTableWidget() instanceof PagedTableWidget) {
+			// the rows in memory by their index, null for the others
+			final PagedTableWidget<Object> table = (PagedTableWidget<Object>) getTableWidget();
+			rows = new AbstractList<Object>() {
+				@Override
+				public Object get(int index) {
+					return table.getLoadedRow(index);
+				}
+
+				@Override
+				public int size() {
+					return table.nrOfRows();
+				}
+			};
+		} else {
+			rows = getTableWidget().getVisibleRows();
+		}
+		List<Object> neighbours = new ArrayList<Object>(2 * distance);
+		if (selectedIndex < 0 || selectedIndex >= rows.size()) {
+			return neighbours;
+		}
+		for (int i = 1; i <= distance; i++) {
+			if (selectedIndex + i < rows.size()
+					&& rows.get(selectedIndex + i) != null) {
+				neighbours.add(rows.get(selectedIndex + i));
+			}
+			if (selectedIndex - i >= 0 && rows.get(selectedIndex - i) != null) {
+				neighbours.add(rows.get(selectedIndex - i));
+			}
+		}
+		return neighbours;
+	}
+
 	public Object loadSimpleEntity(Object baseObject) {
 		Object returnValue = this.dataProvider.getSimpleObject(baseObject);
 		if (returnValue == null) {
@@ -623,17 +1271,149 @@ public class DefaultDataEditorWidget extends AbstractDataEditorWidget implements
 		this.dataProvider.delete(objectToRemove);
 	}
 
+	@Override
+	protected boolean isBatchRemoveSupported() {
+		return batchRemove && (this.dataProvider instanceof BatchDataProvider)
+				&& this.dataProvider.supportsDelete();
+	}
+
+	@Override
+	protected void removeEntities(List objectsToRemove) {
+		if (!this.dataProvider.supportsDelete()) {
+			return;
+		}
+		if (this.dataProvider instanceof BatchDataProvider) {
+			((BatchDataProvider) this.dataProvider).deleteAll(objectsToRemove);
+		} else {
+			super.removeEntities(objectsToRemove);
+		}
+	}
+
+	/**
+	 * Applies the events of the {@link DataProvider} to the table.
+	 * <p/>
+	 * A pushed {@link DataChangeSet} holds all changed rows, not only those
+	 * matching the criteria of the shown rows: with a
+	 * {@link #setCriteriaMatcher(CriteriaMatcher) criteria matcher} added and
+	 * changed rows are only shown if they match, without one the table is
+	 * refreshed for them. Changes pushed while rows are being loaded are kept
+	 * until all rows are shown, and then matched to them by key, so rows the
+	 * retrieval already returned aren't added twice.
+	 */
 	public void update(Observable o, Object arg) {
 		if (arg instanceof DataProviderEvent) {
 			DataProviderEvent obsAct = (DataProviderEvent) arg;
 			int act = obsAct.getEventType();
-			if (act == DataProviderEvent.EVENT_TYPE_NEW) {
+			if (obsAct.isBatch()) {
+				batchUpdate(obsAct);
+			} else if (act == DataProviderEvent.EVENT_TYPE_NEW) {
 				this.getTableWidget().addRowObject(obsAct.getNewEntity());
 			} else if (act == DataProviderEvent.EVENT_TYPE_UPDATE) {
+				if (detailPrefetcher != null) {
+					detailPrefetcher.invalidate(obsAct.getOldEntity());
+				}
 				replaceRowObject(obsAct.getOldEntity(), obsAct.getNewEntity());
 			} else if (act == DataProviderEvent.EVENT_TYPE_DELETE) {
+				if (detailPrefetcher != null) {
+					detailPrefetcher.invalidate(obsAct.getOldEntity());
+				}
 				this.getTableWidget().removeRowObject(obsAct.getOldEntity());
 			}
+		} else if (arg instanceof DataChangeSet) {
+			final DataChangeSet changes = (DataChangeSet) arg;
+			if (SwingUtilities.isEventDispatchThread()) {
+				pushChanges(changes);
+			} else {
+				SwingUtilities.invokeLater(new Runnable() {
+					public void run() {
+						pushChanges(changes);
+					}
+				});
+			}
+		}
+	}
+
+	private void pushChanges(DataChangeSet changes) {
+		if (changes.isEmpty()) {
+			return;
+		}
+		if (pendingChanges != null) {
+			pendingChanges.add(changes);
+		} else {
+			applyPushedChanges(changes);
+		}
+	}
+
+	/**
+	 * Applies the changes pushed while the rows were loaded. A refresh
+	 * started by one of them defers the others again.
+	 */
+	private void applyPendingChanges() {
+		List<DataChangeSet> changes = pendingChanges;
+		pendingChanges = null;
+		if (changes != null) {
+			for (DataChangeSet pushed : changes) {
+				pushChanges(pushed);
+			}
+		}
+	}
+
+	private void applyPushedChanges(DataChangeSet changes) {
+		Object criteria = changeCriteria;
+		if (!dataProvider.supportsFiltering() || (criteria == null)) {
+			applyChanges(changes);
+			return;
+		}
+		if (criteriaMatcher == null) {
+			if (!changes.getRemovedKeys().isEmpty()) {
+				applyChanges(new DataChangeSet(null, null, changes
+						.getRemovedKeys(), null));
+			}
+			if (!changes.getAddedRows().isEmpty()
+					|| !changes.getChangedRows().isEmpty()) {
+				refresh();
+			}
+			return;
+		}
+		// a changed row may start or stop matching the criteria
+		List<Object> matchingRows = new ArrayList<Object>();
+		List<Object> removedKeys = new ArrayList<Object>(
+				changes.getRemovedKeys());
+		for (Object row : changes.getAddedRows()) {
+			if (criteriaMatcher.matches(criteria, row)) {
+				matchingRows.add(row);
+			} else {
+				removedKeys.add(getRowKey(row));
+			}
+		}
+		for (Object row : changes.getChangedRows()) {
+			if (criteriaMatcher.matches(criteria, row)) {
+				matchingRows.add(row);
+			} else {
+				removedKeys.add(getRowKey(row));
+			}
+		}
+		applyChanges(new DataChangeSet(matchingRows, null, removedKeys, null));
+	}
+
+	/**
+	 * Apply a batch event to the table as one change.
+	 */
+	private void batchUpdate(DataProviderEvent event) {
+		int act = event.getEventType();
+		if (act == DataProviderEvent.EVENT_TYPE_NEW) {
+			getTableWidget().addRows(event.getNewEntities());
+			return;
+		}
+		if (detailPrefetcher != null) {
+			for (Object oldEntity : event.getOldEntities()) {
+				detailPrefetcher.invalidate(oldEntity);
+			}
+		}
+		if (act == DataProviderEvent.EVENT_TYPE_UPDATE) {
+			replaceRowObjects(event.getOldEntities(), event.getNewEntities());
+		} else if (act == DataProviderEvent.EVENT_TYPE_DELETE) {
+			removeTableRows(event.getOldEntities());
 		}
 	}
 
@@ -658,8 +1438,15 @@ public class DefaultDataEditorWidget extends AbstractDataEditorWidget implements
 		if ((dataProvider.getRefreshPolicy() != DataProvider.RefreshPolicy.NEVER)
 				&& (getTableWidget().isEmpty())) {
 			executeFilter();
-		} else if (!getTableWidget().hasSelection()) {
-			getTableWidget().selectRowObject(0, this);
+		} else {
+			// rows of a delta provider are kept while hidden, see onAboutToHide
+			if ((dataProvider.getRefreshPolicy() == DataProvider.RefreshPolicy.ALLWAYS)
+					&& (dataProvider instanceof DeltaDataProvider)) {
+				refresh();
+			}
+			if (!getTableWidget().hasSelection()) {
+				getTableWidget().selectRowObject(0, this);
+			}
 		}
 	}
 
@@ -678,8 +1465,10 @@ public class DefaultDataEditorWidget extends AbstractDataEditorWidget implements
 			((Widget) detailForm).onAboutToHide();
 		}
 
-		if (dataProvider.getRefreshPolicy() == DataProvider.RefreshPolicy.ALLWAYS) {
-			getTableWidget().setRows(Collections.EMPTY_LIST);
+		// a delta provider can bring the rows up to date when shown again
+		if ((dataProvider.getRefreshPolicy() == DataProvider.RefreshPolicy.ALLWAYS)
+				&& !(dataProvider instanceof DeltaDataProvider)) {
+			setRows(Collections.EMPTY_LIST);
 		}
 	}
 
@@ -737,6 +1526,10 @@ public class DefaultDataEditorWidget extends AbstractDataEditorWidget implements
 	}
 
 	public void propertyChange(PropertyChangeEvent evt) {
+		// results cached for the previous user shouldn't be shown to the new one
+		if (dataProvider instanceof CachingDataProvider) {
+			((CachingDataProvider) dataProvider).invalidate();
+		}
 		if ((dataProvider.getRefreshPolicy() == DataProvider.RefreshPolicy.ALLWAYS)
 				|| (dataProvider.getRefreshPolicy() == DataProvider.RefreshPolicy.ON_USER_SWITCH)) {
 			log.debug("USER changed event, refreshPolicy= "
@@ -0,0 +1,308 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.widget.editor;
+
+import com.google.common.base.Function;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the detail objects of table rows on a background thread before they are selected, so moving the
+ * selection through a table doesn't wait for the back-end on every row.
+ * <p>
+ * {@link #prefetch(Collection)} schedules the rows to load, typically the neighbours of the selected row,
+ * and {@link #getDetail(Object)} returns a prefetched detail object. Rows are identified by identity and
+ * at most {@link #setMaxEntries(int) maxEntries} detail objects are kept, dropping the least recently
+ * used first. Rows still waiting to be loaded are dropped when they are no longer asked for.
+ * <p>
+ * Prefetched detail objects aren't updated: the owner has to {@link #invalidate(Object) invalidate} a row
+ * when it changes and {@link #invalidateAll() invalidate all} rows when the table is refreshed. The loader
+ * is called on the background thread and must therefore be thread-safe.
+ */
+public class DetailPrefetcher
+{
+
+    private static final Log log = LogFactory.getLog(DetailPrefetcher.class);
+
+    public static final int DEFAULT_MAX_ENTRIES = 64;
+
+    private final Function<Object, Object> detailLoader;
+
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    private final LinkedHashMap<RowKey, PrefetchTask> entries = new LinkedHashMap<RowKey, PrefetchTask>(16,
+            0.75f, true)
+    {
+        protected boolean removeEldestEntry(Map.Entry<RowKey, PrefetchTask> eldest)
+        {
+            if (size() > maxEntries)
+            {
+                eldest.getValue().cancel(false);
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private ThreadPoolExecutor executor;
+
+    private int hitCount;
+
+    private int missCount;
+
+    /**
+     * @param detailLoader function returning the detail object of a row.
+     */
+    public DetailPrefetcher(Function<Object, Object> detailLoader)
+    {
+        this.detailLoader = detailLoader;
+    }
+
+    /**
+     * Set the maximum number of detail objects to keep. Defaults to {@link #DEFAULT_MAX_ENTRIES}.
+     */
+    public void setMaxEntries(int maxEntries)
+    {
+        this.maxEntries = maxEntries;
+    }
+
+    public int getMaxEntries()
+    {
+        return maxEntries;
+    }
+
+    /**
+     * Schedule the detail objects of the given rows to be loaded, in iteration order. Rows that are already
+     * loaded or being loaded are skipped, rows scheduled earlier that aren't being loaded yet and aren't
+     * part of the given rows are dropped.
+     */
+    public synchronized void prefetch(Collection<?> rows)
+    {
+        Map<RowKey, Object> wanted = new LinkedHashMap<RowKey, Object>();
+        for (Object row : rows)
+        {
+            if (row != null)
+                wanted.put(new RowKey(row), row);
+        }
+        for (Iterator<Map.Entry<RowKey, PrefetchTask>> i = entries.entrySet().iterator(); i.hasNext();)
+        {
+            Map.Entry<RowKey, PrefetchTask> entry = i.next();
+            if (!entry.getValue().started && !wanted.containsKey(entry.getKey()))
+            {
+                entry.getValue().cancel(false);
+                i.remove();
+            }
+        }
+        for (Map.Entry<RowKey, Object> row : wanted.entrySet())
+        {
+            if (entries.containsKey(row.getKey()))
+                continue;
+            PrefetchTask task = new PrefetchTask(row.getValue());
+            entries.put(row.getKey(), task);
+            getExecutor().execute(task);
+        }
+    }
+
+    /**
+     * Returns the prefetched detail object of the row. If the row is being loaded, waits for it to be
+     * loaded.
+     *
+     * @return the detail object, or <code>null</code> if the row wasn't prefetched or failed to load.
+     */
+    public Object getDetail(Object row)
+    {
+        PrefetchTask task;
+        synchronized (this)
+        {
+            task = entries.get(new RowKey(row));
+            if (task == null || task.isCancelled() || !(task.isDone() || task.started))
+            {
+                // not worth waiting for a row that isn't being loaded yet
+                if (task != null)
+                {
+                    task.cancel(false);
+                    entries.remove(new RowKey(row));
+                }
+                missCount++;
+                return null;
+            }
+        }
+        Object detail = null;
+        try
+        {
+            detail = task.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException e)
+        {
+            log.debug("Prefetching detail of " + row + " failed", e.getCause());
+        }
+        synchronized (this)
+        {
+            if (detail == null)
+            {
+                entries.remove(new RowKey(row));
+                missCount++;
+            }
+            else
+            {
+                hitCount++;
+            }
+        }
+        return detail;
+    }
+
+    /**
+     * Drop the detail object of the row.
+     */
+    public synchronized void invalidate(Object row)
+    {
+        PrefetchTask task = entries.remove(new RowKey(row));
+        if (task != null)
+            task.cancel(false);
+    }
+
+    /**
+     * Drop all detail objects.
+     */
+    public synchronized void invalidateAll()
+    {
+        for (PrefetchTask task : entries.values())
+        {
+            task.cancel(false);
+        }
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of {@link #getDetail(Object)} calls that returned a prefetched detail object.
+     */
+    public synchronized int getHitCount()
+    {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of {@link #getDetail(Object)} calls that didn't.
+     */
+    public synchronized int getMissCount()
+    {
+        return missCount;
+    }
+
+    /**
+     * Returns the fraction of {@link #getDetail(Object)} calls that returned a prefetched detail object.
+     */
+    public synchronized double getHitRate()
+    {
+        int total = hitCount + missCount;
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Drop all detail objects and stop the background thread.
+     */
+    public synchronized void dispose()
+    {
+        invalidateAll();
+        if (executor != null)
+        {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private ThreadPoolExecutor getExecutor()
+    {
+        if (executor == null)
+        {
+            executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                    new ThreadFactory()
+                    {
+                        public Thread newThread(Runnable r)
+                        {
+                            Thread thread = new Thread(r, "DetailPrefetcher");
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+            executor.allowCoreThreadTimeOut(true);
+        }
+        return executor;
+    }
+
+    private class PrefetchTask extends FutureTask<Object>
+    {
+
+        volatile boolean started;
+
+        PrefetchTask(final Object row)
+        {
+            super(new Callable<Object>()
+            {
+                public Object call()
+                {
+                    return detailLoader.apply(row);
+                }
+            });
+        }
+
+        public void run()
+        {
+            started = true;
+            super.run();
+        }
+    }
+
+    /**
+     * Identity based key of a row.
+     */
+    private static final class RowKey
+    {
+
+        private final Object row;
+
+        RowKey(Object row)
+        {
+            this.row = row;
+        }
+
+        public int hashCode()
+        {
+            return System.identityHashCode(row);
+        }
+
+        public boolean equals(Object obj)
+        {
+            return obj instanceof RowKey && ((RowKey) obj).row == row;
+        }
+    }
+}
@@ -15,6 +15,9 @@
  */
 package org.valkyriercp.widget.editor.provider;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Observable;
 
 /**
@@ -23,7 +26,7 @@ import java.util.Observable;
  * @author Jan Hoskens
  *
  */
-public abstract class AbstractDataProvider extends Observable implements DataProvider
+public abstract class AbstractDataProvider extends Observable implements BatchDataProvider
 {
 
     private final String id;
@@ -125,6 +128,105 @@ public abstract class AbstractDataProvider extends Observable implements DataPro
         throw new UnsupportedOperationException("doCreate(object) not implemented for " + newData);
     }
 
+    public final List createAll(Collection newData)
+    {
+        setChanged();
+        List newEntities = doCreateAll(new ArrayList(newData));
+        notifyObservers(DataProviderEvent.newEntitiesEvent(newEntities));
+        return newEntities;
+    }
+
+    /**
+     * Create the given entities. Calls {@link #doCreate(Object)} for each of them, override to create them
+     * in one round trip. If one fails, the entities created before are reported before the exception is
+     * passed on.
+     */
+    public List doCreateAll(List newData)
+    {
+        List newEntities = new ArrayList(newData.size());
+        try
+        {
+            for (Object data : newData)
+            {
+                newEntities.add(doCreate(data));
+            }
+        }
+        catch (RuntimeException e)
+        {
+            if (!newEntities.isEmpty())
+                notifyObservers(DataProviderEvent.newEntitiesEvent(newEntities));
+            throw e;
+        }
+        return newEntities;
+    }
+
+    public final List updateAll(Collection updatedData)
+    {
+        setChanged();
+        List oldEntities = new ArrayList(updatedData);
+        List newEntities = doUpdateAll(oldEntities);
+        notifyObservers(DataProviderEvent.updateEntitiesEvent(oldEntities, newEntities));
+        return newEntities;
+    }
+
+    /**
+     * Update the given entities. Calls {@link #doUpdate(Object)} for each of them, override to update them
+     * in one round trip. If one fails, the entities updated before are reported before the exception is
+     * passed on.
+     */
+    public List doUpdateAll(List updatedData)
+    {
+        List newEntities = new ArrayList(updatedData.size());
+        try
+        {
+            for (Object data : updatedData)
+            {
+                newEntities.add(doUpdate(data));
+            }
+        }
+        catch (RuntimeException e)
+        {
+            if (!newEntities.isEmpty())
+                notifyObservers(DataProviderEvent.updateEntitiesEvent(new ArrayList(updatedData.subList(0,
+                        newEntities.size())), newEntities));
+            throw e;
+        }
+        return newEntities;
+    }
+
+    public final void deleteAll(Collection dataToRemove)
+    {
+        setChanged();
+        List oldEntities = new ArrayList(dataToRemove);
+        doDeleteAll(oldEntities);
+        notifyObservers(DataProviderEvent.deleteEntitiesEvent(oldEntities));
+    }
+
+    /**
+     * Delete the given entities. Calls {@link #doDelete(Object)} for each of them, override to delete them
+     * in one round trip. If one fails, the entities deleted before are reported before the exception is
+     * passed on.
+     */
+    public void doDeleteAll(List dataToRemove)
+    {
+        int deleted = 0;
+        try
+        {
+            for (Object data : dataToRemove)
+            {
+                doDelete(data);
+                deleted++;
+            }
+        }
+        catch (RuntimeException e)
+        {
+            if (deleted > 0)
+                notifyObservers(DataProviderEvent.deleteEntitiesEvent(new ArrayList(dataToRemove.subList(0,
+                        deleted))));
+            throw e;
+        }
+    }
+
     public Object newInstance(Object criteria)
     {
         return null;
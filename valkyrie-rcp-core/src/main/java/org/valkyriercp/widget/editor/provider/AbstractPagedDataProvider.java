@@ -0,0 +1,179 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.widget.editor.provider;
+
+import javax.swing.RowSorter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Base implementation for {@link PagedDataProvider}s. Subclasses only need to
+ * implement {@link #getPage(Object, int, int, List)} and
+ * {@link #getRowCount(Object)}: the complete and the streamed list are
+ * retrieved page by page.
+ */
+public abstract class AbstractPagedDataProvider extends AbstractDataProvider implements PagedDataProvider,
+        CancellableDataProvider
+{
+
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    private int maxRows;
+
+    public AbstractPagedDataProvider()
+    {
+        super("abstractPagedDataProvider");
+    }
+
+    public AbstractPagedDataProvider(String id)
+    {
+        super(id);
+    }
+
+    /**
+     * Set the number of rows retrieved at once when streaming the list.
+     */
+    public void setChunkSize(int chunkSize)
+    {
+        if (chunkSize < 1)
+            throw new IllegalArgumentException("chunkSize must be positive");
+        this.chunkSize = chunkSize;
+    }
+
+    public int getChunkSize()
+    {
+        return chunkSize;
+    }
+
+    /**
+     * Set the maximum number of rows of the complete and the streamed list, 0 for no limit. Larger results throw
+     * a {@link MaximumRowsExceededException}, before the first row is retrieved unless rows are added while
+     * streaming. The pages returned by {@link #getPage(Object, int, int, List)} aren't limited: they are used to
+     * show the rows in a {@link org.valkyriercp.widget.table.paged.PagedTableWidget}, which only keeps the pages
+     * around the visible rows in memory. Defaults to 0.
+     */
+    public void setMaxRows(int maxRows)
+    {
+        if (maxRows < 0)
+            throw new IllegalArgumentException("maxRows must not be negative");
+        this.maxRows = maxRows;
+    }
+
+    public int getMaxRows()
+    {
+        return maxRows;
+    }
+
+    /**
+     * Collects the streamed list.
+     *
+     * @see #getList(Object, RowChunkCallback)
+     */
+    public List getList(Object criteria)
+    {
+        final List rows = new ArrayList();
+        getList(criteria, new RowChunkCallback()
+        {
+            public void rowsRetrieved(List chunk)
+            {
+                rows.addAll(chunk);
+            }
+        });
+        return rows;
+    }
+
+    /**
+     * Collects the streamed list, passing the token on.
+     *
+     * @see #getList(Object, RowChunkCallback, CancellationToken)
+     */
+    public List getList(Object criteria, CancellationToken cancellation)
+    {
+        final List rows = new ArrayList();
+        getList(criteria, new RowChunkCallback()
+        {
+            public void rowsRetrieved(List chunk)
+            {
+                rows.addAll(chunk);
+            }
+        }, cancellation);
+        return rows;
+    }
+
+    /**
+     * Streams the list without cancellation.
+     *
+     * @see #getList(Object, RowChunkCallback, CancellationToken)
+     */
+    public void getList(Object criteria, RowChunkCallback callback)
+    {
+        getList(criteria, callback, new CancellationToken());
+    }
+
+    /**
+     * Retrieves pages of {@link #getChunkSize()} rows in the default order until a page comes back short. The token
+     * is checked between the pages and passed to
+     * {@link #getPage(Object, int, int, List, CancellationToken)}. If a maximum number of rows is set, the rows
+     * are counted first.
+     *
+     * @throws MaximumRowsExceededException if the result has more than {@link #getMaxRows()} rows.
+     */
+    public void getList(Object criteria, RowChunkCallback callback, CancellationToken cancellation)
+    {
+        if (maxRows > 0)
+        {
+            int rowCount = getRowCount(criteria);
+            if (rowCount > maxRows)
+                throw new MaximumRowsExceededException(maxRows, rowCount);
+        }
+        List<RowSorter.SortKey> defaultOrder = Collections.emptyList();
+        int offset = 0;
+        while (true)
+        {
+            cancellation.throwIfCancelled();
+            List page = getPage(criteria, offset, chunkSize, defaultOrder, cancellation);
+            cancellation.throwIfCancelled();
+            if (maxRows > 0 && offset + page.size() > maxRows)
+                throw new MaximumRowsExceededException(maxRows, offset + page.size());
+            if (!page.isEmpty())
+                callback.rowsRetrieved(page);
+            if (page.size() < chunkSize)
+                return;
+            offset += page.size();
+        }
+    }
+
+    /**
+     * Returns the row itself, rows should implement <code>equals</code> and <code>hashCode</code>.
+     */
+    public Object getRowKey(Object row)
+    {
+        return row;
+    }
+
+    /**
+     * Returns a page of the streamed list, as {@link #getPage(Object, int, int, List)} does. Override to abort a
+     * running query when the token is cancelled, eg by registering a callback cancelling the statement.
+     */
+    protected List getPage(Object criteria, int offset, int limit, List<? extends RowSorter.SortKey> sort,
+            CancellationToken cancellation)
+    {
+        return getPage(criteria, offset, limit, sort);
+    }
+}
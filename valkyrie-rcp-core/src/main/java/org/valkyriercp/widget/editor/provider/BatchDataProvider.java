@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.widget.editor.provider;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * {@link DataProvider} able to create, update or delete several entities in
+ * one call, reporting them with one batch {@link DataProviderEvent} so
+ * listeners can apply all changes at once.
+ *
+ * @see DataProviderEvent#isBatch()
+ */
+public interface BatchDataProvider extends DataProvider
+{
+
+    /**
+     * Create the given entities, only if {@link #supportsCreate()}.
+     *
+     * @return the created entities, in the order of the given ones.
+     */
+    public List createAll(Collection newData);
+
+    /**
+     * Update the given entities, only if {@link #supportsUpdate()}.
+     *
+     * @return the updated entities, in the order of the given ones.
+     */
+    public List updateAll(Collection updatedData);
+
+    /**
+     * Delete the given entities, only if {@link #supportsDelete()}.
+     */
+    public void deleteAll(Collection dataToRemove);
+}
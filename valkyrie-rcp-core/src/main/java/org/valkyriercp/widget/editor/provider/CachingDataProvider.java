@@ -0,0 +1,782 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.widget.editor.provider;
+
+import com.google.common.base.Function;
+import org.springframework.util.ObjectUtils;
+
+import javax.swing.RowSorter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Observable;
+import java.util.Set;
+
+/**
+ * {@link DataProvider} decorator caching the results of {@link #getList(Object)} by criteria, so reopening a
+ * data editor or running the same filter again doesn't go to the back-end. All other calls are passed on to
+ * the decorated provider.
+ * <p>
+ * Results are cached by the criteria themselves, which then need to implement <code>equals</code> and
+ * <code>hashCode</code>, or by the key returned by a {@link #setKeyFunction(Function) key function}. The
+ * cache holds at most {@link #setMaxEntries(int) maxEntries} results, dropping the least recently used
+ * first, and results expire after {@link #setTimeToLive(long) timeToLive} milliseconds.
+ * <p>
+ * The {@link DataProviderEvent}s of the decorated provider keep the cache consistent before they are passed
+ * on to the listeners of this provider:
+ * <ul>
+ * <li>a delete drops the results containing the deleted entity.</li>
+ * <li>a create or update drops all results, or with a {@link #setCriteriaMatcher(CriteriaMatcher) criteria
+ * matcher} only the results containing the old entity and those whose criteria match the new one.</li>
+ * </ul>
+ * Rows are found by their {@link #setRowKeyFunction(Function) row key}, without one a delete or update drops
+ * all results. Pushed {@link DataChangeSet}s drop all results. A result retrieved while results are dropped
+ * is returned but not cached, as it may predate the change.
+ * <p>
+ * Changes made to the back-end without going through the decorated provider aren't noticed, use
+ * {@link #invalidate()} or a shorter time to live for those. A {@link DeltaDataProvider} is asked for these
+ * changes whenever a cached result is used, see {@link #decorate(DataProvider)}.
+ * <p>
+ * Every call gets a new list, but the rows in it are the cached row objects themselves: the copies are
+ * shallow, so all callers of the same criteria share the rows. Callers must not modify the rows they get,
+ * or must copy them first; otherwise the modification shows up in the results handed to the next callers
+ * even though the back-end doesn't have it.
+ */
+public class CachingDataProvider extends Observable implements CancellableDataProvider, BatchDataProvider
+{
+
+    public static final int DEFAULT_MAX_ENTRIES = 16;
+
+    public static final long DEFAULT_TIME_TO_LIVE = 60000;
+
+    private final DataProvider dataProvider;
+
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    private long timeToLive = DEFAULT_TIME_TO_LIVE;
+
+    private Function<Object, ?> keyFunction;
+
+    private Function<Object, ?> rowKeyFunction;
+
+    private CriteriaMatcher criteriaMatcher;
+
+    private Object baseCriteria;
+
+    private final LinkedHashMap<Object, CacheEntry> cache = new LinkedHashMap<Object, CacheEntry>(16, 0.75f,
+            true)
+    {
+        protected boolean removeEldestEntry(Map.Entry<Object, CacheEntry> eldest)
+        {
+            return size() > maxEntries;
+        }
+    };
+
+    /**
+     * Incremented whenever results are dropped, guarded by the cache.
+     */
+    private long generation;
+
+    private int hitCount;
+
+    private int missCount;
+
+    private static class CacheEntry
+    {
+        final Object criteria;
+
+        final List rows;
+
+        final Object changeToken;
+
+        final long expiresAt;
+
+        /**
+         * The row keys of the rows, built when first needed, guarded by the cache.
+         */
+        Set rowKeys;
+
+        CacheEntry(Object criteria, List rows, Object changeToken, long expiresAt)
+        {
+            this.criteria = criteria;
+            this.rows = rows;
+            this.changeToken = changeToken;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Decorates the provider with a cache, see {@link #decorate(DataProvider)} to keep the paging and delta
+     * support of the provider.
+     */
+    public CachingDataProvider(DataProvider dataProvider)
+    {
+        this.dataProvider = dataProvider;
+        dataProvider.addDataProviderListener(new DataProviderListener()
+        {
+            public void update(Observable o, Object arg)
+            {
+                if (arg instanceof DataProviderEvent)
+                    invalidate((DataProviderEvent) arg);
+                else if (arg instanceof DataChangeSet && !((DataChangeSet) arg).isEmpty())
+                    invalidate();
+                setChanged();
+                notifyObservers(arg);
+            }
+        });
+    }
+
+    /**
+     * Decorates the provider with a cache that is a {@link PagedDataProvider} and/or {@link DeltaDataProvider}
+     * when the provider is one, so the table widgets keep paging, streaming and retrieving changes.
+     * <ul>
+     * <li>Streamed lists are cached as {@link #getList(Object)} results, pages and row counts are always
+     * retrieved from the provider.</li>
+     * <li>Change tokens and change sets are passed on, cached results are brought up to date with the changes
+     * made since they were retrieved before they're used.</li>
+     * </ul>
+     */
+    public static CachingDataProvider decorate(DataProvider dataProvider)
+    {
+        if (dataProvider instanceof PagedDataProvider && dataProvider instanceof DeltaDataProvider)
+            return new PagedDeltaCachingDataProvider(dataProvider);
+        if (dataProvider instanceof PagedDataProvider)
+            return new PagedCachingDataProvider(dataProvider);
+        if (dataProvider instanceof DeltaDataProvider)
+            return new DeltaCachingDataProvider(dataProvider);
+        return new CachingDataProvider(dataProvider);
+    }
+
+    public DataProvider getDataProvider()
+    {
+        return dataProvider;
+    }
+
+    /**
+     * Set the maximum number of results to cache, dropping the least recently used results above it. Defaults
+     * to {@link #DEFAULT_MAX_ENTRIES}.
+     */
+    public void setMaxEntries(int maxEntries)
+    {
+        synchronized (cache)
+        {
+            this.maxEntries = maxEntries;
+            for (Iterator<Object> i = cache.keySet().iterator(); cache.size() > maxEntries && i.hasNext();)
+            {
+                i.next();
+                i.remove();
+            }
+        }
+    }
+
+    public int getMaxEntries()
+    {
+        return maxEntries;
+    }
+
+    /**
+     * Set the number of milliseconds a result stays valid, 0 for no expiry. Defaults to
+     * {@link #DEFAULT_TIME_TO_LIVE}.
+     */
+    public void setTimeToLive(long timeToLive)
+    {
+        this.timeToLive = timeToLive;
+    }
+
+    public long getTimeToLive()
+    {
+        return timeToLive;
+    }
+
+    /**
+     * Set the function deriving the cache key from the criteria, for criteria that don't implement
+     * <code>equals</code> and <code>hashCode</code>. By default the criteria are the key.
+     */
+    public void setKeyFunction(Function<Object, ?> keyFunction)
+    {
+        this.keyFunction = keyFunction;
+        invalidate();
+    }
+
+    /**
+     * Set the function returning the key identifying a row, implementing <code>equals</code> and
+     * <code>hashCode</code>, used to find the results containing a deleted or updated entity. Defaults to the
+     * row key of a decorated {@link PagedDataProvider} or {@link DeltaDataProvider}.
+     */
+    public void setRowKeyFunction(Function<Object, ?> rowKeyFunction)
+    {
+        synchronized (cache)
+        {
+            this.rowKeyFunction = rowKeyFunction;
+            for (CacheEntry entry : cache.values())
+            {
+                entry.rowKeys = null;
+            }
+        }
+    }
+
+    /**
+     * Set the matcher used to invalidate only the affected results on a create or update.
+     */
+    public void setCriteriaMatcher(CriteriaMatcher criteriaMatcher)
+    {
+        this.criteriaMatcher = criteriaMatcher;
+    }
+
+    /**
+     * Returns the cached result for the criteria, or retrieves and caches it.
+     *
+     * @return a new list holding the cached rows, see the class comment on sharing rows.
+     */
+    public List getList(Object criteria)
+    {
+        return getList(criteria, (CancellationToken) null);
+    }
+
+    /**
+     * Returns the cached result for the criteria, or retrieves and caches it, passing the token on if the
+     * decorated provider supports cancellation. Cancelled results aren't cached.
+     *
+     * @return a new list holding the cached rows, see the class comment on sharing rows.
+     */
+    public List getList(Object criteria, CancellationToken cancellation)
+    {
+        Object key = getKey(criteria);
+        CacheEntry entry = getEntry(key);
+        if (entry != null)
+            return new ArrayList(entry.rows);
+        long generation = getGeneration();
+        Object changeToken = getDeltaChangeToken(criteria);
+        List rows;
+        if (cancellation != null && dataProvider instanceof CancellableDataProvider)
+            rows = ((CancellableDataProvider) dataProvider).getList(criteria, cancellation);
+        else
+            rows = dataProvider.getList(criteria);
+        if (rows != null && (cancellation == null || !cancellation.isCancelled()))
+            put(key, new CacheEntry(criteria, new ArrayList(rows), changeToken, currentTimeMillis() + timeToLive),
+                    generation);
+        return rows;
+    }
+
+    private Object getKey(Object criteria)
+    {
+        return keyFunction == null ? criteria : keyFunction.apply(criteria);
+    }
+
+    /**
+     * Returns the valid cache entry for the key, brought up to date by a delta provider, counting the hit or
+     * miss.
+     */
+    private CacheEntry getEntry(Object key)
+    {
+        CacheEntry entry;
+        long generation;
+        synchronized (cache)
+        {
+            entry = cache.get(key);
+            if (entry != null && timeToLive > 0 && entry.expiresAt <= currentTimeMillis())
+            {
+                cache.remove(key);
+                entry = null;
+            }
+            generation = this.generation;
+        }
+        if (entry != null && dataProvider instanceof DeltaDataProvider)
+            entry = getUpToDateEntry(key, entry, generation);
+        synchronized (cache)
+        {
+            if (entry == null)
+                missCount++;
+            else
+                hitCount++;
+        }
+        return entry;
+    }
+
+    /**
+     * Applies the changes made since the entry was retrieved, or drops the entry if they can't be given.
+     */
+    private CacheEntry getUpToDateEntry(Object key, CacheEntry entry, long generation)
+    {
+        DeltaDataProvider deltaDataProvider = (DeltaDataProvider) dataProvider;
+        DataChangeSet changes = entry.changeToken == null ? null : deltaDataProvider.getChangesSince(
+                entry.criteria, entry.changeToken);
+        if (changes == null)
+        {
+            synchronized (cache)
+            {
+                if (cache.get(key) == entry)
+                    cache.remove(key);
+            }
+            return null;
+        }
+        if (changes.isEmpty() && ObjectUtils.nullSafeEquals(changes.getToken(), entry.changeToken))
+            return entry;
+        Map<Object, Object> rowsByKey = new LinkedHashMap<Object, Object>();
+        for (Object row : entry.rows)
+        {
+            rowsByKey.put(deltaDataProvider.getRowKey(row), row);
+        }
+        for (Object rowKey : changes.getRemovedKeys())
+        {
+            rowsByKey.remove(rowKey);
+        }
+        for (Object row : changes.getChangedRows())
+        {
+            Object rowKey = deltaDataProvider.getRowKey(row);
+            if (rowsByKey.containsKey(rowKey))
+                rowsByKey.put(rowKey, row);
+        }
+        for (Object row : changes.getAddedRows())
+        {
+            rowsByKey.put(deltaDataProvider.getRowKey(row), row);
+        }
+        CacheEntry upToDate = new CacheEntry(entry.criteria, new ArrayList(rowsByKey.values()),
+                changes.getToken(), entry.expiresAt);
+        put(key, upToDate, generation);
+        return upToDate;
+    }
+
+    private Object getDeltaChangeToken(Object criteria)
+    {
+        return dataProvider instanceof DeltaDataProvider ? ((DeltaDataProvider) dataProvider)
+                .getChangeToken(criteria) : null;
+    }
+
+    private long getGeneration()
+    {
+        synchronized (cache)
+        {
+            return generation;
+        }
+    }
+
+    /**
+     * Caches the entry, unless results were dropped since the given generation.
+     */
+    private void put(Object key, CacheEntry entry, long generation)
+    {
+        synchronized (cache)
+        {
+            if (this.generation == generation)
+                cache.put(key, entry);
+        }
+    }
+
+    /**
+     * Returns the current time, used to expire the results.
+     */
+    protected long currentTimeMillis()
+    {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Drop all cached results.
+     */
+    public void invalidate()
+    {
+        synchronized (cache)
+        {
+            generation++;
+            cache.clear();
+        }
+    }
+
+    /**
+     * Drop the cached result for the given criteria.
+     */
+    public void invalidate(Object criteria)
+    {
+        Object key = getKey(criteria);
+        synchronized (cache)
+        {
+            generation++;
+            cache.remove(key);
+        }
+    }
+
+    /**
+     * Drop the cached results affected by the given event.
+     */
+    protected void invalidate(DataProviderEvent event)
+    {
+        int eventType = event.getEventType();
+        List oldEntities = event.getOldEntities();
+        if ((eventType != DataProviderEvent.EVENT_TYPE_DELETE && criteriaMatcher == null)
+                || (!oldEntities.isEmpty() && !hasRowKeys()))
+        {
+            invalidate();
+            return;
+        }
+        Set oldRowKeys = new HashSet();
+        for (Object entity : oldEntities)
+        {
+            oldRowKeys.add(getRowKeyOf(entity));
+        }
+        List newEntities = eventType == DataProviderEvent.EVENT_TYPE_DELETE ? null : event.getNewEntities();
+        synchronized (cache)
+        {
+            generation++;
+            for (Iterator<CacheEntry> i = cache.values().iterator(); i.hasNext();)
+            {
+                CacheEntry entry = i.next();
+                if (containsAny(entry, oldRowKeys) || matchesAny(entry.criteria, newEntities))
+                    i.remove();
+            }
+        }
+    }
+
+    private boolean hasRowKeys()
+    {
+        return rowKeyFunction != null || dataProvider instanceof PagedDataProvider
+                || dataProvider instanceof DeltaDataProvider;
+    }
+
+    private Object getRowKeyOf(Object row)
+    {
+        if (rowKeyFunction != null)
+            return rowKeyFunction.apply(row);
+        if (dataProvider instanceof PagedDataProvider)
+            return ((PagedDataProvider) dataProvider).getRowKey(row);
+        return ((DeltaDataProvider) dataProvider).getRowKey(row);
+    }
+
+    private boolean containsAny(CacheEntry entry, Set rowKeys)
+    {
+        if (rowKeys.isEmpty())
+            return false;
+        if (entry.rowKeys == null)
+        {
+            entry.rowKeys = new HashSet(entry.rows.size() * 2);
+            for (Object row : entry.rows)
+            {
+                entry.rowKeys.add(getRowKeyOf(row));
+            }
+        }
+        for (Object rowKey : rowKeys)
+        {
+            if (entry.rowKeys.contains(rowKey))
+                return true;
+        }
+        return false;
+    }
+
+    private boolean matchesAny(Object criteria, List entities)
+    {
+        if (entities == null)
+            return false;
+        for (Object entity : entities)
+        {
+            if (criteriaMatcher.matches(criteria, entity))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of {@link #getList(Object)} calls served from the cache.
+     */
+    public int getHitCount()
+    {
+        synchronized (cache)
+        {
+            return hitCount;
+        }
+    }
+
+    /**
+     * Returns the number of {@link #getList(Object)} calls passed on to the decorated provider.
+     */
+    public int getMissCount()
+    {
+        synchronized (cache)
+        {
+            return missCount;
+        }
+    }
+
+    /**
+     * Passes the base criteria on, dropping the cached results if they differ from the previous ones.
+     */
+    public void setBaseCriteria(Object criteria)
+    {
+        if (!ObjectUtils.nullSafeEquals(baseCriteria, criteria))
+            invalidate();
+        baseCriteria = criteria;
+        dataProvider.setBaseCriteria(criteria);
+    }
+
+    public boolean supportsBaseCriteria()
+    {
+        return dataProvider.supportsBaseCriteria();
+    }
+
+    public Object getDetailObject(Object selectedObject, boolean forceLoad)
+    {
+        return dataProvider.getDetailObject(selectedObject, forceLoad);
+    }
+
+    public Object getSimpleObject(Object selectedObject)
+    {
+        return dataProvider.getSimpleObject(selectedObject);
+    }
+
+    public boolean supportsFiltering()
+    {
+        return dataProvider.supportsFiltering();
+    }
+
+    public boolean supportsUpdate()
+    {
+        return dataProvider.supportsUpdate();
+    }
+
+    public Object update(Object updatedData)
+    {
+        return dataProvider.update(updatedData);
+    }
+
+    public boolean supportsCreate()
+    {
+        return dataProvider.supportsCreate();
+    }
+
+    public Object create(Object newData)
+    {
+        return dataProvider.create(newData);
+    }
+
+    public Object newInstance(Object criteria)
+    {
+        return dataProvider.newInstance(criteria);
+    }
+
+    public boolean supportsClone()
+    {
+        return dataProvider.supportsClone();
+    }
+
+    public Object clone(Object sampleData)
+    {
+        return dataProvider.clone(sampleData);
+    }
+
+    public boolean supportsDelete()
+    {
+        return dataProvider.supportsDelete();
+    }
+
+    public void delete(Object dataToRemove)
+    {
+        dataProvider.delete(dataToRemove);
+    }
+
+    /**
+     * Passes the entities on in one call if the decorated provider is a {@link BatchDataProvider}, one by
+     * one otherwise.
+     */
+    public List createAll(Collection newData)
+    {
+        if (dataProvider instanceof BatchDataProvider)
+            return ((BatchDataProvider) dataProvider).createAll(newData);
+        List newEntities = new ArrayList(newData.size());
+        for (Object data : newData)
+        {
+            newEntities.add(dataProvider.create(data));
+        }
+        return newEntities;
+    }
+
+    /**
+     * Passes the entities on in one call if the decorated provider is a {@link BatchDataProvider}, one by
+     * one otherwise.
+     */
+    public List updateAll(Collection updatedData)
+    {
+        if (dataProvider instanceof BatchDataProvider)
+            return ((BatchDataProvider) dataProvider).updateAll(updatedData);
+        List newEntities = new ArrayList(updatedData.size());
+        for (Object data : updatedData)
+        {
+            newEntities.add(dataProvider.update(data));
+        }
+        return newEntities;
+    }
+
+    /**
+     * Passes the entities on in one call if the decorated provider is a {@link BatchDataProvider}, one by
+     * one otherwise.
+     */
+    public void deleteAll(Collection dataToRemove)
+    {
+        if (dataProvider instanceof BatchDataProvider)
+        {
+            ((BatchDataProvider) dataProvider).deleteAll(dataToRemove);
+            return;
+        }
+        for (Object data : dataToRemove)
+        {
+            dataProvider.delete(data);
+        }
+    }
+
+    public boolean exists(Object data)
+    {
+        return dataProvider.exists(data);
+    }
+
+    public RefreshPolicy getRefreshPolicy()
+    {
+        return dataProvider.getRefreshPolicy();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void addDataProviderListener(DataProviderListener dataProviderListener)
+    {
+        addObserver(dataProviderListener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void removeDataProviderListener(DataProviderListener dataProviderListener)
+    {
+        deleteObserver(dataProviderListener);
+    }
+
+    /**
+     * Streams the cached result in one chunk, or streams the list from the decorated provider and caches it
+     * once complete.
+     */
+    void streamList(Object criteria, final RowChunkCallback callback, CancellationToken cancellation)
+    {
+        Object key = getKey(criteria);
+        CacheEntry entry = getEntry(key);
+        if (entry != null)
+        {
+            if (!entry.rows.isEmpty())
+                callback.rowsRetrieved(new ArrayList(entry.rows));
+            return;
+        }
+        long generation = getGeneration();
+        Object changeToken = getDeltaChangeToken(criteria);
+        final List rows = new ArrayList();
+        RowChunkCallback collector = new RowChunkCallback()
+        {
+            public void rowsRetrieved(List chunk)
+            {
+                rows.addAll(chunk);
+                callback.rowsRetrieved(chunk);
+            }
+        };
+        if (cancellation == null)
+            ((PagedDataProvider) dataProvider).getList(criteria, collector);
+        else
+            ((PagedDataProvider) dataProvider).getList(criteria, collector, cancellation);
+        if (cancellation == null || !cancellation.isCancelled())
+            put(key, new CacheEntry(criteria, rows, changeToken, currentTimeMillis() + timeToLive), generation);
+    }
+
+    private static class PagedCachingDataProvider extends CachingDataProvider implements PagedDataProvider
+    {
+
+        PagedCachingDataProvider(DataProvider dataProvider)
+        {
+            super(dataProvider);
+        }
+
+        private PagedDataProvider getPagedDataProvider()
+        {
+            return (PagedDataProvider) getDataProvider();
+        }
+
+        public int getRowCount(Object criteria)
+        {
+            return getPagedDataProvider().getRowCount(criteria);
+        }
+
+        public List getPage(Object criteria, int offset, int limit, List<? extends RowSorter.SortKey> sort)
+        {
+            return getPagedDataProvider().getPage(criteria, offset, limit, sort);
+        }
+
+        public void getList(Object criteria, RowChunkCallback callback)
+        {
+            streamList(criteria, callback, null);
+        }
+
+        public void getList(Object criteria, RowChunkCallback callback, CancellationToken cancellation)
+        {
+            streamList(criteria, callback, cancellation);
+        }
+
+        public Object getRowKey(Object row)
+        {
+            return getPagedDataProvider().getRowKey(row);
+        }
+    }
+
+    private static class DeltaCachingDataProvider extends CachingDataProvider implements DeltaDataProvider
+    {
+
+        DeltaCachingDataProvider(DataProvider dataProvider)
+        {
+            super(dataProvider);
+        }
+
+        public Object getChangeToken(Object criteria)
+        {
+            return ((DeltaDataProvider) getDataProvider()).getChangeToken(criteria);
+        }
+
+        public DataChangeSet getChangesSince(Object criteria, Object token)
+        {
+            return ((DeltaDataProvider) getDataProvider()).getChangesSince(criteria, token);
+        }
+
+        public Object getRowKey(Object row)
+        {
+            return ((DeltaDataProvider) getDataProvider()).getRowKey(row);
+        }
+    }
+
+    private static class PagedDeltaCachingDataProvider extends PagedCachingDataProvider implements
+            DeltaDataProvider
+    {
+
+        PagedDeltaCachingDataProvider(DataProvider dataProvider)
+        {
+            super(dataProvider);
+        }
+
+        public Object getChangeToken(Object criteria)
+        {
+            return ((DeltaDataProvider) getDataProvider()).getChangeToken(criteria);
+        }
+
+        public DataChangeSet getChangesSince(Object criteria, Object token)
+        {
+            return ((DeltaDataProvider) getDataProvider()).getChangesSince(criteria, token);
+        }
+    }
+}
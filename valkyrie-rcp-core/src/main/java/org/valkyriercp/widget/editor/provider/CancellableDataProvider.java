@@ -0,0 +1,34 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.widget.editor.provider;
+
+import java.util.List;
+
+/**
+ * {@link DataProvider} able to abort the retrieval of its list when the
+ * result is no longer needed.
+ */
+public interface CancellableDataProvider extends DataProvider
+{
+
+    /**
+     * Retrieve the list as {@link #getList(Object)} does, stopping as soon as
+     * possible once the token is cancelled. The result of a cancelled
+     * retrieval is discarded, so the method may return early with any value or
+     * throw a {@link java.util.concurrent.CancellationException}.
+     */
+    public List getList(Object criteria, CancellationToken cancellation);
+}
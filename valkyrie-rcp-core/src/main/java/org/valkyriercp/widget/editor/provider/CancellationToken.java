@@ -0,0 +1,107 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.widget.editor.provider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Signals that the result of a retrieval is no longer needed, eg because the
+ * user started a new search. Passed to a {@link CancellableDataProvider},
+ * which can poll {@link #isCancelled()} or register a callback to abort a
+ * running query.
+ */
+public class CancellationToken
+{
+
+    private volatile boolean cancelled;
+
+    private boolean completed;
+
+    private final List<Runnable> callbacks = new ArrayList<Runnable>();
+
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    /**
+     * Throws a {@link CancellationException} if the retrieval has been
+     * cancelled.
+     */
+    public void throwIfCancelled()
+    {
+        if (cancelled)
+            throw new CancellationException("Retrieval cancelled");
+    }
+
+    /**
+     * Cancel the retrieval, running the registered callbacks on the calling
+     * thread. Does nothing if already cancelled.
+     */
+    public void cancel()
+    {
+        List<Runnable> toRun;
+        synchronized (callbacks)
+        {
+            if (cancelled)
+                return;
+            cancelled = true;
+            if (completed)
+                return;
+            toRun = new ArrayList<Runnable>(callbacks);
+            callbacks.clear();
+        }
+        for (Runnable callback : toRun)
+            callback.run();
+    }
+
+    /**
+     * Register a callback to run when the retrieval is cancelled, eg to cancel
+     * a statement. Runs the callback right away if already cancelled, ignores
+     * it if the retrieval has completed.
+     */
+    public void onCancel(Runnable callback)
+    {
+        synchronized (callbacks)
+        {
+            if (completed)
+                return;
+            if (!cancelled)
+            {
+                callbacks.add(callback);
+                return;
+            }
+        }
+        callback.run();
+    }
+
+    /**
+     * Mark the retrieval as finished, dropping the registered callbacks so
+     * they, and the statements or connections they refer to, are not kept
+     * until the token itself is released. Cancelling afterwards only sets the
+     * cancelled flag.
+     */
+    public void complete()
+    {
+        synchronized (callbacks)
+        {
+            completed = true;
+            callbacks.clear();
+        }
+    }
+}
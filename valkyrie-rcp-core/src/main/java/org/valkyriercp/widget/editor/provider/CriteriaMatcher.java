@@ -0,0 +1,33 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.widget.editor.provider;
+
+/**
+ * Tells whether an entity is part of the result of a criteria object, used by
+ * a {@link CachingDataProvider} to invalidate only the results affected by a
+ * create or update, and by a
+ * {@link org.valkyriercp.widget.editor.DefaultDataEditorWidget} to show only
+ * the pushed rows matching its filter.
+ */
+public interface CriteriaMatcher
+{
+
+    /**
+     * @return <code>true</code> if {@link DataProvider#getList(Object)} with the given criteria would include
+     *         the given entity.
+     */
+    boolean matches(Object criteria, Object entity);
+}
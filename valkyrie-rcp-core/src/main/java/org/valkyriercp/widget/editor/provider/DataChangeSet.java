@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.widget.editor.provider;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Changes in the result of a criteria object, as returned by
+ * {@link DeltaDataProvider#getChangesSince(Object, Object)}. Removed rows are
+ * given by their key, see {@link DeltaDataProvider#getRowKey(Object)}.
+ */
+public class DataChangeSet
+{
+
+    private final List addedRows;
+
+    private final List changedRows;
+
+    private final List removedKeys;
+
+    private final Object token;
+
+    public DataChangeSet(List addedRows, List changedRows, List removedKeys, Object token)
+    {
+        this.addedRows = addedRows == null ? Collections.EMPTY_LIST : addedRows;
+        this.changedRows = changedRows == null ? Collections.EMPTY_LIST : changedRows;
+        this.removedKeys = removedKeys == null ? Collections.EMPTY_LIST : removedKeys;
+        this.token = token;
+    }
+
+    public List getAddedRows()
+    {
+        return addedRows;
+    }
+
+    public List getChangedRows()
+    {
+        return changedRows;
+    }
+
+    public List getRemovedKeys()
+    {
+        return removedKeys;
+    }
+
+    /**
+     * Returns the token to get the changes made after these, <code>null</code> for pushed changes.
+     */
+    public Object getToken()
+    {
+        return token;
+    }
+
+    public boolean isEmpty()
+    {
+        return addedRows.isEmpty() && changedRows.isEmpty() && removedKeys.isEmpty();
+    }
+}
@@ -15,6 +15,9 @@
  */
 package org.valkyriercp.widget.editor.provider;
 
+import java.util.Collections;
+import java.util.List;
+
 public class DataProviderEvent
 {
 
@@ -34,6 +37,16 @@ public class DataProviderEvent
      */
     private final Object oldEntity;
 
+    /**
+     * The new entities of a batch event, <code>null</code> otherwise.
+     */
+    private final List newEntities;
+
+    /**
+     * The old entities of a batch event, <code>null</code> otherwise.
+     */
+    private final List oldEntities;
+
     /**
      * New object created event. Should have a newEntity.
      */
@@ -50,10 +63,28 @@ public class DataProviderEvent
     public static final int EVENT_TYPE_DELETE = 3;
 
     public DataProviderEvent(final int eventType, Object oldEntity, Object newEntity)
+    {
+        this(eventType, oldEntity, newEntity, null, null);
+    }
+
+    private DataProviderEvent(final int eventType, Object oldEntity, Object newEntity, List oldEntities,
+            List newEntities)
     {
         this.eventType = eventType;
         this.oldEntity = oldEntity;
         this.newEntity = newEntity;
+        this.oldEntities = oldEntities;
+        this.newEntities = newEntities;
+    }
+
+    /**
+     * Batch event, covering several entities at once. Update events should have old and new entities at the
+     * same positions.
+     */
+    private static DataProviderEvent batchEvent(final int eventType, List oldEntities, List newEntities)
+    {
+        return new DataProviderEvent(eventType, null, null, oldEntities == null ? Collections.EMPTY_LIST
+                : oldEntities, newEntities == null ? Collections.EMPTY_LIST : newEntities);
     }
 
     public Object getNewEntity()
@@ -71,6 +102,35 @@ public class DataProviderEvent
         return this.eventType;
     }
 
+    /**
+     * @return <code>true</code> if this event covers several entities, which are then only available
+     *         through {@link #getOldEntities()} and {@link #getNewEntities()}.
+     */
+    public boolean isBatch()
+    {
+        return this.oldEntities != null;
+    }
+
+    /**
+     * @return the new entities of a batch event, or a list holding the new entity if there's one.
+     */
+    public List getNewEntities()
+    {
+        if (isBatch())
+            return this.newEntities;
+        return this.newEntity == null ? Collections.EMPTY_LIST : Collections.singletonList(this.newEntity);
+    }
+
+    /**
+     * @return the old entities of a batch event, or a list holding the old entity if there's one.
+     */
+    public List getOldEntities()
+    {
+        if (isBatch())
+            return this.oldEntities;
+        return this.oldEntity == null ? Collections.EMPTY_LIST : Collections.singletonList(this.oldEntity);
+    }
+
     public static final DataProviderEvent newEntityEvent(Object newEntity)
     {
         return new DataProviderEvent(EVENT_TYPE_NEW, null, newEntity);
@@ -85,4 +145,19 @@ public class DataProviderEvent
     {
         return new DataProviderEvent(EVENT_TYPE_DELETE, oldEntity, null);
     }
+
+    public static final DataProviderEvent newEntitiesEvent(List newEntities)
+    {
+        return batchEvent(EVENT_TYPE_NEW, null, newEntities);
+    }
+
+    public static final DataProviderEvent updateEntitiesEvent(List oldEntities, List newEntities)
+    {
+        return batchEvent(EVENT_TYPE_UPDATE, oldEntities, newEntities);
+    }
+
+    public static final DataProviderEvent deleteEntitiesEvent(List oldEntities)
+    {
+        return batchEvent(EVENT_TYPE_DELETE, oldEntities, null);
+    }
 }
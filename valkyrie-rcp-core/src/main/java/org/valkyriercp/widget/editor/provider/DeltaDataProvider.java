@@ -0,0 +1,52 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.widget.editor.provider;
+
+/**
+ * {@link DataProvider} able to tell what changed in the result of a criteria
+ * object since an earlier moment, so a table showing that result can be
+ * brought up to date without retrieving all of its rows again.
+ * <p>
+ * A change token marks a state of the back-end: it is taken before
+ * retrieving the list and passed back to get the changes made after it.
+ * Change sets may also be published to the {@link DataProviderListener}s, to
+ * push changes as they happen.
+ */
+public interface DeltaDataProvider extends DataProvider
+{
+
+    /**
+     * Returns a token marking the current state of the back-end, to be taken
+     * right before retrieving the list with the given criteria.
+     */
+    public Object getChangeToken(Object criteria);
+
+    /**
+     * Returns the changes in the result of the given criteria since the given
+     * token: rows that started matching the criteria are added rows, rows
+     * that stopped matching are removed.
+     *
+     * @return the changes and the token to pass next time, or
+     *         <code>null</code> if they can't be given for this token and
+     *         the list has to be retrieved again.
+     */
+    public DataChangeSet getChangesSince(Object criteria, Object token);
+
+    /**
+     * Returns a key identifying the given row, implementing <code>equals</code> and <code>hashCode</code>.
+     */
+    public Object getRowKey(Object row);
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.widget.editor.provider;
+
+import javax.swing.RowSorter;
+import java.util.List;
+
+/**
+ * {@link DataProvider} able to retrieve its list in parts: a page at a time,
+ * or as a stream of chunks delivered while the rest of the result is still
+ * being retrieved. This allows showing the first rows long before the last
+ * one arrives, and showing very large results through a
+ * {@link org.valkyriercp.widget.table.paged.PagedTableWidget}, see
+ * {@link PagedDataProviderDataSource}.
+ *
+ * @see AbstractPagedDataProvider
+ */
+public interface PagedDataProvider extends DataProvider
+{
+
+    /**
+     * Returns the number of rows matching the given criteria.
+     */
+    public int getRowCount(Object criteria);
+
+    /**
+     * Returns a page of the rows matching the given criteria.
+     *
+     * @param criteria
+     *            the filter criteria, as for {@link #getList(Object)}.
+     * @param offset
+     *            index of the first row to return.
+     * @param limit
+     *            maximum number of rows to return.
+     * @param sort
+     *            the sort order, the columns referring to the
+     *            {@link org.valkyriercp.widget.table.TableDescription} used to show the rows. Empty for the
+     *            default order of {@link #getList(Object)}.
+     * @return the rows, less than <code>limit</code> rows only at the end of the result.
+     */
+    public List getPage(Object criteria, int offset, int limit, List<? extends RowSorter.SortKey> sort);
+
+    /**
+     * Retrieves the rows matching the given criteria, in the order of
+     * {@link #getList(Object)}, passing them to the callback in chunks as they
+     * arrive. Returns when all rows have been passed.
+     *
+     * @throws MaximumRowsExceededException if the result is larger than the
+     *             provider allows, preferably before the first chunk is passed.
+     */
+    public void getList(Object criteria, RowChunkCallback callback);
+
+    /**
+     * Streams the rows as {@link #getList(Object, RowChunkCallback)} does,
+     * stopping as soon as possible once the token is cancelled. No chunks
+     * should be passed after the cancellation, the method may return early or
+     * throw a {@link java.util.concurrent.CancellationException}.
+     */
+    public void getList(Object criteria, RowChunkCallback callback, CancellationToken cancellation);
+
+    /**
+     * Returns a key identifying the given row, implementing <code>equals</code> and <code>hashCode</code>.
+     */
+    public Object getRowKey(Object row);
+}
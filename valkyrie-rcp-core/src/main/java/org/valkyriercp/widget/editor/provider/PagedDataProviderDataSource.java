@@ -0,0 +1,60 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.widget.editor.provider;
+
+import org.valkyriercp.widget.table.paged.PagedDataSource;
+
+import javax.swing.RowSorter;
+import java.util.List;
+
+/**
+ * Shows the rows of a {@link PagedDataProvider} in a
+ * {@link org.valkyriercp.widget.table.paged.PagedTableWidget}. The filter of the table is passed as criteria
+ * to the provider.
+ * <p>
+ * The result isn't checked against a maximum number of rows, no {@link MaximumRowsExceededException} is thrown:
+ * the table only fetches and keeps the pages around the visible rows, however large the result is.
+ */
+public class PagedDataProviderDataSource implements PagedDataSource<Object>
+{
+
+    private final PagedDataProvider dataProvider;
+
+    public PagedDataProviderDataSource(PagedDataProvider dataProvider)
+    {
+        this.dataProvider = dataProvider;
+    }
+
+    public PagedDataProvider getDataProvider()
+    {
+        return dataProvider;
+    }
+
+    public int getRowCount(Object filter)
+    {
+        return dataProvider.getRowCount(filter);
+    }
+
+    public List<Object> getRows(Object filter, List<? extends RowSorter.SortKey> sortKeys, int offset, int limit)
+    {
+        return dataProvider.getPage(filter, offset, limit, sortKeys);
+    }
+
+    public Object getRowKey(Object row)
+    {
+        return dataProvider.getRowKey(row);
+    }
+}
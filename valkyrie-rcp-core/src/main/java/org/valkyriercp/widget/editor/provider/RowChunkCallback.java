@@ -0,0 +1,37 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.widget.editor.provider;
+
+import java.util.List;
+
+/**
+ * Receives the rows of a {@link PagedDataProvider} one chunk at a time, as
+ * they are retrieved from the back-end.
+ *
+ * @see PagedDataProvider#getList(Object, RowChunkCallback)
+ */
+public interface RowChunkCallback
+{
+
+    /**
+     * Called for every chunk of rows, in order. Called on the thread
+     * retrieving the rows.
+     *
+     * @param rows
+     *            the next rows of the result, never empty.
+     */
+    void rowsRetrieved(List rows);
+}
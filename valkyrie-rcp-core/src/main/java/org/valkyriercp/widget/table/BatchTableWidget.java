@@ -0,0 +1,55 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.widget.table;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Observer;
+
+/**
+ * Optional extension of {@link TableWidget} for tables that can apply a change
+ * of several rows at once, so listeners and the shown list are updated once
+ * instead of per row.
+ *
+ * Callers check for this interface and otherwise fall back to the per row
+ * methods of {@link TableWidget}.
+ */
+public interface BatchTableWidget<T> extends TableWidget<T>
+{
+    /**
+     * Local removal of a collection of objects from the data-list of the
+     * table, as one change.
+     *
+     * @param rowsToRemove
+     *            The collection of objects to remove
+     */
+    void removeRows(Collection<T> rowsToRemove);
+
+    /**
+     * Replaces several objects in the table as one change, keeping their
+     * positions and selection.
+     *
+     * @param oldObjects
+     *            The objects to be replaced
+     * @param newObjects
+     *            The replacing objects, at the same positions as the objects
+     *            they replace
+     * @param originatingObserver
+     *            Optional observer that doesn't want to be notified of the
+     *            replacement
+     */
+    void replaceRowObjects(List<T> oldObjects, List<T> newObjects, Observer originatingObserver);
+}
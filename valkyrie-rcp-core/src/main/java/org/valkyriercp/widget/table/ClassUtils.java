@@ -129,6 +129,8 @@ public class ClassUtils
 
     /**
      * Create an {@link Accessor} for the given property. A property may be nested using the dot character.
+     * When all getters of the path are found on the declared types, a shared {@link CompiledAccessor} is
+     * returned, otherwise a chain of reflective accessors that looks up nested getters on the runtime type.
      * 
      * @param clazz
      *            the type containing the property.
@@ -138,6 +140,9 @@ public class ClassUtils
      */
     public static Accessor getAccessorForProperty(final Class<?> clazz, final String propertyName)
     {
+        Accessor compiledAccessor = CompiledAccessor.forProperty(clazz, propertyName);
+        if (compiledAccessor != null)
+            return compiledAccessor;
         int splitPoint = propertyName.indexOf('.');
         if (splitPoint > 0)
         {
@@ -0,0 +1,180 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.widget.table;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link Accessor} that reads a, possibly nested, property through a single <code>MethodHandle</code> combining
+ * all getters of the path. A <code>null</code> value at any level of the path ends the chain and results in
+ * <code>null</code>, like {@link NestedAccessor} does.
+ * <p>
+ * The accessors are created once per type and property path and shared afterwards, see
+ * {@link #forProperty(Class, String)}.
+ *
+ * @see ClassUtils#getAccessorForProperty(Class, String)
+ */
+public final class CompiledAccessor implements Accessor
+{
+
+    /** The type of the combined getter handle. */
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    /** Tests if the value returned by a getter is <code>null</code>. */
+    private static final MethodHandle IS_NULL;
+
+    /** Returns <code>null</code> for any argument. */
+    private static final MethodHandle NULL_VALUE = MethodHandles.dropArguments(MethodHandles.constant(
+            Object.class, null), 0, Object.class);
+
+    static
+    {
+        try
+        {
+            IS_NULL = MethodHandles.lookup().findStatic(CompiledAccessor.class, "isNull",
+                    MethodType.methodType(boolean.class, Object.class));
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** The accessors created so far, per type and property path. */
+    private static final ClassValue<ConcurrentMap<String, CompiledAccessor>> accessors = new ClassValue<ConcurrentMap<String, CompiledAccessor>>()
+    {
+        protected ConcurrentMap<String, CompiledAccessor> computeValue(Class<?> type)
+        {
+            return new ConcurrentHashMap<String, CompiledAccessor>();
+        }
+    };
+
+    /** Cached for paths that can't be compiled, so they are not tried again. */
+    private static final CompiledAccessor NOT_COMPILABLE = new CompiledAccessor(null, null);
+
+    /** The combined getters, typed <code>(Object)Object</code>. */
+    private final MethodHandle getter;
+
+    /** The type of the property, primitives wrapped. */
+    private final Class<?> propertyType;
+
+    private CompiledAccessor(MethodHandle getter, Class<?> propertyType)
+    {
+        this.getter = getter;
+        this.propertyType = propertyType;
+    }
+
+    /**
+     * Returns the accessor for the given property of the given type. A property may be nested using the dot
+     * character.
+     *
+     * @param clazz
+     *            the type containing the property.
+     * @param propertyName
+     *            the name of the property.
+     * @return the accessor, or <code>null</code> if a getter of the path can't be found on the declared types
+     *         or can't be accessed.
+     */
+    public static CompiledAccessor forProperty(Class<?> clazz, String propertyName)
+    {
+        ConcurrentMap<String, CompiledAccessor> typeAccessors = accessors.get(clazz);
+        CompiledAccessor accessor = typeAccessors.get(propertyName);
+        if (accessor == null)
+        {
+            accessor = compile(clazz, propertyName);
+            if (accessor == null)
+                accessor = NOT_COMPILABLE;
+            CompiledAccessor existing = typeAccessors.putIfAbsent(propertyName, accessor);
+            if (existing != null)
+                accessor = existing;
+        }
+        return accessor == NOT_COMPILABLE ? null : accessor;
+    }
+
+    private static CompiledAccessor compile(Class<?> clazz, String propertyName)
+    {
+        String[] propertyNames = propertyName.split("\\.");
+        MethodHandle[] getters = new MethodHandle[propertyNames.length];
+        Class<?> type = clazz;
+        Method readMethod = null;
+        try
+        {
+            for (int i = 0; i < propertyNames.length; i++)
+            {
+                readMethod = ClassUtils.getReadMethod(type, propertyNames[i]);
+                if (!Modifier.isPublic(readMethod.getDeclaringClass().getModifiers()))
+                    readMethod.setAccessible(true);
+                getters[i] = MethodHandles.lookup().unreflect(readMethod).asType(ACCESSOR_TYPE);
+                type = readMethod.getReturnType();
+            }
+        }
+        catch (NoSuchMethodError e)
+        {
+            return null;
+        }
+        catch (IllegalAccessException e)
+        {
+            return null;
+        }
+        catch (SecurityException e)
+        {
+            return null;
+        }
+        Class<?> propertyType = ClassUtils.getTypeForProperty(readMethod);
+        MethodHandle chain = getters[getters.length - 1];
+        for (int i = getters.length - 2; i >= 0; i--)
+        {
+            chain = MethodHandles.filterReturnValue(getters[i], MethodHandles.guardWithTest(IS_NULL, NULL_VALUE,
+                    chain));
+        }
+        return new CompiledAccessor(chain, propertyType);
+    }
+
+    private static boolean isNull(Object value)
+    {
+        return value == null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Object getValue(Object fromEntity) throws IllegalAccessException, InvocationTargetException
+    {
+        try
+        {
+            return (Object) getter.invokeExact(fromEntity);
+        }
+        catch (Throwable t)
+        {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Class<?> getPropertyType()
+    {
+        return propertyType;
+    }
+}
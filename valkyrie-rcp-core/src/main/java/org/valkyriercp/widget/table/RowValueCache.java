@@ -0,0 +1,156 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.widget.table;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Cache of the column values of table rows, so painting, sorting and filtering read each value only once
+ * from the row object. Rows are identified by identity.
+ * <p>
+ * The cache doesn't notice changes to the row objects: the owner of the rows has to invalidate a row
+ * whenever it is replaced or edited, and has to drop the rows that are removed from the table.
+ *
+ * @see TableDescription#getValue(Object, int)
+ */
+public class RowValueCache
+{
+
+    /** Marks a column value that hasn't been read yet. */
+    private static final Object NOT_READ = new Object();
+
+    /** The column values per row. */
+    private final Map<Object, Object[]> rowValues = new IdentityHashMap<Object, Object[]>();
+
+    /** The table description used to read the values. */
+    private final TableDescription tableDescription;
+
+    /**
+     * Constructor.
+     *
+     * @param tableDescription
+     *            the description used to read the column values of a row.
+     */
+    public RowValueCache(TableDescription tableDescription)
+    {
+        this.tableDescription = tableDescription;
+    }
+
+    /**
+     * Returns the value of the given column for the given row, reading it from the row object if it isn't
+     * cached yet.
+     */
+    public Object getValue(Object rowObject, int propertyIndex)
+    {
+        synchronized (rowValues)
+        {
+            Object[] values = rowValues.get(rowObject);
+            if (values != null && values[propertyIndex] != NOT_READ)
+                return values[propertyIndex];
+        }
+        Object value = tableDescription.getValue(rowObject, propertyIndex);
+        synchronized (rowValues)
+        {
+            Object[] values = rowValues.get(rowObject);
+            if (values == null)
+            {
+                values = new Object[tableDescription.getColumnCount()];
+                for (int i = 0; i < values.length; i++)
+                    values[i] = NOT_READ;
+                rowValues.put(rowObject, values);
+            }
+            values[propertyIndex] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Writes the value to the row object through the table description and drops the cached values of the
+     * row.
+     */
+    public void setValue(Object rowObject, int propertyIndex, Object newValue)
+    {
+        try
+        {
+            tableDescription.setValue(rowObject, propertyIndex, newValue);
+        }
+        finally
+        {
+            invalidate(rowObject);
+        }
+    }
+
+    /**
+     * Drops the cached values of the given row.
+     */
+    public void invalidate(Object rowObject)
+    {
+        synchronized (rowValues)
+        {
+            rowValues.remove(rowObject);
+        }
+    }
+
+    /**
+     * Drops the cached values of all rows.
+     */
+    public void invalidateAll()
+    {
+        synchronized (rowValues)
+        {
+            rowValues.clear();
+        }
+    }
+
+    /**
+     * Drops the cached values of all rows that aren't part of the given rows (by identity).
+     */
+    public void retainAll(Collection<?> rowObjects)
+    {
+        synchronized (rowValues)
+        {
+            if (rowValues.isEmpty())
+                return;
+            if (rowObjects.isEmpty())
+            {
+                rowValues.clear();
+                return;
+            }
+            Map<Object, Boolean> retained = new IdentityHashMap<Object, Boolean>(rowObjects.size());
+            for (Object rowObject : rowObjects)
+                retained.put(rowObject, Boolean.TRUE);
+            for (Iterator<Object> i = rowValues.keySet().iterator(); i.hasNext();)
+            {
+                if (!retained.containsKey(i.next()))
+                    i.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of rows with cached values.
+     */
+    public int size()
+    {
+        synchronized (rowValues)
+        {
+            return rowValues.size();
+        }
+    }
+}
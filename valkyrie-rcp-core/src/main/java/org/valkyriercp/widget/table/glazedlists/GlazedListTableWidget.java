@@ -34,9 +34,10 @@ import org.valkyriercp.command.support.ActionCommand;
 import org.valkyriercp.command.support.CommandGroup;
 import org.valkyriercp.util.ValueMonitor;
 import org.valkyriercp.widget.AbstractWidget;
+import org.valkyriercp.widget.table.BatchTableWidget;
+import org.valkyriercp.widget.table.RowValueCache;
 import org.valkyriercp.widget.table.TableCellRenderers;
 import org.valkyriercp.widget.table.TableDescription;
-import org.valkyriercp.widget.table.TableWidget;
 
 import javax.annotation.PostConstruct;
 import javax.swing.*;
@@ -56,7 +57,7 @@ import java.util.*;
 import java.util.List;
 
 public final class GlazedListTableWidget extends AbstractWidget implements
-		TableWidget {
+		BatchTableWidget {
 	private JXTable theTable = new JXTable();
 
 	private JScrollPane tableScroller;
@@ -67,7 +68,7 @@ public final class GlazedListTableWidget extends AbstractWidget implements
 
 	private EventSelectionModel<Object> selectionModel;
 
-	private EventList<Object> dataList;
+	private BatchEventList<Object> dataList;
 
 	private EventList<Object> shownList;
 
@@ -115,7 +116,9 @@ public final class GlazedListTableWidget extends AbstractWidget implements
 		}
 
 		public void editingStopped(ChangeEvent e) {
-			dirtyRows.add(getSelectedRows()[0]);
+			Object editedRow = getSelectedRows()[0];
+			dirtyRows.add(editedRow);
+			invalidateRowValues(editedRow);
 		}
 	};
 
@@ -199,8 +202,12 @@ public final class GlazedListTableWidget extends AbstractWidget implements
 
 	private void postConstruct() {
 		theTable.setColumnControlVisible(true);
-		dataList = mRows == null ? new BasicEventList<Object>() : GlazedLists
-				.eventList(mRows);
+		dataList = new BatchEventList<Object>();
+		if (mRows != null) {
+			dataList.addAll(mRows);
+		}
+		// registered before the sorted list, so it sorts on fresh values
+		dataList.addListEventListener(new RowValueCacheUpdater());
 
 		sortedList = new SortedList<Object>(dataList, mComparator);
 		this.shownList = sortedList;
@@ -318,6 +325,108 @@ public final class GlazedListTableWidget extends AbstractWidget implements
 		}
 	}
 
+	/**
+	 * Sets whether the column values of the rows are cached, so painting,
+	 * sorting and filtering read each value only once. Replaced and edited
+	 * rows are refreshed automatically; rows changed in any other way need
+	 * {@link #invalidateRowValues(Object)} or {@link #updateTable()}.
+	 * <p>
+	 * Only available when the widget was created with a
+	 * {@link TableDescription}.
+	 *
+	 * @throws IllegalStateException if the widget was created without a
+	 * table description.
+	 */
+	public void setRowValueCaching(boolean rowValueCaching) {
+		if (!(mFormat instanceof GlazedListsSupport.TableDescriptionFormat)) {
+			throw new IllegalStateException(
+					"Row value caching requires a table created from a TableDescription");
+		}
+		((GlazedListsSupport.TableDescriptionFormat) mFormat)
+				.setRowValueCache(rowValueCaching ? new RowValueCache(mTableDesc)
+						: null);
+	}
+
+	public boolean isRowValueCaching() {
+		return getRowValueCache() != null;
+	}
+
+	/**
+	 * Drops the cached column values of the given row.
+	 */
+	public void invalidateRowValues(Object rowObject) {
+		RowValueCache rowValueCache = getRowValueCache();
+		if (rowValueCache != null) {
+			rowValueCache.invalidate(rowObject);
+		}
+	}
+
+	/**
+	 * Drops the cached column values of all rows.
+	 */
+	public void invalidateRowValues() {
+		RowValueCache rowValueCache = getRowValueCache();
+		if (rowValueCache != null) {
+			rowValueCache.invalidateAll();
+		}
+	}
+
+	private RowValueCache getRowValueCache() {
+		return mFormat instanceof GlazedListsSupport.TableDescriptionFormat ? ((GlazedListsSupport.TableDescriptionFormat) mFormat)
+				.getRowValueCache() : null;
+	}
+
+	/**
+	 * Data list able to publish several changes as one {@link ListEvent}, so
+	 * the table and its selection handle a bulk change only once.
+	 */
+	private static class BatchEventList<E> extends BasicEventList<E> {
+
+		void beginBatch() {
+			updates.beginEvent(true);
+		}
+
+		void commitBatch() {
+			updates.commitEvent();
+		}
+	}
+
+	/**
+	 * Keeps the row value cache in line with the data list: updated rows are
+	 * invalidated and removed rows are dropped. Only when the event doesn't
+	 * tell which row was removed or replaced is the whole cache checked
+	 * against the list.
+	 */
+	private class RowValueCacheUpdater implements ListEventListener<Object> {
+
+		public void listChanged(ListEvent<Object> listChanges) {
+			RowValueCache rowValueCache = getRowValueCache();
+			if (rowValueCache == null) {
+				return;
+			}
+			boolean purge = false;
+			while (listChanges.next()) {
+				int type = listChanges.getType();
+				if (type == ListEvent.INSERT) {
+					continue;
+				}
+				Object oldValue = listChanges.getOldValue();
+				if (oldValue == ListEvent.UNKNOWN_VALUE) {
+					purge = true;
+				} else if (oldValue != null) {
+					rowValueCache.invalidate(oldValue);
+				}
+				if (type == ListEvent.UPDATE) {
+					rowValueCache.invalidate(dataList.get(listChanges
+							.getIndex()));
+				}
+			}
+			if (purge) {
+				rowValueCache.retainAll(dataList);
+			}
+		}
+	}
+
 	/**
 	 * Enable the row height to diverge from the default height.
 	 * <p/>
@@ -568,6 +677,26 @@ public final class GlazedListTableWidget extends AbstractWidget implements
 		}
 	}
 
+	public void removeRows(Collection rowsToRemove) {
+		Set toRemove = new HashSet(rowsToRemove);
+		this.dataList.getReadWriteLock().writeLock().lock();
+		try {
+			dirtyRows.removeAll(toRemove);
+			this.dataList.beginBatch();
+			try {
+				for (int i = this.dataList.size() - 1; i >= 0; i--) {
+					if (toRemove.contains(this.dataList.get(i))) {
+						this.dataList.remove(i);
+					}
+				}
+			} finally {
+				this.dataList.commitBatch();
+			}
+		} finally {
+			this.dataList.getReadWriteLock().writeLock().unlock();
+		}
+	}
+
 	public int selectRowObject(Object toPointTo, Observer originatingObserver) {
 		int index = this.shownList.indexOf(toPointTo);
 		selectRowObject(index, originatingObserver);
@@ -696,6 +825,55 @@ public final class GlazedListTableWidget extends AbstractWidget implements
 		}
 	}
 
+	public void replaceRowObjects(List oldObjects, List newObjects,
+			Observer originatingObserver) {
+		Map replacements = new HashMap();
+		for (int i = 0; i < oldObjects.size(); i++) {
+			replacements.put(oldObjects.get(i), newObjects.get(i));
+		}
+		this.dataList.getReadWriteLock().writeLock().lock();
+		try {
+			dirtyRows.removeAll(replacements.keySet());
+			Set toSelect = new HashSet();
+			for (Object selected : this.selectionModel.getSelected()) {
+				if (replacements.containsKey(selected)) {
+					toSelect.add(replacements.get(selected));
+				}
+			}
+			if (!toSelect.isEmpty() && (originatingObserver != null)) {
+				this.selectionMonitor.deleteObserver(originatingObserver);
+			}
+
+			this.dataList.beginBatch();
+			try {
+				for (int i = 0; i < this.dataList.size(); i++) {
+					Object row = this.dataList.get(i);
+					if (replacements.containsKey(row)) {
+						this.dataList.set(i, replacements.get(row));
+					}
+				}
+			} finally {
+				this.dataList.commitBatch();
+			}
+
+			if (!toSelect.isEmpty()) {
+				// the sorted list may have moved the replacements
+				this.selectionModel.setValueIsAdjusting(true);
+				for (int i = 0; i < this.shownList.size(); i++) {
+					if (toSelect.contains(this.shownList.get(i))) {
+						this.selectionModel.addSelectionInterval(i, i);
+					}
+				}
+				this.selectionModel.setValueIsAdjusting(false);
+				if (originatingObserver != null) {
+					this.selectionMonitor.addObserver(originatingObserver);
+				}
+			}
+		} finally {
+			this.dataList.getReadWriteLock().writeLock().unlock();
+		}
+	}
+
 	public void replaceRows(final Collection oldObject,
 			final Collection newObject) {
 		Runnable doReplaceRows = new Runnable() {
@@ -759,6 +937,7 @@ public final class GlazedListTableWidget extends AbstractWidget implements
 	}
 
 	public void updateTable() {
+		invalidateRowValues();
 		this.tableModel.fireTableDataChanged();
 	}
 
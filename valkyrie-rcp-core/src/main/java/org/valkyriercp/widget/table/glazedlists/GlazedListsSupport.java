@@ -19,6 +19,7 @@ import ca.odell.glazedlists.GlazedLists;
 import ca.odell.glazedlists.gui.AdvancedTableFormat;
 import ca.odell.glazedlists.gui.TableFormat;
 import ca.odell.glazedlists.gui.WritableTableFormat;
+import org.valkyriercp.widget.table.RowValueCache;
 import org.valkyriercp.widget.table.TableDescription;
 
 import java.util.Comparator;
@@ -47,56 +48,90 @@ public class GlazedListsSupport
      */
     public static TableFormat makeTableFormat(final TableDescription desc)
     {
-        return new AdvancedWritableTableFormat()
+        return new TableDescriptionFormat(desc);
+    }
+
+    /**
+     * TableFormat reading the column values through a {@link TableDescription}, optionally caching them in
+     * a {@link RowValueCache}.
+     */
+    public static class TableDescriptionFormat implements AdvancedWritableTableFormat
+    {
+        private final TableDescription desc;
+
+        private volatile RowValueCache rowValueCache;
+
+        public TableDescriptionFormat(TableDescription desc)
         {
-            public Class getColumnClass(int i)
-            {
-                return desc.getType(i);
-            }
+            this.desc = desc;
+        }
+
+        /**
+         * Set the cache for the column values, <code>null</code> to read them from the row objects every
+         * time.
+         */
+        public void setRowValueCache(RowValueCache rowValueCache)
+        {
+            this.rowValueCache = rowValueCache;
+        }
 
-            public Comparator getColumnComparator(int i)
-            {
-                Comparator comp = desc.getColumnComparator(i);
-                if (comp != null)
-                    return comp;
-
-                Class type = getColumnClass(i);
-                if (Boolean.class.isAssignableFrom(type) || Boolean.TYPE.isAssignableFrom(type))
-                    return GlazedLists.booleanComparator();
-                else if (String.class.isAssignableFrom(type))
-                    return getLowerCaseStringComparator();
-                else if(Comparable.class.isAssignableFrom(type))
-                    return GlazedLists.comparableComparator();
-                else
-                    return null;
-            }
+        public RowValueCache getRowValueCache()
+        {
+            return rowValueCache;
+        }
 
-            public int getColumnCount()
-            {
-                return desc.getColumnCount();
-            }
+        public Class getColumnClass(int i)
+        {
+            return desc.getType(i);
+        }
 
-            public String getColumnName(int i)
-            {
-                return desc.getHeader(i);
-            }
+        public Comparator getColumnComparator(int i)
+        {
+            Comparator comp = desc.getColumnComparator(i);
+            if (comp != null)
+                return comp;
+
+            Class type = getColumnClass(i);
+            if (Boolean.class.isAssignableFrom(type) || Boolean.TYPE.isAssignableFrom(type))
+                return GlazedLists.booleanComparator();
+            else if (String.class.isAssignableFrom(type))
+                return getLowerCaseStringComparator();
+            else if(Comparable.class.isAssignableFrom(type))
+                return GlazedLists.comparableComparator();
+            else
+                return null;
+        }
+
+        public int getColumnCount()
+        {
+            return desc.getColumnCount();
+        }
 
-            public Object getColumnValue(Object obj, int i)
-            {
-                return desc.getValue(obj, i);
-            }
+        public String getColumnName(int i)
+        {
+            return desc.getHeader(i);
+        }
 
-            public boolean isEditable(Object baseObject, int column)
-            {
-                return desc.getColumnEditor(column) != null;
-            }
+        public Object getColumnValue(Object obj, int i)
+        {
+            RowValueCache cache = rowValueCache;
+            return cache == null ? desc.getValue(obj, i) : cache.getValue(obj, i);
+        }
 
-            public Object setColumnValue(Object baseObject, Object editedValue, int column)
-            {
+        public boolean isEditable(Object baseObject, int column)
+        {
+            return desc.getColumnEditor(column) != null;
+        }
+
+        public Object setColumnValue(Object baseObject, Object editedValue, int column)
+        {
+            RowValueCache cache = rowValueCache;
+            if (cache == null)
                 desc.setValue(baseObject, column, editedValue);
-                return baseObject;
-            }
-        };
+            else
+                cache.setValue(baseObject, column, editedValue);
+            return baseObject;
+        }
     }
 
     public static Comparator getLowerCaseStringComparator()
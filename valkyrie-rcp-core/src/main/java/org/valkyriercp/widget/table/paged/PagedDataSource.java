@@ -0,0 +1,59 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.widget.table.paged;
+
+import javax.swing.RowSorter;
+import java.util.List;
+
+/**
+ * Source of the rows of a {@link PagedTableWidget}. Rows are fetched one page
+ * at a time, sorted and filtered by the source itself, so only the rows around
+ * the visible part of the table need to be kept in memory.
+ * <p>
+ * The methods are called from background threads.
+ *
+ * @param <T> type of the row objects
+ */
+public interface PagedDataSource<T> {
+
+	/**
+	 * Returns the total number of rows matching the given filter.
+	 *
+	 * @param filter the filter criteria, <code>null</code> for all rows.
+	 */
+	int getRowCount(Object filter);
+
+	/**
+	 * Returns a page of the rows matching the given filter, in the order given
+	 * by the sort keys.
+	 *
+	 * @param filter the filter criteria, <code>null</code> for all rows.
+	 * @param sortKeys the sort keys, the columns referring to the
+	 * {@link org.valkyriercp.widget.table.TableDescription} of the table. Empty
+	 * for the natural order of the source.
+	 * @param offset index of the first row of the page.
+	 * @param limit maximum number of rows to return.
+	 * @return the rows, less than <code>limit</code> rows only at the end.
+	 */
+	List<T> getRows(Object filter, List<? extends RowSorter.SortKey> sortKeys, int offset, int limit);
+
+	/**
+	 * Returns the key identifying the given row, used to keep track of the
+	 * selection while rows are fetched again. Must implement
+	 * <code>equals</code> and <code>hashCode</code>.
+	 */
+	Object getRowKey(T row);
+}
@@ -0,0 +1,1328 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.widget.table.paged;
+
+import com.google.common.collect.Lists;
+import com.jgoodies.forms.layout.Size;
+import com.jgoodies.forms.layout.Sizes;
+import org.valkyriercp.command.support.AbstractCommand;
+import org.valkyriercp.command.support.ActionCommand;
+import org.valkyriercp.command.support.CommandGroup;
+import org.valkyriercp.util.ValueMonitor;
+import org.valkyriercp.widget.AbstractWidget;
+import org.valkyriercp.widget.table.BatchTableWidget;
+import org.valkyriercp.widget.table.TableCellRenderers;
+import org.valkyriercp.widget.table.TableDescription;
+import org.valkyriercp.widget.table.TableWidget;
+
+import javax.swing.*;
+import javax.swing.border.Border;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.event.ListSelectionListener;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableCellEditor;
+import javax.swing.table.TableCellRenderer;
+import javax.swing.table.TableColumn;
+import javax.swing.table.TableModel;
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * {@link TableWidget} showing the rows of a {@link PagedDataSource}. Only the
+ * pages around the visible part of the table are kept in memory, pages are
+ * fetched in the background when they scroll into view and a placeholder is
+ * shown until they arrive. Sorting and filtering are done by the data source:
+ * clicking a column header or calling {@link #setFilter(Object)} fetches the
+ * rows again.
+ * <p>
+ * The selection is tracked by the {@link PagedDataSource#getRowKey(Object)
+ * row keys}, so it survives sorting, filtering and refreshing as long as the
+ * selected rows are part of the result.
+ * <p>
+ * Selecting rows that aren't in memory, by shift-clicking or selecting all
+ * rows, fetches the pages of these rows in the background: they are added to
+ * the {@link #getSelectedRows() selected rows} as they arrive, up to
+ * {@link #setMaxSelectedRows(int) a maximum number of rows}. Beyond that the
+ * rows stay selected in the table only.
+ * <p>
+ * The row list isn't available locally: {@link #getRows()} and
+ * {@link #getVisibleRows()} only return the rows in memory, and local
+ * additions or removals just fetch the rows again, assuming the data source
+ * already reflects them. The rows are first fetched when the widget is shown,
+ * or on {@link #refresh()} or {@link #setFilter(Object)}. Rows set with
+ * {@link #setRows(Collection)} are shown instead until they are fetched again.
+ * The widget must be used from the event dispatching thread.
+ *
+ * @param <T> type of the row objects
+ */
+public class PagedTableWidget<T> extends AbstractWidget implements
+		BatchTableWidget<T> {
+
+	public static final int DEFAULT_PAGE_SIZE = 100;
+
+	public static final int DEFAULT_MAX_PAGES = 20;
+
+	public static final int DEFAULT_MAX_SELECTED_ROWS = 1000;
+
+	private static final int MAX_SORT_KEYS = 3;
+
+	private final TableDescription tableDescription;
+
+	private final PagedDataSource<T> dataSource;
+
+	private int pageSize = DEFAULT_PAGE_SIZE;
+
+	private int maxPages = DEFAULT_MAX_PAGES;
+
+	private int maxSelectedRows = DEFAULT_MAX_SELECTED_ROWS;
+
+	private Object filter;
+
+	private int rowCount;
+
+	/**
+	 * Incremented whenever the rows are fetched again, so pages loaded for an
+	 * older filter or sort order are ignored.
+	 */
+	private volatile int generation;
+
+	/** Pages in memory, least recently used first. */
+	private final LinkedHashMap<Integer, List<T>> pages = new LinkedHashMap<Integer, List<T>>(
+			16, 0.75f, true) {
+		protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+			if (size() <= maxPages) {
+				return false;
+			}
+			forgetRowKeys(eldest.getKey() * pageSize, eldest.getValue());
+			return true;
+		}
+	};
+
+	/** The index of the rows in memory by their key. */
+	private final Map<Object, Integer> rowIndexByKey = new HashMap<Object, Integer>();
+
+	/**
+	 * The rows set by {@link #setRows(Collection)}, <code>null</code> when
+	 * showing the rows of the data source.
+	 */
+	private List<T> localRows;
+
+	private final Set<Integer> loadingPages = new HashSet<Integer>();
+
+	private volatile int firstVisiblePage;
+
+	private volatile int lastVisiblePage;
+
+	/** The selected rows by key, in order of selection. */
+	private final Map<Object, T> selectedRows = new LinkedHashMap<Object, T>();
+
+	/** The keys of the selected rows by their index in the current rows. */
+	private final Map<Integer, Object> selectedKeys = new HashMap<Integer, Object>();
+
+	private boolean restoringSelection;
+
+	/** The worker fetching the selected rows that aren't in memory. */
+	private volatile SelectionLoader selectionLoader;
+
+	private final PagedTableModel tableModel = new PagedTableModel();
+
+	private final DataSourceRowSorter rowSorter = new DataSourceRowSorter();
+
+	private final JTable theTable;
+
+	private final JScrollPane tableScroller;
+
+	private final ValueMonitor selectionMonitor = new ValueMonitor();
+
+	private List<AbstractCommand> navigationCommands;
+
+	private CommandGroup navigationCommandGroup;
+
+	private JLabel countLabel;
+
+	private String loadingText;
+
+	public PagedTableWidget(PagedDataSource<T> dataSource,
+			TableDescription tableDescription) {
+		this.dataSource = dataSource;
+		this.tableDescription = tableDescription;
+		this.theTable = new PagedTable();
+		this.theTable.setModel(tableModel);
+		this.theTable.setRowSorter(rowSorter);
+		this.theTable.getTableHeader().setDefaultRenderer(
+				TableCellRenderers.LEFT_ALIGNED_HEADER_RENDERER);
+		this.theTable.getSelectionModel().addListSelectionListener(
+				new SelectionTracker());
+		this.theTable.setPreferredScrollableViewportSize(new Dimension(50, 50));
+		this.tableScroller = new JScrollPane(theTable);
+		this.tableScroller.getViewport().addChangeListener(
+				new ChangeListener() {
+					public void stateChanged(ChangeEvent e) {
+						updateVisiblePages();
+					}
+				});
+		initializeColumns();
+		initializeNavigationCommands();
+	}
+
+	private void initializeColumns() {
+		List<TableColumn> hiddenColumns = new ArrayList<TableColumn>();
+		for (int i = 0; i < tableDescription.getColumnCount(); ++i) {
+			TableColumn column = theTable.getColumnModel().getColumn(i);
+			int columnWidth = tableDescription.getMaxColumnWidth(i);
+			if (columnWidth > 0) {
+				column.setMaxWidth(columnWidth);
+			}
+			columnWidth = tableDescription.getMinColumnWidth(i);
+			if (columnWidth > 0) {
+				column.setMinWidth(columnWidth);
+			}
+			column.setResizable(tableDescription.isResizable(i));
+			TableCellEditor columnEditor = tableDescription.getColumnEditor(i);
+			if (columnEditor != null) {
+				column.setCellEditor(columnEditor);
+			}
+			TableCellRenderer renderer = tableDescription.getColumnRenderer(i);
+			if (renderer != null) {
+				column.setCellRenderer(renderer);
+			}
+			if (!tableDescription.isVisible(i)) {
+				hiddenColumns.add(column);
+			}
+		}
+		for (TableColumn column : hiddenColumns) {
+			theTable.getColumnModel().removeColumn(column);
+		}
+	}
+
+	/**
+	 * Sets the number of rows fetched at once. Defaults to
+	 * {@link #DEFAULT_PAGE_SIZE}.
+	 */
+	public void setPageSize(int pageSize) {
+		if (pageSize < 1) {
+			throw new IllegalArgumentException("pageSize must be positive");
+		}
+		this.pageSize = pageSize;
+		refresh();
+	}
+
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	/**
+	 * Sets the number of pages kept in memory, the least recently shown pages
+	 * are dropped first. Must be large enough to cover the visible rows; if the
+	 * table is enlarged beyond that, the number is raised to cover them.
+	 * Defaults to {@link #DEFAULT_MAX_PAGES}.
+	 */
+	public void setMaxPages(int maxPages) {
+		int visiblePages = getVisiblePageCount();
+		if (maxPages < visiblePages) {
+			throw new IllegalArgumentException("maxPages must be at least "
+					+ visiblePages + " to cover the visible rows");
+		}
+		this.maxPages = maxPages;
+	}
+
+	public int getMaxPages() {
+		return maxPages;
+	}
+
+	/**
+	 * Sets the maximum number of {@link #getSelectedRows() selected rows}
+	 * kept in memory. Selecting more rows, for instance by selecting all rows,
+	 * only fetches the pages needed for this number of rows. Defaults to
+	 * {@link #DEFAULT_MAX_SELECTED_ROWS}.
+	 */
+	public void setMaxSelectedRows(int maxSelectedRows) {
+		if (maxSelectedRows < 1) {
+			throw new IllegalArgumentException("maxSelectedRows must be positive");
+		}
+		this.maxSelectedRows = maxSelectedRows;
+	}
+
+	public int getMaxSelectedRows() {
+		return maxSelectedRows;
+	}
+
+	/**
+	 * Sets the filter criteria passed to the data source and fetches the rows
+	 * again.
+	 */
+	public void setFilter(Object filter) {
+		this.filter = filter;
+		refresh();
+	}
+
+	public Object getFilter() {
+		return filter;
+	}
+
+	/**
+	 * Sets the sort keys passed to the data source and fetches the rows again.
+	 * The columns of the keys refer to the {@link TableDescription}.
+	 */
+	public void setSortKeys(List<? extends RowSorter.SortKey> sortKeys) {
+		rowSorter.setSortKeys(sortKeys);
+	}
+
+	public List<? extends RowSorter.SortKey> getSortKeys() {
+		return rowSorter.getSortKeys();
+	}
+
+	/**
+	 * Drops all rows in memory and fetches them again from the data source.
+	 * The selected rows stay selected if they are still part of the result.
+	 */
+	public void refresh() {
+		generation++;
+		pages.clear();
+		loadingPages.clear();
+		rowIndexByKey.clear();
+		localRows = null;
+		selectionLoader = null;
+		selectedKeys.clear();
+		restoringSelection = true;
+		try {
+			theTable.getSelectionModel().clearSelection();
+		} finally {
+			restoringSelection = false;
+		}
+		new RowCountLoader(generation, filter).execute();
+		if (rowCount > 0) {
+			tableModel.fireTableRowsUpdated(0, rowCount - 1);
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the row at the given (model) index is in
+	 * memory.
+	 */
+	public boolean isRowLoaded(int rowIndex) {
+		return getLoadedRow(rowIndex) != null;
+	}
+
+	/**
+	 * Returns the row at the given (model) index, <code>null</code> if it
+	 * isn't in memory.
+	 */
+	public T getLoadedRow(int rowIndex) {
+		if (rowIndex < 0 || rowIndex >= rowCount) {
+			return null;
+		}
+		if (localRows != null) {
+			return localRows.get(rowIndex);
+		}
+		List<T> page = pages.get(rowIndex / pageSize);
+		int pageIndex = rowIndex % pageSize;
+		return page == null || pageIndex >= page.size() ? null : page
+				.get(pageIndex);
+	}
+
+	/**
+	 * Returns the row at the given index, starting to fetch its page if it
+	 * isn't in memory.
+	 */
+	private T getRow(int rowIndex) {
+		T row = getLoadedRow(rowIndex);
+		if (row == null && localRows == null && rowIndex >= 0
+				&& rowIndex < rowCount && !pages.containsKey(rowIndex / pageSize)) {
+			loadPage(rowIndex / pageSize);
+		}
+		return row;
+	}
+
+	private void loadPage(int page) {
+		if (loadingPages.add(page)) {
+			new PageLoader(generation, page, filter, getSortKeys()).execute();
+		}
+	}
+
+	private void updateVisiblePages() {
+		Rectangle visibleRect = tableScroller.getViewport().getViewRect();
+		int firstRow = theTable.rowAtPoint(visibleRect.getLocation());
+		int lastRow = theTable.rowAtPoint(new Point(visibleRect.x,
+				visibleRect.y + visibleRect.height - 1));
+		firstVisiblePage = Math.max(firstRow, 0) / pageSize;
+		lastVisiblePage = (lastRow < 0 ? rowCount - 1 : lastRow) / pageSize;
+		// dropping visible pages would fetch them again on every repaint
+		maxPages = Math.max(maxPages, getVisiblePageCount());
+	}
+
+	/**
+	 * Returns the number of pages the rows fitting in the viewport can span.
+	 */
+	private int getVisiblePageCount() {
+		int rowHeight = Math.max(theTable.getRowHeight(), 1);
+		int visibleRows = (tableScroller.getViewport().getExtentSize().height
+				+ rowHeight - 1) / rowHeight;
+		return visibleRows == 0 ? 1 : (visibleRows + pageSize - 2) / pageSize + 1;
+	}
+
+	private boolean isPageWanted(int page) {
+		return page >= firstVisiblePage - 1 && page <= lastVisiblePage + 1;
+	}
+
+	private void pageLoaded(int page, List<T> rows) {
+		pages.put(page, rows);
+		int firstRow = page * pageSize;
+		indexRowKeys(firstRow, rows);
+		boolean selectionChanged = restoreSelection(firstRow, rows);
+		int lastRow = Math.min(firstRow + rows.size(), rowCount) - 1;
+		if (lastRow >= firstRow) {
+			tableModel.fireTableRowsUpdated(firstRow, lastRow);
+		}
+		if (selectionChanged) {
+			selectionChanged();
+		}
+	}
+
+	private void indexRowKeys(int firstRow, List<T> rows) {
+		int count = Math.min(rows.size(), rowCount - firstRow);
+		for (int i = 0; i < count; i++) {
+			rowIndexByKey.put(dataSource.getRowKey(rows.get(i)), firstRow + i);
+		}
+	}
+
+	private void forgetRowKeys(int firstRow, List<T> rows) {
+		for (int i = 0; i < rows.size(); i++) {
+			Object key = dataSource.getRowKey(rows.get(i));
+			Integer rowIndex = rowIndexByKey.get(key);
+			if (rowIndex != null && rowIndex == firstRow + i) {
+				rowIndexByKey.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Selects the given rows if their keys are selected, and adds the rows
+	 * selected before they were in memory to the selected rows, as long as
+	 * there are less than the maximum number of selected rows.
+	 *
+	 * @return <code>true</code> if rows were added to the selected rows.
+	 */
+	private boolean restoreSelection(int firstRow, List<T> rows) {
+		ListSelectionModel selectionModel = theTable.getSelectionModel();
+		if (selectedRows.isEmpty() && selectionModel.isSelectionEmpty()) {
+			return false;
+		}
+		boolean added = false;
+		restoringSelection = true;
+		try {
+			int count = Math.min(rows.size(), rowCount - firstRow);
+			for (int i = 0; i < count; i++) {
+				T row = rows.get(i);
+				Object key = dataSource.getRowKey(row);
+				int viewIndex = theTable.convertRowIndexToView(firstRow + i);
+				if (selectedRows.containsKey(key)) {
+					selectedRows.put(key, row);
+					selectedKeys.put(firstRow + i, key);
+					selectionModel.addSelectionInterval(viewIndex, viewIndex);
+				} else if (selectionModel.isSelectedIndex(viewIndex)
+						&& selectedRows.size() < maxSelectedRows) {
+					selectedRows.put(key, row);
+					selectedKeys.put(firstRow + i, key);
+					added = true;
+				}
+			}
+		} finally {
+			restoringSelection = false;
+		}
+		return added;
+	}
+
+	/**
+	 * Starts fetching the pages of the selected rows that aren't in memory,
+	 * superseding the fetch of a previous selection. Only the pages holding
+	 * the first rows up to the maximum number of selected rows are fetched.
+	 */
+	private void loadSelectedRows() {
+		selectionLoader = null;
+		ListSelectionModel selectionModel = theTable.getSelectionModel();
+		if (localRows != null || selectionModel.isSelectionEmpty()) {
+			return;
+		}
+		List<Integer> missingPages = new ArrayList<Integer>();
+		int room = maxSelectedRows - selectedRows.size();
+		int last = Math.min(selectionModel.getMaxSelectionIndex(), rowCount - 1);
+		int lastPage = -1;
+		for (int i = Math.max(selectionModel.getMinSelectionIndex(), 0); i <= last
+				&& room > 0; i++) {
+			int rowIndex = theTable.convertRowIndexToModel(i);
+			if (selectionModel.isSelectedIndex(i) && !isRowLoaded(rowIndex)) {
+				int page = rowIndex / pageSize;
+				if (page != lastPage) {
+					missingPages.add(page);
+					lastPage = page;
+				}
+				room--;
+			}
+		}
+		if (!missingPages.isEmpty()) {
+			selectionLoader = new SelectionLoader(generation, missingPages,
+					filter, getSortKeys());
+			selectionLoader.execute();
+		}
+	}
+
+	private void rowCountLoaded(int count) {
+		rowCount = count;
+		restoringSelection = true;
+		try {
+			tableModel.fireTableDataChanged();
+		} finally {
+			restoringSelection = false;
+		}
+		// the table dropped the selection of the pages fetched so far
+		for (Map.Entry<Integer, List<T>> entry : pages.entrySet()) {
+			indexRowKeys(entry.getKey() * pageSize, entry.getValue());
+			restoreSelection(entry.getKey() * pageSize, entry.getValue());
+		}
+		updateVisiblePages();
+		selectionChanged();
+	}
+
+	private void selectionChanged() {
+		Object[] selected = getSelectedRows();
+		if (selected.length == 1) {
+			selectionMonitor.setValue(selected[0]);
+		} else {
+			selectionMonitor.setValue(selected.length > 0 ? selected : null);
+		}
+
+		int selectedIndex = theTable.getSelectionModel()
+				.getAnchorSelectionIndex();
+		int lastIndex = rowCount - 1;
+		boolean emptyList = (lastIndex == -1);
+		boolean onFirst = (selectedIndex == 0);
+		boolean onLast = (selectedIndex == lastIndex);
+
+		navigationCommands.get(NAVIGATE_FIRST).setEnabled(!emptyList && !onFirst);
+		navigationCommands.get(NAVIGATE_PREVIOUS).setEnabled(!emptyList && !onFirst);
+		navigationCommands.get(NAVIGATE_NEXT).setEnabled(!emptyList && !onLast);
+		navigationCommands.get(NAVIGATE_LAST).setEnabled(!emptyList && !onLast);
+
+		if (countLabel != null) {
+			setTextForListSummaryLabel(countLabel);
+		}
+	}
+
+	/**
+	 * Keeps the selected keys in line with the selection model.
+	 */
+	private class SelectionTracker implements ListSelectionListener {
+
+		public void valueChanged(ListSelectionEvent e) {
+			if (restoringSelection) {
+				return;
+			}
+			ListSelectionModel selectionModel = theTable.getSelectionModel();
+			if (selectionModel.isSelectionEmpty()) {
+				selectedRows.clear();
+				selectedKeys.clear();
+			} else {
+				int last = Math.min(e.getLastIndex(), theTable.getRowCount() - 1);
+				for (int i = Math.max(e.getFirstIndex(), 0); i <= last; i++) {
+					int rowIndex = theTable.convertRowIndexToModel(i);
+					boolean selected = selectionModel.isSelectedIndex(i);
+					T row = getLoadedRow(rowIndex);
+					if (row != null) {
+						Object key = dataSource.getRowKey(row);
+						if (selected) {
+							if (selectedRows.size() < maxSelectedRows
+									|| selectedRows.containsKey(key)) {
+								selectedRows.put(key, row);
+								selectedKeys.put(rowIndex, key);
+							}
+						} else {
+							selectedRows.remove(key);
+							selectedKeys.remove(rowIndex);
+						}
+					} else if (!selected) {
+						Object key = selectedKeys.remove(rowIndex);
+						if (key != null) {
+							selectedRows.remove(key);
+						}
+					}
+				}
+			}
+			if (!e.getValueIsAdjusting()) {
+				selectionChanged();
+				loadSelectedRows();
+			}
+		}
+	}
+
+	/**
+	 * Fetches one page of rows.
+	 */
+	private class PageLoader extends SwingWorker<List<T>, Object> {
+
+		private final int loaderGeneration;
+
+		private final int page;
+
+		private final Object loaderFilter;
+
+		private final List<? extends RowSorter.SortKey> loaderSortKeys;
+
+		PageLoader(int loaderGeneration, int page, Object loaderFilter,
+				List<? extends RowSorter.SortKey> loaderSortKeys) {
+			this.loaderGeneration = loaderGeneration;
+			this.page = page;
+			this.loaderFilter = loaderFilter;
+			this.loaderSortKeys = loaderSortKeys;
+		}
+
+		@Override
+		protected List<T> doInBackground() throws Exception {
+			// skip pages scrolled out of view while waiting for a thread
+			if (loaderGeneration != generation || !isPageWanted(page)) {
+				return null;
+			}
+			return dataSource.getRows(loaderFilter, loaderSortKeys, page
+					* pageSize, pageSize);
+		}
+
+		@Override
+		protected void done() {
+			if (loaderGeneration != generation) {
+				return;
+			}
+			loadingPages.remove(page);
+			try {
+				List<T> rows = get();
+				if (rows != null) {
+					pageLoaded(page, rows);
+				} else if (isPageWanted(page)) {
+					loadPage(page);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				// not kept, the page is fetched again when its rows are painted
+				logger.error("Could not fetch rows " + page * pageSize
+						+ " to " + ((page + 1) * pageSize - 1), e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Fetches the pages of selected rows that aren't in memory, one after the
+	 * other. Only the selected rows of these pages are kept, up to the maximum
+	 * number of selected rows.
+	 */
+	private class SelectionLoader extends SwingWorker<Object, PageRows> {
+
+		private final int loaderGeneration;
+
+		private final List<Integer> loaderPages;
+
+		private final Object loaderFilter;
+
+		private final List<? extends RowSorter.SortKey> loaderSortKeys;
+
+		SelectionLoader(int loaderGeneration, List<Integer> loaderPages,
+				Object loaderFilter, List<? extends RowSorter.SortKey> loaderSortKeys) {
+			this.loaderGeneration = loaderGeneration;
+			this.loaderPages = loaderPages;
+			this.loaderFilter = loaderFilter;
+			this.loaderSortKeys = loaderSortKeys;
+		}
+
+		private boolean isLatest() {
+			return selectionLoader == this && loaderGeneration == generation;
+		}
+
+		@Override
+		protected Object doInBackground() throws Exception {
+			for (Integer page : loaderPages) {
+				if (!isLatest()) {
+					break;
+				}
+				publish(new PageRows(page, dataSource.getRows(loaderFilter,
+						loaderSortKeys, page * pageSize, pageSize)));
+			}
+			return null;
+		}
+
+		@Override
+		protected void process(List<PageRows> chunks) {
+			if (!isLatest()) {
+				return;
+			}
+			boolean added = false;
+			for (PageRows chunk : chunks) {
+				added |= restoreSelection(chunk.page * pageSize, chunk.rows);
+			}
+			if (added) {
+				selectionChanged();
+			}
+		}
+
+		@Override
+		protected void done() {
+			try {
+				get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				logger.error("Could not fetch the selected rows", e.getCause());
+			}
+		}
+	}
+
+	private class PageRows {
+
+		private final int page;
+
+		private final List<T> rows;
+
+		PageRows(int page, List<T> rows) {
+			this.page = page;
+			this.rows = rows;
+		}
+	}
+
+	/**
+	 * Fetches the number of rows.
+	 */
+	private class RowCountLoader extends SwingWorker<Integer, Object> {
+
+		private final int loaderGeneration;
+
+		private final Object loaderFilter;
+
+		RowCountLoader(int loaderGeneration, Object loaderFilter) {
+			this.loaderGeneration = loaderGeneration;
+			this.loaderFilter = loaderFilter;
+		}
+
+		@Override
+		protected Integer doInBackground() throws Exception {
+			return dataSource.getRowCount(loaderFilter);
+		}
+
+		@Override
+		protected void done() {
+			if (loaderGeneration != generation) {
+				return;
+			}
+			try {
+				rowCountLoaded(get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				logger.error("Could not fetch the number of rows", e.getCause());
+				rowCountLoaded(0);
+			}
+		}
+	}
+
+	private class PagedTableModel extends AbstractTableModel {
+
+		public int getRowCount() {
+			return rowCount;
+		}
+
+		public int getColumnCount() {
+			return tableDescription.getColumnCount();
+		}
+
+		@Override
+		public String getColumnName(int columnIndex) {
+			return tableDescription.getHeader(columnIndex);
+		}
+
+		@Override
+		public Class<?> getColumnClass(int columnIndex) {
+			return tableDescription.getType(columnIndex);
+		}
+
+		public Object getValueAt(int rowIndex, int columnIndex) {
+			T row = getRow(rowIndex);
+			return row == null ? null : tableDescription.getValue(row,
+					columnIndex);
+		}
+
+		@Override
+		public boolean isCellEditable(int rowIndex, int columnIndex) {
+			return tableDescription.getColumnEditor(columnIndex) != null
+					&& isRowLoaded(rowIndex);
+		}
+
+		@Override
+		public void setValueAt(Object value, int rowIndex, int columnIndex) {
+			T row = getLoadedRow(rowIndex);
+			if (row != null) {
+				tableDescription.setValue(row, columnIndex, value);
+				fireTableCellUpdated(rowIndex, columnIndex);
+			}
+		}
+	}
+
+	/**
+	 * Shows a placeholder for the rows that are still being fetched.
+	 */
+	private class PagedTable extends JTable {
+
+		@Override
+		public Component prepareRenderer(TableCellRenderer renderer, int row,
+				int column) {
+			Component component = super.prepareRenderer(renderer, row, column);
+			if (component instanceof JLabel
+					&& !isRowLoaded(convertRowIndexToModel(row))) {
+				((JLabel) component).setText(column == 0 ? getLoadingText()
+						: "");
+			}
+			return component;
+		}
+	}
+
+	private String getLoadingText() {
+		if (loadingText == null) {
+			loadingText = getApplicationConfig().messageResolver().getMessage(
+					"pagedTableWidget", "loadingRow", "label");
+		}
+		return loadingText;
+	}
+
+	/**
+	 * Keeps the sort keys for the data source: the rows aren't sorted locally,
+	 * changing the keys fetches the rows again in the new order.
+	 */
+	private class DataSourceRowSorter extends RowSorter<TableModel> {
+
+		private List<? extends SortKey> sortKeys = Collections.emptyList();
+
+		public TableModel getModel() {
+			return tableModel;
+		}
+
+		public void toggleSortOrder(int column) {
+			List<SortKey> keys = new ArrayList<SortKey>(sortKeys);
+			SortOrder order = SortOrder.ASCENDING;
+			for (Iterator<SortKey> i = keys.iterator(); i.hasNext();) {
+				SortKey key = i.next();
+				if (key.getColumn() == column) {
+					i.remove();
+					if (key.getSortOrder() == SortOrder.ASCENDING) {
+						order = SortOrder.DESCENDING;
+					} else if (key.getSortOrder() == SortOrder.DESCENDING) {
+						order = SortOrder.UNSORTED;
+					}
+				}
+			}
+			if (order != SortOrder.UNSORTED) {
+				keys.add(0, new SortKey(column, order));
+			}
+			setSortKeys(keys.size() > MAX_SORT_KEYS ? keys.subList(0,
+					MAX_SORT_KEYS) : keys);
+		}
+
+		public void setSortKeys(List<? extends SortKey> keys) {
+			List<? extends SortKey> newKeys = keys == null ? Collections
+					.<SortKey> emptyList() : Collections
+					.unmodifiableList(new ArrayList<SortKey>(keys));
+			if (!newKeys.equals(sortKeys)) {
+				sortKeys = newKeys;
+				fireSortOrderChanged();
+				refresh();
+			}
+		}
+
+		public List<? extends SortKey> getSortKeys() {
+			return sortKeys;
+		}
+
+		public int convertRowIndexToModel(int index) {
+			return index;
+		}
+
+		public int convertRowIndexToView(int index) {
+			return index;
+		}
+
+		public int getViewRowCount() {
+			return rowCount;
+		}
+
+		public int getModelRowCount() {
+			return rowCount;
+		}
+
+		public void modelStructureChanged() {
+		}
+
+		public void allRowsChanged() {
+		}
+
+		public void rowsInserted(int firstRow, int endRow) {
+		}
+
+		public void rowsDeleted(int firstRow, int endRow) {
+		}
+
+		public void rowsUpdated(int firstRow, int endRow) {
+		}
+
+		public void rowsUpdated(int firstRow, int endRow, int column) {
+		}
+	}
+
+	/**
+	 * Shows the given rows instead of the rows of the data source, until the
+	 * rows are fetched again by {@link #refresh()}, {@link #setFilter(Object)}
+	 * or a change of the sort keys. The rows are kept in memory as given, they
+	 * aren't sorted. The selected rows stay selected if they are part of the
+	 * new rows.
+	 */
+	public void setRows(Collection<T> newRows) {
+		generation++;
+		pages.clear();
+		loadingPages.clear();
+		rowIndexByKey.clear();
+		selectionLoader = null;
+		selectedKeys.clear();
+		localRows = new ArrayList<T>(newRows);
+		rowCount = localRows.size();
+		indexRowKeys(0, localRows);
+		restoringSelection = true;
+		try {
+			tableModel.fireTableDataChanged();
+		} finally {
+			restoringSelection = false;
+		}
+		restoreSelection(0, localRows);
+		// all rows are known, the other selected rows are gone
+		selectedRows.keySet().retainAll(new HashSet<Object>(selectedKeys.values()));
+		updateVisiblePages();
+		selectionChanged();
+	}
+
+	/**
+	 * Returns the rows in memory, in the order of the table.
+	 */
+	public List<T> getRows() {
+		if (localRows != null) {
+			return new ArrayList<T>(localRows);
+		}
+		List<T> rows = new ArrayList<T>();
+		for (int i = 0; i < rowCount; i++) {
+			T row = getLoadedRow(i);
+			if (row != null) {
+				rows.add(row);
+			}
+		}
+		return rows;
+	}
+
+	/**
+	 * Returns the rows in memory, in the order of the table.
+	 */
+	public List<T> getVisibleRows() {
+		return getRows();
+	}
+
+	public int nrOfRows() {
+		return rowCount;
+	}
+
+	public boolean isEmpty() {
+		return rowCount == 0;
+	}
+
+	/**
+	 * Fetches the rows again, the data source is expected to contain the new
+	 * row. Adds the row to the rows set by {@link #setRows(Collection)}.
+	 */
+	public void addRowObject(T newObject) {
+		addRows(Collections.singletonList(newObject));
+	}
+
+	/**
+	 * Fetches the rows again, the data source is expected to contain the new
+	 * rows. Adds the rows to the rows set by {@link #setRows(Collection)}.
+	 */
+	public void addRows(Collection<T> rows) {
+		if (localRows != null) {
+			List<T> newRows = new ArrayList<T>(localRows);
+			newRows.addAll(rows);
+			setRows(newRows);
+		} else {
+			refresh();
+		}
+	}
+
+	/**
+	 * Fetches the rows again, the data source is expected to no longer contain
+	 * the row. Removes the row from the rows set by
+	 * {@link #setRows(Collection)}.
+	 */
+	public void removeRowObject(T objectToRemove) {
+		removeRows(Collections.singletonList(objectToRemove));
+	}
+
+	/**
+	 * Fetches the rows again, the data source is expected to no longer contain
+	 * the rows. Removes the rows from the rows set by
+	 * {@link #setRows(Collection)}.
+	 */
+	public void removeRows(Collection<T> rowsToRemove) {
+		for (T row : rowsToRemove) {
+			selectedRows.remove(dataSource.getRowKey(row));
+		}
+		if (localRows != null) {
+			setRows(getLocalRowsWithout(rowsToRemove));
+		} else {
+			refresh();
+		}
+	}
+
+	private List<T> getLocalRowsWithout(Collection<T> rowsToRemove) {
+		Set<Object> keys = new HashSet<Object>();
+		for (T row : rowsToRemove) {
+			keys.add(dataSource.getRowKey(row));
+		}
+		List<T> rows = new ArrayList<T>(localRows.size());
+		for (T row : localRows) {
+			if (!keys.contains(dataSource.getRowKey(row))) {
+				rows.add(row);
+			}
+		}
+		return rows;
+	}
+
+	/**
+	 * Replaces the row with the same key as the old object, if it is in
+	 * memory.
+	 */
+	public void replaceRowObject(T oldObject, T newObject,
+			Observer originatingObserver) {
+		Object key = dataSource.getRowKey(oldObject);
+		int rowIndex = indexOfKey(key);
+		if (rowIndex == -1) {
+			return;
+		}
+		if (localRows != null) {
+			localRows.set(rowIndex, newObject);
+		} else {
+			pages.get(rowIndex / pageSize).set(rowIndex % pageSize, newObject);
+		}
+		rowIndexByKey.remove(key);
+		rowIndexByKey.put(dataSource.getRowKey(newObject), rowIndex);
+		if (selectedRows.containsKey(key)) {
+			if (originatingObserver != null) {
+				selectionMonitor.deleteObserver(originatingObserver);
+			}
+			selectedRows.remove(key);
+			Object newKey = dataSource.getRowKey(newObject);
+			selectedRows.put(newKey, newObject);
+			selectedKeys.put(rowIndex, newKey);
+			selectionChanged();
+			if (originatingObserver != null) {
+				selectionMonitor.addObserver(originatingObserver);
+			}
+		}
+		tableModel.fireTableRowsUpdated(rowIndex, rowIndex);
+	}
+
+	/**
+	 * Replaces the rows with the same keys as the old objects that are in
+	 * memory.
+	 */
+	public void replaceRowObjects(List<T> oldObjects, List<T> newObjects,
+			Observer originatingObserver) {
+		for (int i = 0; i < oldObjects.size(); i++) {
+			replaceRowObject(oldObjects.get(i), newObjects.get(i),
+					originatingObserver);
+		}
+	}
+
+	/**
+	 * Fetches the rows again, the data source is expected to contain the new
+	 * rows. Replaces the rows set by {@link #setRows(Collection)}.
+	 */
+	public void replaceRows(Collection<T> oldObject, Collection<T> newObject) {
+		if (localRows != null) {
+			List<T> newRows = getLocalRowsWithout(oldObject);
+			newRows.addAll(newObject);
+			setRows(newRows);
+		} else {
+			refresh();
+		}
+	}
+
+	private int indexOfKey(Object key) {
+		Integer rowIndex = rowIndexByKey.get(key);
+		return rowIndex == null || rowIndex >= rowCount ? -1 : rowIndex;
+	}
+
+	/**
+	 * Selects the row with the same key as the given object. If the row isn't
+	 * in memory, it is selected once its page is fetched.
+	 *
+	 * @return the index of the row, -1 if it isn't in memory.
+	 */
+	public int selectRowObject(T toPointTo, Observer originatingObserver) {
+		Object key = dataSource.getRowKey(toPointTo);
+		int rowIndex = indexOfKey(key);
+		if (originatingObserver != null) {
+			selectionMonitor.deleteObserver(originatingObserver);
+		}
+		if (rowIndex != -1) {
+			int viewIndex = theTable.convertRowIndexToView(rowIndex);
+			theTable.getSelectionModel().setSelectionInterval(viewIndex,
+					viewIndex);
+		} else {
+			restoringSelection = true;
+			try {
+				theTable.getSelectionModel().clearSelection();
+			} finally {
+				restoringSelection = false;
+			}
+			selectedRows.clear();
+			selectedKeys.clear();
+			selectedRows.put(key, toPointTo);
+			selectionChanged();
+		}
+		if (originatingObserver != null) {
+			selectionMonitor.addObserver(originatingObserver);
+		}
+		return rowIndex;
+	}
+
+	public void selectRowObject(int index, Observer originatingObserver) {
+		if (originatingObserver != null) {
+			selectionMonitor.deleteObserver(originatingObserver);
+		}
+		if (index == -1) {
+			theTable.getSelectionModel().clearSelection();
+		} else {
+			theTable.getSelectionModel().setSelectionInterval(index, index);
+		}
+		if (originatingObserver != null) {
+			selectionMonitor.addObserver(originatingObserver);
+		}
+	}
+
+	public void addSelection(T[] rows, Observer originatingObserver) {
+		if (originatingObserver != null) {
+			selectionMonitor.deleteObserver(originatingObserver);
+		}
+		for (T row : rows) {
+			Object key = dataSource.getRowKey(row);
+			int rowIndex = indexOfKey(key);
+			if (rowIndex != -1) {
+				int viewIndex = theTable.convertRowIndexToView(rowIndex);
+				theTable.getSelectionModel().addSelectionInterval(viewIndex,
+						viewIndex);
+			} else {
+				selectedRows.put(key, row);
+			}
+		}
+		selectionChanged();
+		if (originatingObserver != null) {
+			selectionMonitor.addObserver(originatingObserver);
+		}
+	}
+
+	public void unSelectAll() {
+		theTable.getSelectionModel().clearSelection();
+		selectedRows.clear();
+		selectedKeys.clear();
+	}
+
+	public Object[] getSelectedRows() {
+		return selectedRows.values().toArray();
+	}
+
+	public boolean hasSelection() {
+		return !selectedRows.isEmpty()
+				|| !theTable.getSelectionModel().isSelectionEmpty();
+	}
+
+	public void scrollToSelectedRow() {
+		int selectedRow = theTable.getSelectedRow();
+		if (selectedRow != -1) {
+			theTable.scrollRectToVisible(theTable.getCellRect(selectedRow, 0,
+					true));
+		}
+	}
+
+	public void addSelectionObserver(Observer observer) {
+		this.selectionMonitor.addObserver(observer);
+	}
+
+	public void removeSelectionObserver(Observer observer) {
+		this.selectionMonitor.deleteObserver(observer);
+	}
+
+	public void addTableModelListener(TableModelListener listener) {
+		this.tableModel.addTableModelListener(listener);
+	}
+
+	public void removeTableModelListener(TableModelListener listener) {
+		this.tableModel.removeTableModelListener(listener);
+	}
+
+	/**
+	 * Fetches the rows again.
+	 */
+	public void updateTable() {
+		refresh();
+	}
+
+	private void initializeNavigationCommands() {
+		this.navigationCommands = Lists.newArrayList();
+		navigationCommands.add(new ActionCommand(NAVIGATE_FIRSTROW_CMDID) {
+			@Override
+			protected void doExecuteCommand() {
+				selectRowObject(0, null);
+				scrollToSelectedRow();
+			}
+		});
+		navigationCommands.add(new ActionCommand(NAVIGATE_PREVIOUSROW_CMDID) {
+
+			@Override
+			protected void doExecuteCommand() {
+				int newIndex = theTable.getSelectionModel()
+						.getAnchorSelectionIndex() - 1;
+				selectRowObject(newIndex < 0 ? 0 : newIndex, null);
+				scrollToSelectedRow();
+			}
+		});
+		navigationCommands.add(new ActionCommand(NAVIGATE_NEXTROW_CMDID) {
+
+			@Override
+			protected void doExecuteCommand() {
+				int newIndex = theTable.getSelectionModel()
+						.getAnchorSelectionIndex() + 1;
+				int lastIndex = rowCount - 1;
+				selectRowObject(newIndex > lastIndex ? lastIndex : newIndex,
+						null);
+				scrollToSelectedRow();
+			}
+		});
+		navigationCommands.add(new ActionCommand(NAVIGATE_LASTROW_CMDID) {
+
+			@Override
+			protected void doExecuteCommand() {
+				selectRowObject(rowCount - 1, null);
+				scrollToSelectedRow();
+			}
+		});
+
+		for (AbstractCommand navigationCommand : navigationCommands) {
+			this.getApplicationConfig().commandConfigurer().configure(
+					navigationCommand);
+			navigationCommand.setEnabled(false);
+		}
+		this.navigationCommandGroup = getApplicationConfig().commandManager()
+				.createCommandGroup(this.navigationCommands);
+	}
+
+	public List<AbstractCommand> getNavigationCommands() {
+		return navigationCommands;
+	}
+
+	public JComponent getNavigationButtonBar() {
+		return getNavigationButtonBar(Sizes.PREFERRED,
+				BorderFactory.createEmptyBorder());
+	}
+
+	public JComponent getNavigationButtonBar(Size size, Border border) {
+		return this.navigationCommandGroup.createButtonBar(size, border);
+	}
+
+	public CommandGroup getNavigationCommandGroup() {
+		return this.navigationCommandGroup;
+	}
+
+	/**
+	 * Not supported, returns <code>null</code>: select columns need all rows
+	 * in memory.
+	 */
+	public JComponent getSelectButtonBar() {
+		return null;
+	}
+
+	public JComponent getButtonBar() {
+		return getNavigationButtonBar();
+	}
+
+	public JTable getTable() {
+		return this.theTable;
+	}
+
+	public JComponent getComponent() {
+		return this.tableScroller;
+	}
+
+	/**
+	 * Returns <code>null</code>, filtering is done by the data source.
+	 *
+	 * @see #setFilter(Object)
+	 */
+	public JTextField getTextFilterField() {
+		return null;
+	}
+
+	public JLabel getListSummaryLabel() {
+		if (countLabel == null) {
+			countLabel = new JLabel("");
+			setTextForListSummaryLabel(countLabel);
+			tableModel.addTableModelListener(new TableModelListener() {
+				public void tableChanged(TableModelEvent e) {
+					if (e.getFirstRow() == TableModelEvent.HEADER_ROW
+							|| e.getLastRow() == Integer.MAX_VALUE) {
+						setTextForListSummaryLabel(countLabel);
+					}
+				}
+			});
+		}
+		return countLabel;
+	}
+
+	private void setTextForListSummaryLabel(JLabel label) {
+		int index = theTable.getSelectionModel().getLeadSelectionIndex() + 1;
+		label.setText(getApplicationConfig().messageResolver().getMessage(
+				"pagedTableWidget", "listSummary", "label",
+				new Object[] { index, selectedRows.size(), rowCount }));
+	}
+
+	@Override
+	public void onAboutToShow() {
+		super.onAboutToShow();
+		if (generation == 0) {
+			refresh();
+		}
+		this.theTable.requestFocusInWindow();
+	}
+
+	@Override
+	public String getId() {
+		return "pagedTableWidget";
+	}
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.binding.beans;
+
+import org.junit.Test;
+import org.valkyriercp.binding.support.ObjectPropertyAccessStrategy;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the property accessors generated for {@link FormBindable} classes.
+ */
+public class GeneratedPropertyAccessorsTests {
+
+    @Test
+    public void testGeneratedAccessors() {
+        GeneratedPropertyAccessors accessors = GeneratedPropertyAccessorsRegistry.getAccessors(Bindable.class);
+        assertNotNull(accessors);
+        assertSame(Bindable.class, accessors.getTargetClass());
+        assertEquals(int.class, accessors.getPropertyType("count"));
+        assertEquals(String.class, accessors.getPropertyType("name"));
+        assertTrue(accessors.isReadable("readOnly"));
+        assertFalse(accessors.isWritable("readOnly"));
+
+        Bindable bean = new Bindable();
+        accessors.setValue(bean, "count", new Integer(3));
+        accessors.setValue(bean, "name", "test");
+        assertEquals(new Integer(3), accessors.getValue(bean, "count"));
+        assertEquals("test", accessors.getValue(bean, "name"));
+        try {
+            accessors.setValue(bean, "count", null);
+            fail("null must not be assignable to a primitive property");
+        }
+        catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testNoGeneratedAccessors() {
+        assertNull(GeneratedPropertyAccessorsRegistry.getAccessors(String.class));
+        assertNull(GeneratedPropertyAccessorsRegistry.getAccessors(GeneratedPropertyAccessorsTests.class));
+    }
+
+    @Test
+    public void testAccessStrategyUsesGeneratedAccessors() {
+        Bindable bean = new Bindable();
+        ObjectPropertyAccessStrategy pas = new ObjectPropertyAccessStrategy(bean);
+        pas.getPropertyValueModel("name").setValue("test");
+        assertEquals("test", bean.getName());
+        assertEquals("test", pas.getPropertyValue("name"));
+        assertEquals("readOnly", pas.getPropertyValue("readOnly"));
+    }
+
+    @FormBindable
+    public static class Bindable {
+
+        private int count;
+
+        private String name;
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getReadOnly() {
+            return "readOnly";
+        }
+    }
+}
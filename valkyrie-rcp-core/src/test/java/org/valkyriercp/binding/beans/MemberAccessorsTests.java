@@ -0,0 +1,63 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.binding.beans;
+
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.Assert.*;
+
+public class MemberAccessorsTests {
+
+    @Test
+    public void testAccessorsCached() throws Exception {
+        Method getter = Failing.class.getMethod("getValue");
+        assertSame(MemberAccessors.getReflectiveAccessor(getter), MemberAccessors.getReflectiveAccessor(getter));
+        assertSame(MemberAccessors.getCompiledAccessor(getter), MemberAccessors.getCompiledAccessor(getter));
+    }
+
+    @Test
+    public void testUncheckedExceptionsPassedOn() throws Exception {
+        MemberAccessor accessor = MemberAccessors.getCompiledAccessor(Failing.class.getMethod("getValue"));
+        try {
+            accessor.getValue(new Failing());
+            fail();
+        }
+        catch (IllegalStateException e) {
+            // expected
+        }
+        accessor = MemberAccessors.getCompiledAccessor(Failing.class.getMethod("setValue", String.class));
+        try {
+            accessor.setValue(new Failing(), "value");
+            fail();
+        }
+        catch (AssertionError e) {
+            assertEquals("setter", e.getMessage());
+        }
+    }
+
+    public static class Failing {
+
+        public String getValue() {
+            throw new IllegalStateException();
+        }
+
+        public void setValue(String value) {
+            throw new AssertionError("setter");
+        }
+    }
+}
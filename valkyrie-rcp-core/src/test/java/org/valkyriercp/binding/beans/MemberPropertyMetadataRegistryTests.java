@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.binding.beans;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.valkyriercp.test.TestBean;
+
+import static org.junit.Assert.*;
+
+public class MemberPropertyMetadataRegistryTests {
+
+    @Before
+    public void setUp() {
+        MemberPropertyMetadataRegistry.invalidate(TestBean.class);
+        MemberPropertyMetadataRegistry.resetStatistics();
+    }
+
+    @Test
+    public void testMetadataCached() {
+        MemberPropertyMetadata metadata = MemberPropertyMetadataRegistry.getMetadata(TestBean.class, false);
+        assertSame(TestBean.class, metadata.getTargetClass());
+        assertSame(metadata, MemberPropertyMetadataRegistry.getMetadata(TestBean.class, false));
+        assertEquals(1, MemberPropertyMetadataRegistry.getMissCount());
+        assertEquals(1, MemberPropertyMetadataRegistry.getHitCount());
+    }
+
+    @Test
+    public void testFieldAccessCachedSeparately() {
+        MemberPropertyMetadata methods = MemberPropertyMetadataRegistry.getMetadata(TestBean.class, false);
+        MemberPropertyMetadata fields = MemberPropertyMetadataRegistry.getMetadata(TestBean.class, true);
+        assertNotSame(methods, fields);
+        assertTrue(fields.isFieldAccessEnabled());
+        assertEquals(2, MemberPropertyMetadataRegistry.getMissCount());
+        assertEquals(0, MemberPropertyMetadataRegistry.getHitCount());
+    }
+
+    @Test
+    public void testInvalidate() {
+        MemberPropertyMetadata metadata = MemberPropertyMetadataRegistry.getMetadata(TestBean.class, false);
+        MemberPropertyMetadataRegistry.invalidate(TestBean.class);
+        assertNotSame(metadata, MemberPropertyMetadataRegistry.getMetadata(TestBean.class, false));
+        assertEquals(2, MemberPropertyMetadataRegistry.getMissCount());
+    }
+
+    @Test
+    public void testResetStatistics() {
+        MemberPropertyMetadataRegistry.getMetadata(TestBean.class, false);
+        MemberPropertyMetadataRegistry.getMetadata(TestBean.class, false);
+        MemberPropertyMetadataRegistry.resetStatistics();
+        assertEquals(0, MemberPropertyMetadataRegistry.getMissCount());
+        assertEquals(0, MemberPropertyMetadataRegistry.getHitCount());
+        MemberPropertyMetadataRegistry.getMetadata(TestBean.class, false);
+        assertEquals(1, MemberPropertyMetadataRegistry.getHitCount());
+    }
+
+    @Test
+    public void testNullClass() {
+        assertSame(MemberPropertyMetadata.EMPTY, MemberPropertyMetadataRegistry.getMetadata(null, false));
+        assertEquals(0, MemberPropertyMetadataRegistry.getMissCount());
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.binding.beans;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PropertyPathTests {
+
+    @Test
+    public void testParsing() {
+        PropertyPath path = PropertyPath.valueOf("lines[3].product.code");
+        assertTrue(path.isNested());
+        assertEquals("lines[3]", path.getBasePropertyName());
+        assertEquals("product.code", path.getChildPropertyPath().getPath());
+        assertEquals("code", path.getPropertyName());
+        assertEquals("lines[3].product", path.getParentPath());
+
+        PropertyPath indexed = PropertyPath.valueOf("map[my.key][2]");
+        assertFalse(indexed.isNested());
+        assertTrue(indexed.isIndexed());
+        assertEquals("map", indexed.getRootPropertyName());
+        assertEquals("map[my.key]", indexed.getParentPropertyName());
+        assertArrayEquals(new String[] {"my.key", "2"}, indexed.getKeys());
+        assertEquals("[2]", indexed.getPropertyName());
+        assertEquals("map[my.key]", indexed.getParentPath());
+    }
+
+    @Test
+    public void testInterned() {
+        assertSame(PropertyPath.valueOf("a.b"), PropertyPath.valueOf("a.b"));
+        assertSame(PropertyPath.EMPTY, PropertyPath.valueOf(""));
+    }
+
+    @Test
+    public void testAppend() {
+        PropertyPath base = PropertyPath.valueOf("base");
+        assertSame(PropertyPath.valueOf("base.child"), base.append("child"));
+        assertSame(base.append("child"), base.append("child"));
+        assertSame(base, base.append(""));
+        assertSame(PropertyPath.valueOf("child"), PropertyPath.EMPTY.append("child"));
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        PropertyPath dropped = PropertyPath.valueOf("dropped");
+        for (int i = 0; i < PropertyPath.MAX_CACHE_SIZE; i++) {
+            PropertyPath.valueOf("filler" + i);
+            assertTrue(PropertyPath.getCacheSize() <= PropertyPath.MAX_CACHE_SIZE);
+        }
+        PropertyPath parsedAgain = PropertyPath.valueOf("dropped");
+        assertNotSame(dropped, parsedAgain);
+        assertEquals(dropped, parsedAgain);
+        assertSame(parsedAgain, PropertyPath.valueOf("dropped"));
+    }
+
+    @Test
+    public void testLastSeparatorIndex() {
+        assertEquals(-1, PropertyPath.valueOf("simple").getLastSeparatorIndex());
+        assertEquals(7, PropertyPath.valueOf("product.code").getLastSeparatorIndex());
+        assertEquals(3, PropertyPath.valueOf("map[my.key]").getLastSeparatorIndex());
+    }
+}
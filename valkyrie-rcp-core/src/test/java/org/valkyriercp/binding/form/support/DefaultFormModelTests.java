@@ -29,15 +29,26 @@ import org.valkyriercp.binding.validation.ValidationResultsModel;
 import org.valkyriercp.binding.validation.Validator;
 import org.valkyriercp.binding.validation.support.DefaultValidationMessage;
 import org.valkyriercp.binding.validation.support.DefaultValidationResults;
+import org.valkyriercp.binding.validation.support.RulesValidator;
 import org.valkyriercp.binding.value.ValueModel;
 import org.valkyriercp.binding.value.support.ValueHolder;
 import org.valkyriercp.core.Severity;
+import org.valkyriercp.rules.Rules;
+import org.valkyriercp.rules.constraint.Constraints;
+import org.valkyriercp.rules.support.DefaultRulesSource;
 import org.valkyriercp.test.TestBean;
 import org.valkyriercp.test.TestPropertyChangeListener;
 
+import javax.swing.SwingUtilities;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -86,6 +97,104 @@ public class DefaultFormModelTests extends AbstractFormModelTests {
         assertEquals(expectedCount++, v.count);
     }
 
+    @Test
+    public void testBatchedUpdatesCoalesceDerivedState() {
+        final DefaultFormModel fm = (DefaultFormModel) getFormModel(new TestBean());
+        TestValidator v = new TestValidator();
+        fm.setValidator(v);
+        final ValueModel simple = fm.getValueModel("simpleProperty");
+        final ValueModel select = fm.getValueModel("singleSelectListProperty");
+        TestPropertyChangeListener dirtyListener = new TestPropertyChangeListener(FormModel.DIRTY_PROPERTY);
+        fm.addPropertyChangeListener(FormModel.DIRTY_PROPERTY, dirtyListener);
+
+        // unbatched: every change validates, dirty toggles twice
+        int count = v.count;
+        for (int i = 0; i < 100; i++) {
+            simple.setValue("value" + i);
+            select.setValue("select" + i);
+        }
+        simple.setValue(null);
+        select.setValue(null);
+        assertEquals(count + 202, v.count);
+        assertEquals(2, dirtyListener.eventCount());
+        assertFalse(fm.isDirty());
+
+        // batched: values are applied, derived state is recomputed once
+        dirtyListener.reset();
+        count = v.count;
+        fm.runBatched(new Runnable() {
+            public void run() {
+                for (int i = 0; i < 100; i++) {
+                    simple.setValue("value" + i);
+                    select.setValue("select" + i);
+                    assertEquals("value" + i, simple.getValue());
+                }
+                simple.setValue(null);
+                select.setValue(null);
+                assertTrue(fm.isBatching());
+            }
+        });
+        assertFalse(fm.isBatching());
+        assertEquals(count + 1, v.count);
+        assertEquals(0, dirtyListener.eventCount());
+
+        // nested batches only recompute when the outermost batch ends
+        fm.beginBatch();
+        fm.beginBatch();
+        simple.setValue("changed");
+        fm.endBatch();
+        assertEquals(0, dirtyListener.eventCount());
+        fm.endBatch();
+        assertEquals(1, dirtyListener.eventCount());
+        assertTrue(fm.isDirty());
+        assertEquals(count + 2, v.count);
+    }
+
+    @Test
+    public void testNotCommittableWhileAsynchronousValidationIsPending() {
+        DefaultFormModel fm = (DefaultFormModel) getFormModel(new TestBean());
+        TestValidator v = new TestValidator();
+        fm.setValidator(v);
+        fm.setAsynchronousValidation(true);
+        fm.setValidationDelay(60000);
+        TestPropertyChangeListener committableListener = new TestPropertyChangeListener(
+                FormModel.COMMITTABLE_PROPERTY);
+        fm.addPropertyChangeListener(FormModel.COMMITTABLE_PROPERTY, committableListener);
+        ValueModel vm = fm.getValueModel("simpleProperty");
+        int count = v.count;
+        assertTrue(fm.isCommittable());
+
+        vm.setValue("1");
+        vm.setValue("2");
+        assertEquals(count, v.count);
+        assertTrue(fm.hasPendingValidation());
+        committableListener.assertLastEvent(1, true, false);
+
+        // isCommittable doesn't validate
+        assertFalse(fm.isCommittable());
+        assertEquals(count, v.count);
+        assertTrue(fm.hasPendingValidation());
+
+        fm.flushPendingValidation();
+        assertEquals(count + 1, v.count);
+        assertFalse(fm.hasPendingValidation());
+        assertTrue(fm.isCommittable());
+        committableListener.assertLastEvent(2, false, true);
+
+        v.results = getValidationResults("message1");
+        vm.setValue("3");
+        fm.setAsynchronousValidation(false);
+        assertEquals(count + 2, v.count);
+        assertFalse(fm.hasPendingValidation());
+        assertFalse(fm.isCommittable());
+        assertEquals(1, fm.getValidationResults().getMessageCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testEndBatchWithoutBegin() {
+        getFormModel(new TestBean()).endBatch();
+    }
+
     @Test
     public void testValidationMessages() {
     	DefaultFormModel fm = (DefaultFormModel) getFormModel(new TestBean());
@@ -278,6 +387,105 @@ public class DefaultFormModelTests extends AbstractFormModelTests {
         assertEquals(testBean, model.getFormObject());
     }
 
+    @Test
+    public void testPendingAsynchronousValidation() throws Exception {
+        Constraints c = Constraints.instance();
+        Rules rules = new Rules(TestBean.class);
+        rules.add(c.required("simpleProperty"));
+        final DefaultFormModel fm = new DefaultFormModel(new TestBean(), false);
+        fm.setValidator(new RulesValidator(fm, DefaultRulesSource.create(rules)));
+        final ValueModel vm = fm.getValueModel("simpleProperty");
+        assertTrue(fm.getHasErrors());
+        CapturingExecutor executor = new CapturingExecutor();
+        fm.setValidationExecutor(executor);
+        fm.setValidationDelay(Integer.MAX_VALUE);
+        fm.setAsynchronousValidation(true);
+        assertFalse(fm.hasPendingValidation());
+
+        // isCommittable does not validate, commit does
+        onEdt(new Runnable() {
+            public void run() {
+                vm.setValue("a");
+            }
+        });
+        assertTrue(fm.hasPendingValidation());
+        assertFalse(fm.isCommittable());
+        assertTrue(fm.hasPendingValidation());
+        assertTrue(fm.getHasErrors());
+        fm.commit();
+        assertFalse(fm.hasPendingValidation());
+        assertFalse(fm.getHasErrors());
+
+        // a running validation is pending until its results are published
+        fm.setValidationDelay(0);
+        onEdt(new Runnable() {
+            public void run() {
+                vm.setValue(null);
+            }
+        });
+        Runnable validation = executor.await();
+        assertTrue(fm.hasPendingValidation());
+        assertFalse(fm.getHasErrors());
+        validation.run();
+        onEdt(new Runnable() {
+            public void run() {
+            }
+        });
+        assertFalse(fm.hasPendingValidation());
+        assertTrue(fm.getHasErrors());
+
+        // results of a validation outdated by a flush are discarded
+        onEdt(new Runnable() {
+            public void run() {
+                vm.setValue("b");
+            }
+        });
+        validation = executor.await();
+        onEdt(new Runnable() {
+            public void run() {
+                fm.setValidationDelay(Integer.MAX_VALUE);
+                vm.setValue(null);
+                assertTrue(fm.hasPendingValidation());
+                fm.flushPendingValidation();
+            }
+        });
+        assertFalse(fm.hasPendingValidation());
+        assertTrue(fm.getHasErrors());
+        // validates the snapshot taken before the flush, "b" is valid
+        validation.run();
+        onEdt(new Runnable() {
+            public void run() {
+            }
+        });
+        assertFalse(fm.hasPendingValidation());
+        assertTrue(fm.getHasErrors());
+    }
+
+    @Test
+    public void testSnapshotValidationOnlyChangesResultsWhenApplied() {
+        Constraints c = Constraints.instance();
+        Rules rules = new Rules(TestBean.class);
+        rules.add(c.eqProperty("simpleProperty", "readOnly"));
+        DefaultFormModel fm = new DefaultFormModel(new TestBean(), false);
+        RulesValidator validator = new RulesValidator(fm, DefaultRulesSource.create(rules));
+        fm.setValidator(validator);
+        fm.setValidating(false);
+        fm.getValueModel("simpleProperty").setValue("a");
+        FormModelSnapshot snapshot = new FormModelSnapshot(fm);
+        assertFalse(snapshot.getFieldNames().contains("readOnly"));
+
+        // the rule reads a property without a value model, it is checked when applied
+        RulesValidator.PendingResults pendingResults = validator.validate(fm.getFormObject(), "simpleProperty",
+                snapshot);
+        assertEquals(0, validator.validate(fm.getFormObject(), "numberProperty").getMessageCount());
+        assertEquals(1, validator.apply(pendingResults).getMessageCount());
+        assertEquals(1, validator.validate(fm.getFormObject(), "numberProperty").getMessageCount());
+    }
+
+    private void onEdt(Runnable runnable) throws Exception {
+        SwingUtilities.invokeAndWait(runnable);
+    }
+
     private DefaultValidationResults getValidationResults(String message) {
         DefaultValidationResults res = new DefaultValidationResults();
         res.addMessage("simpleProperty", Severity.ERROR, message);
@@ -289,6 +497,21 @@ public class DefaultFormModelTests extends AbstractFormModelTests {
                 .contains(new DefaultValidationMessage("simpleProperty", Severity.ERROR, message)));
     }
 
+    private static class CapturingExecutor implements Executor {
+
+        private final BlockingQueue tasks = new LinkedBlockingQueue();
+
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        public Runnable await() throws InterruptedException {
+            Runnable task = (Runnable) tasks.poll(10, TimeUnit.SECONDS);
+            assertNotNull("no validation started", task);
+            return task;
+        }
+    }
+
     public static class TestValidator implements Validator {
 
         public ValidationResults results = new DefaultValidationResults();
@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.binding.form.support;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.valkyriercp.TestApplicationConfig;
+import org.valkyriercp.binding.validation.support.RulesValidator;
+import org.valkyriercp.binding.value.ValueModel;
+import org.valkyriercp.rules.Rules;
+import org.valkyriercp.rules.constraint.Constraints;
+import org.valkyriercp.rules.support.DefaultRulesSource;
+import org.valkyriercp.test.TestBean;
+
+/**
+ * Compares updating several properties of a validated form model one by one
+ * with updating them in a {@link AbstractFormModel#runBatched(Runnable)
+ * batch}, which validates and recomputes the derived state once. Run as a
+ * plain Java application.
+ */
+public class FormModelBatchBenchmark {
+
+    private static final int UPDATES = 1000;
+
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+                TestApplicationConfig.class);
+        try {
+            Constraints c = Constraints.instance();
+            Rules rules = new Rules(TestBean.class);
+            rules.add(c.required("simpleProperty"));
+            rules.add("simpleProperty", c.maxLength(20));
+            rules.add(c.required("numberProperty"));
+            rules.add("numberProperty", c.range(0, UPDATES));
+            rules.add(c.or(c.required("singleSelectListProperty"), c.required("simpleProperty")));
+            DefaultFormModel formModel = new DefaultFormModel(new TestBean(), false);
+            formModel.setValidator(new RulesValidator(formModel, DefaultRulesSource.create(rules)));
+            ValueModel[] valueModels = {formModel.getValueModel("simpleProperty"),
+                    formModel.getValueModel("numberProperty"), formModel.getValueModel("singleSelectListProperty")};
+
+            for (int round = 0; round < ROUNDS; round++) {
+                long unbatchedTime = time(formModel, valueModels, false);
+                long batchedTime = time(formModel, valueModels, true);
+                System.out.println("round " + round + ": unbatched " + unbatchedTime / 1000 + "us, batched "
+                        + batchedTime / 1000 + "us");
+            }
+        }
+        finally {
+            context.close();
+        }
+    }
+
+    private static long time(DefaultFormModel formModel, final ValueModel[] valueModels, boolean batched) {
+        Runnable updates = new Runnable() {
+            public void run() {
+                for (int i = 0; i < UPDATES; i++) {
+                    valueModels[0].setValue("value " + i);
+                    valueModels[1].setValue(new Integer(i));
+                    valueModels[2].setValue("select " + i);
+                }
+            }
+        };
+        long start = System.nanoTime();
+        if (batched) {
+            formModel.runBatched(updates);
+        }
+        else {
+            updates.run();
+        }
+        if (formModel.getHasErrors()) {
+            throw new IllegalStateException();
+        }
+        return System.nanoTime() - start;
+    }
+}
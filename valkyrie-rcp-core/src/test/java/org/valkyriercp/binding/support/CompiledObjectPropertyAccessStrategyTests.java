@@ -0,0 +1,29 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.binding.support;
+
+/**
+ * Runs the property access tests against an {@link ObjectPropertyAccessStrategy}
+ * that uses compiled member access.
+ */
+public class CompiledObjectPropertyAccessStrategyTests extends AbstractPropertyAccessStrategyTests {
+
+	protected AbstractPropertyAccessStrategy createPropertyAccessStrategy(Object target) {
+		ObjectPropertyAccessStrategy strategy = new ObjectPropertyAccessStrategy(target);
+		strategy.setCompiledAccessEnabled(true);
+		return strategy;
+	}
+}
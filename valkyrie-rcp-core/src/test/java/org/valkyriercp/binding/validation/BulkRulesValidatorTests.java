@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.binding.validation;
+
+import org.junit.Test;
+import org.valkyriercp.binding.validation.support.BulkRulesValidator;
+import org.valkyriercp.rules.Rules;
+import org.valkyriercp.rules.constraint.Constraint;
+import org.valkyriercp.rules.constraint.Constraints;
+import org.valkyriercp.rules.reporting.MessageTranslator;
+import org.valkyriercp.rules.reporting.PropertyResults;
+import org.valkyriercp.rules.support.DefaultRulesSource;
+import org.valkyriercp.test.TestBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class BulkRulesValidatorTests {
+
+    private final AtomicInteger translations = new AtomicInteger();
+
+    @Test
+    public void testValidatesAllObjectsInParallel() {
+        Constraints c = Constraints.instance();
+        Rules rules = new Rules(TestBean.class);
+        rules.add("simpleProperty", c.all(new Constraint[] {c.required(), c.maxLength(3)}));
+
+        final List beans = new ArrayList();
+        for (int i = 0; i < 1000; i++) {
+            TestBean bean = new TestBean();
+            bean.setSimpleProperty(i % 3 == 0 ? null : (i % 3 == 1 ? "ok" : "too long"));
+            beans.add(bean);
+        }
+
+        BulkRulesValidator validator = new BulkRulesValidator(DefaultRulesSource.create(rules),
+                new CountingMessageTranslator());
+        validator.setForkJoinPool(new ForkJoinPool(4));
+        validator.setChunkSize(10);
+        final AtomicReferenceArray validated = new AtomicReferenceArray(beans.size());
+        int invalidCount = validator.validate(beans, TestBean.class, null, new BulkValidationCallback() {
+
+            public void objectValidated(int index, Object object, ValidationResults results) {
+                assertEquals(beans.get(index), object);
+                assertEquals(null, validated.getAndSet(index, results));
+            }
+        });
+
+        assertEquals(667, invalidCount);
+        for (int i = 0; i < beans.size(); i++) {
+            ValidationResults results = (ValidationResults) validated.get(i);
+            assertNotNull(results);
+            assertEquals(i % 3 == 1 ? 0 : 1, results.getMessageCount("simpleProperty"));
+        }
+        // one translation for the missing value, one for the long value
+        assertEquals(2, translations.get());
+    }
+
+    private class CountingMessageTranslator implements MessageTranslator {
+
+        public String getMessage(Constraint constraint) {
+            return translate(constraint);
+        }
+
+        public String getMessage(String objectName, Constraint constraint) {
+            return translate(constraint);
+        }
+
+        public String getMessage(String objectName, Object rejectedValue, Constraint constraint) {
+            return translate(constraint);
+        }
+
+        public String getMessage(String objectName, org.valkyriercp.rules.reporting.ValidationResults results) {
+            return translate(results.getViolatedConstraint());
+        }
+
+        public String getMessage(PropertyResults results) {
+            return translate(results.getViolatedConstraint());
+        }
+
+        private String translate(Constraint constraint) {
+            translations.incrementAndGet();
+            return String.valueOf(constraint);
+        }
+    }
+}
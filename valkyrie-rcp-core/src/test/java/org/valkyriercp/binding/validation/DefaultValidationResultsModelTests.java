@@ -129,25 +129,31 @@ public class DefaultValidationResultsModelTests extends AbstractValkyrieTest {
         assertEquals(vrm, field1Listener.lastResults());
         assertEquals(null, nullListener.lastResults());
 
+        // field1 messages are unchanged, only the global listener is notified
         vrm.updateValidationResults(getResults("field1", Severity.INFO, ValidationMessage.GLOBAL_PROPERTY, Severity.ERROR));
         assertEquals(2, listener.eventCount());
-        assertEquals(2, field1Listener.eventCount());
+        assertEquals(1, field1Listener.eventCount());
         assertEquals(1, nullListener.eventCount());
         assertEquals(vrm, nullListener.lastResults());
 
         vrm.clearAllValidationResults();
         assertEquals(3, listener.eventCount());
-        assertEquals(3, field1Listener.eventCount());
+        assertEquals(2, field1Listener.eventCount());
         assertEquals(2, nullListener.eventCount());
 
         vrm.clearAllValidationResults();
         assertEquals(3, listener.eventCount());
-        assertEquals(3, field1Listener.eventCount());
+        assertEquals(2, field1Listener.eventCount());
         assertEquals(2, nullListener.eventCount());
 
         vrm.updateValidationResults(getResults(ValidationMessage.GLOBAL_PROPERTY, Severity.INFO));
         assertEquals(4, listener.eventCount());
-        assertEquals(3, field1Listener.eventCount());
+        assertEquals(2, field1Listener.eventCount());
+        assertEquals(3, nullListener.eventCount());
+
+        // equal results cause no events at all
+        vrm.updateValidationResults(getResults(ValidationMessage.GLOBAL_PROPERTY, Severity.INFO));
+        assertEquals(4, listener.eventCount());
         assertEquals(3, nullListener.eventCount());
     }
 
@@ -214,6 +220,42 @@ public class DefaultValidationResultsModelTests extends AbstractValkyrieTest {
     	assertEquals("Child removed, revalidate InfoMessages.", Boolean.FALSE, infoListener.lastEvent().getNewValue());
     }
 
+    @Test
+    public void testAggregateStateFollowsNestedChildren() {
+    	DefaultValidationResultsModel childModel1 = new DefaultValidationResultsModel();
+    	DefaultValidationResultsModel childModel2 = new DefaultValidationResultsModel();
+    	DefaultValidationResultsModel grandChildModel = new DefaultValidationResultsModel();
+    	childModel1.add(grandChildModel);
+    	vrm.add(childModel1);
+    	vrm.add(childModel2);
+
+    	ValidationMessage grandChildError = new DefaultValidationMessage("property1", Severity.ERROR, "error1");
+    	ValidationMessage childError = new DefaultValidationMessage("property2", Severity.ERROR, "error2");
+    	grandChildModel.addMessage(grandChildError);
+    	childModel2.addMessage(childError);
+    	assertEquals(true, vrm.getHasErrors());
+    	assertEquals(2, vrm.getMessageCount());
+    	assertEquals(2, vrm.getMessageCount(Severity.ERROR));
+    	assertEquals(1, errorsListener.eventCount());
+
+    	grandChildModel.removeMessage(grandChildError);
+    	assertEquals(true, vrm.getHasErrors());
+    	assertEquals(1, vrm.getMessageCount());
+    	assertEquals(1, vrm.getMessageCount(Severity.ERROR));
+
+    	childModel2.removeMessage(childError);
+    	assertEquals(false, vrm.getHasErrors());
+    	assertEquals(0, vrm.getMessageCount());
+    	assertEquals(0, vrm.getMessageCount(Severity.ERROR));
+    	assertEquals(2, errorsListener.eventCount());
+
+    	grandChildModel.addMessage(grandChildError);
+    	vrm.remove(childModel1);
+    	assertEquals(false, vrm.getHasErrors());
+    	assertEquals(0, vrm.getMessageCount());
+    	assertEquals(4, errorsListener.eventCount());
+    }
+
     private ValidationResults getResults(String field, Severity severity) {
         DefaultValidationResults vr = new DefaultValidationResults();
         vr.addMessage(field, severity, "");
@@ -130,6 +130,32 @@ public class DefaultValidationResultsTests extends AbstractValkyrieTest {
         assertEquals(1, vr.getMessageCount("field2"));
     }
 
+    @Test
+    public void testIndexesFollowRemovals() {
+        ValidationMessage error1 = new DefaultValidationMessage("field1", Severity.ERROR, "error");
+        ValidationMessage info1 = new DefaultValidationMessage("field1", Severity.INFO, "info");
+        ValidationMessage error2 = new DefaultValidationMessage("field2", Severity.ERROR, "error");
+        vr.addMessage(error1);
+        vr.addMessage(info1);
+        vr.addMessage(error2);
+
+        vr.removeMessage(error2);
+        assertEquals(0, vr.getMessageCount("field2"));
+        assertEquals(1, vr.getMessageCount(Severity.ERROR));
+        assertFalse(vr.getPropertiesWithMessages().contains("field2"));
+
+        vr.clearMessages("field1");
+        assertEquals(0, vr.getMessageCount());
+        assertEquals(0, vr.getMessageCount(Severity.ERROR));
+        assertEquals(0, vr.getMessageCount(Severity.INFO));
+        assertEquals(false, vr.getHasErrors());
+        assertTrue(vr.getPropertiesWithMessages().isEmpty());
+
+        vr.addMessage(error2);
+        assertEquals(1, vr.getMessageCount(Severity.ERROR));
+        assertContainsMessage(error2, vr.getMessages("field2"));
+    }
+
     private void assertContainsMessage(ValidationMessage vm, Set messages) {
         assertTrue("Set of messages does not contain expected message '" + vm + "'", messages.contains(vm));
     }
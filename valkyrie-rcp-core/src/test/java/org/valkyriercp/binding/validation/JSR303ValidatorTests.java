@@ -0,0 +1,187 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.binding.validation;
+
+import org.junit.Test;
+import org.valkyriercp.AbstractValkyrieTest;
+import org.valkyriercp.binding.form.support.DefaultFormModel;
+import org.valkyriercp.binding.validation.support.JSR303Validator;
+import org.valkyriercp.binding.value.ValueModel;
+import org.valkyriercp.test.TestBean;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Path;
+import javax.validation.Validator;
+import javax.validation.metadata.BeanDescriptor;
+import javax.validation.metadata.PropertyDescriptor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for @link JSR303Validator, using a stub bean validator that requires
+ * <code>simpleProperty</code>.
+ */
+public class JSR303ValidatorTests extends AbstractValkyrieTest {
+
+    private int validatedValues;
+
+    @Test
+    public void testValidateObjectUsesDoValidate() {
+        DefaultFormModel fm = new DefaultFormModel(new TestBean(), false);
+        final int[] objectValidations = new int[1];
+        JSR303Validator<TestBean> validator = new JSR303Validator<TestBean>(fm, TestBean.class,
+                new HashSet<String>(), createRequiredValidator()) {
+
+            protected Set<ConstraintViolation<TestBean>> doValidate(TestBean object, String property) {
+                if (property == null) {
+                    objectValidations[0]++;
+                }
+                return super.doValidate(object, property);
+            }
+        };
+        fm.setValidator(validator);
+        fm.getValueModel("simpleProperty");
+        objectValidations[0] = 0;
+
+        ValidationResults results = validator.validate((TestBean) fm.getFormObject());
+        assertEquals(1, objectValidations[0]);
+        assertEquals(1, results.getMessageCount("simpleProperty"));
+    }
+
+    @Test
+    public void testUnchangedValueIsNotValidatedAgain() {
+        DefaultFormModel fm = new DefaultFormModel(new TestBean(), false);
+        fm.setValidator(new JSR303Validator<TestBean>(fm, TestBean.class, new HashSet<String>(),
+                createRequiredValidator()));
+        ValueModel vm = fm.getValueModel("simpleProperty");
+        JSR303Validator<TestBean> validator = (JSR303Validator<TestBean>) fm.getValidator();
+        TestBean bean = (TestBean) fm.getFormObject();
+        validatedValues = 0;
+
+        assertEquals(1, validator.validate(bean, "simpleProperty").getMessageCount("simpleProperty"));
+        assertEquals(1, validator.validate(bean, "simpleProperty").getMessageCount("simpleProperty"));
+        assertEquals(0, validatedValues);
+
+        vm.setValue("value");
+        assertEquals(1, validatedValues);
+        assertEquals(0, validator.validate(bean, "simpleProperty").getMessageCount("simpleProperty"));
+        assertEquals(1, validatedValues);
+        assertEquals(0, fm.getValidationResults().getMessageCount("simpleProperty"));
+
+        // whole object validations always validate
+        validator.validate(bean);
+        assertEquals(2, validatedValues);
+    }
+
+    @Test
+    public void testLocaleChangeValidatesAgain() {
+        Locale locale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.ENGLISH);
+            DefaultFormModel fm = new DefaultFormModel(new TestBean(), false);
+            fm.setValidator(new JSR303Validator<TestBean>(fm, TestBean.class, new HashSet<String>(),
+                    createRequiredValidator()));
+            fm.getValueModel("simpleProperty");
+            JSR303Validator<TestBean> validator = (JSR303Validator<TestBean>) fm.getValidator();
+            TestBean bean = (TestBean) fm.getFormObject();
+            validatedValues = 0;
+
+            validator.validate(bean, "simpleProperty");
+            assertEquals(0, validatedValues);
+            Locale.setDefault(Locale.FRENCH);
+            validator.validate(bean, "simpleProperty");
+            assertEquals(1, validatedValues);
+            validator.validate(bean, "simpleProperty");
+            assertEquals(1, validatedValues);
+        }
+        finally {
+            Locale.setDefault(locale);
+        }
+    }
+
+    private Validator createRequiredValidator() {
+        return (Validator) proxy(Validator.class, new InvocationHandler() {
+
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("getConstraintsForClass")) {
+                    return proxy(BeanDescriptor.class, new Answer("getConstrainedProperties", Collections
+                            .singleton(proxy(PropertyDescriptor.class, new Answer("getPropertyName",
+                                    "simpleProperty")))));
+                }
+                if (method.getName().equals("validateValue")) {
+                    validatedValues++;
+                    if (args[2] == null) {
+                        return Collections.singleton(createViolation((String) args[1]));
+                    }
+                    return Collections.emptySet();
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private ConstraintViolation createViolation(final String propertyName) {
+        final Path path = (Path) proxy(Path.class, new Answer("toString", propertyName));
+        return (ConstraintViolation) proxy(ConstraintViolation.class, new InvocationHandler() {
+
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("getPropertyPath")) {
+                    return path;
+                }
+                if (method.getName().equals("getMessage")) {
+                    return "may not be null";
+                }
+                if (method.getName().equals("hashCode")) {
+                    return System.identityHashCode(proxy);
+                }
+                if (method.getName().equals("equals")) {
+                    return proxy == args[0];
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private static Object proxy(Class type, InvocationHandler handler) {
+        return Proxy.newProxyInstance(JSR303ValidatorTests.class.getClassLoader(), new Class[] {type}, handler);
+    }
+
+    private static class Answer implements InvocationHandler {
+
+        private final String methodName;
+
+        private final Object answer;
+
+        Answer(String methodName, Object answer) {
+            this.methodName = methodName;
+            this.answer = answer;
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            if (method.getName().equals(methodName)) {
+                return answer;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        }
+    }
+}
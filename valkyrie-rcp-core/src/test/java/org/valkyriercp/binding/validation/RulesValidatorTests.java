@@ -0,0 +1,77 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.binding.validation;
+
+import org.junit.Test;
+import org.valkyriercp.AbstractValkyrieTest;
+import org.valkyriercp.binding.form.support.DefaultFormModel;
+import org.valkyriercp.binding.validation.support.RulesValidator;
+import org.valkyriercp.binding.value.ValueModel;
+import org.valkyriercp.rules.Rules;
+import org.valkyriercp.rules.constraint.Constraints;
+import org.valkyriercp.rules.constraint.property.PropertyConstraint;
+import org.valkyriercp.rules.support.DefaultRulesSource;
+import org.valkyriercp.test.TestBean;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for @link RulesValidator
+ */
+public class RulesValidatorTests extends AbstractValkyrieTest {
+
+    @Test
+    public void testPropertyChangeRevalidatesDependentConstraints() {
+        Constraints c = Constraints.instance();
+        Rules rules = new Rules(TestBean.class);
+        PropertyConstraint equal = c.eqProperty("simpleProperty", "singleSelectListProperty");
+        rules.add(equal);
+        rules.add(c.required("dateProperty"));
+
+        List dependents = rules.getDependentConstraints("singleSelectListProperty");
+        assertEquals(1, dependents.size());
+        assertTrue(dependents.contains(equal));
+        assertFalse(rules.getDependentConstraints("dateProperty").contains(equal));
+
+        DefaultFormModel fm = new DefaultFormModel(new TestBean(), false);
+        fm.setValidator(new RulesValidator(fm, DefaultRulesSource.create(rules)));
+        fm.getValueModel("dateProperty");
+        ValueModel simple = fm.getValueModel("simpleProperty");
+        ValueModel other = fm.getValueModel("singleSelectListProperty");
+        ValidationResultsModel results = fm.getValidationResults();
+        assertEquals(0, results.getMessageCount("simpleProperty"));
+        assertEquals(1, results.getMessageCount("dateProperty"));
+
+        // the violation is reported on simpleProperty ...
+        simple.setValue("a");
+        assertEquals(1, results.getMessageCount("simpleProperty"));
+
+        // ... and disappears when only the other property changes
+        other.setValue("a");
+        assertEquals(0, results.getMessageCount("simpleProperty"));
+
+        other.setValue("b");
+        assertEquals(1, results.getMessageCount("simpleProperty"));
+        assertEquals(0, results.getMessageCount("singleSelectListProperty"));
+
+        // unrelated results are kept while validating single properties
+        assertEquals(1, results.getMessageCount("dateProperty"));
+    }
+}
@@ -0,0 +1,190 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.core.support;
+
+import org.junit.Test;
+
+import javax.swing.SwingUtilities;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PropertyChangeCoalescerTests {
+
+    private final TestPublisher publisher = new TestPublisher();
+
+    private final List coalesced = new ArrayList();
+
+    private final List immediate = new ArrayList();
+
+    public PropertyChangeCoalescerTests() {
+        publisher.addPropertyChangeListener(new PropertyChangeListener() {
+            public void propertyChange(PropertyChangeEvent evt) {
+                coalesced.add(evt);
+            }
+        });
+        publisher.addPropertyChangeListener("value", new UncoalescedPropertyChangeListener() {
+            public void propertyChange(PropertyChangeEvent evt) {
+                immediate.add(evt);
+            }
+        });
+    }
+
+    @Test
+    public void testCoalescesChangesOnEventDispatchThread() throws Exception {
+        publisher.setCoalescingPropertyChanges(true);
+        SwingUtilities.invokeAndWait(new Runnable() {
+            public void run() {
+                publisher.setValue("a");
+                publisher.setValue("b");
+                publisher.setValue("c");
+                assertEquals(0, coalesced.size());
+                assertEquals(3, immediate.size());
+                PropertyChangeCoalescer.flush();
+            }
+        });
+        assertEquals(1, coalesced.size());
+        PropertyChangeEvent event = (PropertyChangeEvent) coalesced.get(0);
+        assertEquals("value", event.getPropertyName());
+        assertNull(event.getOldValue());
+        assertEquals("c", event.getNewValue());
+        assertEquals(3, immediate.size());
+    }
+
+    @Test
+    public void testChangeBackToOriginalValueIsDropped() throws Exception {
+        publisher.setCoalescingPropertyChanges(true);
+        publisher.setValue("a");
+        coalesced.clear();
+        SwingUtilities.invokeAndWait(new Runnable() {
+            public void run() {
+                publisher.setValue("b");
+                publisher.setValue("a");
+                PropertyChangeCoalescer.flush();
+            }
+        });
+        assertEquals(0, coalesced.size());
+        assertFalse(PropertyChangeCoalescer.hasPendingChanges());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFlushOutsideEventDispatchThreadFails() {
+        PropertyChangeCoalescer.flush();
+    }
+
+    @Test
+    public void testChangesOutsideEventDispatchThreadAreNotCoalesced() {
+        publisher.setCoalescingPropertyChanges(true);
+        publisher.setValue("a");
+        publisher.setValue("b");
+        assertEquals(2, coalesced.size());
+    }
+
+    @Test
+    public void testListenersAreReportedOnce() {
+        assertEquals(2, publisher.getPropertyChangeListeners().length);
+        assertEquals(1, publisher.getPropertyChangeListeners("value").length);
+    }
+
+    @Test
+    public void testRegistrationOrderKeptWhenNotCoalescing() {
+        final List order = new ArrayList();
+        TestPublisher orderedPublisher = new TestPublisher();
+        orderedPublisher.addPropertyChangeListener(new PropertyChangeListener() {
+            public void propertyChange(PropertyChangeEvent evt) {
+                order.add("first");
+            }
+        });
+        orderedPublisher.addPropertyChangeListener(new UncoalescedPropertyChangeListener() {
+            public void propertyChange(PropertyChangeEvent evt) {
+                order.add("second");
+            }
+        });
+        orderedPublisher.setValue("a");
+        assertEquals(Arrays.asList(new Object[] {"first", "second"}), order);
+    }
+
+    @Test
+    public void testChangesFiredBeforeQueuedEvents() throws Exception {
+        publisher.setCoalescingPropertyChanges(true);
+        final int[] seen = {-1};
+        SwingUtilities.invokeAndWait(new Runnable() {
+            public void run() {
+                // queued before the change, dispatched after the current event
+                SwingUtilities.invokeLater(new Runnable() {
+                    public void run() {
+                        seen[0] = coalesced.size();
+                    }
+                });
+                publisher.setValue("a");
+            }
+        });
+        SwingUtilities.invokeAndWait(new Runnable() {
+            public void run() {
+            }
+        });
+        assertEquals(1, seen[0]);
+    }
+
+    @Test
+    public void testFailingListenerKeepsOtherChanges() throws Exception {
+        final TestPublisher failing = new TestPublisher();
+        failing.addPropertyChangeListener(new PropertyChangeListener() {
+            public void propertyChange(PropertyChangeEvent evt) {
+                throw new IllegalStateException("listener failure");
+            }
+        });
+        failing.setCoalescingPropertyChanges(true);
+        publisher.setCoalescingPropertyChanges(true);
+        final Object[] failure = new Object[1];
+        SwingUtilities.invokeAndWait(new Runnable() {
+            public void run() {
+                failing.setValue("a");
+                publisher.setValue("b");
+                try {
+                    PropertyChangeCoalescer.flush();
+                }
+                catch (IllegalStateException e) {
+                    failure[0] = e;
+                }
+                assertTrue(PropertyChangeCoalescer.hasPendingChanges());
+                PropertyChangeCoalescer.flush();
+            }
+        });
+        assertNotNull(failure[0]);
+        assertEquals(1, coalesced.size());
+        assertEquals("b", ((PropertyChangeEvent) coalesced.get(0)).getNewValue());
+    }
+
+    private static class TestPublisher extends AbstractPropertyChangePublisher {
+
+        private Object value;
+
+        public void setValue(Object value) {
+            Object oldValue = this.value;
+            this.value = value;
+            firePropertyChange("value", oldValue, value);
+        }
+    }
+}
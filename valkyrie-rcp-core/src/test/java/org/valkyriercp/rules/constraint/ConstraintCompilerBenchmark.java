@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.rules.constraint;
+
+import org.valkyriercp.rules.Rules;
+import org.valkyriercp.rules.constraint.ConstraintCompilerTests.Person;
+import org.valkyriercp.rules.constraint.property.PropertyConstraint;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Compares testing a realistic rule set with the constraints as built against
+ * testing it with the constraints compiled by {@link ConstraintCompiler},
+ * sharing one caching access strategy per object like the rules validator.
+ * Run as a plain Java application.
+ */
+public class ConstraintCompilerBenchmark {
+
+    private static final int OBJECTS = 20000;
+
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) {
+        Constraints c = Constraints.instance();
+        Rules rules = new Rules(Person.class);
+        rules.add("name", c.all(new Constraint[] {c.required(), c.maxLength(30), c.like("J%")}));
+        rules.add("age", c.range(18, 65));
+        rules.add("age", c.not(c.eq(30)));
+        rules.add("salary", c.or(c.gt(1000d), c.lte(0d)));
+        rules.add("id", c.and(c.gte(1L), c.lt(1000000L)));
+        rules.add(c.or(c.required("nickname"), c.value("name", c.like("%n"))));
+        rules.add("nickname", c.exclusiveDisjunction().add(c.like("%x%")).add(c.like("a%")));
+
+        List constraints = new ArrayList();
+        for (Iterator i = rules.iterator(); i.hasNext();) {
+            constraints.add(i.next());
+        }
+        PropertyConstraint[] interpreted = (PropertyConstraint[]) constraints
+                .toArray(new PropertyConstraint[constraints.size()]);
+        PropertyConstraint[] compiled = new PropertyConstraint[interpreted.length];
+        for (int i = 0; i < interpreted.length; i++) {
+            compiled[i] = rules.getCompiledConstraint(interpreted[i]);
+        }
+
+        Person[] people = new Person[OBJECTS];
+        for (int i = 0; i < OBJECTS; i++) {
+            people[i] = new Person();
+            people[i].setName((i % 3 == 0 ? "John " : "Pete ") + i);
+            people[i].setAge(new Integer(10 + i % 70));
+            people[i].setSalary(new Double(i % 2000));
+            people[i].setId(new Long(i));
+            people[i].setNickname(i % 4 == 0 ? null : "ax" + i);
+        }
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long interpretedTime = time(interpreted, people, false);
+            long compiledTime = time(compiled, people, true);
+            System.out.println("round " + round + ": interpreted " + interpretedTime / 1000 + "us, compiled "
+                    + compiledTime / 1000 + "us");
+        }
+    }
+
+    private static long time(PropertyConstraint[] constraints, Person[] people, boolean shareValues) {
+        long start = System.nanoTime();
+        int satisfied = 0;
+        for (int p = 0; p < people.length; p++) {
+            Object argument = shareValues ? ConstraintCompiler.cachingAccessStrategy(people[p]) : people[p];
+            for (int i = 0; i < constraints.length; i++) {
+                if (constraints[i].test(argument)) {
+                    satisfied++;
+                }
+            }
+        }
+        if (satisfied == 0) {
+            throw new IllegalStateException();
+        }
+        return System.nanoTime() - start;
+    }
+}
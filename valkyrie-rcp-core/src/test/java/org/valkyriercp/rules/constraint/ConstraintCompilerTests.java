@@ -0,0 +1,219 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.rules.constraint;
+
+import org.junit.Test;
+import org.valkyriercp.binding.PropertyAccessStrategy;
+import org.valkyriercp.binding.support.BeanPropertyAccessStrategy;
+import org.valkyriercp.rules.Rules;
+import org.valkyriercp.rules.constraint.property.PropertyConstraint;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that compiled constraints give the same results as the constraints
+ * they were compiled from.
+ */
+public class ConstraintCompilerTests {
+
+    private final Constraints c = Constraints.instance();
+
+    @Test
+    public void testCompiledRulesGiveSameResults() {
+        Rules rules = new Rules(Person.class);
+        rules.add("name", c.all(new Constraint[] {c.required(), c.maxLength(10), c.like("J%")}));
+        rules.add("age", c.range(18, 65));
+        rules.add("age", c.not(c.eq(30)));
+        rules.add("salary", c.or(c.gt(1000d), c.lte(0d)));
+        rules.add("id", c.and(c.gte(1L), c.lt(1000000L)));
+        rules.add(c.or(c.required("nickname"), c.value("name", c.like("%n"))));
+        rules.add("nickname", c.exclusiveDisjunction().add(c.like("%x%")).add(c.like("a%")));
+
+        List people = new ArrayList();
+        String[] names = {null, "", "John", "Jan", "Jonathan Smith", "Pete"};
+        Object[] ages = {null, new Integer(17), new Integer(18), new Integer(30), new Integer(65), new Integer(66)};
+        Object[] salaries = {null, new Double(-1), new Double(0), new Double(1000), new Double(1000.5),
+                new Double(Double.NaN)};
+        Object[] ids = {null, new Long(0), new Long(1), new Long(999999), new Long(1000000)};
+        String[] nicknames = {null, "ax", "xa", "bb", "aa"};
+        for (int n = 0; n < names.length; n++) {
+            for (int a = 0; a < ages.length; a++) {
+                for (int s = 0; s < salaries.length; s++) {
+                    Person person = new Person();
+                    person.setName(names[n]);
+                    person.setAge((Integer) ages[a]);
+                    person.setSalary((Double) salaries[s]);
+                    person.setId((Long) ids[(n + a + s) % ids.length]);
+                    person.setNickname(nicknames[(n * a + s) % nicknames.length]);
+                    people.add(person);
+                }
+            }
+        }
+
+        for (Iterator i = rules.iterator(); i.hasNext();) {
+            PropertyConstraint constraint = (PropertyConstraint) i.next();
+            PropertyConstraint compiled = rules.getCompiledConstraint(constraint);
+            assertEquals(constraint.getPropertyName(), compiled.getPropertyName());
+            for (Iterator p = people.iterator(); p.hasNext();) {
+                Object person = p.next();
+                assertEquals(constraint + " on " + person, testOrFail(constraint, person),
+                        testOrFail(compiled, person));
+            }
+        }
+    }
+
+    @Test
+    public void testNumericComparisonsMatchComparable() {
+        Constraint[] constraints = {c.gt(5), c.gte(5), c.lt(5), c.lte(5), c.gt(5L), c.lte(2.5f), c.gte(-0.0d),
+                c.range(1, 10), c.range(1.5d, 2.5d)};
+        Object[] values = {new Integer(Integer.MIN_VALUE), new Integer(4), new Integer(5), new Integer(6),
+                new Long(5), new Long(6), new Float(2.5f), new Float(Float.NaN), new Double(0.0d),
+                new Double(-0.0d), new Double(1.5d), new Double(Double.NaN)};
+        for (int i = 0; i < constraints.length; i++) {
+            Constraint compiled = ConstraintCompiler.compile(constraints[i]);
+            for (int v = 0; v < values.length; v++) {
+                assertEquals(constraints[i] + " on " + values[v], testOrFail(constraints[i], values[v]),
+                        testOrFail(compiled, values[v]));
+            }
+        }
+    }
+
+    @Test
+    public void testLikeMatchesLike() {
+        Constraint[] constraints = {c.like("ab%"), c.like("%ab"), c.like("%ab%"), c.like("ab"), c.like("%"),
+                new Like(new Like.LikeType("custom", null), "ab")};
+        Object[] values = {null, "", "ab", "xaby", "abc", "cab", new Integer(12), new StringBuffer("abab")};
+        for (int i = 0; i < constraints.length; i++) {
+            Constraint compiled = ConstraintCompiler.compile(constraints[i]);
+            for (int v = 0; v < values.length; v++) {
+                assertEquals(constraints[i] + " on " + values[v], testOrFail(constraints[i], values[v]),
+                        testOrFail(compiled, values[v]));
+            }
+        }
+    }
+
+    @Test
+    public void testCompilingCompiledConstraintReturnsSameInstance() {
+        PropertyConstraint compiled = ConstraintCompiler.compile(c.required("name"));
+        assertSame(compiled, ConstraintCompiler.compile(compiled));
+    }
+
+    @Test
+    public void testSharedAccessStrategyReadsPropertiesOnce() {
+        PropertyConstraint required = ConstraintCompiler.compile(c.required("name"));
+        PropertyConstraint maxLength = ConstraintCompiler.compile(c.value("name", c.maxLength(10)));
+        Person person = new Person();
+        person.setName("John");
+        CountingAccessStrategy values = new CountingAccessStrategy(person);
+
+        assertTrue(required.test(values));
+        assertTrue(maxLength.test(values));
+        assertEquals(2, values.reads);
+
+        values.reads = 0;
+        PropertyAccessStrategy cachingValues = ConstraintCompiler.cachingAccessStrategy(values);
+        assertSame(cachingValues, ConstraintCompiler.cachingAccessStrategy(cachingValues));
+        assertTrue(required.test(cachingValues));
+        assertTrue(maxLength.test(cachingValues));
+        assertEquals(1, values.reads);
+    }
+
+    private Object testOrFail(Constraint constraint, Object value) {
+        try {
+            return Boolean.valueOf(constraint.test(value));
+        }
+        catch (RuntimeException e) {
+            return e.getClass();
+        }
+    }
+
+    private static class CountingAccessStrategy extends BeanPropertyAccessStrategy {
+
+        int reads;
+
+        CountingAccessStrategy(Object bean) {
+            super(bean);
+        }
+
+        public Object getPropertyValue(String propertyPath) {
+            reads++;
+            return super.getPropertyValue(propertyPath);
+        }
+    }
+
+    public static class Person {
+
+        private String name;
+
+        private String nickname;
+
+        private Integer age;
+
+        private Double salary;
+
+        private Long id;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getNickname() {
+            return nickname;
+        }
+
+        public void setNickname(String nickname) {
+            this.nickname = nickname;
+        }
+
+        public Integer getAge() {
+            return age;
+        }
+
+        public void setAge(Integer age) {
+            this.age = age;
+        }
+
+        public Double getSalary() {
+            return salary;
+        }
+
+        public void setSalary(Double salary) {
+            this.salary = salary;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String toString() {
+            return name + "/" + nickname + "/" + age + "/" + salary + "/" + id;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.rules.constraint.property;
+
+import org.junit.Test;
+import org.valkyriercp.binding.value.support.ListListModel;
+import org.valkyriercp.test.TestBean;
+import org.valkyriercp.test.TestBeanWithPCP;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class UniquePropertyValueIndexTests {
+
+    @Test
+    public void testEqualHashCodesAreNotDuplicates() {
+        // "Aa" and "BB" have the same hash code
+        UniquePropertyValueConstraint constraint = new UniquePropertyValueConstraint("simpleProperty");
+        assertTrue(constraint.test(Arrays.asList(new Object[] {bean("Aa"), bean("BB"), bean(null)})));
+        assertFalse(constraint.test(Arrays.asList(new Object[] {bean("Aa"), bean("BB"), bean("Aa")})));
+    }
+
+    @Test
+    public void testIndexFollowsListChanges() {
+        ListListModel list = new ListListModel();
+        UniquePropertyValueIndex index = new UniquePropertyValueIndex(list, "simpleProperty");
+        TestBean a = bean("a");
+        TestBean b = bean("b");
+        TestBean otherA = bean("a");
+        list.addAll(Arrays.asList(new Object[] {a, b}));
+        assertTrue(index.isUnique());
+
+        list.add(otherA);
+        assertFalse(index.isUnique());
+        assertFalse(index.isUnique(a));
+        assertTrue(index.isUnique(b));
+        assertEquals(new HashSet(Arrays.asList(new Object[] {a, otherA})), new HashSet(index.getDuplicates()));
+
+        list.remove(0);
+        assertTrue(index.isUnique());
+
+        otherA.setSimpleProperty("b");
+        list.getIndexAdapter(list.indexOf(otherA)).fireIndexedObjectChanged();
+        assertEquals(new HashSet(Arrays.asList(new Object[] {b, otherA})), new HashSet(index.getDuplicates("b")));
+
+        list.set(1, a);
+        assertTrue(index.isUnique());
+
+        list.add(a);
+        assertFalse(index.isUnique());
+        list.clear();
+        assertTrue(index.isUnique());
+        index.dispose();
+    }
+
+    @Test
+    public void testIntervalsInTheMiddle() {
+        ListListModel list = new ListListModel();
+        UniquePropertyValueIndex index = new UniquePropertyValueIndex(list, "simpleProperty");
+        TestBean a = bean("a");
+        TestBean b = bean("b");
+        TestBean c = bean("c");
+        TestBean d = bean("d");
+        list.addAll(Arrays.asList(new Object[] {a, d}));
+        list.addAll(1, Arrays.asList(new Object[] {b, c}));
+        assertTrue(index.isUnique());
+
+        // replaces d, which must be known to be at the end
+        TestBean otherB = bean("b");
+        list.set(3, otherB);
+        assertEquals(new HashSet(Arrays.asList(new Object[] {b, otherB})), new HashSet(index.getDuplicates("b")));
+
+        list.remove(1);
+        assertTrue(index.isUnique());
+        list.set(0, bean("c"));
+        assertFalse(index.isUnique());
+        assertTrue(index.isUnique(otherB));
+        index.dispose();
+    }
+
+    @Test
+    public void testConstraintTestsListsFromSeveralThreads() throws Exception {
+        final UniquePropertyValueConstraint constraint = new UniquePropertyValueConstraint("simpleProperty");
+        final ListListModel unique = new ListListModel(Arrays.asList(new Object[] {bean("a"), bean("b")}));
+        final ListListModel duplicates = new ListListModel(Arrays.asList(new Object[] {bean("a"), bean("a")}));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List results = new ArrayList();
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(new Callable() {
+
+                    public Object call() {
+                        for (int i = 0; i < 500; i++) {
+                            if (!constraint.test(unique) || constraint.test(duplicates)) {
+                                return Boolean.FALSE;
+                            }
+                        }
+                        return Boolean.TRUE;
+                    }
+                }));
+            }
+            for (int t = 0; t < results.size(); t++) {
+                assertEquals(Boolean.TRUE, ((Future) results.get(t)).get());
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testIndexFollowsBoundProperties() {
+        ListListModel list = new ListListModel();
+        TestBeanWithPCP first = new TestBeanWithPCP();
+        first.setBoundProperty("x");
+        TestBeanWithPCP second = new TestBeanWithPCP();
+        second.setBoundProperty("y");
+        list.addAll(Arrays.asList(new Object[] {first, second}));
+
+        UniquePropertyValueConstraint constraint = new UniquePropertyValueConstraint("boundProperty");
+        assertTrue(constraint.test(list));
+        second.setBoundProperty("x");
+        assertFalse(constraint.test(list));
+        first.setBoundProperty(null);
+        assertTrue(constraint.test(list));
+
+        constraint.getIndex(list).dispose();
+        assertEquals(0, first.getPropertyChangeListeners("boundProperty").length);
+    }
+
+    @Test
+    public void testInPlaceEditsOfUnboundElementsAreSeen() {
+        TestBean first = bean("a");
+        TestBean second = bean("b");
+        ListListModel list = new ListListModel(Arrays.asList(new Object[] {first, second}));
+        UniquePropertyValueConstraint constraint = new UniquePropertyValueConstraint("simpleProperty");
+        assertTrue(constraint.test(list));
+        assertFalse(constraint.getIndex(list).isObservingElements());
+        second.setSimpleProperty("a");
+        assertFalse(constraint.test(list));
+
+        TestBean outer = bean("x");
+        outer.setNestedProperty(first);
+        TestBean otherOuter = bean("y");
+        otherOuter.setNestedProperty(bean("c"));
+        ListListModel nested = new ListListModel(Arrays.asList(new Object[] {outer, otherOuter}));
+        UniquePropertyValueConstraint nestedConstraint = new UniquePropertyValueConstraint("nestedProperty.simpleProperty");
+        assertTrue(nestedConstraint.test(nested));
+        first.setSimpleProperty("c");
+        assertFalse(nestedConstraint.test(nested));
+    }
+
+    @Test
+    public void testIndexIsKeptPerList() {
+        TestBeanWithPCP first = new TestBeanWithPCP();
+        first.setBoundProperty("x");
+        TestBeanWithPCP second = new TestBeanWithPCP();
+        second.setBoundProperty("x");
+        ListListModel unique = new ListListModel(Arrays.asList(new Object[] {first}));
+        ListListModel duplicates = new ListListModel(Arrays.asList(new Object[] {first, second}));
+        UniquePropertyValueConstraint constraint = new UniquePropertyValueConstraint("boundProperty");
+        UniquePropertyValueIndex index = constraint.getIndex(unique);
+        assertTrue(constraint.test(unique));
+        assertFalse(constraint.test(duplicates));
+        assertSame(index, constraint.getIndex(unique));
+        assertTrue(index.isUnique());
+    }
+
+    private TestBean bean(String value) {
+        TestBean bean = new TestBean();
+        bean.setSimpleProperty(value);
+        return bean;
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.rules.reporting;
+
+import org.junit.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.valkyriercp.rules.constraint.And;
+import org.valkyriercp.rules.constraint.Constraint;
+import org.valkyriercp.rules.constraint.Constraints;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class DefaultMessageTranslatorTests {
+
+    @Test
+    public void testTranslationsAreCached() {
+        Constraints c = Constraints.instance();
+        Constraint required = c.required();
+        Constraint maxLength = c.maxLength(5);
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage("required", Locale.ENGLISH, "is required");
+        messageSource.addMessage("name", Locale.ENGLISH, "Name");
+        DefaultMessageTranslator translator = new DefaultMessageTranslator(messageSource, null, Locale.ENGLISH);
+        MessageTranslationCache cache = translator.getMessageCache();
+
+        String message = translator.getMessage("name", null, new And(required, maxLength));
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        // violated constraints are rebuilt for every validation
+        assertEquals(message, translator.getMessage("name", "value", new And(required, maxLength)));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(0.5d, cache.getHitRate(), 0d);
+
+        assertEquals("Name is required.", translator.getMessage("name", required));
+        assertEquals("is required.", translator.getMessage(null, required));
+        assertEquals(2, cache.getHitCount());
+
+        MessageTranslationCache.invalidateAll();
+        translator.getMessage("name", required);
+        assertEquals(3, cache.getMissCount());
+
+        translator.setLocale(Locale.GERMAN);
+        translator.getMessage("name", required);
+        assertEquals(4, cache.getMissCount());
+    }
+
+    @Test
+    public void testMessageCacheIsBounded() {
+        Constraints c = Constraints.instance();
+        Constraint first = c.maxLength(1);
+        Constraint second = c.maxLength(2);
+        Constraint third = c.maxLength(3);
+        MessageTranslationCache cache = new MessageTranslationCache(2);
+        cache.put(first, Locale.ENGLISH, "first");
+        cache.put(second, Locale.ENGLISH, "second");
+        assertEquals("first", cache.get(first, Locale.ENGLISH));
+
+        // second is the least recently used message
+        cache.put(third, Locale.ENGLISH, "third");
+        assertEquals(2, cache.size());
+        assertEquals("first", cache.get(first, Locale.ENGLISH));
+        assertNull(cache.get(second, Locale.ENGLISH));
+        assertEquals("third", cache.get(third, Locale.ENGLISH));
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.util;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+
+/**
+ * Simple timing of the dispatch cost per listener of
+ * {@link EventListenerListHelper}, comparing the string based
+ * <code>fire</code> method with a {@link ListenerCallback}. Not run as part
+ * of the tests; start it with the test classpath:
+ *
+ * <pre>
+ * java org.valkyriercp.util.EventDispatchBenchmark [events] [listeners]
+ * </pre>
+ */
+public class EventDispatchBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int events = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int listenerCount = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        EventListenerListHelper helper = new EventListenerListHelper(PropertyChangeListener.class);
+        final CountingListener[] listeners = new CountingListener[listenerCount];
+        for (int i = 0; i < listenerCount; i++) {
+            listeners[i] = new CountingListener();
+            helper.add(listeners[i]);
+        }
+        final PropertyChangeEvent event = new PropertyChangeEvent(helper, "value", null, null);
+        ListenerCallback<PropertyChangeListener> callback = new ListenerCallback<PropertyChangeListener>() {
+
+            public void invoke(PropertyChangeListener listener) {
+                listener.propertyChange(event);
+            }
+        };
+
+        long calls = (long) events * listenerCount;
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < events; i++) {
+                helper.fire("propertyChange", event);
+            }
+            long byName = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < events; i++) {
+                helper.fire(callback);
+            }
+            long byCallback = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < events; i++) {
+                for (int j = 0; j < listeners.length; j++) {
+                    listeners[j].propertyChange(event);
+                }
+            }
+            long direct = System.nanoTime() - start;
+
+            System.out.println("round " + round + ": fire(String) " + perCall(byName, calls)
+                    + " ns/listener, fire(ListenerCallback) " + perCall(byCallback, calls) + " ns/listener, direct "
+                    + perCall(direct, calls) + " ns/listener");
+        }
+        long total = 0;
+        for (int i = 0; i < listeners.length; i++) {
+            total += listeners[i].count;
+        }
+        System.out.println(total + " events delivered");
+    }
+
+    private static double perCall(long nanos, long calls) {
+        return calls == 0 ? 0 : Math.round(nanos * 100d / calls) / 100d;
+    }
+
+    private static class CountingListener implements PropertyChangeListener {
+
+        long count;
+
+        public void propertyChange(PropertyChangeEvent evt) {
+            count++;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class EventListenerListHelperTests {
+
+    private final EventListenerListHelper helper = new EventListenerListHelper(TestListener.class);
+
+    private final List events = new ArrayList();
+
+    @Test
+    public void testFireByName() {
+        helper.add(new RecordingListener("a"));
+        helper.add(new RecordingListener("b"));
+
+        helper.fire("noArgs");
+        helper.fire("oneArg", "x");
+        helper.fire("twoArgs", "x", new Integer(2));
+        helper.fire("threeArgs", new Object[] {"x", "y", Boolean.TRUE});
+        helper.fire("oneArg", new Object[] {"z"});
+
+        assertEquals("[a noArgs, b noArgs, a oneArg x, b oneArg x, a twoArgs x 2, b twoArgs x 2, "
+                + "a threeArgs x y true, b threeArgs x y true, a oneArg z, b oneArg z]", events.toString());
+    }
+
+    @Test
+    public void testFireByNameWrapsListenerExceptions() {
+        final IllegalStateException exception = new IllegalStateException();
+        helper.add(new RecordingListener("a") {
+
+            public void oneArg(Object arg) {
+                throw exception;
+            }
+        });
+        try {
+            helper.fire("oneArg", "x");
+            fail();
+        }
+        catch (EventListenerListHelper.EventBroadcastException e) {
+            assertSame(exception, e.getCause());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFireUnknownMethod() {
+        helper.add(new RecordingListener("a"));
+        helper.fire("unknown", "x");
+    }
+
+    @Test
+    public void testFireCallback() {
+        helper.add(new RecordingListener("a"));
+        helper.add(new RecordingListener("b"));
+        helper.fire(new ListenerCallback<TestListener>() {
+
+            public void invoke(TestListener listener) {
+                listener.twoArgs("x", 1);
+            }
+        });
+        assertEquals("[a twoArgs x 1, b twoArgs x 1]", events.toString());
+
+        // no listeners, no calls
+        new EventListenerListHelper(TestListener.class).fire(new ListenerCallback<TestListener>() {
+
+            public void invoke(TestListener listener) {
+                fail();
+            }
+        });
+    }
+
+    public interface TestListener {
+
+        void noArgs();
+
+        void oneArg(Object arg);
+
+        void twoArgs(String arg1, int arg2);
+
+        void threeArgs(Object arg1, Object arg2, boolean arg3);
+    }
+
+    private class RecordingListener implements TestListener {
+
+        private final String name;
+
+        RecordingListener(String name) {
+            this.name = name;
+        }
+
+        public void noArgs() {
+            events.add(name + " noArgs");
+        }
+
+        public void oneArg(Object arg) {
+            events.add(name + " oneArg " + arg);
+        }
+
+        public void twoArgs(String arg1, int arg2) {
+            events.add(name + " twoArgs " + arg1 + " " + arg2);
+        }
+
+        public void threeArgs(Object arg1, Object arg2, boolean arg3) {
+            events.add(name + " threeArgs " + arg1 + " " + arg2 + " " + arg3);
+        }
+    }
+}
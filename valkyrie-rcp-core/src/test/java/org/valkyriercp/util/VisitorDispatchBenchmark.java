@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.util;
+
+import org.valkyriercp.rules.constraint.Constraint;
+import org.valkyriercp.rules.constraint.Constraints;
+import org.valkyriercp.rules.reporting.ValidationResultsCollector;
+
+/**
+ * Simple timing comparison of {@link VisitorDispatcher} and
+ * {@link ReflectiveVisitorHelper}. Not run as part of the tests; start it with
+ * the test classpath:
+ *
+ * <pre>
+ * java org.valkyriercp.util.VisitorDispatchBenchmark [iterations]
+ * </pre>
+ *
+ * Besides dispatching on a long lived visitor, it measures a validation results
+ * collector created per validation, as the validators do.
+ */
+public class VisitorDispatchBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        Object[] arguments = {"a", new Integer(1), Boolean.TRUE, new Object(), null};
+        Visitor visitor = new Visitor();
+        ReflectiveVisitorHelper helper = new ReflectiveVisitorHelper();
+        VisitorDispatcher dispatcher = VisitorDispatcher.getInstance();
+
+        Constraints c = Constraints.instance();
+        Constraint constraint = c.and(c.required(), c.or(c.maxLength(3), c.like("a%")));
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                helper.invokeVisit(visitor, arguments[i % arguments.length]);
+            }
+            long helperTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                dispatcher.invokeVisit(visitor, arguments[i % arguments.length]);
+            }
+            long dispatcherTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations / 100; i++) {
+                new ValidationResultsCollector().collect("abcd", constraint);
+            }
+            long collectorTime = System.nanoTime() - start;
+
+            System.out.println("round " + round + ": ReflectiveVisitorHelper " + nanosPerCall(helperTime, iterations)
+                    + " ns/call, VisitorDispatcher " + nanosPerCall(dispatcherTime, iterations)
+                    + " ns/call, new collector " + nanosPerCall(collectorTime, iterations / 100)
+                    + " ns/validation");
+        }
+    }
+
+    private static long nanosPerCall(long nanos, int calls) {
+        return calls == 0 ? 0 : nanos / calls;
+    }
+
+    private static class Visitor {
+
+        int visits;
+
+        void visit(String s) {
+            visits++;
+        }
+
+        boolean visit(Number n) {
+            return n.intValue() > 0;
+        }
+
+        Object visit(Boolean b) {
+            return b;
+        }
+
+        void visitNull() {
+            visits--;
+        }
+
+        void visit(Object o) {
+        }
+    }
+}
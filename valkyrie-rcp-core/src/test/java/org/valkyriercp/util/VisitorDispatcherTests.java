@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.util;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class VisitorDispatcherTests {
+
+    private final VisitorDispatcher dispatcher = VisitorDispatcher.getInstance();
+
+    @Test
+    public void testDispatchesToMostSpecificMethod() {
+        TestVisitor visitor = new TestVisitor();
+        assertEquals("string", dispatcher.invokeVisit(visitor, "a"));
+        assertEquals("number", dispatcher.invokeVisit(visitor, new Integer(1)));
+        assertEquals("collection", dispatcher.invokeVisit(visitor, new ArrayList()));
+        assertEquals("object", dispatcher.invokeVisit(visitor, new Object()));
+        assertEquals("null", dispatcher.invokeVisit(visitor, null));
+        assertEquals(Boolean.TRUE, dispatcher.invokeVisit(visitor, Boolean.FALSE));
+        assertNull(dispatcher.invokeVisit(visitor, new StringBuffer()));
+        assertEquals(1, visitor.voidVisits);
+    }
+
+    @Test
+    public void testInheritedAndDefaultMethods() {
+        SubVisitor visitor = new SubVisitor();
+        assertEquals("sub string", dispatcher.invokeVisit(visitor, "a"));
+        assertEquals("number", dispatcher.invokeVisit(visitor, new Long(1)));
+        assertEquals("object", dispatcher.invokeVisit(new DefaultOnlyVisitor(), null));
+        assertNull(dispatcher.invokeVisit(new Object(), "a"));
+    }
+
+    @Test
+    public void testSameResultsAsReflectiveVisitorHelper() {
+        ReflectiveVisitorHelper helper = new ReflectiveVisitorHelper();
+        Object[] arguments = {"a", new Integer(1), new ArrayList(), new Object(), null, Boolean.TRUE};
+        Object[] visitors = {new TestVisitor(), new SubVisitor()};
+        for (int v = 0; v < visitors.length; v++) {
+            for (int a = 0; a < arguments.length; a++) {
+                assertEquals(helper.invokeVisit(visitors[v], arguments[a]),
+                        dispatcher.invokeVisit(visitors[v], arguments[a]));
+            }
+        }
+    }
+
+    @Test
+    public void testExceptionsArePropagated() {
+        ThrowingVisitor visitor = new ThrowingVisitor();
+        try {
+            dispatcher.invokeVisit(visitor, "a");
+            fail();
+        }
+        catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            dispatcher.invokeVisit(visitor, new Integer(1));
+            fail();
+        }
+        catch (UndeclaredThrowableException e) {
+            assertEquals(IOException.class, e.getCause().getClass());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testVisitorIsRequired() {
+        dispatcher.invokeVisit(null, "a");
+    }
+
+    private static class TestVisitor {
+
+        int voidVisits;
+
+        String visit(String s) {
+            return "string";
+        }
+
+        String visit(Number n) {
+            return "number";
+        }
+
+        String visit(Collection c) {
+            return "collection";
+        }
+
+        boolean visit(Boolean b) {
+            return true;
+        }
+
+        void visit(CharSequence s) {
+            voidVisits++;
+        }
+
+        String visitNull() {
+            return "null";
+        }
+
+        String visit(Object o) {
+            return "object";
+        }
+    }
+
+    private static class SubVisitor extends TestVisitor {
+
+        String visit(String s) {
+            return "sub string";
+        }
+    }
+
+    private static class DefaultOnlyVisitor {
+
+        String visit(Object o) {
+            return "object";
+        }
+    }
+
+    private static class ThrowingVisitor {
+
+        void visit(String s) {
+            throw new IllegalStateException();
+        }
+
+        void visit(Number n) throws IOException {
+            throw new IOException();
+        }
+    }
+}
@@ -0,0 +1,458 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.widget.editor;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.valkyriercp.AbstractValkyrieTest;
+import org.valkyriercp.binding.validation.support.DefaultValidationResultsModel;
+import org.valkyriercp.form.FilterForm;
+import org.valkyriercp.test.TestBean;
+import org.valkyriercp.widget.editor.provider.AbstractPagedDataProvider;
+import org.valkyriercp.widget.editor.provider.CancellationToken;
+import org.valkyriercp.widget.editor.provider.CriteriaMatcher;
+import org.valkyriercp.widget.editor.provider.DataChangeSet;
+import org.valkyriercp.widget.editor.provider.DataProvider;
+import org.valkyriercp.widget.editor.provider.DeltaDataProvider;
+import org.valkyriercp.widget.table.PropertyColumnTableDescription;
+
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+import javax.swing.RowSorter;
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DefaultDataEditorWidgetTests extends AbstractValkyrieTest {
+
+    private LetterDataProvider provider;
+
+    private TestDataEditorWidget editor;
+
+    @Before
+    public void setUp() throws Exception {
+        provider = new LetterDataProvider("abcde");
+        provider.setChunkSize(2);
+        editor = onEdt(new Callable<TestDataEditorWidget>() {
+            public TestDataEditorWidget call() {
+                return new TestDataEditorWidget(provider);
+            }
+        });
+    }
+
+    @Test
+    public void testStreamedChunksShownInOrder() throws Exception {
+        executeFilterAndWait();
+        assertEquals(Arrays.asList("a", "b", "c", "d", "e"), getShownRows());
+        assertEquals(1, editor.listWorkerDoneCalls.get());
+        assertEquals(1, editor.listWorkerStreamedCalls.get());
+    }
+
+    @Test
+    public void testEmptyStreamCompletes() throws Exception {
+        provider.letters = "";
+        executeFilterAndWait();
+        assertTrue(getShownRows().isEmpty());
+        assertEquals(1, editor.listWorkerDoneCalls.get());
+    }
+
+    @Test
+    public void testMaximumRowsExceededWhileStreaming() throws Exception {
+        provider.setMaxRows(4);
+        onEdt(new Callable<Object>() {
+            public Object call() {
+                editor.executeFilter();
+                return null;
+            }
+        });
+        waitFor(new Callable<Boolean>() {
+            public Boolean call() {
+                return editor.getValidationResultsModel().getMessageCount() == 1;
+            }
+        });
+        assertTrue(getShownRows().isEmpty());
+        assertEquals(0, editor.listWorkerStreamedCalls.get());
+    }
+
+    @Test
+    public void testNewestFilterWins() throws Exception {
+        final CountDownLatch slowPageStarted = new CountDownLatch(1);
+        final CountDownLatch slowPageAborted = new CountDownLatch(1);
+        final CountDownLatch slowRetrievalEnded = new CountDownLatch(1);
+        provider = new LetterDataProvider("abcde") {
+            protected List getPage(Object criteria, int offset, int limit, List<? extends RowSorter.SortKey> sort,
+                    CancellationToken cancellation) {
+                if (!"xyz".equals(criteria)) {
+                    return super.getPage(criteria, offset, limit, sort, cancellation);
+                }
+                cancellation.onCancel(new Runnable() {
+                    public void run() {
+                        slowPageAborted.countDown();
+                    }
+                });
+                slowPageStarted.countDown();
+                try {
+                    slowPageAborted.await(5, TimeUnit.SECONDS);
+                    return super.getPage(criteria, offset, limit, sort, cancellation);
+                }
+                catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                finally {
+                    slowRetrievalEnded.countDown();
+                }
+            }
+        };
+        editor = onEdt(new Callable<TestDataEditorWidget>() {
+            public TestDataEditorWidget call() {
+                return new TestDataEditorWidget(provider);
+            }
+        });
+
+        editor.filterForm.criteria = "xyz";
+        onEdt(new Callable<Object>() {
+            public Object call() {
+                editor.executeFilter();
+                return null;
+            }
+        });
+        assertTrue(slowPageStarted.await(5, TimeUnit.SECONDS));
+        editor.filterForm.criteria = "ab";
+        executeFilterAndWait();
+        assertTrue(slowRetrievalEnded.await(5, TimeUnit.SECONDS));
+        assertEquals(0, slowPageAborted.getCount());
+        // let the cancelled worker finish on the EDT
+        onEdt(new Callable<Object>() {
+            public Object call() {
+                return null;
+            }
+        });
+        assertEquals(Arrays.asList("a", "b"), getShownRows());
+        assertEquals(1, editor.listWorkerDoneCalls.get());
+        assertEquals(1, editor.listWorkerStreamedCalls.get());
+    }
+
+    @Test
+    public void testApplyChangesMatchesRowsByKey() throws Exception {
+        setProvider(new KeyedLetterDataProvider("abc"));
+        executeFilterAndWait();
+        final TestBean changedRow = row("b");
+        onEdt(new Callable<Object>() {
+            public Object call() {
+                editor.applyChanges(new DataChangeSet(Arrays.asList(row("c"), row("x")), Arrays.asList(changedRow,
+                        row("y")), Arrays.asList("a", "z"), null));
+                return null;
+            }
+        });
+        assertEquals(Arrays.asList("b", "c", "x"), getShownRows());
+        assertSame(changedRow, onEdt(new Callable<Object>() {
+            public Object call() {
+                return editor.getTableWidget().getRows().get(0);
+            }
+        }));
+    }
+
+    @Test
+    public void testPushedRowsFilteredByCriteria() throws Exception {
+        setProvider(new KeyedLetterDataProvider("abcde"));
+        editor.setCriteriaMatcher(new CriteriaMatcher() {
+            public boolean matches(Object criteria, Object entity) {
+                return ((String) criteria).contains(((TestBean) entity).getSimpleProperty());
+            }
+        });
+        editor.filterForm.criteria = "abc";
+        executeFilterAndWait();
+        push(new DataChangeSet(Arrays.asList(row("d"), row("b")), Arrays.asList(row("e")), null, null));
+        assertEquals(Arrays.asList("a", "b", "c"), getShownRows());
+    }
+
+    @Test
+    public void testPushedRowsRefreshWithoutMatcher() throws Exception {
+        final KeyedLetterDataProvider keyedProvider = new KeyedLetterDataProvider("abcde");
+        setProvider(keyedProvider);
+        editor.filterForm.criteria = "ab";
+        executeFilterAndWait();
+        push(new DataChangeSet(Arrays.asList(row("c")), null, null, null));
+        waitFor(new Callable<Boolean>() {
+            public Boolean call() {
+                return keyedProvider.changeRequests.get() > 0 || editor.listWorkerStreamedCalls.get() > 1;
+            }
+        });
+        assertEquals(Arrays.asList("a", "b"), getShownRows());
+    }
+
+    @Test
+    public void testPushedChangesDeferredWhileLoading() throws Exception {
+        final CountDownLatch firstChunkShown = new CountDownLatch(1);
+        setProvider(new KeyedLetterDataProvider("abcde") {
+            protected List getPage(Object criteria, int offset, int limit, List<? extends RowSorter.SortKey> sort,
+                    CancellationToken cancellation) {
+                if (offset > 0) {
+                    try {
+                        firstChunkShown.await(5, TimeUnit.SECONDS);
+                    }
+                    catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                return super.getPage(criteria, offset, limit, sort, cancellation);
+            }
+        });
+        onEdt(new Callable<Object>() {
+            public Object call() {
+                editor.executeFilter();
+                return null;
+            }
+        });
+        waitFor(new Callable<Boolean>() {
+            public Boolean call() {
+                return editor.listWorkerDoneCalls.get() > 0;
+            }
+        });
+        push(new DataChangeSet(Arrays.asList(row("e"), row("f")), null, Arrays.asList("a"), null));
+        assertEquals(Arrays.asList("a", "b"), getShownRows());
+        firstChunkShown.countDown();
+        waitFor(new Callable<Boolean>() {
+            public Boolean call() {
+                return editor.listWorkerStreamedCalls.get() > 0;
+            }
+        });
+        assertEquals(Arrays.asList("b", "c", "d", "e", "f"), getShownRows());
+    }
+
+    private void setProvider(final LetterDataProvider letterProvider) throws Exception {
+        provider = letterProvider;
+        provider.setChunkSize(2);
+        editor = onEdt(new Callable<TestDataEditorWidget>() {
+            public TestDataEditorWidget call() {
+                return new TestDataEditorWidget(letterProvider);
+            }
+        });
+    }
+
+    /**
+     * Pushes the changes from another thread, as a back-end would, and waits until the EDT handled them.
+     */
+    private void push(DataChangeSet changes) throws Exception {
+        editor.update(provider, changes);
+        onEdt(new Callable<Object>() {
+            public Object call() {
+                return null;
+            }
+        });
+    }
+
+    private void executeFilterAndWait() throws Exception {
+        onEdt(new Callable<Object>() {
+            public Object call() {
+                editor.executeFilter();
+                return null;
+            }
+        });
+        waitFor(new Callable<Boolean>() {
+            public Boolean call() {
+                return editor.listWorkerStreamedCalls.get() > 0;
+            }
+        });
+    }
+
+    private List<String> getShownRows() throws Exception {
+        return onEdt(new Callable<List<String>>() {
+            public List<String> call() {
+                List<String> names = new ArrayList<String>();
+                for (Object row : editor.getTableWidget().getRows()) {
+                    names.add(((TestBean) row).getSimpleProperty());
+                }
+                return names;
+            }
+        });
+    }
+
+    private void waitFor(Callable<Boolean> condition) throws Exception {
+        long timeout = System.currentTimeMillis() + 5000;
+        while (!onEdt(condition)) {
+            assertTrue("timed out", System.currentTimeMillis() < timeout);
+            Thread.sleep(10);
+        }
+    }
+
+    private <V> V onEdt(Callable<V> callable) throws Exception {
+        FutureTask<V> task = new FutureTask<V>(callable);
+        SwingUtilities.invokeAndWait(task);
+        return task.get();
+    }
+
+    private static TestBean row(String name) {
+        TestBean row = new TestBean();
+        row.setSimpleProperty(name);
+        return row;
+    }
+
+    private static class TestDataEditorWidget extends DefaultDataEditorWidget {
+
+        final AtomicInteger listWorkerDoneCalls = new AtomicInteger();
+
+        final AtomicInteger listWorkerStreamedCalls = new AtomicInteger();
+
+        final CriteriaFilterForm filterForm = new CriteriaFilterForm();
+
+        TestDataEditorWidget(DataProvider provider) {
+            super("testDataEditor");
+            setDataProvider(provider);
+            PropertyColumnTableDescription tableDescription = new PropertyColumnTableDescription(TestBean.class,
+                    (Comparator) null);
+            tableDescription.addPropertyColumn("simpleProperty");
+            setTableWidget(tableDescription);
+        }
+
+        @Override
+        public FilterForm getFilterForm() {
+            return filterForm;
+        }
+
+        @Override
+        protected Observer createListSelectionObserver() {
+            return new Observer() {
+                public void update(Observable o, Object arg) {
+                }
+            };
+        }
+
+        @Override
+        protected void listWorkerDone(List<Object> rows, Map<String, Object> parameters) {
+            listWorkerDoneCalls.incrementAndGet();
+            setRows(rows);
+        }
+
+        @Override
+        protected void listWorkerStreamed(Map<String, Object> parameters) {
+            listWorkerStreamedCalls.incrementAndGet();
+        }
+
+        DefaultValidationResultsModel getValidationResultsModel() {
+            return getValidationResults();
+        }
+    }
+
+    private static class CriteriaFilterForm extends FilterForm {
+
+        volatile Object criteria;
+
+        @Override
+        protected Object newFormObject() {
+            return new TestBean();
+        }
+
+        @Override
+        public Object getFilterCriteria() {
+            return criteria;
+        }
+
+        @Override
+        protected JComponent createFormControl() {
+            return new JPanel();
+        }
+    }
+
+    private static class LetterDataProvider extends AbstractPagedDataProvider {
+
+        volatile String letters;
+
+        LetterDataProvider(String letters) {
+            this.letters = letters;
+        }
+
+        public int getRowCount(Object criteria) {
+            return getLetters(criteria).length();
+        }
+
+        public List getPage(Object criteria, int offset, int limit, List<? extends RowSorter.SortKey> sort) {
+            String letters = getLetters(criteria);
+            List<TestBean> rows = new ArrayList<TestBean>();
+            for (int i = offset; i < Math.min(offset + limit, letters.length()); i++) {
+                rows.add(row(String.valueOf(letters.charAt(i))));
+            }
+            return rows;
+        }
+
+        private String getLetters(Object criteria) {
+            return criteria == null ? letters : (String) criteria;
+        }
+
+        public RefreshPolicy getRefreshPolicy() {
+            return RefreshPolicy.NEVER;
+        }
+
+        public boolean supportsFiltering() {
+            return true;
+        }
+
+        public boolean supportsUpdate() {
+            return false;
+        }
+
+        public boolean supportsCreate() {
+            return false;
+        }
+
+        public boolean supportsClone() {
+            return false;
+        }
+
+        public boolean supportsDelete() {
+            return false;
+        }
+    }
+
+    /**
+     * Identifies the rows by their letter.
+     */
+    private static class KeyedLetterDataProvider extends LetterDataProvider implements DeltaDataProvider {
+
+        final AtomicInteger changeRequests = new AtomicInteger();
+
+        KeyedLetterDataProvider(String letters) {
+            super(letters);
+        }
+
+        public Object getChangeToken(Object criteria) {
+            return "token";
+        }
+
+        public DataChangeSet getChangesSince(Object criteria, Object token) {
+            changeRequests.incrementAndGet();
+            return new DataChangeSet(null, null, null, token);
+        }
+
+        public Object getRowKey(Object row) {
+            return ((TestBean) row).getSimpleProperty();
+        }
+    }
+}
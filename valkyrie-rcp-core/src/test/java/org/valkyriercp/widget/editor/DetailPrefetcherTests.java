@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.widget.editor;
+
+import com.google.common.base.Function;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DetailPrefetcherTests {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private CountDownLatch loaded;
+
+    private DetailPrefetcher prefetcher;
+
+    @Before
+    public void setUp() {
+        prefetcher = new DetailPrefetcher(new Function<Object, Object>() {
+            public Object apply(Object row) {
+                loads.incrementAndGet();
+                loaded.countDown();
+                return "detail of " + row;
+            }
+        });
+    }
+
+    @Test
+    public void testPrefetchedDetailReturned() throws Exception {
+        loaded = new CountDownLatch(2);
+        prefetcher.prefetch(Arrays.asList("a", "b"));
+        assertTrue(loaded.await(5, TimeUnit.SECONDS));
+        assertEquals("detail of a", prefetcher.getDetail("a"));
+        assertEquals("detail of b", prefetcher.getDetail("b"));
+        assertNull(prefetcher.getDetail("c"));
+        assertEquals(2, prefetcher.getHitCount());
+        assertEquals(1, prefetcher.getMissCount());
+        assertEquals(2.0 / 3, prefetcher.getHitRate(), 0.0001);
+    }
+
+    @Test
+    public void testRowsIdentifiedByIdentity() throws Exception {
+        loaded = new CountDownLatch(1);
+        String row = new String("a");
+        prefetcher.prefetch(Collections.singletonList(row));
+        assertTrue(loaded.await(5, TimeUnit.SECONDS));
+        assertNull(prefetcher.getDetail(new String("a")));
+        assertEquals("detail of a", prefetcher.getDetail(row));
+    }
+
+    @Test
+    public void testLoadedRowsNotLoadedAgain() throws Exception {
+        loaded = new CountDownLatch(1);
+        prefetcher.prefetch(Collections.singletonList("a"));
+        assertTrue(loaded.await(5, TimeUnit.SECONDS));
+        prefetcher.prefetch(Collections.singletonList("a"));
+        assertEquals("detail of a", prefetcher.getDetail("a"));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        loaded = new CountDownLatch(2);
+        prefetcher.prefetch(Arrays.asList("a", "b"));
+        assertTrue(loaded.await(5, TimeUnit.SECONDS));
+        prefetcher.invalidate("a");
+        assertNull(prefetcher.getDetail("a"));
+        assertEquals("detail of b", prefetcher.getDetail("b"));
+        prefetcher.invalidateAll();
+        assertNull(prefetcher.getDetail("b"));
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.widget.editor.provider;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.swing.RowSorter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AbstractPagedDataProviderTests {
+
+    private final List<List> chunks = new ArrayList<List>();
+
+    private final RowChunkCallback collector = new RowChunkCallback() {
+        public void rowsRetrieved(List rows) {
+            chunks.add(new ArrayList(rows));
+        }
+    };
+
+    private LetterDataProvider provider;
+
+    @Before
+    public void setUp() {
+        provider = new LetterDataProvider();
+        provider.setChunkSize(2);
+    }
+
+    @Test
+    public void testChunksPassedInOrder() {
+        provider.getList("abcde", collector);
+        assertEquals(Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c", "d"), Arrays.asList("e")), chunks);
+        assertEquals(Arrays.asList(0, 2, 4), provider.offsets);
+    }
+
+    @Test
+    public void testCompletesAfterEmptyLastPage() {
+        provider.getList("abcd", collector);
+        assertEquals(Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c", "d")), chunks);
+        assertEquals(Arrays.asList(0, 2, 4), provider.offsets);
+
+        chunks.clear();
+        provider.getList("", collector);
+        assertTrue(chunks.isEmpty());
+    }
+
+    @Test
+    public void testListCollectsChunks() {
+        assertEquals(Arrays.asList("a", "b", "c", "d", "e"), provider.getList("abcde"));
+    }
+
+    @Test
+    public void testMaximumRowsCheckedBeforeFirstChunk() {
+        provider.setMaxRows(4);
+        provider.getList("abcd", collector);
+        assertEquals(2, chunks.size());
+
+        chunks.clear();
+        provider.offsets.clear();
+        try {
+            provider.getList("abcde", collector);
+            fail();
+        }
+        catch (MaximumRowsExceededException e) {
+            assertEquals(4, e.getMaxRows());
+            assertEquals(5, e.getNumberOfRows());
+        }
+        assertTrue(chunks.isEmpty());
+        assertTrue(provider.offsets.isEmpty());
+    }
+
+    @Test
+    public void testPagesNotLimited() {
+        provider.setMaxRows(2);
+        assertEquals(Arrays.asList("c", "d", "e"), provider.getPage("abcde", 2, 3,
+                new ArrayList<RowSorter.SortKey>()));
+    }
+
+    private static class LetterDataProvider extends AbstractPagedDataProvider {
+
+        final List<Integer> offsets = new ArrayList<Integer>();
+
+        public int getRowCount(Object criteria) {
+            return ((String) criteria).length();
+        }
+
+        public List getPage(Object criteria, int offset, int limit, List<? extends RowSorter.SortKey> sort) {
+            offsets.add(offset);
+            List<String> rows = new ArrayList<String>();
+            String letters = (String) criteria;
+            for (int i = offset; i < Math.min(offset + limit, letters.length()); i++) {
+                rows.add(String.valueOf(letters.charAt(i)));
+            }
+            return rows;
+        }
+
+        public boolean supportsFiltering() {
+            return true;
+        }
+
+        public boolean supportsUpdate() {
+            return false;
+        }
+
+        public boolean supportsCreate() {
+            return false;
+        }
+
+        public boolean supportsClone() {
+            return false;
+        }
+
+        public boolean supportsDelete() {
+            return false;
+        }
+    }
+}
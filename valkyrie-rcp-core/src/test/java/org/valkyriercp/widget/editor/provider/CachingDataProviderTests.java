@@ -0,0 +1,386 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.widget.editor.provider;
+
+import com.google.common.base.Functions;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.swing.RowSorter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Observable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CachingDataProviderTests {
+
+    private CountingDataProvider delegate;
+
+    private CachingDataProvider provider;
+
+    @Before
+    public void setUp() {
+        delegate = new CountingDataProvider();
+        provider = new CachingDataProvider(delegate);
+    }
+
+    @Test
+    public void testSameCriteriaServedFromCache() {
+        assertEquals(Arrays.asList("a", "b"), provider.getList("ab"));
+        assertEquals(Arrays.asList("a", "b"), provider.getList("ab"));
+        assertEquals(1, delegate.retrievals);
+        provider.getList("c");
+        assertEquals(2, delegate.retrievals);
+        assertEquals(1, provider.getHitCount());
+        assertEquals(2, provider.getMissCount());
+    }
+
+    @Test
+    public void testReturnedListIsCopy() {
+        provider.getList("ab").clear();
+        assertEquals(Arrays.asList("a", "b"), provider.getList("ab"));
+    }
+
+    @Test
+    public void testExpiry() {
+        final long[] now = {0};
+        provider = new CachingDataProvider(delegate) {
+            protected long currentTimeMillis() {
+                return now[0];
+            }
+        };
+        provider.setTimeToLive(1000);
+        provider.getList("ab");
+        now[0] = 999;
+        provider.getList("ab");
+        assertEquals(1, delegate.retrievals);
+        now[0] = 1000;
+        provider.getList("ab");
+        assertEquals(2, delegate.retrievals);
+    }
+
+    @Test
+    public void testMaxEntries() {
+        provider.setMaxEntries(2);
+        provider.getList("a");
+        provider.getList("b");
+        provider.getList("a");
+        provider.getList("c");
+        provider.getList("a");
+        assertEquals(3, delegate.retrievals);
+        provider.getList("b");
+        assertEquals(4, delegate.retrievals);
+    }
+
+    @Test
+    public void testSetMaxEntriesDropsLeastRecentlyUsed() {
+        provider.getList("a");
+        provider.getList("b");
+        provider.getList("c");
+        provider.getList("a");
+        provider.setMaxEntries(2);
+        provider.getList("c");
+        provider.getList("a");
+        assertEquals(3, delegate.retrievals);
+        provider.getList("b");
+        assertEquals(4, delegate.retrievals);
+    }
+
+    @Test
+    public void testResultRetrievedDuringInvalidationNotCached() {
+        delegate.duringRetrieval = new Runnable() {
+            public void run() {
+                provider.invalidate();
+            }
+        };
+        assertEquals(Arrays.asList("a", "b"), provider.getList("ab"));
+        delegate.duringRetrieval = null;
+        provider.getList("ab");
+        assertEquals(2, delegate.retrievals);
+        provider.getList("ab");
+        assertEquals(2, delegate.retrievals);
+    }
+
+    @Test
+    public void testDeleteWithoutRowKeysInvalidatesAll() {
+        provider.getList("ab");
+        provider.getList("c");
+        provider.delete("a");
+        provider.getList("c");
+        provider.getList("ab");
+        assertEquals(4, delegate.retrievals);
+    }
+
+    @Test
+    public void testDeleteInvalidatesContainingResults() {
+        provider.setRowKeyFunction(Functions.identity());
+        provider.getList("ab");
+        provider.getList("c");
+        provider.delete("a");
+        provider.getList("c");
+        assertEquals(2, delegate.retrievals);
+        provider.getList("ab");
+        assertEquals(3, delegate.retrievals);
+    }
+
+    @Test
+    public void testCreateInvalidatesAllWithoutMatcher() {
+        provider.getList("ab");
+        provider.getList("c");
+        provider.create("d");
+        provider.getList("ab");
+        provider.getList("c");
+        assertEquals(4, delegate.retrievals);
+    }
+
+    @Test
+    public void testCreateInvalidatesMatchingWithMatcher() {
+        provider.setCriteriaMatcher(new CriteriaMatcher() {
+            public boolean matches(Object criteria, Object entity) {
+                return ((String) criteria).contains((String) entity);
+            }
+        });
+        provider.getList("ab");
+        provider.getList("cd");
+        provider.create("d");
+        provider.getList("ab");
+        assertEquals(2, delegate.retrievals);
+        provider.getList("cd");
+        assertEquals(3, delegate.retrievals);
+    }
+
+    @Test
+    public void testEventsPassedOn() {
+        final List<Object> events = new ArrayList<Object>();
+        provider.addDataProviderListener(new DataProviderListener() {
+            public void update(Observable o, Object arg) {
+                events.add(arg);
+            }
+        });
+        provider.update("a");
+        assertEquals(1, events.size());
+        assertEquals(DataProviderEvent.EVENT_TYPE_UPDATE, ((DataProviderEvent) events.get(0)).getEventType());
+    }
+
+    @Test
+    public void testBatchDeleteFiresOneEvent() {
+        final List<Object> events = new ArrayList<Object>();
+        provider.addDataProviderListener(new DataProviderListener() {
+            public void update(Observable o, Object arg) {
+                events.add(arg);
+            }
+        });
+        provider.setRowKeyFunction(Functions.identity());
+        provider.getList("ab");
+        provider.getList("c");
+        provider.getList("d");
+        provider.deleteAll(Arrays.asList("a", "c"));
+        assertEquals(1, events.size());
+        DataProviderEvent event = (DataProviderEvent) events.get(0);
+        assertTrue(event.isBatch());
+        assertEquals(Arrays.asList("a", "c"), event.getOldEntities());
+        provider.getList("d");
+        assertEquals(3, delegate.retrievals);
+        provider.getList("ab");
+        provider.getList("c");
+        assertEquals(5, delegate.retrievals);
+    }
+
+    @Test
+    public void testBatchReportsDoneEntitiesOnFailure() {
+        final List<Object> events = new ArrayList<Object>();
+        provider.addDataProviderListener(new DataProviderListener() {
+            public void update(Observable o, Object arg) {
+                events.add(arg);
+            }
+        });
+        try {
+            provider.updateAll(Arrays.asList("a", "fail", "b"));
+            fail();
+        }
+        catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals(1, events.size());
+        assertEquals(Arrays.asList("a"), ((DataProviderEvent) events.get(0)).getNewEntities());
+    }
+
+    @Test
+    public void testDecorateKeepsPaging() {
+        PagedCountingDataProvider paged = new PagedCountingDataProvider();
+        provider = CachingDataProvider.decorate(paged);
+        assertTrue(provider instanceof PagedDataProvider);
+        assertFalse(provider instanceof DeltaDataProvider);
+        PagedDataProvider pagedProvider = (PagedDataProvider) provider;
+        assertEquals(3, pagedProvider.getRowCount("abc"));
+        final List<Object> chunks = new ArrayList<Object>();
+        RowChunkCallback callback = new RowChunkCallback() {
+            public void rowsRetrieved(List rows) {
+                chunks.add(rows);
+            }
+        };
+        pagedProvider.getList("abc", callback, new CancellationToken());
+        assertEquals(Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c")), chunks);
+        chunks.clear();
+        pagedProvider.getList("abc", callback);
+        assertEquals(Arrays.asList(Arrays.asList("a", "b", "c")), chunks);
+        assertEquals(Arrays.asList("a", "b", "c"), provider.getList("abc"));
+        assertEquals(1, paged.streams);
+    }
+
+    @Test
+    public void testDecoratedDeltaProviderBringsCachedResultUpToDate() {
+        DeltaCountingDataProvider deltaDelegate = new DeltaCountingDataProvider();
+        provider = CachingDataProvider.decorate(deltaDelegate);
+        assertTrue(provider instanceof DeltaDataProvider);
+        assertFalse(provider instanceof PagedDataProvider);
+        assertEquals(Arrays.asList("a", "b"), provider.getList("ab"));
+        deltaDelegate.changes = new DataChangeSet(Arrays.asList("c"), null, Arrays.asList("a"), 1);
+        assertEquals(Arrays.asList("b", "c"), provider.getList("ab"));
+        assertEquals(Arrays.asList(0), deltaDelegate.tokensAsked);
+        deltaDelegate.changes = new DataChangeSet(null, null, null, 1);
+        assertEquals(Arrays.asList("b", "c"), provider.getList("ab"));
+        assertEquals(Arrays.asList(0, 1), deltaDelegate.tokensAsked);
+        deltaDelegate.changes = null;
+        assertEquals(Arrays.asList("a", "b"), provider.getList("ab"));
+        assertEquals(2, deltaDelegate.retrievals);
+        assertEquals(2, provider.getHitCount());
+        assertEquals(2, provider.getMissCount());
+    }
+
+    private static class CountingDataProvider extends AbstractDataProvider {
+
+        int retrievals;
+
+        Runnable duringRetrieval;
+
+        public List getList(Object criteria) {
+            if (duringRetrieval != null) {
+                duringRetrieval.run();
+            }
+            retrievals++;
+            List<String> rows = new ArrayList<String>();
+            for (char c : ((String) criteria).toCharArray()) {
+                rows.add(String.valueOf(c));
+            }
+            return rows;
+        }
+
+        public Object doCreate(Object newData) {
+            return newData;
+        }
+
+        public Object doUpdate(Object updatedData) {
+            if ("fail".equals(updatedData)) {
+                throw new IllegalStateException();
+            }
+            return updatedData;
+        }
+
+        public void doDelete(Object dataToRemove) {
+        }
+
+        public boolean supportsFiltering() {
+            return true;
+        }
+
+        public boolean supportsUpdate() {
+            return true;
+        }
+
+        public boolean supportsCreate() {
+            return true;
+        }
+
+        public boolean supportsClone() {
+            return false;
+        }
+
+        public boolean supportsDelete() {
+            return true;
+        }
+    }
+
+    private static class DeltaCountingDataProvider extends CountingDataProvider implements DeltaDataProvider {
+
+        DataChangeSet changes;
+
+        List<Object> tokensAsked = new ArrayList<Object>();
+
+        public Object getChangeToken(Object criteria) {
+            return 0;
+        }
+
+        public DataChangeSet getChangesSince(Object criteria, Object token) {
+            tokensAsked.add(token);
+            return changes;
+        }
+
+        public Object getRowKey(Object row) {
+            return row;
+        }
+    }
+
+    private static class PagedCountingDataProvider extends AbstractPagedDataProvider {
+
+        int streams;
+
+        PagedCountingDataProvider() {
+            setChunkSize(2);
+        }
+
+        public int getRowCount(Object criteria) {
+            return ((String) criteria).length();
+        }
+
+        public List getPage(Object criteria, int offset, int limit, List<? extends RowSorter.SortKey> sort) {
+            if (offset == 0) {
+                streams++;
+            }
+            String letters = (String) criteria;
+            List<String> rows = new ArrayList<String>();
+            for (int i = offset; i < Math.min(offset + limit, letters.length()); i++) {
+                rows.add(String.valueOf(letters.charAt(i)));
+            }
+            return rows;
+        }
+
+        public boolean supportsFiltering() {
+            return true;
+        }
+
+        public boolean supportsUpdate() {
+            return false;
+        }
+
+        public boolean supportsCreate() {
+            return false;
+        }
+
+        public boolean supportsClone() {
+            return false;
+        }
+
+        public boolean supportsDelete() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.widget.table;
+
+import org.valkyriercp.test.TestBean;
+
+/**
+ * Compares reading a nested table column through {@link NestedAccessor}
+ * with the {@link CompiledAccessor}. Run as a plain Java application.
+ */
+public class ColumnAccessorBenchmark {
+
+    private static final int ROWS = 100000;
+
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) throws Exception {
+        TestBean[] rows = new TestBean[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            rows[i] = new TestBean();
+            rows[i].setNestedProperty(new TestBean());
+            rows[i].getNestedProperty().setSimpleProperty("row" + i);
+        }
+        Accessor reflective = new NestedAccessor(TestBean.class, "nestedProperty", "simpleProperty");
+        Accessor compiled = CompiledAccessor.forProperty(TestBean.class, "nestedProperty.simpleProperty");
+        for (int round = 0; round < ROUNDS; round++) {
+            long reflectiveTime = time(reflective, rows);
+            long compiledTime = time(compiled, rows);
+            System.out.println("round " + round + ": reflective " + reflectiveTime / 1000 + "us, compiled "
+                    + compiledTime / 1000 + "us");
+        }
+    }
+
+    private static long time(Accessor accessor, TestBean[] rows) throws Exception {
+        long start = System.nanoTime();
+        int length = 0;
+        for (int i = 0; i < rows.length; i++) {
+            length += ((String) accessor.getValue(rows[i])).length();
+        }
+        if (length == 0) {
+            throw new IllegalStateException();
+        }
+        return System.nanoTime() - start;
+    }
+}
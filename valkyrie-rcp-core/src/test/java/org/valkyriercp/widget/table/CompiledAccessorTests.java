@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.widget.table;
+
+import org.junit.Test;
+import org.valkyriercp.test.TestBean;
+
+import java.lang.reflect.InvocationTargetException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CompiledAccessorTests {
+
+    @Test
+    public void testSimpleProperty() throws Exception {
+        TestBean bean = new TestBean();
+        bean.setSimpleProperty("value");
+        Accessor accessor = ClassUtils.getAccessorForProperty(TestBean.class, "simpleProperty");
+        assertTrue(accessor instanceof CompiledAccessor);
+        assertEquals("value", accessor.getValue(bean));
+        assertEquals(String.class, accessor.getPropertyType());
+    }
+
+    @Test
+    public void testPrimitivePropertyIsWrapped() throws Exception {
+        TestBean bean = new TestBean();
+        bean.setBooleanProperty(true);
+        Accessor accessor = ClassUtils.getAccessorForProperty(TestBean.class, "booleanProperty");
+        assertEquals(Boolean.TRUE, accessor.getValue(bean));
+        assertEquals(Boolean.class, accessor.getPropertyType());
+    }
+
+    @Test
+    public void testNestedPropertyShortCircuitsNull() throws Exception {
+        TestBean bean = new TestBean();
+        Accessor accessor = ClassUtils.getAccessorForProperty(TestBean.class, "nestedProperty.nestedProperty.simpleProperty");
+        assertNull(accessor.getValue(bean));
+
+        bean.setNestedProperty(new TestBean());
+        assertNull(accessor.getValue(bean));
+
+        bean.getNestedProperty().setNestedProperty(new TestBean());
+        bean.getNestedProperty().getNestedProperty().setSimpleProperty("nested");
+        assertEquals("nested", accessor.getValue(bean));
+        assertEquals(String.class, accessor.getPropertyType());
+    }
+
+    @Test
+    public void testAccessorIsShared() {
+        assertSame(CompiledAccessor.forProperty(TestBean.class, "nestedProperty.simpleProperty"),
+                CompiledAccessor.forProperty(TestBean.class, "nestedProperty.simpleProperty"));
+    }
+
+    @Test
+    public void testRuntimeTypeFallsBackToNestedAccessor() throws Exception {
+        assertNull(CompiledAccessor.forProperty(TestBean.class, "singleSelectListProperty.simpleProperty"));
+
+        TestBean bean = new TestBean();
+        TestBean selected = new TestBean();
+        selected.setSimpleProperty("selected");
+        bean.setSingleSelectListProperty(selected);
+        Accessor accessor = ClassUtils.getAccessorForProperty(TestBean.class, "singleSelectListProperty.simpleProperty");
+        assertTrue(accessor instanceof NestedAccessor);
+        assertEquals("selected", accessor.getValue(bean));
+    }
+
+    @Test
+    public void testGetterExceptionIsWrapped() throws Exception {
+        Accessor accessor = CompiledAccessor.forProperty(Failing.class, "value");
+        try {
+            accessor.getValue(new Failing());
+            fail();
+        }
+        catch (InvocationTargetException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    public static class Failing {
+
+        public Object getValue() {
+            throw new IllegalStateException();
+        }
+    }
+}
@@ -0,0 +1,278 @@
+/**
+ * Copyright (C) 2015 Valkyrie RCP
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.valkyriercp.widget.table.paged;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.valkyriercp.AbstractValkyrieTest;
+import org.valkyriercp.test.TestBean;
+import org.valkyriercp.widget.table.PropertyColumnTableDescription;
+
+import javax.swing.RowSorter;
+import javax.swing.SwingUtilities;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PagedTableWidgetTests extends AbstractValkyrieTest {
+
+    private static final int ROW_COUNT = 100;
+
+    private static final int PAGE_SIZE = 10;
+
+    private final List<Integer> fetchedOffsets = Collections.synchronizedList(new ArrayList<Integer>());
+
+    private final Set<Integer> failingOffsets = Collections.synchronizedSet(new HashSet<Integer>());
+
+    private final AtomicInteger rowCountChanges = new AtomicInteger();
+
+    private PagedTableWidget<TestBean> widget;
+
+    @Before
+    public void setUp() throws Exception {
+        widget = onEdt(new Callable<PagedTableWidget<TestBean>>() {
+            public PagedTableWidget<TestBean> call() {
+                PropertyColumnTableDescription tableDescription = new PropertyColumnTableDescription(TestBean.class);
+                tableDescription.addPropertyColumn("simpleProperty");
+                PagedTableWidget<TestBean> widget = new PagedTableWidget<TestBean>(new TestDataSource(),
+                        tableDescription);
+                widget.setPageSize(PAGE_SIZE);
+                widget.addTableModelListener(new TableModelListener() {
+                    public void tableChanged(TableModelEvent e) {
+                        if (e.getLastRow() == Integer.MAX_VALUE) {
+                            rowCountChanges.incrementAndGet();
+                        }
+                    }
+                });
+                return widget;
+            }
+        });
+    }
+
+    @Test
+    public void testPagesFetchedWhenShown() throws Exception {
+        refreshAndWait();
+        assertTrue(fetchedOffsets.isEmpty());
+
+        loadRow(25);
+        assertEquals(Arrays.asList(20), fetchedOffsets);
+        assertEquals("row 25", widget.getLoadedRow(25).getSimpleProperty());
+        assertFalse(widget.isRowLoaded(35));
+        assertEquals(PAGE_SIZE, widget.getRows().size());
+    }
+
+    @Test
+    public void testEvictedPagesAreForgotten() throws Exception {
+        widget.setMaxPages(1);
+        refreshAndWait();
+        loadRow(3);
+        loadRow(13);
+        assertEquals(-1, (int) onEdt(new Callable<Integer>() {
+            public Integer call() {
+                return widget.selectRowObject(row(3), null);
+            }
+        }));
+        assertEquals(13, (int) onEdt(new Callable<Integer>() {
+            public Integer call() {
+                return widget.selectRowObject(row(13), null);
+            }
+        }));
+    }
+
+    @Test
+    public void testSelectedRowsFetchedWhenNotLoaded() throws Exception {
+        refreshAndWait();
+        loadRow(5);
+        onEdt(new Callable<Object>() {
+            public Object call() {
+                widget.getTable().getSelectionModel().setSelectionInterval(5, 34);
+                return null;
+            }
+        });
+        assertTrue(onEdt(new Callable<Boolean>() {
+            public Boolean call() {
+                return widget.hasSelection();
+            }
+        }));
+        waitFor(new Callable<Boolean>() {
+            public Boolean call() {
+                return widget.getSelectedRows().length == 30;
+            }
+        });
+        Object[] selected = onEdt(new Callable<Object[]>() {
+            public Object[] call() {
+                return widget.getSelectedRows();
+            }
+        });
+        assertEquals("row 5", ((TestBean) selected[0]).getSimpleProperty());
+        assertEquals("row 34", ((TestBean) selected[29]).getSimpleProperty());
+    }
+
+    @Test
+    public void testFailedPagesFetchedAgain() throws Exception {
+        refreshAndWait();
+        failingOffsets.add(20);
+        waitFor(new Callable<Boolean>() {
+            public Boolean call() {
+                widget.getTable().getModel().getValueAt(25, 0);
+                return widget.isRowLoaded(25);
+            }
+        });
+        assertEquals(Arrays.asList(20, 20), fetchedOffsets);
+    }
+
+    @Test
+    public void testSelectedRowsAreCapped() throws Exception {
+        widget.setMaxSelectedRows(15);
+        refreshAndWait();
+        loadRow(5);
+        onEdt(new Callable<Object>() {
+            public Object call() {
+                widget.getTable().getSelectionModel().setSelectionInterval(5, 94);
+                return null;
+            }
+        });
+        waitFor(new Callable<Boolean>() {
+            public Boolean call() {
+                return widget.getSelectedRows().length == 15;
+            }
+        });
+        assertEquals(Arrays.asList(0, 10), fetchedOffsets);
+        assertTrue(widget.getTable().getSelectionModel().isSelectedIndex(94));
+    }
+
+    @Test
+    public void testSelectionRestoredAfterRefresh() throws Exception {
+        refreshAndWait();
+        loadRow(3);
+        onEdt(new Callable<Object>() {
+            public Object call() {
+                widget.selectRowObject(row(3), null);
+                return null;
+            }
+        });
+        refreshAndWait();
+        assertEquals(1, widget.getSelectedRows().length);
+        assertFalse(widget.getTable().getSelectionModel().isSelectedIndex(3));
+
+        loadRow(3);
+        assertTrue(widget.getTable().getSelectionModel().isSelectedIndex(3));
+        assertEquals(1, widget.getSelectedRows().length);
+    }
+
+    @Test
+    public void testSetRowsShowsLocalRows() throws Exception {
+        onEdt(new Callable<Object>() {
+            public Object call() {
+                widget.setRows(Arrays.asList(row(1), row(2), row(3)));
+                widget.selectRowObject(row(2), null);
+                widget.removeRowObject(row(1));
+                return null;
+            }
+        });
+        assertEquals(2, widget.nrOfRows());
+        assertTrue(widget.isRowLoaded(0));
+        assertEquals("row 2", widget.getLoadedRow(0).getSimpleProperty());
+        assertEquals(1, widget.getSelectedRows().length);
+        assertTrue(widget.getTable().getSelectionModel().isSelectedIndex(0));
+        assertEquals("row 3", widget.getTable().getModel().getValueAt(1, 0));
+        assertTrue(fetchedOffsets.isEmpty());
+    }
+
+    private void refreshAndWait() throws Exception {
+        final int changes = onEdt(new Callable<Integer>() {
+            public Integer call() {
+                widget.refresh();
+                return rowCountChanges.get();
+            }
+        });
+        waitFor(new Callable<Boolean>() {
+            public Boolean call() {
+                return rowCountChanges.get() > changes;
+            }
+        });
+        assertEquals(ROW_COUNT, widget.nrOfRows());
+    }
+
+    private void loadRow(final int rowIndex) throws Exception {
+        onEdt(new Callable<Object>() {
+            public Object call() {
+                return widget.getTable().getModel().getValueAt(rowIndex, 0);
+            }
+        });
+        waitFor(new Callable<Boolean>() {
+            public Boolean call() {
+                return widget.isRowLoaded(rowIndex);
+            }
+        });
+    }
+
+    private void waitFor(Callable<Boolean> condition) throws Exception {
+        long timeout = System.currentTimeMillis() + 5000;
+        while (!onEdt(condition)) {
+            assertTrue("timed out", System.currentTimeMillis() < timeout);
+            Thread.sleep(10);
+        }
+    }
+
+    private <V> V onEdt(Callable<V> callable) throws Exception {
+        FutureTask<V> task = new FutureTask<V>(callable);
+        SwingUtilities.invokeAndWait(task);
+        return task.get();
+    }
+
+    private static TestBean row(int index) {
+        TestBean row = new TestBean();
+        row.setSimpleProperty("row " + index);
+        return row;
+    }
+
+    private class TestDataSource implements PagedDataSource<TestBean> {
+
+        public int getRowCount(Object filter) {
+            return ROW_COUNT;
+        }
+
+        public List<TestBean> getRows(Object filter, List<? extends RowSorter.SortKey> sortKeys, int offset,
+                int limit) {
+            fetchedOffsets.add(offset);
+            if (failingOffsets.remove(offset)) {
+                throw new IllegalStateException("rows " + offset + " not available");
+            }
+            List<TestBean> rows = new ArrayList<TestBean>();
+            for (int i = offset; i < Math.min(offset + limit, ROW_COUNT); i++) {
+                rows.add(row(i));
+            }
+            return rows;
+        }
+
+        public Object getRowKey(TestBean row) {
+            return row.getSimpleProperty();
+        }
+    }
+}